@@ -13,6 +13,7 @@
 
 const NativeAnimatedModule = require('NativeModules').NativeAnimatedModule;
 const NativeEventEmitter = require('NativeEventEmitter');
+const Platform = require('Platform');
 
 const invariant = require('fbjs/lib/invariant');
 
@@ -27,6 +28,7 @@ type EventMapping = {
 };
 
 let nativeEventEmitter;
+let nativeLayoutAnimationsEnabled = false;
 
 /**
  * Simple wrappers around NativeAnimatedModule to provide flow and autocmplete support for
@@ -115,6 +117,34 @@ const STYLES_WHITELIST = {
   translateY: true,
 };
 
+/* layout properties, applied to the shadow tree and laid out natively on android */
+const LAYOUT_STYLES_WHITELIST = {
+  width: true,
+  height: true,
+  minWidth: true,
+  maxWidth: true,
+  minHeight: true,
+  maxHeight: true,
+  top: true,
+  left: true,
+  right: true,
+  bottom: true,
+  margin: true,
+  marginVertical: true,
+  marginHorizontal: true,
+  marginTop: true,
+  marginBottom: true,
+  marginLeft: true,
+  marginRight: true,
+  padding: true,
+  paddingVertical: true,
+  paddingHorizontal: true,
+  paddingTop: true,
+  paddingBottom: true,
+  paddingLeft: true,
+  paddingRight: true,
+};
+
 const TRANSFORM_WHITELIST = {
   translateX: true,
   translateY: true,
@@ -137,7 +167,10 @@ function validateTransform(configs: Array<Object>): void {
 
 function validateStyles(styles: Object): void {
   for (var key in styles) {
-    if (!STYLES_WHITELIST.hasOwnProperty(key)) {
+    if (
+      !STYLES_WHITELIST.hasOwnProperty(key) &&
+      !(nativeLayoutAnimationsEnabled && LAYOUT_STYLES_WHITELIST.hasOwnProperty(key))
+    ) {
       throw new Error(`Style property '${key}' is not supported by native animated module`);
     }
   }
@@ -174,6 +207,19 @@ function isNativeAnimatedAvailable(): boolean {
   return !!NativeAnimatedModule;
 }
 
+/**
+ * Allows animations that use the native driver to animate layout styles like width, height,
+ * margins and paddings. Only supported on android, where the new layout is computed natively on
+ * every frame.
+ */
+function enableNativeLayoutAnimations(): void {
+  invariant(
+    Platform.OS === 'android',
+    'Native layout animations are only supported on android'
+  );
+  nativeLayoutAnimationsEnabled = true;
+}
+
 module.exports = {
   API,
   validateStyles,
@@ -183,6 +229,7 @@ module.exports = {
   generateNewAnimationId,
   assertNativeAnimatedModule,
   isNativeAnimatedAvailable,
+  enableNativeLayoutAnimations,
   get nativeEventEmitter() {
     if (!nativeEventEmitter) {
       nativeEventEmitter = new NativeEventEmitter(NativeAnimatedModule);
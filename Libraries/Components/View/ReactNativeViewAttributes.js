@@ -43,6 +43,7 @@ ReactNativeViewAttributes.RCTView = {
   // many subviews that extend outside its bound. The subviews must also have
   // overflow: hidden, as should the containing view (or one of its superviews).
   removeClippedSubviews: true,
+  clippedSubviewsPrefetchMarginAndroid: true,
 };
 
 module.exports = ReactNativeViewAttributes;
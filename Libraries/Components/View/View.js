@@ -442,6 +442,17 @@ const View = React.createClass({
      */
     removeClippedSubviews: PropTypes.bool,
 
+    /**
+     * With `removeClippedSubviews`, attaches subviews once they are within this
+     * distance of the visible area instead of only when they become visible,
+     * a few per frame, so that scrolling doesn't attach many subviews at once.
+     * It also only checks the subviews near the visible area on each scroll
+     * instead of all of them.
+     *
+     * @platform android
+     */
+    clippedSubviewsPrefetchMarginAndroid: PropTypes.number,
+
     /**
      * Whether this `View` should render itself (and all of its children) into a
      * single hardware texture on the GPU.
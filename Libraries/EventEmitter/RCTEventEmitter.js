@@ -19,6 +19,17 @@ const RCTEventEmitter = {
       'RCTEventEmitter',
       eventEmitter
     );
+    // Touches in the compact format and event batches are sent to separate
+    // modules, so that native event emitters don't have to implement
+    // receiveCompactTouches and receiveEventBatch
+    BatchedBridge.registerCallableModule(
+      'RCTCompactTouchEventEmitter',
+      eventEmitter
+    );
+    BatchedBridge.registerCallableModule(
+      'RCTEventBatchEmitter',
+      eventEmitter
+    );
   }
 };
 
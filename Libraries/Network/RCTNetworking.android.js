@@ -32,6 +32,10 @@ function convertHeadersMapToArray(headers: Object): Array<Header> {
   return headerArray;
 }
 
+// Event the native module sends all the events of a frame with, as an array of
+// [eventName, args] entries. Keep in sync with NetworkEventBatcher.java.
+const BATCH_EVENT_NAME = 'didReceiveNetworkEvents';
+
 let _requestId = 1;
 function generateRequestId(): number {
   return _requestId++;
@@ -45,6 +49,11 @@ class RCTNetworking extends NativeEventEmitter {
 
   constructor() {
     super(RCTNetworkingNative);
+    this.addListener(BATCH_EVENT_NAME, (events: Array<[string, Array<any>]>) => {
+      for (let ii = 0; ii < events.length; ii++) {
+        this.emit(events[ii][0], events[ii][1]);
+      }
+    });
   }
 
   sendRequest(
@@ -53,7 +62,7 @@ class RCTNetworking extends NativeEventEmitter {
     url: string,
     headers: Object,
     data: RequestBody,
-    responseType: 'text' | 'base64',
+    responseType: 'text' | 'base64' | 'file',
     incrementalUpdates: boolean,
     timeout: number,
     callback: (requestId: number) => any
@@ -83,6 +92,12 @@ class RCTNetworking extends NativeEventEmitter {
     RCTNetworkingNative.abortRequest(requestId);
   }
 
+  // Deletes the file a 'file' response was written to, given its uri. Files
+  // that aren't removed are deleted when the bridge is torn down.
+  removeResponseFile(uri: string) {
+    RCTNetworkingNative.removeResponseFile(uri);
+  }
+
   clearCookies(callback: (result: boolean) => any) {
     RCTNetworkingNative.clearCookies(callback);
   }
@@ -30,7 +30,7 @@ class RCTNetworking extends NativeEventEmitter {
     url: string,
     headers: Object,
     data: RequestBody,
-    responseType: 'text' | 'base64',
+    responseType: 'text' | 'base64' | 'file',
     incrementalUpdates: boolean,
     timeout: number,
     callback: (requestId: number) => any
@@ -51,6 +51,10 @@ class RCTNetworking extends NativeEventEmitter {
     RCTNetworkingNative.abortRequest(requestId);
   }
 
+  // 'file' responses are only supported on Android, so there is never a file
+  // to remove here.
+  removeResponseFile(uri: string) {}
+
   clearCookies(callback: (result: boolean) => any) {
     RCTNetworkingNative.clearCookies(callback);
   }
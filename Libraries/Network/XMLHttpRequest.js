@@ -12,13 +12,15 @@
 'use strict';
 
 const EventTarget = require('event-target-shim');
+const Platform = require('Platform');
 const RCTNetworking = require('RCTNetworking');
 
 const base64 = require('base64-js');
 const invariant = require('fbjs/lib/invariant');
 const warning = require('fbjs/lib/warning');
 
-type ResponseType = '' | 'arraybuffer' | 'blob' | 'document' | 'json' | 'text';
+type ResponseType =
+  '' | 'arraybuffer' | 'blob' | 'document' | 'file' | 'json' | 'text';
 type Response = ?Object | string;
 
 type XHRInterceptor = {
@@ -58,6 +60,9 @@ const SUPPORTED_RESPONSE_TYPES = {
   arraybuffer: typeof global.ArrayBuffer === 'function',
   blob: typeof global.Blob === 'function',
   document: false,
+  // Non-standard: the response is written to a file, and `response` is its
+  // file:// uri. Remove the file with `removeResponseFile()` once done with it.
+  file: Platform.OS === 'android',
   json: true,
   text: true,
   '': true,
@@ -239,6 +244,10 @@ class XMLHttpRequest extends EventTarget(...XHR_EVENTS) {
         );
         break;
 
+      case 'file':
+        this._cachedResponse = this._response;
+        break;
+
       case 'json':
         try {
           this._cachedResponse = JSON.parse(this._response);
@@ -485,6 +494,8 @@ class XMLHttpRequest extends EventTarget(...XHR_EVENTS) {
     let nativeResponseType = 'text';
     if (this._responseType === 'arraybuffer' || this._responseType === 'blob') {
       nativeResponseType = 'base64';
+    } else if (this._responseType === 'file') {
+      nativeResponseType = 'file';
     }
 
     invariant(this._method, 'Request method needs to be defined.');
@@ -502,6 +513,20 @@ class XMLHttpRequest extends EventTarget(...XHR_EVENTS) {
     );
   }
 
+  /**
+   * Deletes the file the response of a request with the non-standard 'file'
+   * response type was written to.
+   */
+  removeResponseFile(): void {
+    invariant(
+      this._responseType === 'file',
+      'removeResponseFile() is only available if responseType is \'file\'.'
+    );
+    if (this.readyState === this.DONE && !this._hasError && this._response) {
+      RCTNetworking.removeResponseFile(this._response);
+    }
+  }
+
   abort(): void {
     this._aborted = true;
     if (this._requestId) {
@@ -28,6 +28,17 @@ var warning = require('fbjs/lib/warning');
 // Shared default empty native event - conserve memory.
 var EMPTY_NATIVE_EVENT = {};
 
+// Kinds of entries in batches passed to `receiveEventBatch`, keep in sync with
+// BatchingEventEmitter.java.
+var BATCH_ENTRY_EVENT = 0;
+var BATCH_ENTRY_TOUCHES = 1;
+var BATCH_ENTRY_COMPACT_TOUCHES = 2;
+
+// Layout of the data passed to `receiveCompactTouches`, keep in sync with
+// TouchesHelper.java.
+var COMPACT_HEADER_SIZE = 4;
+var COMPACT_FIELDS_PER_POINTER = 5;
+
 /**
  * Selects a subsequence of `Touch`es, without destroying `touches`.
  *
@@ -216,6 +227,68 @@ var ReactNativeEventEmitter = {
       );
     }
   },
+
+  /**
+   * Version of `receiveTouches` that receives the touches and changed indices
+   * in a single flat array of numbers, which is cheaper to create and serialize
+   * than an array of objects:
+   *
+   *   [target, timestamp, touchCount, changedIndexCount, ...changedIndices,
+   *     ...[identifier, pageX, pageY, locationX, locationY] for each touch]
+   */
+  receiveCompactTouches: function(
+    eventTopLevelType: string,
+    touchData: Array<number>
+  ) {
+    var target = touchData[0];
+    var timestamp = touchData[1];
+    var touchCount = touchData[2];
+    var changedIndexCount = touchData[3];
+    var changedIndices = touchData.slice(
+      COMPACT_HEADER_SIZE,
+      COMPACT_HEADER_SIZE + changedIndexCount
+    );
+    var touches = [];
+    var offset = COMPACT_HEADER_SIZE + changedIndexCount;
+    for (var ii = 0; ii < touchCount; ii++) {
+      touches.push({
+        identifier: touchData[offset],
+        pageX: touchData[offset + 1],
+        pageY: touchData[offset + 2],
+        locationX: touchData[offset + 3],
+        locationY: touchData[offset + 4],
+        target: target,
+        timestamp: timestamp,
+      });
+      offset += COMPACT_FIELDS_PER_POINTER;
+    }
+    ReactNativeEventEmitter.receiveTouches(
+      eventTopLevelType,
+      touches,
+      changedIndices
+    );
+  },
+
+  /**
+   * Receives all the events of a native frame in a single call. Each entry is
+   * either `[BATCH_ENTRY_EVENT, tag, topLevelType, nativeEvent]`, handled like
+   * `receiveEvent`, `[BATCH_ENTRY_TOUCHES, topLevelType, touches,
+   * changedIndices]`, handled like `receiveTouches`, or
+   * `[BATCH_ENTRY_COMPACT_TOUCHES, topLevelType, touchData]`, handled like
+   * `receiveCompactTouches`.
+   */
+  receiveEventBatch: function(events: Array<Array<any>>) {
+    for (var ii = 0; ii < events.length; ii++) {
+      var entry = events[ii];
+      if (entry[0] === BATCH_ENTRY_TOUCHES) {
+        ReactNativeEventEmitter.receiveTouches(entry[1], entry[2], entry[3]);
+      } else if (entry[0] === BATCH_ENTRY_COMPACT_TOUCHES) {
+        ReactNativeEventEmitter.receiveCompactTouches(entry[1], entry[2]);
+      } else {
+        ReactNativeEventEmitter.receiveEvent(entry[1], entry[2], entry[3]);
+      }
+    }
+  },
 };
 
 module.exports = ReactNativeEventEmitter;
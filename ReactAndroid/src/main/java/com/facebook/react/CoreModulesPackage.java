@@ -42,6 +42,8 @@ import com.facebook.react.uimanager.UIImplementationProvider;
 import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.ViewManager;
 import com.facebook.react.uimanager.debug.DebugComponentOwnershipModule;
+import com.facebook.react.uimanager.events.RCTCompactTouchEventEmitter;
+import com.facebook.react.uimanager.events.RCTEventBatchEmitter;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.facebook.systrace.Systrace;
 
@@ -185,6 +187,8 @@ import static com.facebook.react.bridge.ReactMarkerConstants.PROCESS_CORE_REACT_
         DeviceEventManagerModule.RCTDeviceEventEmitter.class,
         JSTimersExecution.class,
         RCTEventEmitter.class,
+        RCTCompactTouchEventEmitter.class,
+        RCTEventBatchEmitter.class,
         RCTNativeAppEventEmitter.class,
         AppRegistry.class,
         com.facebook.react.bridge.Systrace.class,
@@ -0,0 +1,256 @@
+// Copyright 2004-present Facebook. All Rights Reserved.
+
+package com.facebook.react;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.react.cxxbridge.ModuleHolder;
+import com.facebook.react.module.model.Info;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.systrace.Systrace;
+
+import static com.facebook.systrace.Systrace.TRACE_TAG_REACT_JAVA_BRIDGE;
+
+/**
+ * Creates the native modules that need eager init on a bounded pool of threads, instead of one at
+ * a time while the packages are processed. A module is only created once all of the modules it
+ * declares as {@link ReactModuleInfo#dependencies()} have been created; dependencies that don't
+ * need eager init are created eagerly as well. Modules that don't need eager init and aren't a
+ * dependency of one that does stay lazy.
+ *
+ * Only construction is scheduled here, {@link NativeModule#initialize()} is still called on the UI
+ * thread once the catalyst instance is initialized.
+ */
+/* package */ class NativeModuleInitScheduler {
+
+  private static final int MAX_THREAD_COUNT = 4;
+  private static final long KEEP_ALIVE_TIME_SECONDS = 1;
+
+  private final Map<Class<? extends NativeModule>, ModuleHolder> mModules;
+  private final Map<ModuleHolder, List<ModuleHolder>> mDependents = new HashMap<>();
+  private final Map<ModuleHolder, Integer> mPendingDependencyCounts = new HashMap<>();
+
+  /* package */ NativeModuleInitScheduler(
+      Map<Class<? extends NativeModule>, ModuleHolder> modules) {
+    mModules = modules;
+  }
+
+  /**
+   * Creates the eager modules and their dependencies, and returns once all of them are created.
+   * Exceptions thrown while creating a module are rethrown on the calling thread.
+   */
+  /* package */ void createEagerModules() {
+    Systrace.beginSection(TRACE_TAG_REACT_JAVA_BRIDGE, "NativeModuleInitScheduler_createEager");
+    try {
+      ArrayDeque<ModuleHolder> readyModules = buildSchedule();
+      int moduleCount = mPendingDependencyCounts.size();
+      int threadCount = Math.min(
+          MAX_THREAD_COUNT,
+          Math.min(moduleCount, Runtime.getRuntime().availableProcessors()));
+      if (threadCount <= 1) {
+        createSerially(readyModules, moduleCount);
+      } else {
+        createInParallel(readyModules, moduleCount, threadCount);
+      }
+    } finally {
+      Systrace.endSection(TRACE_TAG_REACT_JAVA_BRIDGE);
+    }
+  }
+
+  /**
+   * Finds the modules to create and their dependencies among them.
+   *
+   * @return the modules which don't wait for any other module
+   */
+  private ArrayDeque<ModuleHolder> buildSchedule() {
+    ArrayDeque<ModuleHolder> modulesToVisit = new ArrayDeque<>();
+    for (ModuleHolder moduleHolder : mModules.values()) {
+      if (moduleHolder.getInfo().needsEagerInit() && !moduleHolder.hasModule()) {
+        modulesToVisit.add(moduleHolder);
+        mPendingDependencyCounts.put(moduleHolder, 0);
+      }
+    }
+
+    ArrayDeque<ModuleHolder> readyModules = new ArrayDeque<>();
+    while (!modulesToVisit.isEmpty()) {
+      ModuleHolder moduleHolder = modulesToVisit.poll();
+      int pendingDependencyCount = 0;
+      for (ModuleHolder dependency : getDependencies(moduleHolder)) {
+        if (dependency.hasModule()) {
+          continue;
+        }
+        if (!mPendingDependencyCounts.containsKey(dependency)) {
+          mPendingDependencyCounts.put(dependency, 0);
+          modulesToVisit.add(dependency);
+        }
+        List<ModuleHolder> dependents = mDependents.get(dependency);
+        if (dependents == null) {
+          dependents = new ArrayList<>();
+          mDependents.put(dependency, dependents);
+        }
+        dependents.add(moduleHolder);
+        pendingDependencyCount++;
+      }
+
+      mPendingDependencyCounts.put(moduleHolder, pendingDependencyCount);
+      if (pendingDependencyCount == 0) {
+        readyModules.add(moduleHolder);
+      }
+    }
+    return readyModules;
+  }
+
+  private List<ModuleHolder> getDependencies(ModuleHolder moduleHolder) {
+    Info info = moduleHolder.getInfo();
+    if (!(info instanceof ReactModuleInfo)) {
+      return new ArrayList<>();
+    }
+
+    Class<?>[] dependencyTypes = ((ReactModuleInfo) info).dependencies();
+    List<ModuleHolder> dependencies = new ArrayList<>(dependencyTypes.length);
+    for (Class<?> dependencyType : dependencyTypes) {
+      ModuleHolder dependency = mModules.get(dependencyType);
+      if (dependency == null) {
+        FLog.w(
+            ReactConstants.TAG,
+            "Native module " + info.name() + " depends on " + dependencyType.getSimpleName() +
+                ", which isn't registered");
+        continue;
+      }
+      dependencies.add(dependency);
+    }
+    return dependencies;
+  }
+
+  /**
+   * Marks the given module as created.
+   *
+   * @return the modules which became ready to be created because of it
+   */
+  private List<ModuleHolder> onModuleCreated(ModuleHolder moduleHolder) {
+    List<ModuleHolder> readyModules = new ArrayList<>();
+    List<ModuleHolder> dependents = mDependents.get(moduleHolder);
+    if (dependents != null) {
+      for (ModuleHolder dependent : dependents) {
+        int pendingDependencyCount = mPendingDependencyCounts.get(dependent) - 1;
+        mPendingDependencyCounts.put(dependent, pendingDependencyCount);
+        if (pendingDependencyCount == 0) {
+          readyModules.add(dependent);
+        }
+      }
+    }
+    return readyModules;
+  }
+
+  private void createSerially(ArrayDeque<ModuleHolder> readyModules, int moduleCount) {
+    int createdCount = 0;
+    while (!readyModules.isEmpty()) {
+      ModuleHolder moduleHolder = readyModules.poll();
+      moduleHolder.getModule();
+      createdCount++;
+      readyModules.addAll(onModuleCreated(moduleHolder));
+    }
+    assertAllCreated(createdCount, moduleCount);
+  }
+
+  private void createInParallel(
+      ArrayDeque<ModuleHolder> readyModules,
+      int moduleCount,
+      int threadCount) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        threadCount,
+        threadCount,
+        KEEP_ALIVE_TIME_SECONDS,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        new ModuleInitThreadFactory());
+    CompletionService<ModuleHolder> completionService =
+        new ExecutorCompletionService<>(executor);
+    try {
+      int createdCount = 0;
+      int runningCount = 0;
+      while (true) {
+        while (!readyModules.isEmpty()) {
+          final ModuleHolder moduleHolder = readyModules.poll();
+          completionService.submit(new Runnable() {
+            @Override
+            public void run() {
+              moduleHolder.getModule();
+            }
+          }, moduleHolder);
+          runningCount++;
+        }
+        if (runningCount == 0) {
+          break;
+        }
+
+        ModuleHolder createdModule = waitForModule(completionService.take());
+        runningCount--;
+        createdCount++;
+        readyModules.addAll(onModuleCreated(createdModule));
+      }
+      assertAllCreated(createdCount, moduleCount);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while creating native modules", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ModuleHolder waitForModule(Future<ModuleHolder> future)
+      throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+  }
+
+  private void assertAllCreated(int createdCount, int moduleCount) {
+    if (createdCount == moduleCount) {
+      return;
+    }
+
+    StringBuilder names = new StringBuilder();
+    for (Map.Entry<ModuleHolder, Integer> entry : mPendingDependencyCounts.entrySet()) {
+      if (entry.getValue() > 0) {
+        names.append(names.length() == 0 ? "" : ", ").append(entry.getKey().getInfo().name());
+      }
+    }
+    throw new IllegalStateException("Native module dependencies contain a cycle: " + names);
+  }
+
+  private static class ModuleInitThreadFactory implements ThreadFactory {
+    private final AtomicInteger mThreadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "react_module_init_" + mThreadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
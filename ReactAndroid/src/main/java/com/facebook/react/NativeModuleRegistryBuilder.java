@@ -26,6 +26,7 @@ public class NativeModuleRegistryBuilder {
 
   private final ReactApplicationContext mReactApplicationContext;
   private final boolean mLazyNativeModulesEnabled;
+  private final boolean mParallelModuleInitEnabled;
 
   private final Map<Class<? extends NativeModule>, ModuleHolder> mModules = new HashMap<>();
   private final Map<String, Class<? extends NativeModule>> namesToType = new HashMap<>();
@@ -33,8 +34,20 @@ public class NativeModuleRegistryBuilder {
   public NativeModuleRegistryBuilder(
     ReactApplicationContext reactApplicationContext,
     boolean lazyNativeModulesEnabled) {
+    this(reactApplicationContext, lazyNativeModulesEnabled, false);
+  }
+
+  /**
+   * @param parallelModuleInitEnabled whether the lazy native modules that need eager init are
+   * created in parallel when the registry is built, see {@link NativeModuleInitScheduler}
+   */
+  public NativeModuleRegistryBuilder(
+    ReactApplicationContext reactApplicationContext,
+    boolean lazyNativeModulesEnabled,
+    boolean parallelModuleInitEnabled) {
     mReactApplicationContext = reactApplicationContext;
     mLazyNativeModulesEnabled = lazyNativeModulesEnabled;
+    mParallelModuleInitEnabled = parallelModuleInitEnabled;
   }
 
   public void processPackage(ReactPackage reactPackage) {
@@ -62,7 +75,10 @@ public class NativeModuleRegistryBuilder {
           LegacyModuleInfo legacyModuleInfo = new LegacyModuleInfo(type, nativeModule);
           moduleHolder = new ModuleHolder(legacyModuleInfo, nativeModule);
         } else {
-          moduleHolder = new ModuleHolder(reactModuleInfo, moduleSpec.getProvider());
+          moduleHolder = new ModuleHolder(
+            reactModuleInfo,
+            moduleSpec.getProvider(),
+            !mParallelModuleInitEnabled);
         }
 
         String name = moduleHolder.getInfo().name();
@@ -112,6 +128,10 @@ public class NativeModuleRegistryBuilder {
   }
 
   public NativeModuleRegistry build() {
+    if (mParallelModuleInitEnabled) {
+      new NativeModuleInitScheduler(mModules).createEagerModules();
+    }
+
     ArrayList<OnBatchCompleteListener> batchCompleteListenerModules = new ArrayList<>();
     for (Map.Entry<Class<? extends NativeModule>, ModuleHolder> entry : mModules.entrySet()) {
       Class<? extends NativeModule> type = entry.getKey();
@@ -141,6 +141,7 @@ public class ReactInstanceManager {
   private final @Nullable NativeModuleCallExceptionHandler mNativeModuleCallExceptionHandler;
   private final JSCConfig mJSCConfig;
   private final boolean mLazyNativeModulesEnabled;
+  private final boolean mParallelNativeModuleInitEnabled;
   private final boolean mLazyViewManagersEnabled;
 
   private final ReactInstanceDevCommandsHandler mDevInterface =
@@ -308,7 +309,8 @@ public class ReactInstanceManager {
     JSCConfig jscConfig,
     @Nullable RedBoxHandler redBoxHandler,
     boolean lazyNativeModulesEnabled,
-    boolean lazyViewManagersEnabled) {
+    boolean lazyViewManagersEnabled,
+    boolean parallelNativeModuleInitEnabled) {
 
     initializeSoLoaderIfNecessary(applicationContext);
 
@@ -337,6 +339,7 @@ public class ReactInstanceManager {
     mJSCConfig = jscConfig;
     mLazyNativeModulesEnabled = lazyNativeModulesEnabled;
     mLazyViewManagersEnabled = lazyViewManagersEnabled;
+    mParallelNativeModuleInitEnabled = parallelNativeModuleInitEnabled;
   }
 
   public DevSupportManager getDevSupportManager() {
@@ -860,7 +863,8 @@ public class ReactInstanceManager {
     final ReactApplicationContext reactContext = new ReactApplicationContext(mApplicationContext);
     NativeModuleRegistryBuilder nativeModuleRegistryBuilder = new NativeModuleRegistryBuilder(
       reactContext,
-      mLazyNativeModulesEnabled);
+      mLazyNativeModulesEnabled,
+      mParallelNativeModuleInitEnabled);
     JavaScriptModuleRegistry.Builder jsModulesBuilder = new JavaScriptModuleRegistry.Builder();
     if (mUseDeveloperSupport) {
       reactContext.setNativeModuleCallExceptionHandler(mDevSupportManager);
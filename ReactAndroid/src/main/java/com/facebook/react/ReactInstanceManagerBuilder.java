@@ -41,6 +41,7 @@ public class ReactInstanceManagerBuilder {
   protected @Nullable DefaultHardwareBackBtnHandler mDefaultHardwareBackBtnHandler;
   protected @Nullable RedBoxHandler mRedBoxHandler;
   protected boolean mLazyNativeModulesEnabled;
+  protected boolean mParallelNativeModuleInitEnabled;
   protected boolean mLazyViewManagersEnabled;
 
   /* package protected */ ReactInstanceManagerBuilder() {
@@ -181,6 +182,17 @@ public class ReactInstanceManagerBuilder {
     return this;
   }
 
+  /**
+   * Create the lazy native modules that need eager init in parallel, on a small pool of
+   * background threads, instead of one at a time. Has no effect unless lazy native modules are
+   * enabled.
+   */
+  public ReactInstanceManagerBuilder setParallelNativeModuleInitEnabled(
+      boolean parallelNativeModuleInitEnabled) {
+    mParallelNativeModuleInitEnabled = parallelNativeModuleInitEnabled;
+    return this;
+  }
+
   public ReactInstanceManagerBuilder setLazyViewManagersEnabled(boolean lazyViewManagersEnabled) {
     mLazyViewManagersEnabled = lazyViewManagersEnabled;
     return this;
@@ -230,6 +242,7 @@ public class ReactInstanceManagerBuilder {
       mJSCConfig,
       mRedBoxHandler,
       mLazyNativeModulesEnabled,
-      mLazyViewManagersEnabled);
+      mLazyViewManagersEnabled,
+      mParallelNativeModuleInitEnabled);
   }
 }
@@ -14,17 +14,48 @@ import com.facebook.react.bridge.Callback;
 /**
  * Base class for different types of animation drivers. Can be used to implement simple time-based
  * animations as well as spring based animations.
+ *
+ * Drivers for custom types of animations, like bezier curves or keyframe tables, can be provided
+ * with an {@link AnimationDriverFactory}. They update the animated value with
+ * {@link #setAnimatedValue} and call {@link #finish} once done.
+ *
+ * Frame times are not a fixed interval apart: frames may be dropped, and displays may refresh at
+ * more than 60Hz, see {@link #getFrameIntervalNanos}. Drivers should compute the value from the
+ * time elapsed since the animation started rather than from the number of frames.
  */
-/*package*/ abstract class AnimationDriver {
+public abstract class AnimationDriver {
 
   /*package*/ boolean mHasFinished = false;
   /*package*/ ValueAnimatedNode mAnimatedValue;
   /*package*/ Callback mEndCallback;
   /*package*/ int mId;
+  /*package*/ long mFrameIntervalNanos = NativeAnimatedNodesManager.DEFAULT_FRAME_INTERVAL_NANOS;
 
   /**
    * This method gets called in the main animation loop with a frame time passed down from the
    * android choreographer callback.
    */
   public abstract void runAnimationStep(long frameTimeNanos);
+
+  protected final double getAnimatedValue() {
+    return mAnimatedValue.mValue;
+  }
+
+  protected final void setAnimatedValue(double value) {
+    mAnimatedValue.mValue = value;
+  }
+
+  /**
+   * Ends the animation after the current frame, calling the end callback with {finished: true}.
+   */
+  protected final void finish() {
+    mHasFinished = true;
+  }
+
+  /**
+   * @return interval between the frames of the display, in nanoseconds
+   */
+  protected final long getFrameIntervalNanos() {
+    return mFrameIntervalNanos;
+  }
 }
@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.animated;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Interface used to create the {@link AnimationDriver}s for a custom type of animation, see
+ * {@link NativeAnimatedModule#registerAnimationDriverFactory}.
+ */
+public interface AnimationDriverFactory {
+  /**
+   * @param config the config of the animation passed to {@code startAnimatingNode} from JS
+   */
+  AnimationDriver createAnimationDriver(ReadableMap config);
+}
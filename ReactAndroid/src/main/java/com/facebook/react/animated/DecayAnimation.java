@@ -14,15 +14,21 @@ import com.facebook.react.bridge.ReadableMap;
 /**
  * Implementation of {@link AnimationDriver} providing support for decay animations. The
  * implementation is copied from the JS version in {@code AnimatedImplementation.js}.
+ *
+ * The value is computed from the time elapsed since the start, so it doesn't depend on the frame
+ * rate. The animation ends once the value changes by less than {@link #REST_DELTA} over a 60FPS
+ * frame, like the JS version, whatever the actual frame rate is.
  */
 public class DecayAnimation extends AnimationDriver {
 
+  private static final double REST_DELTA = 0.1;
+  private static final double REFERENCE_FRAME_TIME_MILLIS = 1000d / 60d;
+
   private final double mVelocity;
   private final double mDeceleration;
 
-  private long mStartFrameTimeMillis = -1;
+  private long mStartFrameTimeNanos = -1;
   private double mFromValue;
-  private double mLastValue;
 
   public DecayAnimation(ReadableMap config) {
     mVelocity = config.getDouble("velocity");
@@ -31,24 +37,27 @@ public class DecayAnimation extends AnimationDriver {
 
   @Override
   public void runAnimationStep(long frameTimeNanos) {
-    long frameTimeMillis = frameTimeNanos / 1000000;
-    if (mStartFrameTimeMillis == -1) {
+    if (mStartFrameTimeNanos == -1) {
       // since this is the first animation step, consider the start to be on the previous frame
-      mStartFrameTimeMillis = frameTimeMillis - 16;
+      mStartFrameTimeNanos = frameTimeNanos - mFrameIntervalNanos;
       mFromValue = mAnimatedValue.mValue;
-      mLastValue = mAnimatedValue.mValue;
     }
 
-    final double value = mFromValue +
-      (mVelocity / (1 - mDeceleration)) *
-        (1 - Math.exp(-(1 - mDeceleration) * (frameTimeMillis - mStartFrameTimeMillis)));
+    double timeFromStartMillis = (frameTimeNanos - mStartFrameTimeNanos) / 1000000d;
+    final double value = getValueAt(timeFromStartMillis);
 
-    if (Math.abs(mLastValue - value) < 0.1) {
+    if (Math.abs(value - getValueAt(timeFromStartMillis - REFERENCE_FRAME_TIME_MILLIS)) <
+        REST_DELTA) {
       mHasFinished = true;
       return;
     }
 
-    mLastValue = value;
     mAnimatedValue.mValue = value;
   }
+
+  private double getValueAt(double timeFromStartMillis) {
+    return mFromValue +
+      (mVelocity / (1 - mDeceleration)) *
+        (1 - Math.exp(-(1 - mDeceleration) * timeFromStartMillis));
+  }
 }
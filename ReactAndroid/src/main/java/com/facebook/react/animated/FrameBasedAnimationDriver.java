@@ -16,11 +16,18 @@ import com.facebook.react.bridge.ReadableMap;
  * Implementation of {@link AnimationDriver} which provides a support for simple time-based
  * animations that are pre-calculate on the JS side. For each animation frame JS provides a value
  * from 0 to 1 that indicates a progress of the animation at that frame.
+ *
+ * The frames are computed at 60FPS. On displays refreshing faster than that the progress is
+ * interpolated between the two frames around the current time, so that the animation doesn't run
+ * at 60FPS or slower than it should.
  */
 class FrameBasedAnimationDriver extends AnimationDriver {
 
   // 60FPS
-  private static final double FRAME_TIME_MILLIS = 1000d / 60d;
+  private static final double FRAME_TIME_NANOS = 1000000000d / 60d;
+  // Frame times this close to the time of a computed frame, as a fraction of the frame time, show
+  // that frame as is, since the frame times of a 60Hz display jitter slightly
+  private static final double FRAME_SNAP_TOLERANCE = 0.05;
 
   private long mStartFrameTimeNanos = -1;
   private final double[] mFrames;
@@ -43,9 +50,13 @@ class FrameBasedAnimationDriver extends AnimationDriver {
       mStartFrameTimeNanos = frameTimeNanos;
       mFromValue = mAnimatedValue.mValue;
     }
-    long timeFromStartMillis = (frameTimeNanos - mStartFrameTimeNanos) / 1000000;
-    int frameIndex = (int) (timeFromStartMillis / FRAME_TIME_MILLIS);
-    if (frameIndex < 0) {
+    double framePosition = (frameTimeNanos - mStartFrameTimeNanos) / FRAME_TIME_NANOS;
+    double nearestFrame = Math.rint(framePosition);
+    if (Math.abs(framePosition - nearestFrame) <= FRAME_SNAP_TOLERANCE) {
+      framePosition = nearestFrame;
+    }
+    int frameIndex = (int) framePosition;
+    if (framePosition < 0) {
       throw new IllegalStateException("Calculated frame index should never be lower than 0");
     } else if (mHasFinished) {
       // nothing to do here
@@ -57,7 +68,10 @@ class FrameBasedAnimationDriver extends AnimationDriver {
       mHasFinished = true;
       nextValue = mToValue;
     } else {
-      nextValue = mFromValue + mFrames[frameIndex] * (mToValue - mFromValue);
+      double fraction = framePosition - frameIndex;
+      double progress =
+        mFrames[frameIndex] + fraction * (mFrames[frameIndex + 1] - mFrames[frameIndex]);
+      nextValue = mFromValue + progress * (mToValue - mFromValue);
     }
     mAnimatedValue.mValue = nextValue;
   }
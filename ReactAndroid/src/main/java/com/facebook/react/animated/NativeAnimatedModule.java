@@ -11,6 +11,10 @@ package com.facebook.react.animated;
 
 import javax.annotation.Nullable;
 
+import android.content.Context;
+import android.view.Display;
+import android.view.WindowManager;
+
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
@@ -28,6 +32,9 @@ import com.facebook.react.uimanager.ReactChoreographer;
 import com.facebook.react.uimanager.UIManagerModule;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Module that exposes interface for creating and managing animated nodes on the "native" side.
@@ -83,6 +90,8 @@ public class NativeAnimatedModule extends ReactContextBaseJavaModule implements
   private @Nullable ReactChoreographer mReactChoreographer;
   private ArrayList<UIThreadOperation> mOperations = new ArrayList<>();
   private volatile @Nullable ArrayList<UIThreadOperation> mReadyOperations = null;
+  private final Map<String, AnimationDriverFactory> mAnimationDriverFactories =
+    Collections.synchronizedMap(new HashMap<String, AnimationDriverFactory>());
 
   public NativeAnimatedModule(ReactApplicationContext reactContext) {
     super(reactContext);
@@ -96,7 +105,16 @@ public class NativeAnimatedModule extends ReactContextBaseJavaModule implements
     ReactApplicationContext reactCtx = getReactApplicationContext();
     UIManagerModule uiManager = reactCtx.getNativeModule(UIManagerModule.class);
 
-    final NativeAnimatedNodesManager nodesManager = new NativeAnimatedNodesManager(uiManager);
+    final NativeAnimatedNodesManager nodesManager =
+      new NativeAnimatedNodesManager(uiManager, mAnimationDriverFactories);
+    // Animation drivers compute values from the frame time, but may need the actual frame interval
+    // on displays that don't refresh at 60Hz
+    WindowManager windowManager =
+      (WindowManager) reactCtx.getSystemService(Context.WINDOW_SERVICE);
+    Display display = Assertions.assertNotNull(windowManager).getDefaultDisplay();
+    if (display.getRefreshRate() > 0) {
+      nodesManager.setFrameIntervalNanos((long) (1000000000L / display.getRefreshRate()));
+    }
     mAnimatedFrameCallback = new GuardedChoreographerFrameCallback(reactCtx) {
       @Override
       protected void doFrameGuarded(final long frameTimeNanos) {
@@ -129,6 +147,17 @@ public class NativeAnimatedModule extends ReactContextBaseJavaModule implements
     reactCtx.addLifecycleEventListener(this);
   }
 
+  /**
+   * Registers the factory of the drivers for animations of the given type, so that they can be
+   * started from JS with a config of that type and run natively. Can be used to add types of
+   * animations, or to replace the built-in "frames", "spring" and "decay" ones.
+   *
+   * Can be called from any thread.
+   */
+  public void registerAnimationDriverFactory(String type, AnimationDriverFactory factory) {
+    mAnimationDriverFactories.put(type, factory);
+  }
+
   @Override
   public void onBatchComplete() {
     // Note: The order of executing onBatchComplete handler (especially in terms of onBatchComplete
@@ -21,6 +21,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.uimanager.IllegalViewOperationException;
 import com.facebook.react.uimanager.UIImplementation;
 import com.facebook.react.uimanager.UIManagerModule;
@@ -29,6 +30,7 @@ import com.facebook.react.uimanager.events.EventDispatcherListener;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,15 +53,40 @@ import javax.annotation.Nullable;
  */
 /*package*/ class NativeAnimatedNodesManager implements EventDispatcherListener {
 
+  /*package*/ static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60L;
+  private static final int INITIAL_SCHEDULE_CAPACITY = 16;
+
   private final SparseArray<AnimatedNode> mAnimatedNodes = new SparseArray<>();
   private final SparseArray<AnimationDriver> mActiveAnimations = new SparseArray<>();
   private final SparseArray<AnimatedNode> mUpdatedNodes = new SparseArray<>();
   private final Map<String, EventAnimationDriver> mEventDrivers = new HashMap<>();
   private final Map<String, Map<String, String>> mCustomEventTypes;
+  private final Map<String, AnimationDriverFactory> mAnimationDriverFactories;
   private final UIImplementation mUIImplementation;
+  // Reused by every compilation of the schedule, so that it doesn't allocate
+  private final Queue<AnimatedNode> mNodesQueue = new ArrayDeque<>();
   private int mAnimatedGraphBFSColor = 0;
+  // Evaluation schedule: active nodes in topological order, for the given roots
+  private AnimatedNode[] mScheduleRoots = new AnimatedNode[INITIAL_SCHEDULE_CAPACITY];
+  private int mScheduleRootCount = 0;
+  private AnimatedNode[] mSchedule = new AnimatedNode[INITIAL_SCHEDULE_CAPACITY];
+  private int mScheduleSize = 0;
+  private boolean mIsScheduleValid = false;
+  private boolean mIsScheduleCacheEnabled = true;
+  private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
 
   public NativeAnimatedNodesManager(UIManagerModule uiManager) {
+    this(uiManager, new HashMap<String, AnimationDriverFactory>());
+  }
+
+  /**
+   * @param animationDriverFactories factories of the drivers for custom types of animations, by
+   * type. Can be updated while animations run, in which case it must be synchronized.
+   */
+  public NativeAnimatedNodesManager(
+      UIManagerModule uiManager,
+      Map<String, AnimationDriverFactory> animationDriverFactories) {
+    mAnimationDriverFactories = animationDriverFactories;
     mUIImplementation = uiManager.getUIImplementation();
     uiManager.getEventDispatcher().addListener(this);
     Object customEventTypes = Assertions.assertNotNull(uiManager.getConstants()).get("customDirectEventTypes");
@@ -70,6 +97,14 @@ import javax.annotation.Nullable;
     return mAnimatedNodes.get(id);
   }
 
+  /**
+   * Sets the interval between the frames of the display, which is passed to the animation drivers.
+   * Defaults to the one of a 60Hz display.
+   */
+  public void setFrameIntervalNanos(long frameIntervalNanos) {
+    mFrameIntervalNanos = frameIntervalNanos;
+  }
+
   public boolean hasActiveAnimations() {
     return mActiveAnimations.size() > 0 || mUpdatedNodes.size() > 0;
   }
@@ -107,11 +142,13 @@ import javax.annotation.Nullable;
     node.mTag = tag;
     mAnimatedNodes.put(tag, node);
     mUpdatedNodes.put(tag, node);
+    invalidateSchedule();
   }
 
   public void dropAnimatedNode(int tag) {
     mAnimatedNodes.remove(tag);
     mUpdatedNodes.remove(tag);
+    invalidateSchedule();
   }
 
   public void startListeningToAnimatedNodeValue(int tag, AnimatedNodeValueListener listener) {
@@ -185,8 +222,11 @@ import javax.annotation.Nullable;
         ValueAnimatedNode.class.getName());
     }
     String type = animationConfig.getString("type");
+    @Nullable AnimationDriverFactory animationDriverFactory = mAnimationDriverFactories.get(type);
     final AnimationDriver animation;
-    if ("frames".equals(type)) {
+    if (animationDriverFactory != null) {
+      animation = animationDriverFactory.createAnimationDriver(animationConfig);
+    } else if ("frames".equals(type)) {
       animation = new FrameBasedAnimationDriver(animationConfig);
     } else if ("spring".equals(type)) {
       animation = new SpringAnimation(animationConfig);
@@ -198,6 +238,7 @@ import javax.annotation.Nullable;
     animation.mId = animationId;
     animation.mEndCallback = endCallback;
     animation.mAnimatedValue = (ValueAnimatedNode) node;
+    animation.mFrameIntervalNanos = mFrameIntervalNanos;
     mActiveAnimations.put(animationId, animation);
   }
 
@@ -236,6 +277,7 @@ import javax.annotation.Nullable;
     }
     parentNode.addChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    invalidateSchedule();
   }
 
   public void disconnectAnimatedNodes(int parentNodeTag, int childNodeTag) {
@@ -251,6 +293,7 @@ import javax.annotation.Nullable;
     }
     parentNode.removeChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    invalidateSchedule();
   }
 
   public void connectAnimatedNodeToView(int animatedNodeTag, int viewTag) {
@@ -340,28 +383,119 @@ import javax.annotation.Nullable;
   }
 
   /**
-   * Animation loop performs two BFSes over the graph of animated nodes. We use incremented
-   * {@code mAnimatedGraphBFSColor} to mark nodes as visited in each of the BFSes which saves
-   * additional loops for clearing "visited" states.
+   * Animation loop updates the nodes reachable from the nodes that are in {@code mUpdatedNodes}
+   * (that is, their value have been modified from JS in the last batch of JS operations) or
+   * directly attached to an active animation (hence linked to objects from
+   * {@code mActiveAnimations}). Nodes are updated in topological order, following the evaluation
+   * schedule compiled by {@link #compileSchedule}.
    *
-   * First BFS starts with nodes that are in {@code mUpdatedNodes} (that is, their value have been
-   * modified from JS in the last batch of JS operations) or directly attached to an active
-   * animation (hence linked to objects from {@code mActiveAnimations}). In that step we calculate
-   * an attribute {@code mActiveIncomingNodes}. The second BFS runs in topological order over the
-   * sub-graph of *active* nodes. This is done by adding node to the BFS queue only if all its
-   * "predecessors" have already been visited.
+   * The schedule only depends on the graph and on the nodes the traversal starts from, which most
+   * of the time stay the same from one frame to the next, for instance for as long as the same
+   * animations are running. It is thus kept until the graph changes or the traversal starts from
+   * other nodes, so that most frames are a linear sweep over the scheduled nodes.
    */
   public void runUpdates(long frameTimeNanos) {
     UiThreadUtil.assertOnUiThread();
+    boolean hasFinishedAnimations = false;
+
+    for (int i = 0; i < mActiveAnimations.size(); i++) {
+      AnimationDriver animation = mActiveAnimations.valueAt(i);
+      animation.runAnimationStep(frameTimeNanos);
+      if (animation.mHasFinished) {
+        hasFinishedAnimations = true;
+      }
+    }
+
+    if (mUpdatedNodes.size() > 0 || mActiveAnimations.size() > 0) {
+      if (!mIsScheduleCacheEnabled || !isScheduleCompiledForCurrentRoots()) {
+        compileSchedule();
+      }
+      runSchedule();
+    }
+
+    // Clean mUpdatedNodes queue
+    mUpdatedNodes.clear();
+
+    // Cleanup finished animations. Iterate over the array of animations and override ones that has
+    // finished, then resize `mActiveAnimations`.
+    if (hasFinishedAnimations) {
+      for (int i = mActiveAnimations.size() - 1; i >= 0; i--) {
+        AnimationDriver animation = mActiveAnimations.valueAt(i);
+        if (animation.mHasFinished) {
+          WritableMap endCallbackResponse = Arguments.createMap();
+          endCallbackResponse.putBoolean("finished", true);
+          animation.mEndCallback.invoke(endCallbackResponse);
+          mActiveAnimations.removeAt(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Lets tests and benchmarks compile the evaluation schedule on every frame, as if it wasn't
+   * cached.
+   */
+  @VisibleForTesting
+  /*package*/ void setScheduleCacheEnabled(boolean scheduleCacheEnabled) {
+    mIsScheduleCacheEnabled = scheduleCacheEnabled;
+  }
+
+  /**
+   * Called whenever the graph changes, which the compiled schedule can't follow.
+   */
+  private void invalidateSchedule() {
+    mIsScheduleValid = false;
+  }
+
+  /**
+   * Roots are the nodes the traversal starts from: nodes from {@code mUpdatedNodes} followed by
+   * the nodes of {@code mActiveAnimations}, in the order in which they are kept. They are compared
+   * to the roots of the compiled schedule in that order, which doesn't allocate.
+   */
+  private boolean isScheduleCompiledForCurrentRoots() {
+    if (!mIsScheduleValid) {
+      return false;
+    }
+    int rootCount = 0;
+    for (int i = 0; i < mUpdatedNodes.size(); i++) {
+      if (rootCount == mScheduleRootCount ||
+          mScheduleRoots[rootCount] != mUpdatedNodes.valueAt(i)) {
+        return false;
+      }
+      rootCount++;
+    }
+    for (int i = 0; i < mActiveAnimations.size(); i++) {
+      if (rootCount == mScheduleRootCount ||
+          mScheduleRoots[rootCount] != mActiveAnimations.valueAt(i).mAnimatedValue) {
+        return false;
+      }
+      rootCount++;
+    }
+    return rootCount == mScheduleRootCount;
+  }
+
+  /**
+   * Compiling the schedule performs two BFSes over the graph of animated nodes. We use incremented
+   * {@code mAnimatedGraphBFSColor} to mark nodes as visited in each of the BFSes which saves
+   * additional loops for clearing "visited" states.
+   *
+   * First BFS starts with the roots, and calculates an attribute {@code mActiveIncomingNodes}. The
+   * second BFS runs in topological order over the sub-graph of *active* nodes. This is done by
+   * adding node to the BFS queue only if all its "predecessors" have already been visited. The
+   * nodes are added to the schedule in the order in which the second BFS visits them.
+   */
+  private void compileSchedule() {
     int activeNodesCount = 0;
     int updatedNodesCount = 0;
-    boolean hasFinishedAnimations = false;
+    mScheduleRootCount = 0;
+    mScheduleSize = 0;
+    mIsScheduleValid = false;
 
     // STEP 1.
     // BFS over graph of nodes starting from ones from `mUpdatedNodes` and ones that are attached to
     // active animations (from `mActiveAnimations)`. Update `mIncomingNodes` attribute for each node
-    // during that BFS. Store number of visited nodes in `activeNodesCount`. We "execute" active
-    // animations as a part of this step.
+    // during that BFS. Store number of visited nodes in `activeNodesCount`. Roots are recorded as
+    // part of this step.
 
     mAnimatedGraphBFSColor++; /* use new color */
     if (mAnimatedGraphBFSColor == AnimatedNode.INITIAL_BFS_COLOR) {
@@ -370,9 +504,12 @@ import javax.annotation.Nullable;
       mAnimatedGraphBFSColor++;
     }
 
-    Queue<AnimatedNode> nodesQueue = new ArrayDeque<>();
+    Queue<AnimatedNode> nodesQueue = mNodesQueue;
+    // Left over if the previous compilation has thrown
+    nodesQueue.clear();
     for (int i = 0; i < mUpdatedNodes.size(); i++) {
       AnimatedNode node = mUpdatedNodes.valueAt(i);
+      addScheduleRoot(node);
       if (node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         activeNodesCount++;
@@ -381,17 +518,13 @@ import javax.annotation.Nullable;
     }
 
     for (int i = 0; i < mActiveAnimations.size(); i++) {
-      AnimationDriver animation = mActiveAnimations.valueAt(i);
-      animation.runAnimationStep(frameTimeNanos);
-      AnimatedNode valueNode = animation.mAnimatedValue;
+      AnimatedNode valueNode = mActiveAnimations.valueAt(i).mAnimatedValue;
+      addScheduleRoot(valueNode);
       if (valueNode.mBFSColor != mAnimatedGraphBFSColor) {
         valueNode.mBFSColor = mAnimatedGraphBFSColor;
         activeNodesCount++;
         nodesQueue.add(valueNode);
       }
-      if (animation.mHasFinished) {
-        hasFinishedAnimations = true;
-      }
     }
 
     while (!nodesQueue.isEmpty()) {
@@ -425,46 +558,19 @@ import javax.annotation.Nullable;
 
     // find nodes with zero "incoming nodes", those can be either nodes from `mUpdatedNodes` or
     // ones connected to active animations
-    for (int i = 0; i < mUpdatedNodes.size(); i++) {
-      AnimatedNode node = mUpdatedNodes.valueAt(i);
+    for (int i = 0; i < mScheduleRootCount; i++) {
+      AnimatedNode node = mScheduleRoots[i];
       if (node.mActiveIncomingNodes == 0 && node.mBFSColor != mAnimatedGraphBFSColor) {
         node.mBFSColor = mAnimatedGraphBFSColor;
         updatedNodesCount++;
         nodesQueue.add(node);
       }
     }
-    for (int i = 0; i < mActiveAnimations.size(); i++) {
-      AnimationDriver animation = mActiveAnimations.valueAt(i);
-      AnimatedNode valueNode = animation.mAnimatedValue;
-      if (valueNode.mActiveIncomingNodes == 0 && valueNode.mBFSColor != mAnimatedGraphBFSColor) {
-        valueNode.mBFSColor = mAnimatedGraphBFSColor;
-        updatedNodesCount++;
-        nodesQueue.add(valueNode);
-      }
-    }
 
-    // Run main "update" loop
+    // Schedule the nodes in the order in which the main "update" loop should visit them
     while (!nodesQueue.isEmpty()) {
       AnimatedNode nextNode = nodesQueue.poll();
-      nextNode.update();
-      if (nextNode instanceof PropsAnimatedNode) {
-        // Send property updates to native view manager
-        try {
-          ((PropsAnimatedNode) nextNode).updateView(mUIImplementation);
-        } catch (IllegalViewOperationException e) {
-            // An exception is thrown if the view hasn't been created yet. This can happen because views are
-            // created in batches. If this particular view didn't make it into a batch yet, the view won't
-            // exist and an exception will be thrown when attempting to start an animation on it.
-            //
-            // Eat the exception rather than crashing. The impact is that we may drop one or more frames of the
-            // animation.
-            FLog.e(ReactConstants.TAG, "Native animation workaround, frame lost as result of race condition", e);
-          }
-      }
-      if (nextNode instanceof ValueAnimatedNode) {
-        // Potentially send events to JS when the node's value is updated
-        ((ValueAnimatedNode) nextNode).onValueUpdate();
-      }
+      addScheduledNode(nextNode);
       if (nextNode.mChildren != null) {
         for (int i = 0; i < nextNode.mChildren.size(); i++) {
           AnimatedNode child = nextNode.mChildren.get(i);
@@ -487,20 +593,47 @@ import javax.annotation.Nullable;
         + activeNodesCount + " but toposort visited only " + updatedNodesCount);
     }
 
-    // Clean mUpdatedNodes queue
-    mUpdatedNodes.clear();
+    mIsScheduleValid = true;
+  }
 
-    // Cleanup finished animations. Iterate over the array of animations and override ones that has
-    // finished, then resize `mActiveAnimations`.
-    if (hasFinishedAnimations) {
-      for (int i = mActiveAnimations.size() - 1; i >= 0; i--) {
-        AnimationDriver animation = mActiveAnimations.valueAt(i);
-        if (animation.mHasFinished) {
-          WritableMap endCallbackResponse = Arguments.createMap();
-          endCallbackResponse.putBoolean("finished", true);
-          animation.mEndCallback.invoke(endCallbackResponse);
-          mActiveAnimations.removeAt(i);
-        }
+  private void addScheduleRoot(AnimatedNode node) {
+    if (mScheduleRootCount == mScheduleRoots.length) {
+      mScheduleRoots = Arrays.copyOf(mScheduleRoots, mScheduleRootCount * 2);
+    }
+    mScheduleRoots[mScheduleRootCount++] = node;
+  }
+
+  private void addScheduledNode(AnimatedNode node) {
+    if (mScheduleSize == mSchedule.length) {
+      mSchedule = Arrays.copyOf(mSchedule, mScheduleSize * 2);
+    }
+    mSchedule[mScheduleSize++] = node;
+  }
+
+  /**
+   * Run main "update" loop over the compiled schedule
+   */
+  private void runSchedule() {
+    for (int scheduleIdx = 0; scheduleIdx < mScheduleSize; scheduleIdx++) {
+      AnimatedNode nextNode = mSchedule[scheduleIdx];
+      nextNode.update();
+      if (nextNode instanceof PropsAnimatedNode) {
+        // Send property updates to native view manager
+        try {
+          ((PropsAnimatedNode) nextNode).updateView(mUIImplementation);
+        } catch (IllegalViewOperationException e) {
+            // An exception is thrown if the view hasn't been created yet. This can happen because views are
+            // created in batches. If this particular view didn't make it into a batch yet, the view won't
+            // exist and an exception will be thrown when attempting to start an animation on it.
+            //
+            // Eat the exception rather than crashing. The impact is that we may drop one or more frames of the
+            // animation.
+            FLog.e(ReactConstants.TAG, "Native animation workaround, frame lost as result of race condition", e);
+          }
+      }
+      if (nextNode instanceof ValueAnimatedNode) {
+        // Potentially send events to JS when the node's value is updated
+        ((ValueAnimatedNode) nextNode).onValueUpdate();
       }
     }
   }
@@ -12,11 +12,12 @@ package com.facebook.react.animated;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.uimanager.AnimatedViewProps;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
 import com.facebook.react.uimanager.UIImplementation;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -24,22 +25,39 @@ import javax.annotation.Nullable;
  * Animated node that represents view properties. There is a special handling logic implemented for
  * the nodes of this type in {@link NativeAnimatedNodesManager} that is responsible for extracting
  * a map of updated properties, which can be then passed down to the view.
+ *
+ * The properties are collected into the same {@link AnimatedViewProps} on every frame, so that
+ * updating the view doesn't allocate. Only when some of the properties aren't supported by
+ * {@link AnimatedViewProps} are they collected into a new map instead.
+ *
+ * Layout properties can't be applied to the view directly, they are applied to its shadow view
+ * instead, see {@link UIImplementation#enqueueAnimatedLayoutUpdate}. In the frames that update
+ * layout properties, the other properties are handed over along with them, so that the view isn't
+ * updated ahead of its layout.
  */
 /*package*/ class PropsAnimatedNode extends AnimatedNode {
 
   /*package*/ int mConnectedViewTag = -1;
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
-  private final Map<String, Integer> mPropMapping;
+  private final String[] mPropNames;
+  private final int[] mPropIndices;
+  private final int[] mPropNodeTags;
+  private final AnimatedViewProps mAnimatedViewProps = new AnimatedViewProps();
 
   PropsAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableMap props = config.getMap("props");
     ReadableMapKeySetIterator iter = props.keySetIterator();
-    mPropMapping = new HashMap<>();
+    List<String> propKeys = new ArrayList<>();
     while (iter.hasNextKey()) {
-      String propKey = iter.nextKey();
-      int nodeIndex = props.getInt(propKey);
-      mPropMapping.put(propKey, nodeIndex);
+      propKeys.add(iter.nextKey());
+    }
+    mPropNames = propKeys.toArray(new String[propKeys.size()]);
+    mPropIndices = new int[mPropNames.length];
+    mPropNodeTags = new int[mPropNames.length];
+    for (int i = 0; i < mPropNames.length; i++) {
+      mPropIndices[i] = AnimatedViewProps.getPropIndex(mPropNames[i]);
+      mPropNodeTags[i] = props.getInt(mPropNames[i]);
     }
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
@@ -48,26 +66,78 @@ import javax.annotation.Nullable;
     if (mConnectedViewTag == -1) {
       throw new IllegalStateException("Node has not been attached to a view");
     }
-    JavaOnlyMap propsMap = new JavaOnlyMap();
-    for (Map.Entry<String, Integer> entry : mPropMapping.entrySet()) {
-      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
-      if (node == null) {
-        throw new IllegalArgumentException("Mapped property node does not exists");
-      } else if (node instanceof StyleAnimatedNode) {
-        ((StyleAnimatedNode) node).collectViewUpdates(propsMap);
-      } else if (node instanceof ValueAnimatedNode) {
-        propsMap.putDouble(entry.getKey(), ((ValueAnimatedNode) node).getValue());
+    mAnimatedViewProps.clear();
+    @Nullable ReadableMap layoutProps;
+    if (collectAnimatedViewProps(mAnimatedViewProps)) {
+      layoutProps = mAnimatedViewProps.takeLayoutProps();
+      if (layoutProps == null) {
+        uiImplementation.synchronouslyUpdateAnimatedPropsOnUIThread(
+          mConnectedViewTag,
+          mAnimatedViewProps);
+      } else {
+        uiImplementation.enqueueAnimatedLayoutUpdate(
+          mConnectedViewTag,
+          layoutProps,
+          mAnimatedViewProps.hasViewProps() ? mAnimatedViewProps.toStylesDiffMap() : null);
+      }
+    } else {
+      mAnimatedViewProps.clear();
+      JavaOnlyMap propsMap = new JavaOnlyMap();
+      for (int i = 0; i < mPropNames.length; i++) {
+        AnimatedNode node = getPropNode(i);
+        if (node instanceof StyleAnimatedNode) {
+          ((StyleAnimatedNode) node).collectViewUpdates(propsMap, mAnimatedViewProps);
+        } else if (mPropIndices[i] == AnimatedViewProps.LAYOUT_PROP) {
+          mAnimatedViewProps.setLayoutValue(
+            mPropNames[i],
+            ((ValueAnimatedNode) node).getValue());
+        } else {
+          propsMap.putDouble(mPropNames[i], ((ValueAnimatedNode) node).getValue());
+        }
+      }
+      layoutProps = mAnimatedViewProps.takeLayoutProps();
+      if (layoutProps == null) {
+        uiImplementation.synchronouslyUpdateViewOnUIThread(
+          mConnectedViewTag,
+          new ReactStylesDiffMap(propsMap));
+      } else {
+        uiImplementation.enqueueAnimatedLayoutUpdate(
+          mConnectedViewTag,
+          layoutProps,
+          propsMap.keySetIterator().hasNextKey() ? new ReactStylesDiffMap(propsMap) : null);
+      }
+    }
+  }
+
+  /**
+   * @return false if some of the properties aren't supported by {@link AnimatedViewProps}
+   */
+  private boolean collectAnimatedViewProps(AnimatedViewProps animatedViewProps) {
+    for (int i = 0; i < mPropNames.length; i++) {
+      AnimatedNode node = getPropNode(i);
+      if (node instanceof StyleAnimatedNode) {
+        if (!((StyleAnimatedNode) node).collectAnimatedViewProps(animatedViewProps)) {
+          return false;
+        }
+      } else if (mPropIndices[i] == AnimatedViewProps.LAYOUT_PROP) {
+        animatedViewProps.setLayoutValue(mPropNames[i], ((ValueAnimatedNode) node).getValue());
+      } else if (mPropIndices[i] != AnimatedViewProps.NO_PROP) {
+        animatedViewProps.setValue(mPropIndices[i], ((ValueAnimatedNode) node).getValue());
       } else {
-        throw new IllegalArgumentException("Unsupported type of node used in property node " +
-            node.getClass());
+        return false;
       }
     }
-    // TODO: Reuse propsMap and stylesDiffMap objects - note that in subsequent animation steps
-    // for a given node most of the time we will be creating the same set of props (just with
-    // different values). We can take advantage on that and optimize the way we allocate property
-    // maps (we also know that updating view props doesn't retain a reference to the styles object).
-    uiImplementation.synchronouslyUpdateViewOnUIThread(
-      mConnectedViewTag,
-      new ReactStylesDiffMap(propsMap));
+    return true;
+  }
+
+  private AnimatedNode getPropNode(int i) {
+    @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mPropNodeTags[i]);
+    if (node == null) {
+      throw new IllegalArgumentException("Mapped property node does not exists");
+    } else if (!(node instanceof StyleAnimatedNode) && !(node instanceof ValueAnimatedNode)) {
+      throw new IllegalArgumentException("Unsupported type of node used in property node " +
+          node.getClass());
+    }
+    return node;
   }
 }
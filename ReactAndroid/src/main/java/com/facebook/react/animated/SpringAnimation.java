@@ -6,6 +6,10 @@ import com.facebook.react.bridge.ReadableMap;
  * Implementation of {@link AnimationDriver} providing support for spring animations. The
  * implementation has been copied from android implementation of Rebound library (see
  * <a href="http://facebook.github.io/rebound/">http://facebook.github.io/rebound/</a>)
+ *
+ * The physics are integrated with a fixed timestep, whatever the frame rate is. The value shown on
+ * a frame is interpolated between the last two integrated states, and isn't fed back into the
+ * integration, so that the motion of the spring is the same at any frame rate.
  */
 /*package*/ class SpringAnimation extends AnimationDriver {
 
@@ -20,7 +24,7 @@ import com.facebook.react.bridge.ReadableMap;
     double velocity;
   }
 
-  private long mLastTime;
+  private long mLastTimeNanos;
   private boolean mSpringStarted;
 
   // configuration
@@ -38,6 +42,8 @@ import com.facebook.react.bridge.ReadableMap;
   private double mRestSpeedThreshold;
   private double mDisplacementFromRestThreshold;
   private double mTimeAccumulator = 0;
+  // position shown on the current frame, interpolated between the previous and current states
+  private double mInterpolatedPosition;
 
   SpringAnimation(ReadableMap config) {
     mSpringFriction = config.getDouble("friction");
@@ -51,15 +57,17 @@ import com.facebook.react.bridge.ReadableMap;
 
   @Override
   public void runAnimationStep(long frameTimeNanos) {
-    long frameTimeMillis = frameTimeNanos / 1000000;
     if (!mSpringStarted) {
       mStartValue = mCurrentState.position = mAnimatedValue.mValue;
-      mLastTime = frameTimeMillis;
+      mPreviousState.position = mCurrentState.position;
+      mPreviousState.velocity = mCurrentState.velocity;
+      mInterpolatedPosition = mCurrentState.position;
+      mLastTimeNanos = frameTimeNanos;
       mSpringStarted = true;
     }
-    advance((frameTimeMillis - mLastTime) / 1000.0);
-    mLastTime = frameTimeMillis;
-    mAnimatedValue.mValue = mCurrentState.position;
+    advance((frameTimeNanos - mLastTimeNanos) / 1000000000.0);
+    mLastTimeNanos = frameTimeNanos;
+    mAnimatedValue.mValue = mInterpolatedPosition;
     mHasFinished = isAtRest();
   }
 
@@ -95,11 +103,12 @@ import com.facebook.react.bridge.ReadableMap;
   /**
    * linear interpolation between the previous and current physics state based on the amount of
    * timestep remaining after processing the rendering delta time in timestep sized chunks.
+   * The states are left as they are, so that the next integration starts from the current state.
    * @param alpha from 0 to 1, where 0 is the previous state, 1 is the current state
    */
   private void interpolate(double alpha) {
-    mCurrentState.position = mCurrentState.position * alpha + mPreviousState.position *(1-alpha);
-    mCurrentState.velocity = mCurrentState.velocity * alpha + mPreviousState.velocity *(1-alpha);
+    mInterpolatedPosition =
+      mCurrentState.position * alpha + mPreviousState.position * (1 - alpha);
   }
 
   /**
@@ -196,9 +205,7 @@ import com.facebook.react.bridge.ReadableMap;
     mCurrentState.position = position;
     mCurrentState.velocity = velocity;
 
-    if (mTimeAccumulator > 0) {
-      interpolate(mTimeAccumulator / SOLVER_TIMESTEP_SEC);
-    }
+    interpolate(mTimeAccumulator / SOLVER_TIMESTEP_SEC);
 
     // End the spring immediately if it is overshooting and overshoot clamping is enabled.
     // Also make sure that if the spring was considered within a resting threshold that it's now
@@ -213,6 +220,7 @@ import com.facebook.react.bridge.ReadableMap;
         mStartValue = mEndValue;
       }
       mCurrentState.velocity = 0;
+      mInterpolatedPosition = mCurrentState.position;
     }
   }
 }
@@ -12,9 +12,10 @@ package com.facebook.react.animated;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.uimanager.AnimatedViewProps;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -24,33 +25,75 @@ import javax.annotation.Nullable;
 /*package*/ class StyleAnimatedNode extends AnimatedNode {
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
-  private final Map<String, Integer> mPropMapping;
+  private final String[] mPropNames;
+  private final int[] mPropIndices;
+  private final int[] mPropNodeTags;
 
   StyleAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableMap style = config.getMap("style");
     ReadableMapKeySetIterator iter = style.keySetIterator();
-    mPropMapping = new HashMap<>();
+    List<String> propKeys = new ArrayList<>();
     while (iter.hasNextKey()) {
-      String propKey = iter.nextKey();
-      int nodeIndex = style.getInt(propKey);
-      mPropMapping.put(propKey, nodeIndex);
+      propKeys.add(iter.nextKey());
+    }
+    mPropNames = propKeys.toArray(new String[propKeys.size()]);
+    mPropIndices = new int[mPropNames.length];
+    mPropNodeTags = new int[mPropNames.length];
+    for (int i = 0; i < mPropNames.length; i++) {
+      mPropIndices[i] = AnimatedViewProps.getPropIndex(mPropNames[i]);
+      mPropNodeTags[i] = style.getInt(mPropNames[i]);
     }
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
 
-  public void collectViewUpdates(JavaOnlyMap propsMap) {
-    for (Map.Entry<String, Integer> entry : mPropMapping.entrySet()) {
-      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
-      if (node == null) {
-        throw new IllegalArgumentException("Mapped style node does not exists");
-      } else if (node instanceof TransformAnimatedNode) {
+  /**
+   * Collects the properties into the given map, except for the layout properties which are set on
+   * the given {@link AnimatedViewProps}.
+   */
+  public void collectViewUpdates(JavaOnlyMap propsMap, AnimatedViewProps layoutProps) {
+    for (int i = 0; i < mPropNames.length; i++) {
+      AnimatedNode node = getStyleNode(i);
+      if (node instanceof TransformAnimatedNode) {
         ((TransformAnimatedNode) node).collectViewUpdates(propsMap);
-      } else if (node instanceof ValueAnimatedNode) {
-        propsMap.putDouble(entry.getKey(), ((ValueAnimatedNode) node).getValue());
+      } else if (mPropIndices[i] == AnimatedViewProps.LAYOUT_PROP) {
+        layoutProps.setLayoutValue(mPropNames[i], ((ValueAnimatedNode) node).getValue());
       } else {
-        throw new IllegalArgumentException("Unsupported type of node used in property node " +
-          node.getClass());
+        propsMap.putDouble(mPropNames[i], ((ValueAnimatedNode) node).getValue());
       }
     }
   }
+
+  /**
+   * Same as {@link #collectViewUpdates}, without allocating.
+   *
+   * @return false if some of the properties aren't supported by {@link AnimatedViewProps}
+   */
+  public boolean collectAnimatedViewProps(AnimatedViewProps animatedViewProps) {
+    for (int i = 0; i < mPropNames.length; i++) {
+      AnimatedNode node = getStyleNode(i);
+      if (node instanceof TransformAnimatedNode) {
+        if (!((TransformAnimatedNode) node).collectAnimatedViewProps(animatedViewProps)) {
+          return false;
+        }
+      } else if (mPropIndices[i] == AnimatedViewProps.LAYOUT_PROP) {
+        animatedViewProps.setLayoutValue(mPropNames[i], ((ValueAnimatedNode) node).getValue());
+      } else if (mPropIndices[i] != AnimatedViewProps.NO_PROP) {
+        animatedViewProps.setValue(mPropIndices[i], ((ValueAnimatedNode) node).getValue());
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private AnimatedNode getStyleNode(int i) {
+    @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mPropNodeTags[i]);
+    if (node == null) {
+      throw new IllegalArgumentException("Mapped style node does not exists");
+    } else if (!(node instanceof TransformAnimatedNode) && !(node instanceof ValueAnimatedNode)) {
+      throw new IllegalArgumentException("Unsupported type of node used in property node " +
+        node.getClass());
+    }
+    return node;
+  }
 }
@@ -13,6 +13,8 @@ import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.AnimatedViewProps;
+import com.facebook.react.uimanager.TransformHelper;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,8 +24,18 @@ import java.util.List;
  */
 /* package */ class TransformAnimatedNode extends AnimatedNode {
 
+  // Transforms that views support directly, see AnimatedViewProps#startSimpleTransform
+  private static final int NOT_SIMPLE = -1;
+  private static final int SIMPLE_TRANSLATE_X = 0;
+  private static final int SIMPLE_TRANSLATE_Y = 1;
+  private static final int SIMPLE_ROTATE = 2;
+  private static final int SIMPLE_SCALE = 3;
+  private static final int SIMPLE_SCALE_X = 4;
+  private static final int SIMPLE_SCALE_Y = 5;
+
   private class TransformConfig {
     public String mProperty;
+    public int mSimpleType;
   }
 
   private class AnimatedTransformConfig extends TransformConfig {
@@ -36,6 +48,7 @@ import java.util.List;
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
   private final List<TransformConfig> mTransformConfigs;
+  private final boolean mIsSimpleTransform;
 
   TransformAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableArray transforms = config.getArray("transforms");
@@ -56,32 +69,140 @@ import java.util.List;
         mTransformConfigs.add(transformConfig);
       }
     }
+    mIsSimpleTransform = initSimpleTypes(mTransformConfigs);
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
 
+  /**
+   * Translations, then a rotation around the Z axis, then scales, in that order, make a transform
+   * that views support directly: views scale and rotate around their center before translating,
+   * and the transforms of a transform list are applied starting from the last one.
+   *
+   * @return whether the transforms can be applied without going through a matrix
+   */
+  private static boolean initSimpleTypes(List<TransformConfig> transformConfigs) {
+    boolean isSimpleTransform = true;
+    int lastSimpleType = SIMPLE_TRANSLATE_X;
+    for (int i = 0; i < transformConfigs.size(); i++) {
+      TransformConfig transformConfig = transformConfigs.get(i);
+      transformConfig.mSimpleType = getSimpleType(transformConfig.mProperty);
+      int simpleType = transformConfig.mSimpleType;
+      if (simpleType == NOT_SIMPLE ||
+          getSimpleTypeOrder(simpleType) < getSimpleTypeOrder(lastSimpleType) ||
+          (simpleType == SIMPLE_ROTATE && lastSimpleType == SIMPLE_ROTATE)) {
+        isSimpleTransform = false;
+      }
+      lastSimpleType = simpleType;
+    }
+    return isSimpleTransform;
+  }
+
+  private static int getSimpleType(String property) {
+    if ("translateX".equals(property)) {
+      return SIMPLE_TRANSLATE_X;
+    } else if ("translateY".equals(property)) {
+      return SIMPLE_TRANSLATE_Y;
+    } else if ("rotate".equals(property) || "rotateZ".equals(property)) {
+      return SIMPLE_ROTATE;
+    } else if ("scale".equals(property)) {
+      return SIMPLE_SCALE;
+    } else if ("scaleX".equals(property)) {
+      return SIMPLE_SCALE_X;
+    } else if ("scaleY".equals(property)) {
+      return SIMPLE_SCALE_Y;
+    }
+    return NOT_SIMPLE;
+  }
+
+  private static int getSimpleTypeOrder(int simpleType) {
+    switch (simpleType) {
+      case SIMPLE_TRANSLATE_X:
+      case SIMPLE_TRANSLATE_Y:
+        return 0;
+      case SIMPLE_ROTATE:
+        return 1;
+      default:
+        return 2;
+    }
+  }
+
   public void collectViewUpdates(JavaOnlyMap propsMap) {
     List<JavaOnlyMap> transforms = new ArrayList<>(mTransformConfigs.size());
 
     for (TransformConfig transformConfig : mTransformConfigs) {
-      double value;
-      if (transformConfig instanceof AnimatedTransformConfig) {
-        int nodeTag = ((AnimatedTransformConfig) transformConfig).mNodeTag;
-        AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
-        if (node == null) {
-          throw new IllegalArgumentException("Mapped style node does not exists");
-        } else if (node instanceof ValueAnimatedNode) {
-          value = ((ValueAnimatedNode) node).getValue();
-        } else {
-          throw new IllegalArgumentException("Unsupported type of node used as a transform child " +
-            "node " + node.getClass());
-        }
-      } else {
-        value = ((StaticTransformConfig) transformConfig).mValue;
+      transforms.add(JavaOnlyMap.of(transformConfig.mProperty, getValue(transformConfig)));
+    }
+
+    propsMap.putArray("transform", JavaOnlyArray.from(transforms));
+  }
+
+  /**
+   * Same as {@link #collectViewUpdates}, without allocating: the transforms are applied to the
+   * simple transform of the given props if they only translate, rotate and scale, and to their
+   * transform matrix otherwise.
+   *
+   * @return false if some of the transforms can't be applied to a matrix this way
+   */
+  public boolean collectAnimatedViewProps(AnimatedViewProps animatedViewProps) {
+    if (mIsSimpleTransform) {
+      collectSimpleTransform(animatedViewProps);
+      return true;
+    }
+
+    double[] transformMatrix = animatedViewProps.startTransform();
+    for (int i = 0, size = mTransformConfigs.size(); i < size; i++) {
+      TransformConfig transformConfig = mTransformConfigs.get(i);
+      if (!TransformHelper.applyTransform(
+          transformMatrix,
+          transformConfig.mProperty,
+          getValue(transformConfig))) {
+        return false;
       }
+    }
+    return true;
+  }
 
-      transforms.add(JavaOnlyMap.of(transformConfig.mProperty, value));
+  private void collectSimpleTransform(AnimatedViewProps animatedViewProps) {
+    animatedViewProps.startSimpleTransform();
+    for (int i = 0, size = mTransformConfigs.size(); i < size; i++) {
+      TransformConfig transformConfig = mTransformConfigs.get(i);
+      double value = getValue(transformConfig);
+      switch (transformConfig.mSimpleType) {
+        case SIMPLE_TRANSLATE_X:
+          animatedViewProps.translateSimpleTransform(value, 0);
+          break;
+        case SIMPLE_TRANSLATE_Y:
+          animatedViewProps.translateSimpleTransform(0, value);
+          break;
+        case SIMPLE_ROTATE:
+          animatedViewProps.rotateSimpleTransform(value);
+          break;
+        case SIMPLE_SCALE:
+          animatedViewProps.scaleSimpleTransform(value, value);
+          break;
+        case SIMPLE_SCALE_X:
+          animatedViewProps.scaleSimpleTransform(value, 1);
+          break;
+        case SIMPLE_SCALE_Y:
+          animatedViewProps.scaleSimpleTransform(1, value);
+          break;
+      }
     }
+  }
 
-    propsMap.putArray("transform", JavaOnlyArray.from(transforms));
+  private double getValue(TransformConfig transformConfig) {
+    if (transformConfig instanceof AnimatedTransformConfig) {
+      int nodeTag = ((AnimatedTransformConfig) transformConfig).mNodeTag;
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
+      if (node == null) {
+        throw new IllegalArgumentException("Mapped style node does not exists");
+      } else if (node instanceof ValueAnimatedNode) {
+        return ((ValueAnimatedNode) node).getValue();
+      } else {
+        throw new IllegalArgumentException("Unsupported type of node used as a transform child " +
+          "node " + node.getClass());
+      }
+    }
+    return ((StaticTransformConfig) transformConfig).mValue;
   }
 }
@@ -175,6 +175,8 @@ public abstract class BaseJavaModule implements NativeModule {
     private String mType = METHOD_TYPE_ASYNC;
     private final int mJSArgumentsNeeded;
     private final String mTraceName;
+    private final @Nullable JavaModuleMethodInvoker.MethodInvoker<BaseJavaModule> mInvoker;
+    private final int mInvokerMethodIndex;
 
     public JavaMethod(Method method, boolean isSync) {
       mMethod = method;
@@ -193,6 +195,9 @@ public abstract class BaseJavaModule implements NativeModule {
       mArguments = new Object[parameterTypes.length];
       mJSArgumentsNeeded = calculateJSArgumentsNeeded();
       mTraceName = BaseJavaModule.this.getName() + "." + mMethod.getName();
+      // Prefer the invoker generated for this module, if any, over reflection
+      mInvoker = JavaModuleMethodInvoker.findInvoker(BaseJavaModule.this.getClass());
+      mInvokerMethodIndex = mInvoker != null ? mInvoker.getMethodIndex(mMethod.getName()) : -1;
     }
 
     public Method getMethod() {
@@ -318,6 +323,16 @@ public abstract class BaseJavaModule implements NativeModule {
               parameters.size() + " arguments, expected " + mJSArgumentsNeeded);
         }
 
+        if (mInvokerMethodIndex >= 0) {
+          assertNotNull(mInvoker).invoke(
+              BaseJavaModule.this,
+              mInvokerMethodIndex,
+              catalystInstance,
+              executorToken,
+              parameters);
+          return;
+        }
+
         // Modules that support web workers are expected to take an ExecutorToken as the first
         // parameter to all their @ReactMethod-annotated methods. We compensate for that here.
         int i = 0, jsArgumentsConsumed = 0;
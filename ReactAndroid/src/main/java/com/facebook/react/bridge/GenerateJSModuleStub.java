@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.bridge;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * Annotation which is used to mark {@link JavaScriptModule} interfaces that get a generated
+ * {@link JavaScriptModuleStub}. Calls to interfaces without it, or without a stub because they
+ * are compiled without the processor, go through a {@link java.lang.reflect.Proxy}.
+ */
+@Retention(SOURCE)
+@Target(TYPE)
+public @interface GenerateJSModuleStub {
+}
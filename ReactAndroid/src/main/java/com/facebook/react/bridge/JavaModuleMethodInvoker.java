@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.bridge;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+/**
+ * Looks up the {@code <classname>$$MethodInvoker} classes generated by
+ * {@code com.facebook.react.processing.ReactMethodProcessor}. A generated invoker calls the
+ * {@link ReactMethod}s of a module directly, with arguments read straight from the JS arguments
+ * array, instead of going through {@link java.lang.reflect.Method#invoke}. Modules that were not
+ * processed keep using reflection.
+ */
+public class JavaModuleMethodInvoker {
+
+  public interface MethodInvoker<T extends BaseJavaModule> {
+    /**
+     * @return the index to pass to {@link #invoke} for the given method, or -1 if the method is
+     * not handled by this invoker
+     */
+    int getMethodIndex(String methodName);
+
+    void invoke(
+        T module,
+        int methodIndex,
+        CatalystInstance catalystInstance,
+        ExecutorToken executorToken,
+        ReadableNativeArray jsArguments);
+  }
+
+  private static final MethodInvoker<?> NO_INVOKER = new MethodInvoker<BaseJavaModule>() {
+    @Override
+    public int getMethodIndex(String methodName) {
+      return -1;
+    }
+
+    @Override
+    public void invoke(
+        BaseJavaModule module,
+        int methodIndex,
+        CatalystInstance catalystInstance,
+        ExecutorToken executorToken,
+        ReadableNativeArray jsArguments) {
+      throw new IllegalStateException("No generated invoker for " + module.getName());
+    }
+  };
+
+  private static final Map<Class<?>, MethodInvoker<?>> INVOKER_MAP = new HashMap<>();
+
+  /**
+   * @return the generated invoker for the given module class, or null if there is none
+   */
+  public static @Nullable <T extends BaseJavaModule> MethodInvoker<T> findInvoker(
+      Class<? extends BaseJavaModule> moduleClass) {
+    MethodInvoker<?> invoker;
+    synchronized (INVOKER_MAP) {
+      invoker = INVOKER_MAP.get(moduleClass);
+      if (invoker == null) {
+        invoker = findGeneratedInvoker(moduleClass);
+        INVOKER_MAP.put(moduleClass, invoker);
+      }
+    }
+
+    if (invoker == NO_INVOKER) {
+      return null;
+    }
+    //noinspection unchecked
+    return (MethodInvoker<T>) invoker;
+  }
+
+  private static MethodInvoker<?> findGeneratedInvoker(Class<?> cls) {
+    String clsName = cls.getName();
+    try {
+      Class<?> invokerClass = Class.forName(clsName + "$$MethodInvoker");
+      return (MethodInvoker<?>) invokerClass.newInstance();
+    } catch (ClassNotFoundException e) {
+      FLog.w(ReactConstants.TAG, "Could not find generated method invoker for " + cls);
+      return NO_INVOKER;
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new RuntimeException("Unable to instantiate method invoker for " + clsName, e);
+    }
+  }
+
+  public static @Nullable Callback extractCallback(
+      CatalystInstance catalystInstance,
+      ExecutorToken executorToken,
+      ReadableNativeArray jsArguments,
+      int atIndex) {
+    if (jsArguments.isNull(atIndex)) {
+      return null;
+    }
+    return new CallbackImpl(catalystInstance, executorToken, (int) jsArguments.getDouble(atIndex));
+  }
+
+  public static Promise extractPromise(
+      CatalystInstance catalystInstance,
+      ExecutorToken executorToken,
+      ReadableNativeArray jsArguments,
+      int atIndex) {
+    return new PromiseImpl(
+        extractCallback(catalystInstance, executorToken, jsArguments, atIndex),
+        extractCallback(catalystInstance, executorToken, jsArguments, atIndex + 1));
+  }
+
+  public static Dynamic extractDynamic(ReadableNativeArray jsArguments, int atIndex) {
+    return DynamicFromArray.create(jsArguments, atIndex);
+  }
+
+  public static RuntimeException createInvocationException(
+      Throwable e,
+      String moduleName,
+      String methodName) {
+    return new RuntimeException("Could not invoke " + moduleName + "." + methodName, e);
+  }
+
+  public static NativeArgumentsParseException createArgumentsParseException(
+      UnexpectedNativeTypeException e,
+      String moduleName,
+      String methodName,
+      int jsArgumentIndex,
+      int jsArgumentsNeeded) {
+    String affectedRange = jsArgumentsNeeded > 1 ?
+        jsArgumentIndex + "-" + (jsArgumentIndex + jsArgumentsNeeded - 1) : "" + jsArgumentIndex;
+    return new NativeArgumentsParseException(
+        e.getMessage() + " (constructing arguments for " + moduleName + "." + methodName +
+            " at argument index " + affectedRange + ")",
+        e);
+  }
+}
@@ -9,25 +9,32 @@
 
 package com.facebook.react.bridge;
 
-import javax.annotation.concurrent.Immutable;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.common.build.ReactBuildConfig;
 
 /**
  * Registration info for a {@link JavaScriptModule}. Maps its methods to method ids.
  */
-@Immutable
 public class JavaScriptModuleRegistration {
 
   private final Class<? extends JavaScriptModule> mModuleInterface;
   private @Nullable String mName;
+  @GuardedBy("this")
+  private @Nullable Constructor<?> mStubConstructor;
+  @GuardedBy("this")
+  private boolean mStubConstructorLoaded;
 
   public JavaScriptModuleRegistration(Class<? extends JavaScriptModule> moduleInterface) {
     mModuleInterface = moduleInterface;
@@ -68,4 +75,45 @@ public class JavaScriptModuleRegistration {
   public List<Method> getMethods() {
     return Arrays.asList(mModuleInterface.getDeclaredMethods());
   }
+
+  /**
+   * @return a new instance of the stub generated for this module interface, or null if no stub was
+   * generated and calls have to go through a {@link java.lang.reflect.Proxy} instead
+   */
+  public @Nullable JavaScriptModule createStub(
+      ExecutorToken executorToken,
+      CatalystInstance catalystInstance) {
+    Constructor<?> stubConstructor = getStubConstructor();
+    if (stubConstructor == null) {
+      return null;
+    }
+
+    try {
+      return (JavaScriptModule) stubConstructor.newInstance(executorToken, catalystInstance);
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      throw new RuntimeException(
+          "Unable to instantiate stub for JS module " + mModuleInterface.getName(), e);
+    }
+  }
+
+  private synchronized @Nullable Constructor<?> getStubConstructor() {
+    if (!mStubConstructorLoaded) {
+      mStubConstructor = findStubConstructor();
+      mStubConstructorLoaded = true;
+    }
+    return mStubConstructor;
+  }
+
+  private @Nullable Constructor<?> findStubConstructor() {
+    String stubClassName = mModuleInterface.getName() + "$$JSModuleStub";
+    try {
+      return Class.forName(stubClassName)
+          .getConstructor(ExecutorToken.class, CatalystInstance.class);
+    } catch (ClassNotFoundException e) {
+      FLog.d(ReactConstants.TAG, "No generated stub for " + mModuleInterface);
+      return null;
+    } catch (NoSuchMethodException e) {
+      throw new RuntimeException("Invalid generated stub " + stubClassName, e);
+    }
+  }
 }
@@ -26,9 +26,9 @@ import com.facebook.react.common.ReactConstants;
 
 /**
  * Class responsible for holding all the {@link JavaScriptModule}s registered to this
- * {@link CatalystInstance}. Uses Java proxy objects to dispatch method calls on JavaScriptModules
- * to the bridge using the corresponding module and method ids so the proper function is executed in
- * JavaScript.
+ * {@link CatalystInstance}. Uses the generated {@link JavaScriptModuleStub}s, or Java proxy objects
+ * for modules without one, to dispatch method calls on JavaScriptModules to the bridge using the
+ * corresponding module and method ids so the proper function is executed in JavaScript.
  */
 public class JavaScriptModuleRegistry {
   private final WeakHashMap<ExecutorToken, HashMap<Class<? extends JavaScriptModule>, JavaScriptModule>> mModuleInstances;
@@ -62,12 +62,15 @@ public class JavaScriptModuleRegistry {
         Assertions.assertNotNull(
             mModuleRegistrations.get(moduleInterface),
             "JS module " + moduleInterface.getSimpleName() + " hasn't been registered!");
-    JavaScriptModule interfaceProxy = (JavaScriptModule) Proxy.newProxyInstance(
-        moduleInterface.getClassLoader(),
-        new Class[]{moduleInterface},
-        new JavaScriptModuleInvocationHandler(executorToken, instance, registration));
-    instancesForContext.put(moduleInterface, interfaceProxy);
-    return (T) interfaceProxy;
+    JavaScriptModule moduleInstance = registration.createStub(executorToken, instance);
+    if (moduleInstance == null) {
+      moduleInstance = (JavaScriptModule) Proxy.newProxyInstance(
+          moduleInterface.getClassLoader(),
+          new Class[]{moduleInterface},
+          new JavaScriptModuleInvocationHandler(executorToken, instance, registration));
+    }
+    instancesForContext.put(moduleInterface, moduleInstance);
+    return (T) moduleInstance;
   }
 
   public static class Builder {
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.bridge;
+
+import java.lang.ref.WeakReference;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+/**
+ * Base class of the {@code <interface>$$JSModuleStub} classes generated by
+ * {@code com.facebook.react.processing.JavaScriptModuleProcessor} for the {@link JavaScriptModule}
+ * interfaces annotated with {@link GenerateJSModuleStub}. A generated stub implements the interface
+ * by building the arguments of each call directly and passing them to
+ * {@link CatalystInstance#callFunction} with precomputed module and method names, which avoids the
+ * {@link java.lang.reflect.Proxy} that {@link JavaScriptModuleRegistry} falls back to.
+ */
+public abstract class JavaScriptModuleStub {
+
+  private final WeakReference<ExecutorToken> mExecutorToken;
+  private final CatalystInstance mCatalystInstance;
+
+  protected JavaScriptModuleStub(ExecutorToken executorToken, CatalystInstance catalystInstance) {
+    mExecutorToken = new WeakReference<>(executorToken);
+    mCatalystInstance = catalystInstance;
+  }
+
+  protected final void callFunction(String module, String method, NativeArray arguments) {
+    ExecutorToken executorToken = mExecutorToken.get();
+    if (executorToken == null) {
+      FLog.w(ReactConstants.TAG, "Dropping JS call, ExecutorToken went away...");
+      return;
+    }
+    mCatalystInstance.callFunction(executorToken, module, method, arguments);
+  }
+}
@@ -15,16 +15,41 @@ public class ReactMarker {
     void logMarker(String name);
   };
 
+  /**
+   * Like {@link MarkerListener}, but also receives the tag markers are logged with.
+   */
+  public interface TaggedMarkerListener {
+    /**
+     * @param tag optional detail of the marker, e.g. the name of the module a CREATE_MODULE_START
+     * marker refers to. Markers that have a tag may be logged from several threads at once.
+     */
+    void logMarker(String name, @Nullable String tag);
+  };
+
   @Nullable static private MarkerListener sMarkerListener = null;
+  @Nullable static private TaggedMarkerListener sTaggedMarkerListener = null;
 
   static public void setMarkerListener(MarkerListener listener) {
     sMarkerListener = listener;
   }
 
+  static public void setTaggedMarkerListener(@Nullable TaggedMarkerListener listener) {
+    sTaggedMarkerListener = listener;
+  }
+
   @DoNotStrip
   static public void logMarker(String name) {
-    if (sMarkerListener != null) {
-      sMarkerListener.logMarker(name);
+    logMarker(name, null);
+  }
+
+  static public void logMarker(String name, @Nullable String tag) {
+    MarkerListener listener = sMarkerListener;
+    if (listener != null) {
+      listener.logMarker(name);
+    }
+    TaggedMarkerListener taggedListener = sTaggedMarkerListener;
+    if (taggedListener != null) {
+      taggedListener.logMarker(name, tag);
     }
   }
 
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.common;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed hash map from long keys to int values. Like a HashMap<Long, Integer> or
+ * LongSparseArray<Integer> but without the autoboxing. Clearing the map is O(1): slots are stamped
+ * with a generation and only slots of the current generation are considered occupied.
+ *
+ * Not thread safe.
+ */
+public class LongIntHashMap {
+
+  /* package */ static final int MIN_CAPACITY = 16;
+
+  private long[] mKeys;
+  private int[] mValues;
+  private int[] mSlotGenerations;
+  private int mGeneration = 1;
+  private int mSize = 0;
+
+  public LongIntHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * @return the value mapped to the given key, or {@code defaultValue} if there is none
+   */
+  public int get(long key, int defaultValue) {
+    int mask = mKeys.length - 1;
+    int slot = hash(key) & mask;
+    while (mSlotGenerations[slot] == mGeneration) {
+      if (mKeys[slot] == key) {
+        return mValues[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return defaultValue;
+  }
+
+  public boolean containsKey(long key) {
+    int mask = mKeys.length - 1;
+    int slot = hash(key) & mask;
+    while (mSlotGenerations[slot] == mGeneration) {
+      if (mKeys[slot] == key) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public void put(long key, int value) {
+    int mask = mKeys.length - 1;
+    int slot = hash(key) & mask;
+    while (mSlotGenerations[slot] == mGeneration) {
+      if (mKeys[slot] == key) {
+        mValues[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    mSlotGenerations[slot] = mGeneration;
+    mKeys[slot] = key;
+    mValues[slot] = value;
+    mSize++;
+    // Keep the load factor at or below 0.5 so that probe sequences stay short
+    if (mSize * 2 > mKeys.length) {
+      rehash(mKeys.length * 2);
+    }
+  }
+
+  /**
+   * Removes the mapping for the given key, if any. Entries after it in the same probe sequence are
+   * shifted back into the freed slot, so that lookups never need tombstones.
+   *
+   * @return the value that was mapped to the given key, or {@code defaultValue} if there was none
+   */
+  public int remove(long key, int defaultValue) {
+    int mask = mKeys.length - 1;
+    int slot = hash(key) & mask;
+    while (mSlotGenerations[slot] == mGeneration) {
+      if (mKeys[slot] == key) {
+        int value = mValues[slot];
+        shiftBack(slot);
+        mSize--;
+        return value;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return defaultValue;
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public void clear() {
+    mSize = 0;
+    mGeneration++;
+    if (mGeneration == Integer.MAX_VALUE) {
+      Arrays.fill(mSlotGenerations, 0);
+      mGeneration = 1;
+    }
+  }
+
+  private void shiftBack(int freeSlot) {
+    int mask = mKeys.length - 1;
+    int slot = (freeSlot + 1) & mask;
+    while (mSlotGenerations[slot] == mGeneration) {
+      int idealSlot = hash(mKeys[slot]) & mask;
+      // The entry can move to the free slot if that slot is on its probe sequence
+      if (((slot - idealSlot) & mask) >= ((slot - freeSlot) & mask)) {
+        mKeys[freeSlot] = mKeys[slot];
+        mValues[freeSlot] = mValues[slot];
+        freeSlot = slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    mSlotGenerations[freeSlot] = 0;
+  }
+
+  private void rehash(int newCapacity) {
+    long[] oldKeys = mKeys;
+    int[] oldValues = mValues;
+    int[] oldSlotGenerations = mSlotGenerations;
+    int oldGeneration = mGeneration;
+
+    allocate(newCapacity);
+    mGeneration = 1;
+    mSize = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldSlotGenerations[i] == oldGeneration) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new long[capacity];
+    mValues = new int[capacity];
+    mSlotGenerations = new int[capacity];
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  /* package */ static int hash(long key) {
+    // Finalization step of MurmurHash3, spreads the bits of view tags and event type ids
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+}
@@ -37,9 +37,21 @@ public class ModuleHolder {
   private boolean mInitializeNeeded;
 
   public ModuleHolder(ReactModuleInfo info, Provider<? extends NativeModule> provider) {
+    this(info, provider, true);
+  }
+
+  /**
+   * @param createEagerModule whether to create a module that needs eager init right away. Pass
+   * false when the caller takes care of creating eager modules, e.g. in parallel once all of the
+   * modules are known.
+   */
+  public ModuleHolder(
+      ReactModuleInfo info,
+      Provider<? extends NativeModule> provider,
+      boolean createEagerModule) {
     mInfo = info;
     mProvider = provider;
-    if (mInfo.needsEagerInit()) {
+    if (createEagerModule && mInfo.needsEagerInit()) {
       mModule = doCreate();
     }
   }
@@ -67,6 +79,13 @@ public class ModuleHolder {
     return mInfo;
   }
 
+  /**
+   * @return whether the module has been created already
+   */
+  public synchronized boolean hasModule() {
+    return mModule != null;
+  }
+
   public synchronized NativeModule getModule() {
     if (mModule == null) {
       mModule = doCreate();
@@ -84,7 +103,7 @@ public class ModuleHolder {
     boolean isEagerModule = mInfo instanceof LegacyModuleInfo;
     String name = isEagerModule ? ((LegacyModuleInfo) mInfo).mType.getSimpleName() : mInfo.name();
     if (!isEagerModule) {
-      ReactMarker.logMarker(CREATE_MODULE_START);
+      ReactMarker.logMarker(CREATE_MODULE_START, name);
     }
     SystraceMessage.beginSection(TRACE_TAG_REACT_JAVA_BRIDGE, "createModule")
       .arg("name", name)
@@ -96,7 +115,7 @@ public class ModuleHolder {
     }
     Systrace.endSection(TRACE_TAG_REACT_JAVA_BRIDGE);
     if (!isEagerModule) {
-      ReactMarker.logMarker(CREATE_MODULE_END);
+      ReactMarker.logMarker(CREATE_MODULE_END, name);
     }
     return module;
   }
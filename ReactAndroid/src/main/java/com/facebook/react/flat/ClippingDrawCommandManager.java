@@ -152,6 +152,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
   private NodeRegion[] mNodeRegions = NodeRegion.EMPTY_ARRAY;
   protected float[] mRegionMaxBottom = StateBuilder.EMPTY_FLOAT_ARRAY;
   protected float[] mRegionMinTop = StateBuilder.EMPTY_FLOAT_ARRAY;
+  private @Nullable NodeRegionIndex mNodeRegionIndex;
 
   // Onscreen bounds of draw command array.
   private int mStart;
@@ -255,6 +256,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
 
   @Override
   public @Nullable NodeRegion virtualNodeRegionWithinBounds(float touchX, float touchY) {
+    if (NodeRegionIndex.shouldIndex(mNodeRegions)) {
+      return getNodeRegionIndex().findNodeRegion(mNodeRegions, touchX, touchY, true);
+    }
     int i = regionStopIndex(touchX, touchY);
     while (i-- > 0) {
       NodeRegion nodeRegion = mNodeRegions[i];
@@ -275,6 +279,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
 
   @Override
   public @Nullable NodeRegion anyNodeRegionWithinBounds(float touchX, float touchY) {
+    if (NodeRegionIndex.shouldIndex(mNodeRegions)) {
+      return getNodeRegionIndex().findNodeRegion(mNodeRegions, touchX, touchY, false);
+    }
     int i = regionStopIndex(touchX, touchY);
     while (i-- > 0) {
       NodeRegion nodeRegion = mNodeRegions[i];
@@ -289,6 +296,13 @@ import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
     return null;
   }
 
+  private NodeRegionIndex getNodeRegionIndex() {
+    if (mNodeRegionIndex == null) {
+      mNodeRegionIndex = new NodeRegionIndex();
+    }
+    return mNodeRegionIndex;
+  }
+
   private void clip(int id, View view) {
     mClippedSubviews.put(id, view);
   }
@@ -505,6 +505,13 @@ public class FlatUIImplementation extends UIImplementation {
     parentNode.addChildAt(childNode, index);
   }
 
+  @Override
+  protected boolean needsRootUpdate(ReactShadowNode cssRoot) {
+    // FlatShadowNode invalidation stops at the closest node that mounts to a View, so the root
+    // can't tell whether anything in its hierarchy changed.
+    return true;
+  }
+
   @Override
   protected void updateViewHierarchy() {
     super.updateViewHierarchy();
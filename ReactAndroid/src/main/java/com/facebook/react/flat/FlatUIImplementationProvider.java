@@ -11,13 +11,17 @@ package com.facebook.react.flat;
 
 import java.util.List;
 
+import android.util.Log;
+
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.UIImplementationProvider;
 import com.facebook.react.uimanager.ViewManager;
 import com.facebook.react.uimanager.events.EventDispatcher;
 
 /**
- * UIImplementationProvider that creates instances of {@link FlatUIImplementation}.
+ * UIImplementationProvider that creates instances of {@link FlatUIImplementation}. Parallel layout
+ * isn't supported, {@link #setParallelLayoutEnabled} has no effect.
  */
 public final class FlatUIImplementationProvider extends UIImplementationProvider {
   @Override
@@ -25,6 +29,9 @@ public final class FlatUIImplementationProvider extends UIImplementationProvider
       ReactApplicationContext reactContext,
       List<ViewManager> viewManagers,
       EventDispatcher eventDispatcher) {
+    if (isParallelLayoutEnabled()) {
+      Log.w(ReactConstants.TAG, "Parallel layout isn't supported by FlatUIImplementation, ignoring");
+    }
     return FlatUIImplementation.createInstance(reactContext, viewManagers, eventDispatcher);
   }
 }
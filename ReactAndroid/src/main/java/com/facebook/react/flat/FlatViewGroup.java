@@ -159,6 +159,7 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
   private DrawCommand[] mDrawCommands = DrawCommand.EMPTY_ARRAY;
   private AttachDetachListener[] mAttachDetachListeners = AttachDetachListener.EMPTY_ARRAY;
   private NodeRegion[] mNodeRegions = NodeRegion.EMPTY_ARRAY;
+  private @Nullable NodeRegionIndex mNodeRegionIndex;
 
   // The index of the next native child to draw.  This is used in dispatchDraw to check that we are
   // actually drawing all of our attached children, then is reset to 0.
@@ -1052,6 +1053,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
     if (mDrawCommandManager != null) {
       return mDrawCommandManager.virtualNodeRegionWithinBounds(touchX, touchY);
     }
+    if (NodeRegionIndex.shouldIndex(mNodeRegions)) {
+      return getNodeRegionIndex().findNodeRegion(mNodeRegions, touchX, touchY, true);
+    }
     for (int i = mNodeRegions.length - 1; i >= 0; --i) {
       NodeRegion nodeRegion = mNodeRegions[i];
       if (!nodeRegion.mIsVirtual) {
@@ -1078,6 +1082,9 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
     if (mDrawCommandManager != null) {
       return mDrawCommandManager.anyNodeRegionWithinBounds(touchX, touchY);
     }
+    if (NodeRegionIndex.shouldIndex(mNodeRegions)) {
+      return getNodeRegionIndex().findNodeRegion(mNodeRegions, touchX, touchY, false);
+    }
     for (int i = mNodeRegions.length - 1; i >= 0; --i) {
       NodeRegion nodeRegion = mNodeRegions[i];
       if (nodeRegion.withinBounds(touchX, touchY)) {
@@ -1088,6 +1095,13 @@ import com.facebook.react.uimanager.ReactClippingViewGroup;
     return null;
   }
 
+  private NodeRegionIndex getNodeRegionIndex() {
+    if (mNodeRegionIndex == null) {
+      mNodeRegionIndex = new NodeRegionIndex();
+    }
+    return mNodeRegionIndex;
+  }
+
   private static void ensureViewHasNoParent(View view) {
     ViewParent oldParent = view.getParent();
     if (oldParent != null) {
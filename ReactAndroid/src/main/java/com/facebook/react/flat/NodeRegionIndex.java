@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.flat;
+
+import javax.annotation.Nullable;
+
+import com.facebook.react.uimanager.SpatialIndex;
+import com.facebook.react.uimanager.TouchTargetHelper;
+
+/**
+ * Index of the touchable bounds of the node regions mounted to a {@link FlatViewGroup}, used to
+ * find the node region under a touch without checking every region when
+ * {@link TouchTargetHelper#setSpatialIndexEnabled} is set. The index is built on the first touch
+ * after new node regions were mounted.
+ */
+/* package */ final class NodeRegionIndex {
+
+  // With fewer regions, checking every region is about as fast as using the index
+  private static final int MIN_INDEXED_REGION_COUNT = 16;
+
+  private final SpatialIndex mIndex = new SpatialIndex();
+  private @Nullable NodeRegion[] mIndexedRegions;
+
+  /**
+   * @return whether the given node regions should be looked up through an index
+   */
+  /* package */ static boolean shouldIndex(NodeRegion[] nodeRegions) {
+    return TouchTargetHelper.isSpatialIndexEnabled() &&
+        nodeRegions.length >= MIN_INDEXED_REGION_COUNT;
+  }
+
+  /**
+   * Finds the last of the given node regions that contains the touch, like searching the regions
+   * from the end would.
+   *
+   * @param nodeRegions The mounted node regions, which are indexed if they haven't been yet.
+   * @param touchX The touch x coordinate.
+   * @param touchY The touch y coordinate.
+   * @param virtualOnly Whether only regions representing a command, rather than a native view,
+   *   should be considered.
+   * @return The matching node region, or null if no regions match.
+   */
+  /* package */ @Nullable NodeRegion findNodeRegion(
+      NodeRegion[] nodeRegions,
+      float touchX,
+      float touchY,
+      boolean virtualOnly) {
+    // Mounted node regions are never modified, new ones are mounted instead
+    if (nodeRegions != mIndexedRegions) {
+      mIndex.begin(nodeRegions.length);
+      for (int i = 0; i < nodeRegions.length; i++) {
+        NodeRegion nodeRegion = nodeRegions[i];
+        mIndex.setBounds(
+            i,
+            nodeRegion.getTouchableLeft(),
+            nodeRegion.getTouchableTop(),
+            nodeRegion.getTouchableRight(),
+            nodeRegion.getTouchableBottom());
+      }
+      mIndex.build();
+      mIndexedRegions = nodeRegions;
+    }
+
+    int cell = mIndex.findCell(touchX, touchY);
+    if (cell == SpatialIndex.NO_CELL) {
+      return null;
+    }
+    int cellStart = mIndex.getCellStart(cell);
+    for (int i = mIndex.getCellEnd(cell) - 1; i >= cellStart; i--) {
+      NodeRegion nodeRegion = nodeRegions[mIndex.getItem(i)];
+      if (virtualOnly && !nodeRegion.mIsVirtual) {
+        continue;
+      }
+      if (nodeRegion.withinBounds(touchX, touchY)) {
+        return nodeRegion;
+      }
+    }
+    return null;
+  }
+}
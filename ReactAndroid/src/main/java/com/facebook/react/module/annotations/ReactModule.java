@@ -14,6 +14,7 @@ import java.lang.annotation.Target;
 
 import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.ExecutorToken;
+import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactContext;
 
 import static java.lang.annotation.ElementType.TYPE;
@@ -65,4 +66,11 @@ public @interface ReactModule {
    * Whether this module needs to be loaded immediately.
    */
   boolean needsEagerInit() default false;
+
+  /**
+   * Native modules that have to be created before this module. When native modules are created
+   * in parallel at startup, this module is only created once all of its dependencies are, and
+   * dependencies that don't need eager init are created eagerly as well.
+   */
+  Class<? extends NativeModule>[] dependencies() default {};
 }
@@ -12,16 +12,27 @@ public class ReactModuleInfo implements Info {
   private final boolean mCanOverrideExistingModule;
   private final boolean mSupportsWebWorkers;
   private final boolean mNeedsEagerInit;
+  private final Class<?>[] mDependencies;
 
   public ReactModuleInfo(
     String name,
     boolean canOverrideExistingModule,
     boolean supportsWebWorkers,
     boolean needsEagerInit) {
+    this(name, canOverrideExistingModule, supportsWebWorkers, needsEagerInit, new Class<?>[0]);
+  }
+
+  public ReactModuleInfo(
+    String name,
+    boolean canOverrideExistingModule,
+    boolean supportsWebWorkers,
+    boolean needsEagerInit,
+    Class<?>[] dependencies) {
     mName = name;
     mCanOverrideExistingModule = canOverrideExistingModule;
     mSupportsWebWorkers = supportsWebWorkers;
     mNeedsEagerInit = needsEagerInit;
+    mDependencies = dependencies;
   }
 
   @Override
@@ -43,4 +54,11 @@ public class ReactModuleInfo implements Info {
   public boolean needsEagerInit() {
     return mNeedsEagerInit;
   }
+
+  /**
+   * @return the native module classes that have to be created before this module
+   */
+  public Class<?>[] dependencies() {
+    return mDependencies;
+  }
 }
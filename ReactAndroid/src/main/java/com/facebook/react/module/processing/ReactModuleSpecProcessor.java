@@ -147,14 +147,21 @@ public class ReactModuleSpecProcessor extends AbstractProcessor {
             keyString + " not found by ReactModuleSpecProcessor. " +
             "Did you forget to add the @ReactModule annotation to the native module?");
         }
-        String valueString = new StringBuilder()
+        StringBuilder valueBuilder = new StringBuilder()
           .append("new ReactModuleInfo(")
           .append("\"").append(reactModule.name()).append("\"").append(", ")
           .append(reactModule.canOverrideExistingModule()).append(", ")
           .append(reactModule.supportsWebWorkers()).append(", ")
-          .append(reactModule.needsEagerInit())
-          .append(")")
-          .toString();
+          .append(reactModule.needsEagerInit());
+        List<String> dependencies = getDependencies(reactModule);
+        if (!dependencies.isEmpty()) {
+          valueBuilder.append(", new Class[] {");
+          for (int i = 0; i < dependencies.size(); i++) {
+            valueBuilder.append(i == 0 ? "" : ", ").append(dependencies.get(i)).append(".class");
+          }
+          valueBuilder.append("}");
+        }
+        String valueString = valueBuilder.append(")").toString();
 
         builder.addStatement("map.put(" + keyString + ", " + valueString + ")");
       }
@@ -163,6 +170,19 @@ public class ReactModuleSpecProcessor extends AbstractProcessor {
     return builder.build();
   }
 
+  private static List<String> getDependencies(ReactModule reactModule) {
+    List<String> dependencies = new ArrayList<>();
+    try {
+      reactModule.dependencies(); // throws MirroredTypesException
+    } catch (MirroredTypesException mirroredTypesException) {
+      List<? extends TypeMirror> typeMirrors = mirroredTypesException.getTypeMirrors();
+      for (TypeMirror typeMirror : typeMirrors) {
+        dependencies.add(typeMirror.toString());
+      }
+    }
+    return dependencies;
+  }
+
   private static class ReactModuleSpecException extends Exception {
 
     public final String mMessage;
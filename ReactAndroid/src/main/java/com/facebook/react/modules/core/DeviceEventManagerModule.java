@@ -14,6 +14,7 @@ import javax.annotation.Nullable;
 import android.net.Uri;
 
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.GenerateJSModuleStub;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -29,6 +30,7 @@ import com.facebook.react.module.annotations.ReactModule;
 @ReactModule(name = "DeviceEventManager")
 public class DeviceEventManagerModule extends ReactContextBaseJavaModule {
 
+  @GenerateJSModuleStub
   @SupportsWebWorkers
   public interface RCTDeviceEventEmitter extends JavaScriptModule {
     void emit(String eventName, @Nullable Object data);
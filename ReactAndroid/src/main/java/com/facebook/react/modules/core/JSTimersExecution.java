@@ -9,10 +9,12 @@
 
 package com.facebook.react.modules.core;
 
+import com.facebook.react.bridge.GenerateJSModuleStub;
 import com.facebook.react.bridge.JavaScriptModule;
 import com.facebook.react.bridge.SupportsWebWorkers;
 import com.facebook.react.bridge.WritableArray;
 
+@GenerateJSModuleStub
 @SupportsWebWorkers
 public interface JSTimersExecution extends JavaScriptModule {
   void callTimers(WritableArray timerIDs);
@@ -11,11 +11,13 @@ package com.facebook.react.modules.core;
 
 import javax.annotation.Nullable;
 
+import com.facebook.react.bridge.GenerateJSModuleStub;
 import com.facebook.react.bridge.JavaScriptModule;
 
 /**
  * Module that handles global application events.
  */
+@GenerateJSModuleStub
 public interface RCTNativeAppEventEmitter extends JavaScriptModule {
   void emit(String eventName, @Nullable Object data);
 }
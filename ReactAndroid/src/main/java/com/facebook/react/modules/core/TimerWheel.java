@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel with a resolution of one millisecond. Adding and removing an entry is
+ * O(1): entries are kept in intrusive doubly linked lists, one per slot. The first level has a
+ * slot per millisecond for the next 256ms, each following level covers 64 times the range of the
+ * previous one with 64 slots, and entries further away than that wait in an overflow list. When
+ * a level wraps around, the current slot of the next level is cascaded down, so that an entry is
+ * moved at most once per level before it expires. The overflow list is checked each time the last
+ * level moves to its next slot.
+ *
+ * Not thread safe, callers need to synchronize access.
+ */
+/* package */ class TimerWheel<T extends TimerWheel.Entry> {
+
+  /**
+   * A node of the wheel. An entry can be in at most one wheel at a time.
+   */
+  /* package */ static class Entry {
+    private long mExpirationTime;
+    private int mLevel = NOT_SCHEDULED;
+    private @Nullable Entry mPrev;
+    private @Nullable Entry mNext;
+
+    /* package */ long getExpirationTime() {
+      return mExpirationTime;
+    }
+
+    /* package */ boolean isScheduled() {
+      return mLevel != NOT_SCHEDULED;
+    }
+  }
+
+  private static final int NOT_SCHEDULED = -1;
+  private static final int[] LEVEL_BITS = {8, 6, 6, 6};
+  private static final int LEVEL_COUNT = LEVEL_BITS.length;
+  // The overflow list is handled as an additional level with a single slot
+  private static final int OVERFLOW_LEVEL = LEVEL_COUNT;
+  private static final int[] LEVEL_SHIFTS = new int[LEVEL_COUNT + 1];
+  private static final int[] LEVEL_OFFSETS = new int[LEVEL_COUNT + 1];
+  private static final int SLOT_COUNT;
+
+  static {
+    int shift = 0;
+    int offset = 0;
+    for (int level = 0; level < LEVEL_COUNT; level++) {
+      LEVEL_SHIFTS[level] = shift;
+      LEVEL_OFFSETS[level] = offset;
+      shift += LEVEL_BITS[level];
+      offset += 1 << LEVEL_BITS[level];
+    }
+    LEVEL_SHIFTS[OVERFLOW_LEVEL] = shift;
+    LEVEL_OFFSETS[OVERFLOW_LEVEL] = offset;
+    SLOT_COUNT = offset + 1;
+  }
+
+  // Sentinel of the circular list of each slot
+  private final Entry[] mSlots = new Entry[SLOT_COUNT];
+  private final int[] mLevelSizes = new int[LEVEL_COUNT + 1];
+  private int mSize;
+  // The next millisecond to be processed by advance()
+  private long mCurrentTime;
+
+  /* package */ TimerWheel() {
+    for (int i = 0; i < SLOT_COUNT; i++) {
+      Entry sentinel = new Entry();
+      sentinel.mPrev = sentinel;
+      sentinel.mNext = sentinel;
+      mSlots[i] = sentinel;
+    }
+  }
+
+  /* package */ int size() {
+    return mSize;
+  }
+
+  /**
+   * Schedules the given entry to expire once the wheel is advanced past {@code expirationTime}.
+   *
+   * @param currentTime the current time, used as the origin of the wheel when it is empty
+   */
+  /* package */ void add(T entry, long expirationTime, long currentTime) {
+    Entry node = entry;
+    if (node.isScheduled()) {
+      throw new IllegalStateException("Entry is already scheduled");
+    }
+    if (mSize == 0) {
+      mCurrentTime = currentTime;
+    }
+    node.mExpirationTime = expirationTime;
+    insert(node);
+    mSize++;
+  }
+
+  /**
+   * @return whether the entry was scheduled in this wheel
+   */
+  /* package */ boolean remove(T entry) {
+    if (!entry.isScheduled()) {
+      return false;
+    }
+    unlink(entry);
+    mSize--;
+    return true;
+  }
+
+  /**
+   * Moves the wheel to the given time and removes the entries expiring before it.
+   *
+   * @param expired receives the expired entries, ordered by expiration time
+   */
+  @SuppressWarnings("unchecked")
+  /* package */ void advance(long time, List<T> expired) {
+    while (mCurrentTime < time) {
+      if (mSize == 0) {
+        mCurrentTime = time;
+        return;
+      }
+
+      long currentTime = mCurrentTime;
+      for (int level = OVERFLOW_LEVEL; level > 0; level--) {
+        if ((currentTime & ((1L << cascadeShift(level)) - 1)) == 0) {
+          cascade(slotIndex(level, currentTime));
+        }
+      }
+
+      Entry sentinel = mSlots[slotIndex(0, currentTime)];
+      while (sentinel.mNext != sentinel) {
+        Entry entry = sentinel.mNext;
+        unlink(entry);
+        mSize--;
+        expired.add((T) entry);
+      }
+
+      mCurrentTime = Math.min(nextEventTime(currentTime + 1), time);
+    }
+  }
+
+  /**
+   * Nothing happens in the wheel until the next boundary of the lowest level holding entries, so
+   * the empty milliseconds before it can be skipped.
+   */
+  private long nextEventTime(long time) {
+    int level = 0;
+    while (level < OVERFLOW_LEVEL && mLevelSizes[level] == 0) {
+      level++;
+    }
+    if (level == 0) {
+      return time;
+    }
+    long granularity = 1L << cascadeShift(level);
+    return (time + granularity - 1) & ~(granularity - 1);
+  }
+
+  /**
+   * @return the number of low bits of the times at which the given level is cascaded that are 0
+   */
+  private static int cascadeShift(int level) {
+    return LEVEL_SHIFTS[Math.min(level, LEVEL_COUNT - 1)];
+  }
+
+  private void cascade(int slotIndex) {
+    Entry sentinel = mSlots[slotIndex];
+    Entry entry = sentinel.mNext;
+    // Detach the list first, entries may be inserted back into the same slot
+    sentinel.mPrev = sentinel;
+    sentinel.mNext = sentinel;
+    while (entry != sentinel) {
+      Entry next = entry.mNext;
+      mLevelSizes[entry.mLevel]--;
+      insert(entry);
+      entry = next;
+    }
+  }
+
+  private void insert(Entry entry) {
+    long delta = entry.mExpirationTime - mCurrentTime;
+    int level;
+    int slotIndex;
+    if (delta < 0) {
+      // Already expired, fire on the next advance
+      level = 0;
+      slotIndex = slotIndex(0, mCurrentTime);
+    } else {
+      level = 0;
+      while (level < LEVEL_COUNT && delta >= 1L << LEVEL_SHIFTS[level + 1]) {
+        level++;
+      }
+      slotIndex = slotIndex(level, entry.mExpirationTime);
+    }
+
+    Entry sentinel = mSlots[slotIndex];
+    Entry last = sentinel.mPrev;
+    entry.mPrev = last;
+    entry.mNext = sentinel;
+    last.mNext = entry;
+    sentinel.mPrev = entry;
+    entry.mLevel = level;
+    mLevelSizes[level]++;
+  }
+
+  private void unlink(Entry entry) {
+    entry.mPrev.mNext = entry.mNext;
+    entry.mNext.mPrev = entry.mPrev;
+    entry.mPrev = null;
+    entry.mNext = null;
+    mLevelSizes[entry.mLevel]--;
+    entry.mLevel = NOT_SCHEDULED;
+  }
+
+  private static int slotIndex(int level, long time) {
+    if (level == OVERFLOW_LEVEL) {
+      return LEVEL_OFFSETS[OVERFLOW_LEVEL];
+    }
+    int mask = (1 << LEVEL_BITS[level]) - 1;
+    return LEVEL_OFFSETS[level] + (int) ((time >> LEVEL_SHIFTS[level]) & mask);
+  }
+}
@@ -12,12 +12,10 @@ package com.facebook.react.modules.core;
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -29,6 +27,7 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ExecutorToken;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.OnExecutorUnregisteredListener;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -42,11 +41,12 @@ import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.ReactChoreographer;
 
 /**
- * Native module for JS timer execution. Timers fire on frame boundaries.
+ * Native module for JS timer execution. Timers fire on frame boundaries, all the timers that
+ * expired since the previous frame are passed to JS in one call per ExecutorToken.
  */
 @ReactModule(name = Timing.NAME, supportsWebWorkers = true)
 public final class Timing extends ReactContextBaseJavaModule implements LifecycleEventListener,
-  OnExecutorUnregisteredListener, HeadlessJsTaskEventListener {
+  OnExecutorUnregisteredListener, HeadlessJsTaskEventListener, PerformanceCounter {
 
   protected static final String NAME = "Timing";
 
@@ -60,23 +60,20 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
   private final DevSupportManager mDevSupportManager;
 
-  private static class Timer {
+  private static class Timer extends TimerWheel.Entry {
 
     private final ExecutorToken mExecutorToken;
     private final int mCallbackID;
     private final boolean mRepeat;
     private final int mInterval;
-    private long mTargetTime;
 
     private Timer(
         ExecutorToken executorToken,
         int callbackID,
-        long initialTargetTime,
         int duration,
         boolean repeat) {
       mExecutorToken = executorToken;
       mCallbackID = callbackID;
-      mTargetTime = initialTargetTime;
       mInterval = duration;
       mRepeat = repeat;
     }
@@ -86,6 +83,8 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
     // Temporary map for constructing the individual arrays of timers per ExecutorToken
     private final HashMap<ExecutorToken, WritableArray> mTimersToCall = new HashMap<>();
+    // Temporary list of the timers that expired in this frame
+    private final ArrayList<Timer> mExpiredTimers = new ArrayList<>();
 
     /**
      * Calls all timers that have expired since the last time this frame callback was called.
@@ -98,8 +97,9 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
       long frameTimeMillis = frameTimeNanos / 1000000;
       synchronized (mTimerGuard) {
-        while (!mTimers.isEmpty() && mTimers.peek().mTargetTime < frameTimeMillis) {
-          Timer timer = mTimers.poll();
+        mTimers.advance(frameTimeMillis, mExpiredTimers);
+        for (int i = 0; i < mExpiredTimers.size(); i++) {
+          Timer timer = mExpiredTimers.get(i);
           WritableArray timersForContext = mTimersToCall.get(timer.mExecutorToken);
           if (timersForContext == null) {
             timersForContext = Arguments.createArray();
@@ -107,8 +107,7 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
           }
           timersForContext.pushInt(timer.mCallbackID);
           if (timer.mRepeat) {
-            timer.mTargetTime = frameTimeMillis + timer.mInterval;
-            mTimers.add(timer);
+            mTimers.add(timer, frameTimeMillis + timer.mInterval, frameTimeMillis);
           } else {
             SparseArray<Timer> timers = mTimerIdsToTimers.get(timer.mExecutorToken);
             if (timers != null) {
@@ -119,6 +118,8 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
             }
           }
         }
+        mFiredTimerCount += mExpiredTimers.size();
+        mExpiredTimers.clear();
       }
 
       for (Map.Entry<ExecutorToken, WritableArray> entry : mTimersToCall.entrySet()) {
@@ -198,7 +199,7 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
 
   private final Object mTimerGuard = new Object();
   private final Object mIdleCallbackGuard = new Object();
-  private final PriorityQueue<Timer> mTimers;
+  private final TimerWheel<Timer> mTimers;
   private final Map<ExecutorToken, SparseArray<Timer>> mTimerIdsToTimers;
   private final AtomicBoolean isPaused = new AtomicBoolean(true);
   private final AtomicBoolean isRunningTasks = new AtomicBoolean(false);
@@ -211,26 +212,15 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
   private final Set<ExecutorToken> mSendIdleEventsExecutorTokens;
   // Temporary array used to dipatch idle callbacks on the JS thread.
   private final List<ExecutorToken> mIdleCallbackContextsToCall;
+  // Guarded by mTimerGuard
+  private long mFiredTimerCount;
+  private long mCancelledTimerCount;
 
   public Timing(ReactApplicationContext reactContext, DevSupportManager devSupportManager) {
     super(reactContext);
     mDevSupportManager = devSupportManager;
-    // We store timers sorted by finish time.
-    mTimers = new PriorityQueue<Timer>(
-        11, // Default capacity: for some reason they don't expose a (Comparator) constructor
-        new Comparator<Timer>() {
-          @Override
-          public int compare(Timer lhs, Timer rhs) {
-            long diff = lhs.mTargetTime - rhs.mTargetTime;
-            if (diff == 0) {
-              return 0;
-            } else if (diff < 0) {
-              return -1;
-            } else {
-              return 1;
-            }
-          }
-        });
+    // We store timers by finish time.
+    mTimers = new TimerWheel<>();
     mTimerIdsToTimers = new HashMap<>();
     mSendIdleEventsExecutorTokens = new HashSet<>();
     mIdleCallbackContextsToCall = new ArrayList<>();
@@ -359,6 +349,17 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
     return true;
   }
 
+  @Override
+  public Map<String, Double> getPerformanceCounters() {
+    Map<String, Double> perfMap = new HashMap<>();
+    synchronized (mTimerGuard) {
+      perfMap.put("FiredTimerCount", (double) mFiredTimerCount);
+      perfMap.put("CancelledTimerCount", (double) mCancelledTimerCount);
+      perfMap.put("ActiveTimerCount", (double) mTimers.size());
+    }
+    return perfMap;
+  }
+
   @Override
   public void onExecutorDestroyed(ExecutorToken executorToken) {
     synchronized (mTimerGuard) {
@@ -410,10 +411,10 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
       return;
     }
 
-    long initialTargetTime = SystemClock.nanoTime() / 1000000 + adjustedDuration;
-    Timer timer = new Timer(executorToken, callbackID, initialTargetTime, duration, repeat);
+    long currentTime = SystemClock.nanoTime() / 1000000;
+    Timer timer = new Timer(executorToken, callbackID, duration, repeat);
     synchronized (mTimerGuard) {
-      mTimers.add(timer);
+      mTimers.add(timer, currentTime + adjustedDuration, currentTime);
       SparseArray<Timer> timersForContext = mTimerIdsToTimers.get(executorToken);
       if (timersForContext == null) {
         timersForContext = new SparseArray<>();
@@ -439,7 +440,9 @@ public final class Timing extends ReactContextBaseJavaModule implements Lifecycl
       if (timersForContext.size() == 0) {
         mTimerIdsToTimers.remove(executorToken);
       }
-      mTimers.remove(timer);
+      if (mTimers.remove(timer)) {
+        mCancelledTimerCount++;
+      }
     }
   }
 
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.network;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import android.util.SparseArray;
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
+import com.facebook.react.uimanager.ReactChoreographer;
+
+/**
+ * Collects the events {@link ResponseUtil} sends for all requests and delivers them to JS once
+ * per frame, as a single didReceiveNetworkEvents event per JS context. Its data is an array of
+ * [eventName, args] entries that RCTNetworking replays in order.
+ *
+ * Progress events of a request that haven't been delivered yet are replaced by newer ones, and
+ * consecutive incremental data events of a request are merged into one, so JS only sees the
+ * latest progress. Any other event is delivered as is, so events of a request keep their order.
+ */
+/* package */ class NetworkEventBatcher {
+
+  // Keep in sync with RCTNetworking.android.js
+  /* package */ static final String BATCH_EVENT_NAME = "didReceiveNetworkEvents";
+
+  private static final String EVENT_DATA_SEND = "didSendNetworkData";
+  private static final String EVENT_DATA_RECEIVED_PROGRESS = "didReceiveNetworkDataProgress";
+  private static final String EVENT_INCREMENTAL_DATA_RECEIVED =
+      "didReceiveNetworkIncrementalData";
+
+  private static class PendingEvent {
+    private final RCTDeviceEventEmitter mTarget;
+    private final String mEventName;
+    private final int mRequestId;
+    private WritableArray mArgs;
+    // Data of merged incremental data events, null until a second event is merged in
+    private @Nullable StringBuilder mMergedData;
+
+    private PendingEvent(
+        RCTDeviceEventEmitter target,
+        String eventName,
+        int requestId,
+        WritableArray args) {
+      mTarget = target;
+      mEventName = eventName;
+      mRequestId = requestId;
+      mArgs = args;
+    }
+
+    private WritableArray getArgs() {
+      if (mMergedData == null) {
+        return mArgs;
+      }
+      WritableArray args = Arguments.createArray();
+      args.pushInt(mRequestId);
+      args.pushString(mMergedData.toString());
+      args.pushInt(mArgs.getInt(2));
+      args.pushInt(mArgs.getInt(3));
+      return args;
+    }
+  }
+
+  private final Object mLock = new Object();
+
+  @GuardedBy("mLock")
+  private ArrayList<PendingEvent> mPendingEvents = new ArrayList<>();
+  // Pending events that can still be replaced or merged, per request
+  @GuardedBy("mLock")
+  private final SparseArray<PendingEvent> mPendingDataSendEvents = new SparseArray<>();
+  @GuardedBy("mLock")
+  private final SparseArray<PendingEvent> mPendingProgressEvents = new SparseArray<>();
+  @GuardedBy("mLock")
+  private final SparseArray<PendingEvent> mPendingIncrementalDataEvents = new SparseArray<>();
+  @GuardedBy("mLock")
+  private boolean mHasScheduledFlush = false;
+
+  @GuardedBy("mLock")
+  private long mBatchedEventCount = 0;
+  @GuardedBy("mLock")
+  private long mEmittedBatchCount = 0;
+  @GuardedBy("mLock")
+  private long mDroppedEventCount = 0;
+  @GuardedBy("mLock")
+  private long mMergedEventCount = 0;
+
+  private final Choreographer.FrameCallback mFlushFrameCallback =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          flush();
+        }
+      };
+
+  private final Runnable mScheduleFlushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      ReactChoreographer.getInstance()
+          .postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, mFlushFrameCallback);
+    }
+  };
+
+  /**
+   * @return an emitter that adds the events sent through it to the batch going to the given
+   * emitter
+   */
+  public RCTDeviceEventEmitter getBatchingEmitter(final RCTDeviceEventEmitter target) {
+    return new RCTDeviceEventEmitter() {
+      @Override
+      public void emit(String eventName, @Nullable Object data) {
+        addEvent(target, eventName, (WritableArray) data);
+      }
+    };
+  }
+
+  /* package */ void addEvent(
+      RCTDeviceEventEmitter target,
+      String eventName,
+      WritableArray args) {
+    int requestId = args.getInt(0);
+    boolean scheduleFlush;
+    synchronized (mLock) {
+      mBatchedEventCount++;
+      if (EVENT_DATA_SEND.equals(eventName)) {
+        replaceOrAdd(mPendingDataSendEvents, target, eventName, requestId, args);
+      } else if (EVENT_DATA_RECEIVED_PROGRESS.equals(eventName)) {
+        replaceOrAdd(mPendingProgressEvents, target, eventName, requestId, args);
+      } else if (EVENT_INCREMENTAL_DATA_RECEIVED.equals(eventName)) {
+        mergeOrAdd(target, eventName, requestId, args);
+      } else {
+        // Later events of the request mustn't be moved ahead of this one
+        mPendingDataSendEvents.remove(requestId);
+        mPendingProgressEvents.remove(requestId);
+        mPendingIncrementalDataEvents.remove(requestId);
+        mPendingEvents.add(new PendingEvent(target, eventName, requestId, args));
+      }
+      scheduleFlush = !mHasScheduledFlush;
+      mHasScheduledFlush = true;
+    }
+    if (scheduleFlush) {
+      UiThreadUtil.runOnUiThread(mScheduleFlushRunnable);
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void replaceOrAdd(
+      SparseArray<PendingEvent> pendingEvents,
+      RCTDeviceEventEmitter target,
+      String eventName,
+      int requestId,
+      WritableArray args) {
+    PendingEvent pendingEvent = pendingEvents.get(requestId);
+    if (pendingEvent != null && pendingEvent.mTarget == target) {
+      pendingEvent.mArgs = args;
+      mDroppedEventCount++;
+      return;
+    }
+    pendingEvent = new PendingEvent(target, eventName, requestId, args);
+    pendingEvents.put(requestId, pendingEvent);
+    mPendingEvents.add(pendingEvent);
+  }
+
+  @GuardedBy("mLock")
+  private void mergeOrAdd(
+      RCTDeviceEventEmitter target,
+      String eventName,
+      int requestId,
+      WritableArray args) {
+    PendingEvent pendingEvent = mPendingIncrementalDataEvents.get(requestId);
+    if (pendingEvent != null && pendingEvent.mTarget == target) {
+      if (pendingEvent.mMergedData == null) {
+        pendingEvent.mMergedData = new StringBuilder(pendingEvent.mArgs.getString(1));
+      }
+      pendingEvent.mMergedData.append(args.getString(1));
+      // Keeps the latest progress
+      pendingEvent.mArgs = args;
+      mMergedEventCount++;
+      return;
+    }
+    pendingEvent = new PendingEvent(target, eventName, requestId, args);
+    mPendingIncrementalDataEvents.put(requestId, pendingEvent);
+    mPendingEvents.add(pendingEvent);
+  }
+
+  /**
+   * Delivers the pending events to JS.
+   */
+  /* package */ void flush() {
+    ArrayList<PendingEvent> pendingEvents;
+    synchronized (mLock) {
+      mHasScheduledFlush = false;
+      if (mPendingEvents.isEmpty()) {
+        return;
+      }
+      pendingEvents = mPendingEvents;
+      mPendingEvents = new ArrayList<>();
+      mPendingDataSendEvents.clear();
+      mPendingProgressEvents.clear();
+      mPendingIncrementalDataEvents.clear();
+    }
+
+    // Requests of different JS contexts, e.g. web workers, go to their own emitter
+    Map<RCTDeviceEventEmitter, WritableArray> batches = new IdentityHashMap<>(1);
+    for (int i = 0; i < pendingEvents.size(); i++) {
+      PendingEvent pendingEvent = pendingEvents.get(i);
+      WritableArray batch = batches.get(pendingEvent.mTarget);
+      if (batch == null) {
+        batch = Arguments.createArray();
+        batches.put(pendingEvent.mTarget, batch);
+      }
+      WritableArray entry = Arguments.createArray();
+      entry.pushString(pendingEvent.mEventName);
+      entry.pushArray(pendingEvent.getArgs());
+      batch.pushArray(entry);
+    }
+    for (Map.Entry<RCTDeviceEventEmitter, WritableArray> batch : batches.entrySet()) {
+      batch.getKey().emit(BATCH_EVENT_NAME, batch.getValue());
+    }
+    synchronized (mLock) {
+      mEmittedBatchCount += batches.size();
+    }
+  }
+
+  /**
+   * Drops the pending events, e.g. when the instance is being destroyed.
+   */
+  public void clear() {
+    synchronized (mLock) {
+      mPendingEvents.clear();
+      mPendingDataSendEvents.clear();
+      mPendingProgressEvents.clear();
+      mPendingIncrementalDataEvents.clear();
+    }
+  }
+
+  /**
+   * @return number of events sent through batching emitters
+   */
+  public long getBatchedEventCount() {
+    synchronized (mLock) {
+      return mBatchedEventCount;
+    }
+  }
+
+  /**
+   * @return number of didReceiveNetworkEvents events sent to JS
+   */
+  public long getEmittedBatchCount() {
+    synchronized (mLock) {
+      return mEmittedBatchCount;
+    }
+  }
+
+  /**
+   * @return number of progress events replaced by a newer one before being delivered
+   */
+  public long getDroppedEventCount() {
+    synchronized (mLock) {
+      return mDroppedEventCount;
+    }
+  }
+
+  /**
+   * @return number of incremental data events merged into an earlier one
+   */
+  public long getMergedEventCount() {
+    synchronized (mLock) {
+      return mMergedEventCount;
+    }
+  }
+}
@@ -11,20 +11,29 @@ package com.facebook.react.modules.network;
 
 import javax.annotation.Nullable;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import android.net.Uri;
+import android.os.AsyncTask;
+import android.os.Process;
 import android.util.Base64;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ExecutorToken;
 import com.facebook.react.bridge.GuardedAsyncTask;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
@@ -46,13 +55,16 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
 import okio.ByteString;
+import okio.Okio;
 
 /**
  * Implements the XMLHttpRequest JavaScript interface.
  */
 @ReactModule(name = NetworkingModule.NAME, supportsWebWorkers = true)
-public final class NetworkingModule extends ReactContextBaseJavaModule {
+public final class NetworkingModule extends ReactContextBaseJavaModule
+    implements PerformanceCounter {
 
   protected static final String NAME = "Networking";
 
@@ -63,15 +75,27 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
   private static final String REQUEST_BODY_KEY_FORMDATA = "formData";
   private static final String REQUEST_BODY_KEY_BASE64 = "base64";
   private static final String USER_AGENT_HEADER_NAME = "user-agent";
+  private static final String RESPONSE_TYPE_TEXT = "text";
+  private static final String RESPONSE_TYPE_BASE64 = "base64";
+  private static final String RESPONSE_TYPE_FILE = "file";
+  private static final String RESPONSE_FILE_PREFIX = "ReactNative_response_";
+  private static final String RESPONSE_FILE_DIRECTORY = "ReactNative_responses";
   private static final int CHUNK_TIMEOUT_NS = 100 * 1000000; // 100ms
   private static final int MAX_CHUNK_SIZE_BETWEEN_FLUSHES = 8 * 1024; // 8K
 
+  private static final AtomicInteger sNextResponseFileDirectoryId = new AtomicInteger();
+
   private final OkHttpClient mClient;
   private final ForwardingCookieHandler mCookieHandler;
   private final @Nullable String mDefaultUserAgent;
   private final CookieJarContainer mCookieJarContainer;
   private final Set<Integer> mRequestIds;
+  private final File mResponseFileDirectory;
+  private final NetworkEventBatcher mEventBatcher = new NetworkEventBatcher();
   private boolean mShuttingDown;
+  private volatile boolean mEventBatchingEnabled = false;
+  private volatile long mProgressEventIntervalNs = CHUNK_TIMEOUT_NS;
+  private volatile int mMaxIncrementalDataSize = MAX_CHUNK_SIZE_BETWEEN_FLUSHES;
 
   /* package */ NetworkingModule(
       ReactApplicationContext reactContext,
@@ -94,6 +118,14 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
     mShuttingDown = false;
     mDefaultUserAgent = defaultUserAgent;
     mRequestIds = new HashSet<>();
+    // Every instance writes its 'file' responses to its own directory, named after the process,
+    // so that it never deletes the files of other instances that are still alive
+    File responseFileRoot = new File(reactContext.getCacheDir(), RESPONSE_FILE_DIRECTORY);
+    mResponseFileDirectory = new File(
+        responseFileRoot,
+        Process.myPid() + "_" + sNextResponseFileDirectoryId.getAndIncrement());
+    new CleanStaleResponseFilesTask(reactContext, responseFileRoot)
+        .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
   }
 
   /**
@@ -153,6 +185,32 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
 
     mCookieHandler.destroy();
     mCookieJarContainer.removeCookieJar();
+    mEventBatcher.clear();
+    new CleanTask(getReactApplicationContext(), mResponseFileDirectory)
+        .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+  }
+
+  /**
+   * When enabled, the events of all requests are sent to JS once per frame in a single
+   * didReceiveNetworkEvents event, and progress events that are superseded before being sent are
+   * dropped, see {@link NetworkEventBatcher}. Only affects requests sent afterwards. Requires a JS
+   * bundle whose RCTNetworking handles didReceiveNetworkEvents.
+   */
+  public void setEventBatchingEnabled(boolean eventBatchingEnabled) {
+    mEventBatchingEnabled = eventBatchingEnabled;
+  }
+
+  /**
+   * Sets how often progress and incremental data events are sent to JS for a single request. Data
+   * received in between is coalesced into a single event, as long as it stays below the given size.
+   *
+   * @param maxIncrementalDataSize number of characters of a text response after which the data
+   * received so far is sent to JS regardless of the interval
+   * @param minIntervalMs minimum time between two progress events of a request
+   */
+  public void setProgressEventBudget(int maxIncrementalDataSize, int minIntervalMs) {
+    mMaxIncrementalDataSize = Math.max(1, maxIncrementalDataSize);
+    mProgressEventIntervalNs = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minIntervalMs));
   }
 
   @ReactMethod
@@ -196,7 +254,7 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
                 if (!done && !shouldDispatch(now, last)) {
                   return;
                 }
-                if (responseType.equals("text")) {
+                if (responseType.equals(RESPONSE_TYPE_TEXT)) {
                   // For 'text' responses we continuously send response data with progress info to
                   // JS below, so no need to do anything here.
                   return;
@@ -354,18 +412,21 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
             try {
               // If JS wants progress updates during the download, and it requested a text response,
               // periodically send response data updates to JS.
-              if (useIncrementalUpdates && responseType.equals("text")) {
+              if (useIncrementalUpdates && responseType.equals(RESPONSE_TYPE_TEXT)) {
                 readWithProgress(eventEmitter, requestId, responseBody);
                 ResponseUtil.onRequestSuccess(eventEmitter, requestId);
                 return;
               }
 
-              // Otherwise send the data in one big chunk, in the format that JS requested.
+              // Otherwise send the data in one big chunk, in the format that JS requested. 'file'
+              // responses are streamed to a file, JS only gets its uri.
               String responseString = "";
-              if (responseType.equals("text")) {
+              if (responseType.equals(RESPONSE_TYPE_TEXT)) {
                 responseString = responseBody.string();
-              } else if (responseType.equals("base64")) {
+              } else if (responseType.equals(RESPONSE_TYPE_BASE64)) {
                 responseString = Base64.encodeToString(responseBody.bytes(), Base64.NO_WRAP);
+              } else if (responseType.equals(RESPONSE_TYPE_FILE)) {
+                responseString = writeToFile(requestId, responseBody);
               }
               ResponseUtil.onDataReceived(eventEmitter, requestId, responseString);
               ResponseUtil.onRequestSuccess(eventEmitter, requestId);
@@ -376,30 +437,53 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
         });
   }
 
+  /**
+   * Sends the text of the response to JS as it is received. Data read within the progress event
+   * interval is coalesced into a single event, unless it grows above the incremental data budget.
+   *
+   * Each event still needs its own string and arguments array, since both are handed over to the
+   * bridge. Coalescing keeps the number of events, and therefore of those allocations, bounded by
+   * the progress event budget rather than by the size of the response.
+   */
   private void readWithProgress(
       RCTDeviceEventEmitter eventEmitter,
       int requestId,
       ResponseBody responseBody) throws IOException {
-    long totalBytesRead = -1;
+    ProgressResponseBody progressResponseBody = null;
     long contentLength = -1;
-    try {
-      ProgressResponseBody progressResponseBody = (ProgressResponseBody) responseBody;
-      totalBytesRead = progressResponseBody.totalBytesRead();
+    if (responseBody instanceof ProgressResponseBody) {
+      progressResponseBody = (ProgressResponseBody) responseBody;
       contentLength = progressResponseBody.contentLength();
-    } catch (ClassCastException e) {
-      // Ignore
     }
 
+    int maxIncrementalDataSize = mMaxIncrementalDataSize;
     Reader reader = responseBody.charStream();
     try {
       char[] buffer = new char[MAX_CHUNK_SIZE_BETWEEN_FLUSHES];
+      StringBuilder pendingData =
+          new StringBuilder(Math.min(maxIncrementalDataSize, MAX_CHUNK_SIZE_BETWEEN_FLUSHES));
+      long lastFlush = System.nanoTime();
       int read;
       while ((read = reader.read(buffer)) != -1) {
+        pendingData.append(buffer, 0, read);
+        long now = System.nanoTime();
+        if (pendingData.length() >= maxIncrementalDataSize || shouldDispatch(now, lastFlush)) {
+          ResponseUtil.onIncrementalDataReceived(
+            eventEmitter,
+            requestId,
+            pendingData.toString(),
+            progressResponseBody != null ? progressResponseBody.totalBytesRead() : -1,
+            contentLength);
+          pendingData.setLength(0);
+          lastFlush = now;
+        }
+      }
+      if (pendingData.length() > 0) {
         ResponseUtil.onIncrementalDataReceived(
           eventEmitter,
           requestId,
-          new String(buffer, 0, read),
-          totalBytesRead,
+          pendingData.toString(),
+          progressResponseBody != null ? progressResponseBody.totalBytesRead() : -1,
           contentLength);
       }
     } finally {
@@ -407,8 +491,33 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
     }
   }
 
-  private static boolean shouldDispatch(long now, long last) {
-    return last + CHUNK_TIMEOUT_NS < now;
+  /**
+   * Streams the response into a file in the response file directory of this instance, without
+   * holding it in memory.
+   *
+   * @return the file:// uri of the file
+   */
+  private String writeToFile(int requestId, ResponseBody responseBody) throws IOException {
+    mResponseFileDirectory.mkdirs();
+    File responseFile = File.createTempFile(
+        RESPONSE_FILE_PREFIX + requestId + "_",
+        null,
+        mResponseFileDirectory);
+    BufferedSink sink = Okio.buffer(Okio.sink(responseFile));
+    try {
+      sink.writeAll(responseBody.source());
+    } catch (IOException e) {
+      responseFile.delete();
+      throw e;
+    } finally {
+      sink.close();
+      responseBody.close();
+    }
+    return Uri.fromFile(responseFile).toString();
+  }
+
+  private boolean shouldDispatch(long now, long last) {
+    return last + mProgressEventIntervalNs < now;
   }
 
   private synchronized void addRequest(int requestId) {
@@ -459,6 +568,25 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
     }.execute();
   }
 
+  /**
+   * Deletes a file a 'file' response was written to. Files that aren't removed are deleted when
+   * the instance is destroyed.
+   */
+  @ReactMethod
+  public void removeResponseFile(ExecutorToken executorToken, String uri) {
+    final File responseFile = new File(Uri.parse(uri).getPath());
+    if (!responseFile.getName().startsWith(RESPONSE_FILE_PREFIX) ||
+        !mResponseFileDirectory.equals(responseFile.getParentFile())) {
+      return;
+    }
+    new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
+      @Override
+      protected void doInBackgroundGuarded(Void... params) {
+        responseFile.delete();
+      }
+    }.execute();
+  }
+
   @ReactMethod
   public void clearCookies(
       ExecutorToken executorToken,
@@ -570,7 +698,82 @@ public final class NetworkingModule extends ReactContextBaseJavaModule {
   }
 
   private RCTDeviceEventEmitter getEventEmitter(ExecutorToken ExecutorToken) {
-    return getReactApplicationContext()
+    RCTDeviceEventEmitter eventEmitter = getReactApplicationContext()
         .getJSModule(ExecutorToken, RCTDeviceEventEmitter.class);
+    return mEventBatchingEnabled ?
+        mEventBatcher.getBatchingEmitter(eventEmitter) :
+        eventEmitter;
+  }
+
+  @Override
+  public Map<String, Double> getPerformanceCounters() {
+    Map<String, Double> perfMap = new HashMap<>();
+    perfMap.put("NetworkEventsBatched", (double) mEventBatcher.getBatchedEventCount());
+    perfMap.put("NetworkEventBatches", (double) mEventBatcher.getEmittedBatchCount());
+    perfMap.put("NetworkEventsDropped", (double) mEventBatcher.getDroppedEventCount());
+    perfMap.put("NetworkEventsMerged", (double) mEventBatcher.getMergedEventCount());
+    return perfMap;
+  }
+
+  private static void deleteResponseFileDirectory(File directory) {
+    File[] toDelete = directory.listFiles();
+    if (toDelete != null) {
+      for (File file : toDelete) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  /**
+   * Deletes the files the 'file' responses of a module instance were written to. This is run when
+   * the catalyst instance is being destroyed.
+   */
+  private static class CleanTask extends GuardedAsyncTask<Void, Void> {
+    private final File mDirectory;
+
+    private CleanTask(ReactContext context, File directory) {
+      super(context);
+      mDirectory = directory;
+    }
+
+    @Override
+    protected void doInBackgroundGuarded(Void... params) {
+      deleteResponseFileDirectory(mDirectory);
+    }
+  }
+
+  /**
+   * Deletes the response file directories of processes that are gone. This is run when the module
+   * is instantiated, to handle the case where the app crashed before the catalyst instance was
+   * destroyed.
+   */
+  private static class CleanStaleResponseFilesTask extends GuardedAsyncTask<Void, Void> {
+    private final File mRootDirectory;
+
+    private CleanStaleResponseFilesTask(ReactContext context, File rootDirectory) {
+      super(context);
+      mRootDirectory = rootDirectory;
+    }
+
+    @Override
+    protected void doInBackgroundGuarded(Void... params) {
+      File[] directories = mRootDirectory.listFiles();
+      if (directories == null) {
+        return;
+      }
+      String currentPid = String.valueOf(Process.myPid());
+      for (File directory : directories) {
+        String name = directory.getName();
+        int separatorIndex = name.indexOf('_');
+        if (separatorIndex == -1) {
+          continue;
+        }
+        String pid = name.substring(0, separatorIndex);
+        if (!pid.equals(currentPid) && !new File("/proc/" + pid).exists()) {
+          deleteResponseFileDirectory(directory);
+        }
+      }
+    }
   }
 }
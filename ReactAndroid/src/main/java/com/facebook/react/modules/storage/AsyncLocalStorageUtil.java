@@ -11,13 +11,12 @@ package com.facebook.react.modules.storage;
 
 import javax.annotation.Nullable;
 
-import java.util.Arrays;
 import java.util.Iterator;
 
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.text.TextUtils;
+import android.util.LruCache;
 
 import com.facebook.react.bridge.ReadableArray;
 
@@ -33,15 +32,34 @@ import static com.facebook.react.modules.storage.ReactDatabaseSupplier.VALUE_COL
  */
 public class AsyncLocalStorageUtil {
 
+  // SQL variable number limit, defined by SQLITE_LIMIT_VARIABLE_NUMBER:
+  // https://raw.githubusercontent.com/android/platform_external_sqlite/master/dist/sqlite3.c
+  /* package */ static final int MAX_SQL_KEYS = 999;
+
+  // Number of key selections kept. Operations on many keys mostly use full chunks of MAX_SQL_KEYS
+  // keys, plus a smaller last chunk.
+  private static final int KEY_SELECTION_CACHE_SIZE = 16;
+
+  private static final LruCache<Integer, String> sKeySelections =
+      new LruCache<>(KEY_SELECTION_CACHE_SIZE);
+
   /**
    * Build the String required for an SQL select statement:
    *  WHERE key IN (?, ?, ..., ?)
    * without 'WHERE' and with selectionCount '?'
    */
   /* package */ static String buildKeySelection(int selectionCount) {
-    String[] list = new String[selectionCount];
-    Arrays.fill(list, "?");
-    return KEY_COLUMN + " IN (" + TextUtils.join(", ", list) + ")";
+    String selection = sKeySelections.get(selectionCount);
+    if (selection == null) {
+      StringBuilder builder = new StringBuilder(KEY_COLUMN.length() + 6 + selectionCount * 3);
+      builder.append(KEY_COLUMN).append(" IN (");
+      for (int i = 0; i < selectionCount; i++) {
+        builder.append(i == 0 ? "?" : ", ?");
+      }
+      selection = builder.append(')').toString();
+      sKeySelections.put(selectionCount, selection);
+    }
+    return selection;
   }
 
   /**
@@ -108,19 +126,23 @@ public class AsyncLocalStorageUtil {
    */
   /* package */ static boolean mergeImpl(SQLiteDatabase db, String key, String value)
       throws JSONException {
-    String oldValue = getItemImpl(db, key);
-    String newValue;
+    String newValue = mergeValues(getItemImpl(db, key), value);
+    return setItemImpl(db, key, newValue);
+  }
 
+  /**
+   * Merges the given value into the stored value of a key.
+   * @return the merged value, or the given value if there is no stored value
+   */
+  /* package */ static String mergeValues(@Nullable String oldValue, String value)
+      throws JSONException {
     if (oldValue == null) {
-      newValue = value;
-    } else {
-      JSONObject oldJSON = new JSONObject(oldValue);
-      JSONObject newJSON = new JSONObject(value);
-      deepMergeInto(oldJSON, newJSON);
-      newValue = oldJSON.toString();
+      return value;
     }
-
-    return setItemImpl(db, key, newValue);
+    JSONObject oldJSON = new JSONObject(oldValue);
+    JSONObject newJSON = new JSONObject(value);
+    deepMergeInto(oldJSON, newJSON);
+    return oldJSON.toString();
   }
 
   /**
@@ -9,15 +9,23 @@
 
 package com.facebook.react.modules.storage;
 
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 import android.database.Cursor;
 import android.database.sqlite.SQLiteStatement;
 
 import com.facebook.common.logging.FLog;
+import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.GuardedAsyncTask;
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -29,26 +37,36 @@ import com.facebook.react.common.SetBuilder;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.common.ModuleDataCleaner;
 
+import static com.facebook.react.modules.storage.AsyncLocalStorageUtil.MAX_SQL_KEYS;
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.KEY_COLUMN;
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.TABLE_CATALYST;
 import static com.facebook.react.modules.storage.ReactDatabaseSupplier.VALUE_COLUMN;
 
 @ReactModule(name = AsyncStorageModule.NAME)
 public final class AsyncStorageModule
-    extends ReactContextBaseJavaModule implements ModuleDataCleaner.Cleanable {
+    extends ReactContextBaseJavaModule
+    implements ModuleDataCleaner.Cleanable, LifecycleEventListener, PerformanceCounter {
 
   protected static final String NAME = "AsyncSQLiteDBStorage";
 
-  // SQL variable number limit, defined by SQLITE_LIMIT_VARIABLE_NUMBER:
-  // https://raw.githubusercontent.com/android/platform_external_sqlite/master/dist/sqlite3.c
-  private static final int MAX_SQL_KEYS = 999;
-
   private ReactDatabaseSupplier mReactDatabaseSupplier;
+  private final @Nullable CachedAsyncStorage mCachedStorage;
   private boolean mShuttingDown = false;
 
   public AsyncStorageModule(ReactApplicationContext reactContext) {
+    this(reactContext, false);
+  }
+
+  /**
+   * @param writeBehindCacheEnabled whether values are cached in memory and changes are written to
+   * the database in the background, see {@link CachedAsyncStorage} for the durability guarantees
+   */
+  public AsyncStorageModule(ReactApplicationContext reactContext, boolean writeBehindCacheEnabled) {
     super(reactContext);
     mReactDatabaseSupplier = ReactDatabaseSupplier.getInstance(reactContext);
+    mCachedStorage = writeBehindCacheEnabled ?
+        new CachedAsyncStorage(mReactDatabaseSupplier) :
+        null;
   }
 
   @Override
@@ -60,11 +78,37 @@ public final class AsyncStorageModule
   public void initialize() {
     super.initialize();
     mShuttingDown = false;
+    if (mCachedStorage != null) {
+      getReactApplicationContext().addLifecycleEventListener(this);
+    }
   }
 
   @Override
   public void onCatalystInstanceDestroy() {
     mShuttingDown = true;
+    if (mCachedStorage != null) {
+      getReactApplicationContext().removeLifecycleEventListener(this);
+      mCachedStorage.flushInBackground();
+    }
+  }
+
+  @Override
+  public void onHostResume() {
+  }
+
+  @Override
+  public void onHostPause() {
+    // The process may be killed any time while in the background
+    if (mCachedStorage != null) {
+      mCachedStorage.flushInBackground();
+    }
+  }
+
+  @Override
+  public void onHostDestroy() {
+    if (mCachedStorage != null) {
+      mCachedStorage.flushInBackground();
+    }
   }
 
   @Override
@@ -72,9 +116,26 @@ public final class AsyncStorageModule
     // Clear local storage. If fails, crash, since the app is potentially in a bad state and could
     // cause a privacy violation. We're still not recovering from this well, but at least the error
     // will be reported to the server.
+    if (mCachedStorage != null) {
+      mCachedStorage.reset();
+    }
     mReactDatabaseSupplier.clearAndCloseDatabase();
   }
 
+  @Override
+  public Map<String, Double> getPerformanceCounters() {
+    Map<String, Double> perfMap = new HashMap<>();
+    if (mCachedStorage != null) {
+      perfMap.put("AsyncStorageCacheHits", (double) mCachedStorage.getHitCount());
+      perfMap.put("AsyncStorageCacheMisses", (double) mCachedStorage.getMissCount());
+      perfMap.put("AsyncStorageWrites", (double) mCachedStorage.getWriteCount());
+      perfMap.put("AsyncStorageFlushes", (double) mCachedStorage.getFlushCount());
+      perfMap.put("AsyncStorageFlushedWrites", (double) mCachedStorage.getFlushedWriteCount());
+      perfMap.put("AsyncStorageFailedFlushes", (double) mCachedStorage.getFailedFlushCount());
+    }
+    return perfMap;
+  }
+
   /**
    * Given an array of keys, this returns a map of (key, value) pairs for the keys found, and
    * (key, null) for the keys that haven't been found.
@@ -85,6 +146,10 @@ public final class AsyncStorageModule
       callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null), null);
       return;
     }
+    if (mCachedStorage != null) {
+      multiGetCached(keys, callback);
+      return;
+    }
 
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
@@ -95,7 +160,7 @@ public final class AsyncStorageModule
         }
 
         String[] columns = {KEY_COLUMN, VALUE_COLUMN};
-        HashSet<String> keysRemaining = SetBuilder.newHashSet();
+        HashSet<String> keysFound = SetBuilder.newHashSet();
         WritableArray data = Arguments.createArray();
         for (int keyStart = 0; keyStart < keys.size(); keyStart += MAX_SQL_KEYS) {
           int keyCount = Math.min(keys.size() - keyStart, MAX_SQL_KEYS);
@@ -107,24 +172,21 @@ public final class AsyncStorageModule
               null,
               null,
               null);
-          keysRemaining.clear();
+          // When some keys have not been found, or a key was given twice, the found keys are
+          // remembered to insert the other keys with null into the final array
+          boolean allKeysFound;
           try {
-            if (cursor.getCount() != keys.size()) {
-              // some keys have not been found - insert them with null into the final array
-              for (int keyIndex = keyStart; keyIndex < keyStart + keyCount; keyIndex++) {
-                keysRemaining.add(keys.getString(keyIndex));
+            allKeysFound = cursor.getCount() == keyCount;
+            while (cursor.moveToNext()) {
+              String key = cursor.getString(0);
+              WritableArray row = Arguments.createArray();
+              row.pushString(key);
+              row.pushString(cursor.getString(1));
+              data.pushArray(row);
+              if (!allKeysFound) {
+                keysFound.add(key);
               }
             }
-
-            if (cursor.moveToFirst()) {
-              do {
-                WritableArray row = Arguments.createArray();
-                row.pushString(cursor.getString(0));
-                row.pushString(cursor.getString(1));
-                data.pushArray(row);
-                keysRemaining.remove(cursor.getString(0));
-              } while (cursor.moveToNext());
-            }
           } catch (Exception e) {
             FLog.w(ReactConstants.TAG, e.getMessage(), e);
             callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
@@ -133,13 +195,18 @@ public final class AsyncStorageModule
             cursor.close();
           }
 
-          for (String key : keysRemaining) {
-            WritableArray row = Arguments.createArray();
-            row.pushString(key);
-            row.pushNull();
-            data.pushArray(row);
+          if (!allKeysFound) {
+            for (int keyIndex = keyStart; keyIndex < keyStart + keyCount; keyIndex++) {
+              String key = keys.getString(keyIndex);
+              if (keysFound.add(key)) {
+                WritableArray row = Arguments.createArray();
+                row.pushString(key);
+                row.pushNull();
+                data.pushArray(row);
+              }
+            }
+            keysFound.clear();
           }
-          keysRemaining.clear();
         }
 
         callback.invoke(null, data);
@@ -158,6 +225,10 @@ public final class AsyncStorageModule
       callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null));
       return;
     }
+    if (mCachedStorage != null) {
+      multiSetCached(keyValueArray, callback, false);
+      return;
+    }
 
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
@@ -167,11 +238,10 @@ public final class AsyncStorageModule
           return;
         }
 
-        String sql = "INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);";
-        SQLiteStatement statement = mReactDatabaseSupplier.get().compileStatement(sql);
         WritableMap error = null;
         try {
           mReactDatabaseSupplier.get().beginTransaction();
+          SQLiteStatement statement = mReactDatabaseSupplier.getInsertStatement();
           for (int idx=0; idx < keyValueArray.size(); idx++) {
             if (keyValueArray.getArray(idx).size() != 2) {
               error = AsyncStorageErrorUtil.getInvalidValueError(null);
@@ -223,6 +293,10 @@ public final class AsyncStorageModule
       callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null));
       return;
     }
+    if (mCachedStorage != null) {
+      multiRemoveCached(keys, callback);
+      return;
+    }
 
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
@@ -235,12 +309,19 @@ public final class AsyncStorageModule
         WritableMap error = null;
         try {
           mReactDatabaseSupplier.get().beginTransaction();
-          for (int keyStart = 0; keyStart < keys.size(); keyStart += MAX_SQL_KEYS) {
-            int keyCount = Math.min(keys.size() - keyStart, MAX_SQL_KEYS);
-            mReactDatabaseSupplier.get().delete(
-                TABLE_CATALYST,
-                AsyncLocalStorageUtil.buildKeySelection(keyCount),
-                AsyncLocalStorageUtil.buildKeySelectionArgs(keys, keyStart, keyCount));
+          if (keys.size() == 1) {
+            SQLiteStatement statement = mReactDatabaseSupplier.getDeleteStatement();
+            statement.clearBindings();
+            statement.bindString(1, keys.getString(0));
+            statement.execute();
+          } else {
+            for (int keyStart = 0; keyStart < keys.size(); keyStart += MAX_SQL_KEYS) {
+              int keyCount = Math.min(keys.size() - keyStart, MAX_SQL_KEYS);
+              mReactDatabaseSupplier.get().delete(
+                  TABLE_CATALYST,
+                  AsyncLocalStorageUtil.buildKeySelection(keyCount),
+                  AsyncLocalStorageUtil.buildKeySelectionArgs(keys, keyStart, keyCount));
+            }
           }
           mReactDatabaseSupplier.get().setTransactionSuccessful();
         } catch (Exception e) {
@@ -271,6 +352,10 @@ public final class AsyncStorageModule
    */
   @ReactMethod
   public void multiMerge(final ReadableArray keyValueArray, final Callback callback) {
+    if (mCachedStorage != null) {
+      multiSetCached(keyValueArray, callback, true);
+      return;
+    }
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
       protected void doInBackgroundGuarded(Void... params) {
@@ -333,6 +418,10 @@ public final class AsyncStorageModule
    */
   @ReactMethod
   public void clear(final Callback callback) {
+    if (mCachedStorage != null) {
+      clearCached(callback);
+      return;
+    }
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
       protected void doInBackgroundGuarded(Void... params) {
@@ -356,6 +445,10 @@ public final class AsyncStorageModule
    */
   @ReactMethod
   public void getAllKeys(final Callback callback) {
+    if (mCachedStorage != null) {
+      getAllKeysCached(callback);
+      return;
+    }
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
       protected void doInBackgroundGuarded(Void... params) {
@@ -368,10 +461,8 @@ public final class AsyncStorageModule
         Cursor cursor = mReactDatabaseSupplier.get()
             .query(TABLE_CATALYST, columns, null, null, null, null, null);
         try {
-          if (cursor.moveToFirst()) {
-            do {
-              data.pushString(cursor.getString(0));
-            } while (cursor.moveToNext());
+          while (cursor.moveToNext()) {
+            data.pushString(cursor.getString(0));
           }
         } catch (Exception e) {
           FLog.w(ReactConstants.TAG, e.getMessage(), e);
@@ -385,6 +476,162 @@ public final class AsyncStorageModule
     }.execute();
   }
 
+  private void multiGetCached(final ReadableArray keys, final Callback callback) {
+    final CachedAsyncStorage storage = Assertions.assertNotNull(mCachedStorage);
+    storage.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (!ensureDatabase()) {
+          callback.invoke(AsyncStorageErrorUtil.getDBError(null), null);
+          return;
+        }
+        String[] keyArray = new String[keys.size()];
+        for (int i = 0; i < keyArray.length; i++) {
+          keyArray[i] = keys.getString(i);
+        }
+        String[] values;
+        try {
+          values = storage.multiGet(keyArray);
+        } catch (Exception e) {
+          FLog.w(ReactConstants.TAG, e.getMessage(), e);
+          callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
+          return;
+        }
+
+        WritableArray data = Arguments.createArray();
+        for (int i = 0; i < keyArray.length; i++) {
+          WritableArray row = Arguments.createArray();
+          row.pushString(keyArray[i]);
+          if (values[i] != null) {
+            row.pushString(values[i]);
+          } else {
+            row.pushNull();
+          }
+          data.pushArray(row);
+        }
+        callback.invoke(null, data);
+      }
+    });
+  }
+
+  private void multiSetCached(
+      final ReadableArray keyValueArray,
+      final Callback callback,
+      final boolean merge) {
+    final CachedAsyncStorage storage = Assertions.assertNotNull(mCachedStorage);
+    storage.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (!ensureDatabase()) {
+          callback.invoke(AsyncStorageErrorUtil.getDBError(null));
+          return;
+        }
+        // Like the transaction of the database backend, nothing is written if a pair is invalid
+        String[] keys = new String[keyValueArray.size()];
+        String[] values = new String[keyValueArray.size()];
+        for (int idx = 0; idx < keys.length; idx++) {
+          ReadableArray keyValue = keyValueArray.getArray(idx);
+          if (keyValue.size() != 2) {
+            callback.invoke(AsyncStorageErrorUtil.getInvalidValueError(null));
+            return;
+          }
+          keys[idx] = keyValue.getString(0);
+          if (keys[idx] == null) {
+            callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null));
+            return;
+          }
+          values[idx] = keyValue.getString(1);
+          if (values[idx] == null) {
+            callback.invoke(AsyncStorageErrorUtil.getInvalidValueError(null));
+            return;
+          }
+        }
+
+        try {
+          if (merge) {
+            storage.multiMerge(keys, values);
+          } else {
+            storage.multiSet(keys, values);
+          }
+        } catch (Exception e) {
+          FLog.w(ReactConstants.TAG, e.getMessage(), e);
+          callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()));
+          return;
+        }
+        callback.invoke();
+      }
+    });
+  }
+
+  private void multiRemoveCached(final ReadableArray keys, final Callback callback) {
+    final CachedAsyncStorage storage = Assertions.assertNotNull(mCachedStorage);
+    storage.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (!ensureDatabase()) {
+          callback.invoke(AsyncStorageErrorUtil.getDBError(null));
+          return;
+        }
+        String[] keyArray = new String[keys.size()];
+        for (int i = 0; i < keyArray.length; i++) {
+          keyArray[i] = keys.getString(i);
+          if (keyArray[i] == null) {
+            callback.invoke(AsyncStorageErrorUtil.getInvalidKeyError(null));
+            return;
+          }
+        }
+        storage.multiRemove(keyArray);
+        callback.invoke();
+      }
+    });
+  }
+
+  private void clearCached(final Callback callback) {
+    final CachedAsyncStorage storage = Assertions.assertNotNull(mCachedStorage);
+    storage.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (!ensureDatabase()) {
+          callback.invoke(AsyncStorageErrorUtil.getDBError(null));
+          return;
+        }
+        try {
+          storage.clear();
+          callback.invoke();
+        } catch (Exception e) {
+          FLog.w(ReactConstants.TAG, e.getMessage(), e);
+          callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()));
+        }
+      }
+    });
+  }
+
+  private void getAllKeysCached(final Callback callback) {
+    final CachedAsyncStorage storage = Assertions.assertNotNull(mCachedStorage);
+    storage.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (!ensureDatabase()) {
+          callback.invoke(AsyncStorageErrorUtil.getDBError(null), null);
+          return;
+        }
+        List<String> keys;
+        try {
+          keys = storage.getAllKeys();
+        } catch (Exception e) {
+          FLog.w(ReactConstants.TAG, e.getMessage(), e);
+          callback.invoke(AsyncStorageErrorUtil.getError(null, e.getMessage()), null);
+          return;
+        }
+        WritableArray data = Arguments.createArray();
+        for (int i = 0; i < keys.size(); i++) {
+          data.pushString(keys.get(i));
+        }
+        callback.invoke(null, data);
+      }
+    });
+  }
+
   /**
    * Verify the database is open for reads and writes.
    */
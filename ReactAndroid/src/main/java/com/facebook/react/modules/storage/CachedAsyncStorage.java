@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.storage;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.LruCache;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
+
+import org.json.JSONException;
+
+import static com.facebook.react.modules.storage.AsyncLocalStorageUtil.MAX_SQL_KEYS;
+import static com.facebook.react.modules.storage.ReactDatabaseSupplier.KEY_COLUMN;
+import static com.facebook.react.modules.storage.ReactDatabaseSupplier.TABLE_CATALYST;
+import static com.facebook.react.modules.storage.ReactDatabaseSupplier.VALUE_COLUMN;
+
+/**
+ * AsyncStorage backend that keeps the values of recently used keys in memory and writes changes
+ * to the database behind the caller, grouping the writes of several operations into one
+ * transaction.
+ *
+ * Operations are submitted through {@link #execute} and run one after the other on a single
+ * storage thread, in the order they were submitted, so every operation sees the effects of all
+ * the operations submitted before it.
+ *
+ * Durability: a write is visible to all later operations once its operation has completed, but
+ * only reaches the database when the pending writes are flushed. That happens at most
+ * {@link #WRITE_BEHIND_DELAY_MS} after the first write that hasn't been flushed, before the keys
+ * are listed, and when {@link #flushInBackground} is called, e.g. when the app goes to the
+ * background. Writes that haven't been flushed are lost if the process dies. A flush commits all
+ * pending writes in one transaction, so the database never contains part of a flush. If a flush
+ * fails, its writes stay pending and visible to reads, and the flush is retried with a delay that
+ * doubles after every failure, up to {@link #MAX_FLUSH_RETRY_DELAY_MS}.
+ */
+/* package */ class CachedAsyncStorage {
+
+  /* package */ static final long WRITE_BEHIND_DELAY_MS = 100;
+  /* package */ static final long MAX_FLUSH_RETRY_DELAY_MS = 30 * 1000;
+
+  // Total length of the cached keys and values, in characters
+  private static final int DEFAULT_MAX_CACHE_SIZE = 512 * 1024;
+  private static final long STORAGE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+  // Cached and pending value of keys that aren't stored, compared by identity
+  private static final String ABSENT = new String("<absent>");
+
+  private static @Nullable ScheduledThreadPoolExecutor sStorageExecutor;
+
+  /**
+   * The storage thread is shared by all instances, so that operations of a new instance run after
+   * the flush of the instance it replaces.
+   */
+  private static synchronized ScheduledExecutorService getStorageExecutor() {
+    if (sStorageExecutor == null) {
+      sStorageExecutor = new ScheduledThreadPoolExecutor(
+          1,
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              return new Thread(runnable, "react_async_storage");
+            }
+          });
+      sStorageExecutor.setKeepAliveTime(STORAGE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+      sStorageExecutor.allowCoreThreadTimeOut(true);
+    }
+    return sStorageExecutor;
+  }
+
+  private final ReactDatabaseSupplier mReactDatabaseSupplier;
+  private final ScheduledExecutorService mExecutor;
+  private final long mWriteBehindDelayMs;
+  private final LruCache<String, String> mCache;
+  // Values written since the last flush, ABSENT for removed keys
+  private final LinkedHashMap<String, String> mPendingWrites = new LinkedHashMap<>();
+  private boolean mHasScheduledFlush = false;
+  private int mConsecutiveFailedFlushCount = 0;
+
+  private long mHitCount = 0;
+  private long mMissCount = 0;
+  private long mWriteCount = 0;
+  private long mFlushCount = 0;
+  private long mFlushedWriteCount = 0;
+  private long mFailedFlushCount = 0;
+
+  private final Runnable mFlushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flush();
+    }
+  };
+
+  /* package */ CachedAsyncStorage(ReactDatabaseSupplier reactDatabaseSupplier) {
+    this(
+        reactDatabaseSupplier,
+        getStorageExecutor(),
+        DEFAULT_MAX_CACHE_SIZE,
+        WRITE_BEHIND_DELAY_MS);
+  }
+
+  @VisibleForTesting
+  /* package */ CachedAsyncStorage(
+      ReactDatabaseSupplier reactDatabaseSupplier,
+      ScheduledExecutorService executor,
+      int maxCacheSize,
+      long writeBehindDelayMs) {
+    mReactDatabaseSupplier = reactDatabaseSupplier;
+    mExecutor = executor;
+    mWriteBehindDelayMs = writeBehindDelayMs;
+    mCache = new LruCache<String, String>(maxCacheSize) {
+      @Override
+      protected int sizeOf(String key, String value) {
+        return key.length() + value.length();
+      }
+    };
+  }
+
+  /**
+   * Runs the given operation on the storage thread, after all operations submitted earlier.
+   */
+  public void execute(Runnable operation) {
+    mExecutor.execute(operation);
+  }
+
+  /**
+   * Submits a flush of the pending writes.
+   */
+  public void flushInBackground() {
+    mExecutor.execute(mFlushRunnable);
+  }
+
+  /**
+   * @return the values of the given keys, null for keys that aren't stored
+   */
+  public synchronized String[] multiGet(String[] keys) {
+    String[] values = new String[keys.length];
+    boolean[] missing = null;
+    List<String> missingKeys = null;
+    for (int i = 0; i < keys.length; i++) {
+      String value = getInMemory(keys[i]);
+      if (value != null) {
+        mHitCount++;
+        values[i] = value == ABSENT ? null : value;
+      } else {
+        mMissCount++;
+        if (missingKeys == null) {
+          missing = new boolean[keys.length];
+          missingKeys = new ArrayList<>();
+        }
+        missing[i] = true;
+        missingKeys.add(keys[i]);
+      }
+    }
+    if (missingKeys == null) {
+      return values;
+    }
+
+    Map<String, String> storedValues = queryValues(missingKeys);
+    for (int i = 0; i < keys.length; i++) {
+      if (missing[i]) {
+        String value = storedValues.get(keys[i]);
+        mCache.put(keys[i], value != null ? value : ABSENT);
+        values[i] = value;
+      }
+    }
+    return values;
+  }
+
+  public synchronized void multiSet(String[] keys, String[] values) {
+    for (int i = 0; i < keys.length; i++) {
+      write(keys[i], values[i]);
+    }
+  }
+
+  public synchronized void multiRemove(String[] keys) {
+    for (int i = 0; i < keys.length; i++) {
+      write(keys[i], ABSENT);
+    }
+  }
+
+  /**
+   * Merges each value into the stored value of its key. Nothing is written if any of the values
+   * can't be merged.
+   */
+  public synchronized void multiMerge(String[] keys, String[] values) throws JSONException {
+    String[] oldValues = multiGet(keys);
+    // Holds the merged values, so that a key given twice gets both values merged into it
+    Map<String, String> mergedValues = new HashMap<>();
+    for (int i = 0; i < keys.length; i++) {
+      String oldValue = mergedValues.containsKey(keys[i]) ?
+          mergedValues.get(keys[i]) :
+          oldValues[i];
+      mergedValues.put(keys[i], AsyncLocalStorageUtil.mergeValues(oldValue, values[i]));
+    }
+    for (Map.Entry<String, String> mergedValue : mergedValues.entrySet()) {
+      write(mergedValue.getKey(), mergedValue.getValue());
+    }
+  }
+
+  /**
+   * @return all stored keys, including the ones written since the last flush
+   */
+  public synchronized List<String> getAllKeys() {
+    flush();
+    Cursor cursor = mReactDatabaseSupplier.get().query(
+        TABLE_CATALYST,
+        new String[] {KEY_COLUMN},
+        null,
+        null,
+        null,
+        null,
+        null);
+    Set<String> keys;
+    try {
+      keys = new LinkedHashSet<>(cursor.getCount());
+      while (cursor.moveToNext()) {
+        keys.add(cursor.getString(0));
+      }
+    } finally {
+      cursor.close();
+    }
+    // Writes are only left pending here if the flush failed
+    for (Map.Entry<String, String> write : mPendingWrites.entrySet()) {
+      if (write.getValue() == ABSENT) {
+        keys.remove(write.getKey());
+      } else {
+        keys.add(write.getKey());
+      }
+    }
+    return new ArrayList<>(keys);
+  }
+
+  public synchronized void clear() {
+    mPendingWrites.clear();
+    mConsecutiveFailedFlushCount = 0;
+    mCache.evictAll();
+    mReactDatabaseSupplier.clear();
+  }
+
+  /**
+   * Drops the cached values and the writes that haven't been flushed, used when the database is
+   * cleared directly.
+   */
+  public synchronized void reset() {
+    mPendingWrites.clear();
+    mConsecutiveFailedFlushCount = 0;
+    mCache.evictAll();
+  }
+
+  /**
+   * Writes the pending writes to the database in a single transaction. If that fails, the writes
+   * are kept and another flush is scheduled.
+   */
+  public synchronized void flush() {
+    mHasScheduledFlush = false;
+    if (mPendingWrites.isEmpty()) {
+      return;
+    }
+
+    boolean success = false;
+    try {
+      SQLiteDatabase db = mReactDatabaseSupplier.get();
+      db.beginTransaction();
+      try {
+        SQLiteStatement insertStatement = mReactDatabaseSupplier.getInsertStatement();
+        SQLiteStatement deleteStatement = mReactDatabaseSupplier.getDeleteStatement();
+        for (Map.Entry<String, String> write : mPendingWrites.entrySet()) {
+          if (write.getValue() == ABSENT) {
+            deleteStatement.bindString(1, write.getKey());
+            deleteStatement.execute();
+          } else {
+            insertStatement.bindString(1, write.getKey());
+            insertStatement.bindString(2, write.getValue());
+            insertStatement.execute();
+          }
+        }
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+      success = true;
+    } catch (Exception e) {
+      FLog.w(ReactConstants.TAG, "Failed to write AsyncStorage changes", e);
+    }
+
+    if (success) {
+      mFlushCount++;
+      mFlushedWriteCount += mPendingWrites.size();
+      mConsecutiveFailedFlushCount = 0;
+      mPendingWrites.clear();
+    } else {
+      mFailedFlushCount++;
+      mConsecutiveFailedFlushCount++;
+      // Wait longer after every failure, the database is unlikely to recover right away
+      scheduleFlush(
+          Math.min(
+              mWriteBehindDelayMs << Math.min(mConsecutiveFailedFlushCount, 16),
+              MAX_FLUSH_RETRY_DELAY_MS));
+    }
+  }
+
+  private @Nullable String getInMemory(String key) {
+    String value = mPendingWrites.get(key);
+    return value != null ? value : mCache.get(key);
+  }
+
+  private void write(String key, String value) {
+    mPendingWrites.put(key, value);
+    mCache.put(key, value);
+    mWriteCount++;
+    scheduleFlush(mWriteBehindDelayMs);
+  }
+
+  private void scheduleFlush(long delayMs) {
+    if (!mHasScheduledFlush) {
+      mHasScheduledFlush = true;
+      mExecutor.schedule(mFlushRunnable, delayMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private Map<String, String> queryValues(List<String> keys) {
+    Map<String, String> values = new HashMap<>();
+    String[] columns = {KEY_COLUMN, VALUE_COLUMN};
+    for (int keyStart = 0; keyStart < keys.size(); keyStart += MAX_SQL_KEYS) {
+      int keyCount = Math.min(keys.size() - keyStart, MAX_SQL_KEYS);
+      Cursor cursor = mReactDatabaseSupplier.get().query(
+          TABLE_CATALYST,
+          columns,
+          AsyncLocalStorageUtil.buildKeySelection(keyCount),
+          keys.subList(keyStart, keyStart + keyCount).toArray(new String[keyCount]),
+          null,
+          null,
+          null);
+      try {
+        while (cursor.moveToNext()) {
+          values.put(cursor.getString(0), cursor.getString(1));
+        }
+      } finally {
+        cursor.close();
+      }
+    }
+    return values;
+  }
+
+  /**
+   * @return number of keys read from memory
+   */
+  public synchronized long getHitCount() {
+    return mHitCount;
+  }
+
+  /**
+   * @return number of keys read from the database
+   */
+  public synchronized long getMissCount() {
+    return mMissCount;
+  }
+
+  /**
+   * @return number of keys written or removed
+   */
+  public synchronized long getWriteCount() {
+    return mWriteCount;
+  }
+
+  /**
+   * @return number of transactions the writes were grouped into
+   */
+  public synchronized long getFlushCount() {
+    return mFlushCount;
+  }
+
+  /**
+   * @return number of flushes that failed and were retried later
+   */
+  public synchronized long getFailedFlushCount() {
+    return mFailedFlushCount;
+  }
+
+  /**
+   * @return number of rows written or removed by flushes. Lower than the write count when the
+   * same key was written more than once between two flushes.
+   */
+  public synchronized long getFlushedWriteCount() {
+    return mFlushedWriteCount;
+  }
+}
@@ -15,6 +15,7 @@ import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
 import com.facebook.common.logging.FLog;
 import com.facebook.react.common.ReactConstants;
@@ -46,6 +47,10 @@ public class ReactDatabaseSupplier extends SQLiteOpenHelper {
   private Context mContext;
   private @Nullable SQLiteDatabase mDb;
   private long mMaximumDatabaseSize =  6L * 1024L * 1024L; // 6 MB in bytes
+  private boolean mWriteAheadLoggingEnabled = false;
+  // Statements compiled for mDb
+  private @Nullable SQLiteStatement mInsertStatement;
+  private @Nullable SQLiteStatement mDeleteStatement;
 
   private ReactDatabaseSupplier(Context context) {
     super(context, DATABASE_NAME, null, DATABASE_VERSION);
@@ -79,6 +84,9 @@ public class ReactDatabaseSupplier extends SQLiteOpenHelper {
     if (mDb != null && mDb.isOpen()) {
       return true;
     }
+    closeStatements();
+    // Only stored by SQLiteOpenHelper while the database is closed, and applied when it is opened
+    super.setWriteAheadLoggingEnabled(mWriteAheadLoggingEnabled);
     // Sometimes retrieving the database fails. We do 2 retries: first without database deletion
     // and then with deletion.
     SQLiteException lastSQLiteException = null;
@@ -117,6 +125,33 @@ public class ReactDatabaseSupplier extends SQLiteOpenHelper {
     return mDb;
   }
 
+  /**
+   * Returns the compiled statement setting the value of a key, which takes the key as its first
+   * argument and the value as its second. Only use it inside a transaction, so that no other
+   * thread binds its arguments at the same time.
+   */
+  /* package */ synchronized SQLiteStatement getInsertStatement() {
+    SQLiteDatabase db = get();
+    if (mInsertStatement == null) {
+      mInsertStatement =
+          db.compileStatement("INSERT OR REPLACE INTO " + TABLE_CATALYST + " VALUES (?, ?);");
+    }
+    return mInsertStatement;
+  }
+
+  /**
+   * Returns the compiled statement removing a key, which takes the key as its argument. Only use it
+   * inside a transaction, so that no other thread binds its argument at the same time.
+   */
+  /* package */ synchronized SQLiteStatement getDeleteStatement() {
+    SQLiteDatabase db = get();
+    if (mDeleteStatement == null) {
+      mDeleteStatement =
+          db.compileStatement("DELETE FROM " + TABLE_CATALYST + " WHERE " + KEY_COLUMN + " = ?;");
+    }
+    return mDeleteStatement;
+  }
+
   public synchronized void clearAndCloseDatabase() throws RuntimeException {
     try {
       clear();
@@ -148,18 +183,43 @@ public class ReactDatabaseSupplier extends SQLiteOpenHelper {
     }
   }
 
+  /**
+   * Enables or disables write-ahead logging. A transaction is then committed by appending the
+   * changes to a log instead of rewriting the database, and reading doesn't have to wait for a
+   * transaction to be committed. Disabled by default.
+   *
+   * The setting is applied when the database is opened, so it should be changed before the
+   * database is first used, e.g. when the application starts.
+   */
+  @Override
+  public synchronized void setWriteAheadLoggingEnabled(boolean enabled) {
+    mWriteAheadLoggingEnabled = enabled;
+  }
+
   private synchronized boolean deleteDatabase() {
     closeDatabase();
     return mContext.deleteDatabase(DATABASE_NAME);
   }
 
   private synchronized void closeDatabase() {
+    closeStatements();
     if (mDb != null && mDb.isOpen()) {
       mDb.close();
       mDb = null;
     }
   }
 
+  private synchronized void closeStatements() {
+    if (mInsertStatement != null) {
+      mInsertStatement.close();
+      mInsertStatement = null;
+    }
+    if (mDeleteStatement != null) {
+      mDeleteStatement.close();
+      mDeleteStatement = null;
+    }
+  }
+
   // For testing purposes only!
   public static void deleteInstance() {
     sReactDatabaseSupplierInstance = null;
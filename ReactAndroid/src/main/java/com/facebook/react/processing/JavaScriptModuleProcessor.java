@@ -0,0 +1,257 @@
+// Copyright 2004-present Facebook. All Rights Reserved.
+
+package com.facebook.react.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.facebook.infer.annotation.SuppressFieldNotInitialized;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.ExecutorToken;
+import com.facebook.react.bridge.GenerateJSModuleStub;
+import com.facebook.react.bridge.JavaScriptModule;
+import com.facebook.react.bridge.JavaScriptModuleStub;
+import com.facebook.react.bridge.WritableNativeArray;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import static javax.lang.model.element.Modifier.*;
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.WARNING;
+
+/**
+ * This annotation processor finds the JavaScriptModule interfaces annotated with
+ * @GenerateJSModuleStub and generates a class per interface that is named
+ * {@code <interfacename>$$JSModuleStub}. This class implements the
+ * interface by calling CatalystInstance#callFunction with precomputed module and method names, so
+ * that JavaScriptModuleRegistry doesn't need to create a java.lang.reflect.Proxy for it.
+ */
+@SupportedAnnotationTypes("com.facebook.react.bridge.GenerateJSModuleStub")
+@SupportedSourceVersion(SourceVersion.RELEASE_7)
+public class JavaScriptModuleProcessor extends AbstractProcessor {
+  private static final TypeName JS_MODULE_STUB_TYPE = TypeName.get(JavaScriptModuleStub.class);
+  private static final TypeName NATIVE_ARRAY_TYPE = TypeName.get(WritableNativeArray.class);
+  private static final TypeName ARGUMENTS_TYPE = TypeName.get(Arguments.class);
+
+  @SuppressFieldNotInitialized
+  private Filer mFiler;
+  @SuppressFieldNotInitialized
+  private Messager mMessager;
+  @SuppressFieldNotInitialized
+  private Elements mElements;
+  @SuppressFieldNotInitialized
+  private Types mTypes;
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    mFiler = processingEnv.getFiler();
+    mMessager = processingEnv.getMessager();
+    mElements = processingEnv.getElementUtils();
+    mTypes = processingEnv.getTypeUtils();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeMirror jsModuleType =
+        mElements.getTypeElement(JavaScriptModule.class.getName()).asType();
+
+    Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(GenerateJSModuleStub.class);
+    for (Element element : elements) {
+      if (!isModuleInterface(element, jsModuleType)) {
+        error(element, "@GenerateJSModuleStub can only be used on JavaScriptModule interfaces.");
+        continue;
+      }
+
+      TypeElement moduleInterface = (TypeElement) element;
+      try {
+        List<ExecutableElement> methods = getModuleMethods(moduleInterface);
+        if (shouldIgnoreInterface(moduleInterface, methods)) {
+          if (shouldWarnInterface(moduleInterface)) {
+            warning(
+                moduleInterface,
+                "Interface was skipped. JavaScriptModules need to be non-private to get a stub.");
+          }
+          continue;
+        }
+        generateCode(moduleInterface, methods);
+      } catch (IOException e) {
+        error(e.getMessage());
+      } catch (Exception e) {
+        error(moduleInterface, e.getMessage());
+      }
+    }
+
+    return true;
+  }
+
+  private boolean isModuleInterface(Element element, TypeMirror jsModuleType) {
+    return element.getKind() == ElementKind.INTERFACE
+        && !mTypes.isSameType(element.asType(), jsModuleType)
+        && mTypes.isSubtype(mTypes.erasure(element.asType()), jsModuleType);
+  }
+
+  /**
+   * @return the methods of the given interface and the interfaces it extends, which all need to
+   * be implemented by the stub
+   */
+  private List<ExecutableElement> getModuleMethods(TypeElement moduleInterface) {
+    List<ExecutableElement> methods = new ArrayList<>();
+    Set<String> methodNames = new HashSet<>();
+    for (ExecutableElement method :
+        ElementFilter.methodsIn(mElements.getAllMembers(moduleInterface))) {
+      if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+          || !method.getModifiers().contains(ABSTRACT)) {
+        continue;
+      }
+      if (!methodNames.add(method.getSimpleName().toString())) {
+        throw new IllegalArgumentException(
+            "Method overloading is unsupported: " + moduleInterface.getQualifiedName() + "#" +
+                method.getSimpleName());
+      }
+      methods.add(method);
+    }
+    return methods;
+  }
+
+  private static boolean shouldIgnoreInterface(
+      TypeElement moduleInterface,
+      List<ExecutableElement> methods) {
+    if (!moduleInterface.getTypeParameters().isEmpty()) {
+      return true;
+    }
+
+    Element element = moduleInterface;
+    while (element instanceof TypeElement) {
+      if (element.getModifiers().contains(PRIVATE)) {
+        return true;
+      }
+      element = element.getEnclosingElement();
+    }
+
+    // Calls to methods the stub can't express keep going through a Proxy
+    for (ExecutableElement method : methods) {
+      if (method.getReturnType().getKind() != TypeKind.VOID
+          || method.isVarArgs()
+          || !method.getTypeParameters().isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean shouldWarnInterface(TypeElement moduleInterface) {
+    return moduleInterface.getModifiers().contains(PRIVATE);
+  }
+
+  private void generateCode(TypeElement moduleInterface, List<ExecutableElement> methods)
+      throws IOException {
+    ClassName interfaceName = ClassName.get(moduleInterface);
+
+    MethodSpec constructor = MethodSpec.constructorBuilder()
+        .addModifiers(PUBLIC)
+        .addParameter(ExecutorToken.class, "executorToken")
+        .addParameter(CatalystInstance.class, "catalystInstance")
+        .addStatement("super(executorToken, catalystInstance)")
+        .build();
+
+    String stubClassName =
+        getClassName(moduleInterface, interfaceName.packageName()) + "$$JSModuleStub";
+    TypeSpec.Builder stubClass = TypeSpec.classBuilder(stubClassName)
+        .superclass(JS_MODULE_STUB_TYPE)
+        .addSuperinterface(interfaceName)
+        .addModifiers(PUBLIC)
+        .addField(
+            FieldSpec.builder(String.class, "MODULE_NAME", PRIVATE, STATIC, FINAL)
+                .initializer("$S", moduleInterface.getSimpleName().toString())
+                .build())
+        .addMethod(constructor);
+
+    for (ExecutableElement method : methods) {
+      stubClass.addMethod(generateMethod(method));
+    }
+
+    JavaFile javaFile = JavaFile.builder(interfaceName.packageName(), stubClass.build())
+        .addFileComment("Generated by " + getClass().getName())
+        .build();
+
+    javaFile.writeTo(mFiler);
+  }
+
+  private static String getClassName(TypeElement type, String packageName) {
+    int packageLen = packageName.length() + 1;
+    return type.getQualifiedName().toString().substring(packageLen).replace('.', '$');
+  }
+
+  private static MethodSpec generateMethod(ExecutableElement method) {
+    String methodName = method.getSimpleName().toString();
+    MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+        .addModifiers(PUBLIC)
+        .addAnnotation(Override.class)
+        .returns(TypeName.VOID);
+
+    CodeBlock.Builder code = CodeBlock.builder()
+        .addStatement("$T jsArguments = new $T()", NATIVE_ARRAY_TYPE, NATIVE_ARRAY_TYPE);
+    for (int i = 0, size = method.getParameters().size(); i < size; i++) {
+      TypeName parameterType = TypeName.get(method.getParameters().get(i).asType());
+      builder.addParameter(parameterType, "arg" + i);
+      addArgument(code, parameterType, "arg" + i);
+    }
+    code.addStatement("callFunction(MODULE_NAME, $S, jsArguments)", methodName);
+
+    return builder.addCode(code.build()).build();
+  }
+
+  private static void addArgument(CodeBlock.Builder code, TypeName type, String name) {
+    if (type.equals(TypeName.BOOLEAN)) {
+      code.addStatement("jsArguments.pushBoolean($L)", name);
+    } else if (type.equals(TypeName.INT)
+        || type.equals(TypeName.DOUBLE)
+        || type.equals(TypeName.FLOAT)) {
+      code.addStatement("jsArguments.pushDouble($L)", name);
+    } else {
+      code.addStatement("$T.pushJavaArg(jsArguments, $L)", ARGUMENTS_TYPE, name);
+    }
+  }
+
+  private void error(Element element, String message) {
+    mMessager.printMessage(ERROR, message, element);
+  }
+
+  private void error(String message) {
+    mMessager.printMessage(ERROR, message);
+  }
+
+  private void warning(Element element, String message) {
+    mMessager.printMessage(WARNING, message, element);
+  }
+}
@@ -0,0 +1,488 @@
+// Copyright 2004-present Facebook. All Rights Reserved.
+
+package com.facebook.react.processing;
+
+import javax.annotation.Nullable;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.facebook.infer.annotation.SuppressFieldNotInitialized;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.Dynamic;
+import com.facebook.react.bridge.ExecutorToken;
+import com.facebook.react.bridge.JavaModuleMethodInvoker;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableNativeArray;
+import com.facebook.react.bridge.UnexpectedNativeTypeException;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import static javax.lang.model.element.Modifier.*;
+import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.WARNING;
+
+/**
+ * This annotation processor finds the methods of native modules annotated with @ReactMethod and
+ * generates a class per module that is named {@code <classname>$$MethodInvoker}. This class reads
+ * the arguments of each method from the JS arguments array and calls the method directly, so that
+ * calls from JS don't need reflection or boxing of primitive arguments.
+ */
+@SupportedAnnotationTypes("com.facebook.react.bridge.ReactMethod")
+@SupportedSourceVersion(SourceVersion.RELEASE_7)
+public class ReactMethodProcessor extends AbstractProcessor {
+  private static final TypeName STRING_TYPE = TypeName.get(String.class);
+  private static final TypeName READABLE_MAP_TYPE = TypeName.get(ReadableMap.class);
+  private static final TypeName READABLE_ARRAY_TYPE = TypeName.get(ReadableArray.class);
+  private static final TypeName DYNAMIC_TYPE = TypeName.get(Dynamic.class);
+  private static final TypeName CALLBACK_TYPE = TypeName.get(Callback.class);
+  private static final TypeName PROMISE_TYPE = TypeName.get(Promise.class);
+  private static final TypeName EXECUTOR_TOKEN_TYPE = TypeName.get(ExecutorToken.class);
+
+  private static final ClassName METHOD_INVOKER_TYPE =
+      ClassName.get(JavaModuleMethodInvoker.class).nestedClass("MethodInvoker");
+  private static final TypeName INVOKER_HELPER_TYPE = TypeName.get(JavaModuleMethodInvoker.class);
+
+  @SuppressFieldNotInitialized
+  private Filer mFiler;
+  @SuppressFieldNotInitialized
+  private Messager mMessager;
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    mFiler = processingEnv.getFiler();
+    mMessager = processingEnv.getMessager();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Map<TypeElement, List<MethodInfo>> classes = new LinkedHashMap<>();
+
+    Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(ReactMethod.class);
+    for (Element element : elements) {
+      if (element.getKind() != ElementKind.METHOD) {
+        continue;
+      }
+
+      TypeElement classType = (TypeElement) element.getEnclosingElement();
+      List<MethodInfo> methods = classes.get(classType);
+      if (methods == null) {
+        methods = new ArrayList<>();
+        classes.put(classType, methods);
+      }
+
+      try {
+        MethodInfo methodInfo = parseMethod((ExecutableElement) element);
+        if (methodInfo != null) {
+          methods.add(methodInfo);
+        }
+      } catch (ReactMethodException e) {
+        error(e.element, e.getMessage());
+      }
+    }
+
+    for (Map.Entry<TypeElement, List<MethodInfo>> entry : classes.entrySet()) {
+      TypeElement classType = entry.getKey();
+      List<MethodInfo> methods = entry.getValue();
+      try {
+        if (shouldIgnoreClass(classType)) {
+          if (shouldWarnClass(classType)) {
+            warning(classType, "Class was skipped. Classes need to be non-private.");
+          }
+          continue;
+        }
+
+        // Sort by name, so that method indices are stable across builds
+        Collections.sort(
+            methods, new Comparator<MethodInfo>() {
+              @Override
+              public int compare(MethodInfo a, MethodInfo b) {
+                return a.methodName.compareTo(b.methodName);
+              }
+            });
+        checkNoOverloads(methods);
+        generateCode(classType, methods);
+      } catch (IOException e) {
+        error(e.getMessage());
+      } catch (ReactMethodException e) {
+        error(e.element, e.getMessage());
+      } catch (Exception e) {
+        error(classType, e.getMessage());
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * @return the info of the given method, or null if it can't be called from generated code and
+   * has to be invoked through reflection instead
+   */
+  private static @Nullable MethodInfo parseMethod(ExecutableElement element)
+      throws ReactMethodException {
+    if (element.getModifiers().contains(PRIVATE)) {
+      return null;
+    }
+
+    List<? extends VariableElement> parameters = element.getParameters();
+    List<TypeName> parameterTypes = new ArrayList<>(parameters.size());
+    for (int i = 0; i < parameters.size(); i++) {
+      TypeName parameterType = TypeName.get(parameters.get(i).asType());
+      if (!isSupportedType(parameterType)) {
+        throw new ReactMethodException(
+            "Argument " + i + " of " + element.getSimpleName() + " has an unsupported type " +
+                parameterType,
+            element);
+      }
+      if (parameterType.equals(PROMISE_TYPE) && i != parameters.size() - 1) {
+        throw new ReactMethodException("Promise must be used as last parameter only", element);
+      }
+      parameterTypes.add(parameterType);
+    }
+
+    return new MethodInfo(
+        element.getSimpleName().toString(),
+        parameterTypes,
+        element.getModifiers().contains(STATIC),
+        !element.getThrownTypes().isEmpty(),
+        element);
+  }
+
+  private static boolean isSupportedType(TypeName type) {
+    TypeName unboxed = type.isBoxedPrimitive() ? type.unbox() : type;
+    return unboxed.equals(TypeName.BOOLEAN)
+        || unboxed.equals(TypeName.INT)
+        || unboxed.equals(TypeName.DOUBLE)
+        || unboxed.equals(TypeName.FLOAT)
+        || type.equals(STRING_TYPE)
+        || type.equals(READABLE_MAP_TYPE)
+        || type.equals(READABLE_ARRAY_TYPE)
+        || type.equals(DYNAMIC_TYPE)
+        || type.equals(CALLBACK_TYPE)
+        || type.equals(PROMISE_TYPE)
+        || type.equals(EXECUTOR_TOKEN_TYPE);
+  }
+
+  private static void checkNoOverloads(List<MethodInfo> sortedMethods)
+      throws ReactMethodException {
+    for (int i = 1; i < sortedMethods.size(); i++) {
+      MethodInfo methodInfo = sortedMethods.get(i);
+      if (methodInfo.methodName.equals(sortedMethods.get(i - 1).methodName)) {
+        throw new ReactMethodException(
+            "Java Module method name already registered: " + methodInfo.methodName,
+            methodInfo.element);
+      }
+    }
+  }
+
+  private void generateCode(TypeElement classType, List<MethodInfo> methods) throws IOException {
+    ClassName className = ClassName.get(classType);
+
+    MethodSpec getMethodIndex = MethodSpec.methodBuilder("getMethodIndex")
+        .addModifiers(PUBLIC)
+        .addAnnotation(Override.class)
+        .addParameter(STRING_TYPE, "methodName")
+        .returns(TypeName.INT)
+        .addCode(generateGetMethodIndex(methods))
+        .build();
+
+    MethodSpec invoke = MethodSpec.methodBuilder("invoke")
+        .addModifiers(PUBLIC)
+        .addAnnotation(Override.class)
+        .addParameter(className, "module")
+        .addParameter(TypeName.INT, "methodIndex")
+        .addParameter(CatalystInstance.class, "catalystInstance")
+        .addParameter(ExecutorToken.class, "executorToken")
+        .addParameter(ReadableNativeArray.class, "jsArguments")
+        .returns(TypeName.VOID)
+        .addCode(generateInvoke(className, methods))
+        .build();
+
+    String invokerClassName = getClassName(classType, className.packageName()) + "$$MethodInvoker";
+    TypeSpec invokerClass = TypeSpec.classBuilder(invokerClassName)
+        .addSuperinterface(ParameterizedTypeName.get(METHOD_INVOKER_TYPE, className))
+        .addModifiers(PUBLIC)
+        .addMethod(getMethodIndex)
+        .addMethod(invoke)
+        .build();
+
+    JavaFile javaFile = JavaFile.builder(className.packageName(), invokerClass)
+        .addFileComment("Generated by " + getClass().getName())
+        .build();
+
+    javaFile.writeTo(mFiler);
+  }
+
+  private static String getClassName(TypeElement type, String packageName) {
+    int packageLen = packageName.length() + 1;
+    return type.getQualifiedName().toString().substring(packageLen).replace('.', '$');
+  }
+
+  private static CodeBlock generateGetMethodIndex(List<MethodInfo> methods) {
+    CodeBlock.Builder builder = CodeBlock.builder();
+    if (methods.isEmpty()) {
+      return builder.addStatement("return -1").build();
+    }
+
+    builder.add("switch (methodName) {\n").indent();
+    for (int i = 0, size = methods.size(); i < size; i++) {
+      builder
+          .add("case $S:\n", methods.get(i).methodName)
+          .indent()
+          .addStatement("return $L", i)
+          .unindent();
+    }
+    builder
+        .add("default:\n")
+        .indent()
+        .addStatement("return -1")
+        .unindent()
+        .unindent()
+        .add("}\n");
+    return builder.build();
+  }
+
+  private static CodeBlock generateInvoke(ClassName className, List<MethodInfo> methods) {
+    CodeBlock.Builder builder = CodeBlock.builder();
+    builder.add("switch (methodIndex) {\n").indent();
+    for (int i = 0, size = methods.size(); i < size; i++) {
+      MethodInfo methodInfo = methods.get(i);
+      builder.add("case $L: {\n", i).indent();
+
+      List<TypeName> parameterTypes = methodInfo.parameterTypes;
+      boolean readsJSArguments = false;
+      for (int j = 0; j < parameterTypes.size(); j++) {
+        builder.addStatement("$T arg$L", parameterTypes.get(j), j);
+        readsJSArguments |= !parameterTypes.get(j).equals(EXECUTOR_TOKEN_TYPE);
+      }
+
+      if (readsJSArguments) {
+        // Tracks the JS arguments being read, so that parse errors report them like reflection
+        builder
+            .addStatement("int jsArgumentIndex = 0")
+            .addStatement("int jsArgumentsNeeded = 1")
+            .beginControlFlow("try");
+      }
+      int jsArgumentIndex = 0;
+      int jsArgumentsNeeded = 1;
+      for (int j = 0; j < parameterTypes.size(); j++) {
+        TypeName parameterType = parameterTypes.get(j);
+        int argumentJSArgumentsNeeded = getJSArgumentsNeeded(parameterType);
+        if (argumentJSArgumentsNeeded > 0 && jsArgumentIndex > 0) {
+          builder.addStatement("jsArgumentIndex = $L", jsArgumentIndex);
+        }
+        if (argumentJSArgumentsNeeded > 0 && argumentJSArgumentsNeeded != jsArgumentsNeeded) {
+          builder.addStatement("jsArgumentsNeeded = $L", argumentJSArgumentsNeeded);
+          jsArgumentsNeeded = argumentJSArgumentsNeeded;
+        }
+        builder.add("arg$L = ", j);
+        addArgumentExtractor(builder, parameterType, jsArgumentIndex);
+        builder.add(";\n");
+        jsArgumentIndex += argumentJSArgumentsNeeded;
+      }
+      if (readsJSArguments) {
+        builder
+            .nextControlFlow("catch ($T e)", UnexpectedNativeTypeException.class)
+            .addStatement(
+                "throw $T.createArgumentsParseException(" +
+                    "e, module.getName(), $S, jsArgumentIndex, jsArgumentsNeeded)",
+                INVOKER_HELPER_TYPE,
+                methodInfo.methodName)
+            .endControlFlow();
+      }
+
+      if (methodInfo.throwsExceptions) {
+        // Checked exceptions are wrapped like reflection wraps them in InvocationTargetException
+        builder.beginControlFlow("try");
+      }
+      if (methodInfo.isStatic) {
+        builder.add("$T.$L(", className, methodInfo.methodName);
+      } else {
+        builder.add("module.$L(", methodInfo.methodName);
+      }
+      for (int j = 0; j < parameterTypes.size(); j++) {
+        builder.add(j == 0 ? "arg$L" : ", arg$L", j);
+      }
+      builder.addStatement(")");
+      if (methodInfo.throwsExceptions) {
+        builder
+            .nextControlFlow("catch ($T | $T e)", RuntimeException.class, Error.class)
+            .addStatement("throw e")
+            .nextControlFlow("catch ($T e)", Throwable.class)
+            .addStatement(
+                "throw $T.createInvocationException(e, module.getName(), $S)",
+                INVOKER_HELPER_TYPE,
+                methodInfo.methodName)
+            .endControlFlow();
+      }
+
+      builder
+          .addStatement("break")
+          .unindent()
+          .add("}\n");
+    }
+    builder
+        .add("default:\n")
+        .indent()
+        .addStatement(
+            "throw new $T($S + methodIndex)",
+            IllegalArgumentException.class,
+            "Unknown method index ")
+        .unindent()
+        .unindent()
+        .add("}\n");
+    return builder.build();
+  }
+
+  /**
+   * @return the number of JS arguments consumed by an argument of the given type
+   */
+  private static int getJSArgumentsNeeded(TypeName type) {
+    if (type.equals(EXECUTOR_TOKEN_TYPE)) {
+      return 0;
+    } else if (type.equals(PROMISE_TYPE)) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /**
+   * Adds the expression reading an argument of the given type at the given index of the JS
+   * arguments array.
+   */
+  private static void addArgumentExtractor(
+      CodeBlock.Builder builder,
+      TypeName type,
+      int atIndex) {
+    if (type.equals(EXECUTOR_TOKEN_TYPE)) {
+      builder.add("executorToken");
+    } else if (type.equals(STRING_TYPE)) {
+      builder.add("jsArguments.getString($L)", atIndex);
+    } else if (type.equals(READABLE_ARRAY_TYPE)) {
+      builder.add("jsArguments.getArray($L)", atIndex);
+    } else if (type.equals(READABLE_MAP_TYPE)) {
+      builder.add("jsArguments.getMap($L)", atIndex);
+    } else if (type.equals(DYNAMIC_TYPE)) {
+      builder.add("$T.extractDynamic(jsArguments, $L)", INVOKER_HELPER_TYPE, atIndex);
+    } else if (type.equals(CALLBACK_TYPE)) {
+      builder.add(
+          "$T.extractCallback(catalystInstance, executorToken, jsArguments, $L)",
+          INVOKER_HELPER_TYPE,
+          atIndex);
+    } else if (type.equals(PROMISE_TYPE)) {
+      builder.add(
+          "$T.extractPromise(catalystInstance, executorToken, jsArguments, $L)",
+          INVOKER_HELPER_TYPE,
+          atIndex);
+    } else {
+      TypeName unboxed = type.isBoxedPrimitive() ? type.unbox() : type;
+      if (unboxed.equals(TypeName.BOOLEAN)) {
+        builder.add("jsArguments.getBoolean($L)", atIndex);
+      } else if (unboxed.equals(TypeName.DOUBLE)) {
+        builder.add("jsArguments.getDouble($L)", atIndex);
+      } else if (unboxed.equals(TypeName.FLOAT)) {
+        builder.add("(float) jsArguments.getDouble($L)", atIndex);
+      } else if (unboxed.equals(TypeName.INT)) {
+        builder.add("(int) jsArguments.getDouble($L)", atIndex);
+      } else {
+        throw new IllegalArgumentException("Unsupported argument type " + type);
+      }
+    }
+  }
+
+  private static boolean shouldIgnoreClass(TypeElement classType) {
+    if (classType.getModifiers().contains(ABSTRACT)
+        || !classType.getTypeParameters().isEmpty()
+        || classType.getNestingKind() == NestingKind.LOCAL
+        || classType.getNestingKind() == NestingKind.ANONYMOUS) {
+      return true;
+    }
+
+    Element element = classType;
+    while (element instanceof TypeElement) {
+      if (element.getModifiers().contains(PRIVATE)) {
+        return true;
+      }
+      element = element.getEnclosingElement();
+    }
+    return false;
+  }
+
+  private static boolean shouldWarnClass(TypeElement classType) {
+    return classType.getModifiers().contains(PRIVATE);
+  }
+
+  private void error(Element element, String message) {
+    mMessager.printMessage(ERROR, message, element);
+  }
+
+  private void error(String message) {
+    mMessager.printMessage(ERROR, message);
+  }
+
+  private void warning(Element element, String message) {
+    mMessager.printMessage(WARNING, message, element);
+  }
+
+  private static class MethodInfo {
+    public final String methodName;
+    public final List<TypeName> parameterTypes;
+    public final boolean isStatic;
+    public final boolean throwsExceptions;
+    public final Element element;
+
+    private MethodInfo(
+        String methodName,
+        List<TypeName> parameterTypes,
+        boolean isStatic,
+        boolean throwsExceptions,
+        Element element) {
+      this.methodName = methodName;
+      this.parameterTypes = parameterTypes;
+      this.isStatic = isStatic;
+      this.throwsExceptions = throwsExceptions;
+      this.element = element;
+    }
+  }
+
+  private static class ReactMethodException extends Exception {
+    public final Element element;
+
+    public ReactMethodException(String message, Element element) {
+      super(message);
+      this.element = element;
+    }
+  }
+}
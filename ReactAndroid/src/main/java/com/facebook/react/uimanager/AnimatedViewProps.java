@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import javax.annotation.Nullable;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Values of the view props updated by a native driven animation. Unlike a
+ * {@link ReactStylesDiffMap}, the values are kept in preallocated arrays indexed by prop, so an
+ * instance can be reused for every frame of the animation and applied to a view with
+ * {@link BaseViewManager#updateAnimatedProps} without allocating.
+ *
+ * Only the numeric props that don't affect layout are supported, see {@link #getPropIndex}. The
+ * transform is kept either as a 4x4 matrix, in the format used by {@link TransformHelper}, or for
+ * transforms that only translate, rotate and scale, as the values of the matching view properties
+ * so that applying it doesn't need to decompose a matrix.
+ *
+ * The props that affect layout, see {@link #LAYOUT_PROP}, are collected separately into a map
+ * that is applied to the shadow view with {@link UIImplementation#enqueueAnimatedLayoutUpdate}.
+ * That map is created on every frame since it is handed over to the native modules thread.
+ */
+public final class AnimatedViewProps {
+
+  public static final int NO_PROP = -1;
+  /**
+   * Returned by {@link #getPropIndex} for the props that are applied through layout
+   */
+  public static final int LAYOUT_PROP = -2;
+  public static final int OPACITY = 0;
+  public static final int SCALE_X = 1;
+  public static final int SCALE_Y = 2;
+  public static final int TRANSLATE_X = 3;
+  public static final int TRANSLATE_Y = 4;
+
+  private static final int PROP_COUNT = 5;
+  private static final String[] PROP_NAMES = {
+      "opacity",
+      "scaleX",
+      "scaleY",
+      "translateX",
+      "translateY",
+  };
+  private static final String[] LAYOUT_PROP_NAMES = {
+      ViewProps.WIDTH,
+      ViewProps.HEIGHT,
+      ViewProps.MIN_WIDTH,
+      ViewProps.MAX_WIDTH,
+      ViewProps.MIN_HEIGHT,
+      ViewProps.MAX_HEIGHT,
+      ViewProps.LEFT,
+      ViewProps.TOP,
+      ViewProps.RIGHT,
+      ViewProps.BOTTOM,
+      ViewProps.MARGIN,
+      ViewProps.MARGIN_VERTICAL,
+      ViewProps.MARGIN_HORIZONTAL,
+      ViewProps.MARGIN_LEFT,
+      ViewProps.MARGIN_RIGHT,
+      ViewProps.MARGIN_TOP,
+      ViewProps.MARGIN_BOTTOM,
+      ViewProps.PADDING,
+      ViewProps.PADDING_VERTICAL,
+      ViewProps.PADDING_HORIZONTAL,
+      ViewProps.PADDING_LEFT,
+      ViewProps.PADDING_RIGHT,
+      ViewProps.PADDING_TOP,
+      ViewProps.PADDING_BOTTOM,
+  };
+
+  private final double[] mValues = new double[PROP_COUNT];
+  private final boolean[] mIsSet = new boolean[PROP_COUNT];
+  private final double[] mTransformMatrix = new double[16];
+  private boolean mHasTransform;
+  private boolean mHasSimpleTransform;
+  private double mTranslateX;
+  private double mTranslateY;
+  private double mRotation;
+  private double mScaleX;
+  private double mScaleY;
+  private @Nullable JavaOnlyMap mLayoutProps;
+
+  /**
+   * @return index of the prop with the given name, {@link #LAYOUT_PROP} if it is a layout prop, or
+   * {@link #NO_PROP} if it isn't supported
+   */
+  public static int getPropIndex(String name) {
+    for (int i = 0; i < PROP_COUNT; i++) {
+      if (PROP_NAMES[i].equals(name)) {
+        return i;
+      }
+    }
+    for (int i = 0; i < LAYOUT_PROP_NAMES.length; i++) {
+      if (LAYOUT_PROP_NAMES[i].equals(name)) {
+        return LAYOUT_PROP;
+      }
+    }
+    return NO_PROP;
+  }
+
+  public void clear() {
+    for (int i = 0; i < PROP_COUNT; i++) {
+      mIsSet[i] = false;
+    }
+    mHasTransform = false;
+    mHasSimpleTransform = false;
+    mLayoutProps = null;
+  }
+
+  /**
+   * @return whether any props other than layout props are set
+   */
+  public boolean hasViewProps() {
+    for (int i = 0; i < PROP_COUNT; i++) {
+      if (mIsSet[i]) {
+        return true;
+      }
+    }
+    return mHasTransform || mHasSimpleTransform;
+  }
+
+  public boolean hasValue(int prop) {
+    return mIsSet[prop];
+  }
+
+  public double getValue(int prop) {
+    return mIsSet[prop] ? mValues[prop] : Double.NaN;
+  }
+
+  public void setValue(int prop, double value) {
+    mValues[prop] = value;
+    mIsSet[prop] = true;
+  }
+
+  /**
+   * Sets the value of a prop for which {@link #getPropIndex} returned {@link #LAYOUT_PROP}.
+   */
+  public void setLayoutValue(String name, double value) {
+    if (mLayoutProps == null) {
+      mLayoutProps = new JavaOnlyMap();
+    }
+    mLayoutProps.putDouble(name, value);
+  }
+
+  /**
+   * @return the layout props set since the last {@link #clear}, which are no longer kept by this
+   * instance, or null if there are none
+   */
+  public @Nullable ReadableMap takeLayoutProps() {
+    ReadableMap layoutProps = mLayoutProps;
+    mLayoutProps = null;
+    return layoutProps;
+  }
+
+  public boolean hasTransform() {
+    return mHasTransform;
+  }
+
+  public double[] getTransformMatrix() {
+    return mTransformMatrix;
+  }
+
+  /**
+   * Resets the transform to identity.
+   *
+   * @return the matrix to apply the transforms to
+   */
+  public double[] startTransform() {
+    MatrixMathHelper.resetIdentityMatrix(mTransformMatrix);
+    mHasTransform = true;
+    return mTransformMatrix;
+  }
+
+  public boolean hasSimpleTransform() {
+    return mHasSimpleTransform;
+  }
+
+  /**
+   * Starts a transform that is applied as a scale, then a rotation around the Z axis, then a
+   * translation, which are the transforms views support directly. The values start as the ones of
+   * the identity transform.
+   */
+  public void startSimpleTransform() {
+    mTranslateX = 0;
+    mTranslateY = 0;
+    mRotation = 0;
+    mScaleX = 1;
+    mScaleY = 1;
+    mHasSimpleTransform = true;
+  }
+
+  public void translateSimpleTransform(double translateX, double translateY) {
+    mTranslateX += translateX;
+    mTranslateY += translateY;
+  }
+
+  /**
+   * @param rotation in radians
+   */
+  public void rotateSimpleTransform(double rotation) {
+    mRotation += rotation;
+  }
+
+  public void scaleSimpleTransform(double scaleX, double scaleY) {
+    mScaleX *= scaleX;
+    mScaleY *= scaleY;
+  }
+
+  /**
+   * @return translation along the X axis of the simple transform, in DIP
+   */
+  public double getTranslateX() {
+    return mTranslateX;
+  }
+
+  /**
+   * @return translation along the Y axis of the simple transform, in DIP
+   */
+  public double getTranslateY() {
+    return mTranslateY;
+  }
+
+  /**
+   * @return rotation of the simple transform, in radians
+   */
+  public double getRotation() {
+    return mRotation;
+  }
+
+  public double getScaleX() {
+    return mScaleX;
+  }
+
+  public double getScaleY() {
+    return mScaleY;
+  }
+
+  /**
+   * @return the props as a map, for view managers that can only be updated through one
+   */
+  public ReactStylesDiffMap toStylesDiffMap() {
+    JavaOnlyMap propsMap = new JavaOnlyMap();
+    for (int i = 0; i < PROP_COUNT; i++) {
+      if (mIsSet[i]) {
+        propsMap.putDouble(PROP_NAMES[i], mValues[i]);
+      }
+    }
+    if (mHasTransform) {
+      JavaOnlyArray matrix = new JavaOnlyArray();
+      for (int i = 0; i < mTransformMatrix.length; i++) {
+        matrix.pushDouble(mTransformMatrix[i]);
+      }
+      propsMap.putArray("transform", JavaOnlyArray.of(JavaOnlyMap.of("matrix", matrix)));
+    } else if (mHasSimpleTransform) {
+      propsMap.putArray(
+          "transform",
+          JavaOnlyArray.of(
+              JavaOnlyMap.of("translateX", mTranslateX),
+              JavaOnlyMap.of("translateY", mTranslateY),
+              JavaOnlyMap.of("rotate", mRotation),
+              JavaOnlyMap.of("scaleX", mScaleX),
+              JavaOnlyMap.of("scaleY", mScaleY)));
+    }
+    return new ReactStylesDiffMap(propsMap);
+  }
+}
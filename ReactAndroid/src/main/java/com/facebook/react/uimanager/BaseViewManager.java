@@ -6,6 +6,7 @@ import android.graphics.Color;
 import android.os.Build;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.uimanager.annotations.ReactProp;
@@ -56,6 +57,7 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
     } else {
       setTransformProperty(view, matrix);
     }
+    invalidateParentChildrenIndex(view);
   }
 
   @ReactProp(name = PROP_OPACITY, defaultFloat = 1.f)
@@ -114,30 +116,35 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
   @ReactProp(name = PROP_ROTATION)
   public void setRotation(T view, float rotation) {
     view.setRotation(rotation);
+    invalidateParentChildrenIndex(view);
   }
 
   @Deprecated
   @ReactProp(name = PROP_SCALE_X, defaultFloat = 1f)
   public void setScaleX(T view, float scaleX) {
     view.setScaleX(scaleX);
+    invalidateParentChildrenIndex(view);
   }
 
   @Deprecated
   @ReactProp(name = PROP_SCALE_Y, defaultFloat = 1f)
   public void setScaleY(T view, float scaleY) {
     view.setScaleY(scaleY);
+    invalidateParentChildrenIndex(view);
   }
 
   @Deprecated
   @ReactProp(name = PROP_TRANSLATE_X, defaultFloat = 0f)
   public void setTranslateX(T view, float translateX) {
     view.setTranslationX(PixelUtil.toPixelFromDIP(translateX));
+    invalidateParentChildrenIndex(view);
   }
 
   @Deprecated
   @ReactProp(name = PROP_TRANSLATE_Y, defaultFloat = 0f)
   public void setTranslateY(T view, float translateY) {
     view.setTranslationY(PixelUtil.toPixelFromDIP(translateY));
+    invalidateParentChildrenIndex(view);
   }
 
   @ReactProp(name = PROP_ACCESSIBILITY_LIVE_REGION)
@@ -153,9 +160,55 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
     }
   }
 
+  /**
+   * Applies the props updated by a native driven animation to the view. Goes through the same
+   * setters as {@link #updateProperties}, so subclasses overriding them get the updates, but
+   * without looking the setters up by prop name.
+   */
+  public void updateAnimatedProps(T view, AnimatedViewProps props) {
+    if (props.hasValue(AnimatedViewProps.OPACITY)) {
+      setOpacity(view, (float) props.getValue(AnimatedViewProps.OPACITY));
+    }
+    if (props.hasValue(AnimatedViewProps.SCALE_X)) {
+      setScaleX(view, (float) props.getValue(AnimatedViewProps.SCALE_X));
+    }
+    if (props.hasValue(AnimatedViewProps.SCALE_Y)) {
+      setScaleY(view, (float) props.getValue(AnimatedViewProps.SCALE_Y));
+    }
+    if (props.hasValue(AnimatedViewProps.TRANSLATE_X)) {
+      setTranslateX(view, (float) props.getValue(AnimatedViewProps.TRANSLATE_X));
+    }
+    if (props.hasValue(AnimatedViewProps.TRANSLATE_Y)) {
+      setTranslateY(view, (float) props.getValue(AnimatedViewProps.TRANSLATE_Y));
+    }
+    if (props.hasTransform()) {
+      setTransformMatrix(view, props.getTransformMatrix());
+      invalidateParentChildrenIndex(view);
+    } else if (props.hasSimpleTransform()) {
+      setSimpleTransform(view, props);
+      invalidateParentChildrenIndex(view);
+    }
+    onAfterUpdateTransaction(view);
+  }
+
+  /**
+   * Transforms move views without a layout, so a parent indexing the bounds of its children needs
+   * to be told.
+   */
+  private static void invalidateParentChildrenIndex(View view) {
+    ViewParent parent = view.getParent();
+    if (parent instanceof ReactIndexedViewGroup) {
+      ((ReactIndexedViewGroup) parent).invalidateChildrenIndex();
+    }
+  }
+
   private static void setTransformProperty(View view, ReadableArray transforms) {
     TransformHelper.processTransform(transforms, sTransformDecompositionArray);
-    MatrixMathHelper.decomposeMatrix(sTransformDecompositionArray, sMatrixDecompositionContext);
+    setTransformMatrix(view, sTransformDecompositionArray);
+  }
+
+  private static void setTransformMatrix(View view, double[] transformMatrix) {
+    MatrixMathHelper.decomposeMatrix(transformMatrix, sMatrixDecompositionContext);
     view.setTranslationX(
         PixelUtil.toPixelFromDIP((float) sMatrixDecompositionContext.translation[0]));
     view.setTranslationY(
@@ -167,6 +220,42 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
     view.setScaleY((float) sMatrixDecompositionContext.scale[1]);
   }
 
+  /**
+   * Resets the properties set by this class, except for the background which is left to
+   * subclasses since views may handle it differently. Meant to be used by subclasses implementing
+   * {@link #prepareToRecycleView}.
+   */
+  protected void resetBaseViewProperties(T view) {
+    resetTransformProperty(view);
+    view.setAlpha(1.f);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+      view.setElevation(0);
+    }
+    ViewGroupManager.mZIndexHash.remove(view);
+    view.setLayerType(View.LAYER_TYPE_NONE, null);
+    view.setTag(null);
+    view.setContentDescription(null);
+    AccessibilityHelper.updateAccessibilityComponentType(view, null);
+    view.setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_AUTO);
+    if (Build.VERSION.SDK_INT >= 19) {
+      view.setAccessibilityLiveRegion(View.ACCESSIBILITY_LIVE_REGION_NONE);
+    }
+  }
+
+  /**
+   * Sets the same view properties as {@link #setTransformMatrix} would for the matrix of the simple
+   * transform, straight from its values.
+   */
+  private static void setSimpleTransform(View view, AnimatedViewProps props) {
+    view.setTranslationX(PixelUtil.toPixelFromDIP((float) props.getTranslateX()));
+    view.setTranslationY(PixelUtil.toPixelFromDIP((float) props.getTranslateY()));
+    view.setRotation((float) Math.toDegrees(props.getRotation()));
+    view.setRotationX(0);
+    view.setRotationY(0);
+    view.setScaleX((float) props.getScaleX());
+    view.setScaleY((float) props.getScaleY());
+  }
+
   private static void resetTransformProperty(View view) {
     view.setTranslationX(PixelUtil.toPixelFromDIP(0));
     view.setTranslationY(PixelUtil.toPixelFromDIP(0));
@@ -27,12 +27,27 @@ import com.facebook.react.uimanager.events.TouchEventType;
  */
 public class JSTouchDispatcher {
 
+  private static volatile boolean sSkipUnchangedMovesEnabled = false;
+
+  /**
+   * Android sends ACTION_MOVE events when only the pressure or size of the pointers changed. When
+   * enabled, a move is not sent to JS if no pointer moved since the previous move of the gesture.
+   * JS doesn't get the later timestamp of such moves, which e.g. PanResponder uses to let the
+   * velocity of a held gesture decay.
+   */
+  public static void setSkipUnchangedMovesEnabled(boolean enabled) {
+    sSkipUnchangedMovesEnabled = enabled;
+  }
+
   private int mTargetTag = -1;
   private final float[] mTargetCoordinates = new float[2];
   private boolean mChildIsHandlingNativeGesture = false;
   private final ViewGroup mRootViewGroup;
   private final TouchEventCoalescingKeyHelper mTouchEventCoalescingKeyHelper =
     new TouchEventCoalescingKeyHelper();
+  // Id and coordinates of each pointer of the last move sent to JS, reset by any other event
+  private float[] mLastMovePointers = new float[3 * 2];
+  private int mLastMovePointerCount = 0;
 
   public JSTouchDispatcher(ViewGroup viewGroup) {
     mRootViewGroup = viewGroup;
@@ -61,6 +76,9 @@ public class JSTouchDispatcher {
    */
   public void handleTouchEvent(MotionEvent ev, EventDispatcher eventDispatcher) {
     int action = ev.getAction() & MotionEvent.ACTION_MASK;
+    if (action != MotionEvent.ACTION_MOVE) {
+      mLastMovePointerCount = 0;
+    }
     if (action == MotionEvent.ACTION_DOWN) {
       if (mTargetTag != -1) {
         FLog.e(
@@ -110,6 +128,9 @@ public class JSTouchDispatcher {
           mTouchEventCoalescingKeyHelper));
       mTargetTag = -1;
     } else if (action == MotionEvent.ACTION_MOVE) {
+      if (sSkipUnchangedMovesEnabled && !updateLastMovePointers(ev)) {
+        return;
+      }
       // Update pointer position for current gesture
       eventDispatcher.dispatchEvent(
         TouchEvent.obtain(
@@ -156,6 +177,36 @@ public class JSTouchDispatcher {
     }
   }
 
+  /**
+   * Remembers the pointers of the given move.
+   *
+   * @return whether any pointer was added, removed or moved since the last move
+   */
+  private boolean updateLastMovePointers(MotionEvent ev) {
+    int pointerCount = ev.getPointerCount();
+    boolean changed = pointerCount != mLastMovePointerCount;
+    if (mLastMovePointers.length < pointerCount * 3) {
+      mLastMovePointers = new float[pointerCount * 3];
+    }
+    for (int i = 0; i < pointerCount; i++) {
+      float id = ev.getPointerId(i);
+      float x = ev.getX(i);
+      float y = ev.getY(i);
+      int offset = i * 3;
+      if (!changed &&
+          (mLastMovePointers[offset] != id ||
+              mLastMovePointers[offset + 1] != x ||
+              mLastMovePointers[offset + 2] != y)) {
+        changed = true;
+      }
+      mLastMovePointers[offset] = id;
+      mLastMovePointers[offset + 1] = x;
+      mLastMovePointers[offset + 2] = y;
+    }
+    mLastMovePointerCount = pointerCount;
+    return changed;
+  }
+
   private void dispatchCancelEvent(MotionEvent androidEvent, EventDispatcher eventDispatcher) {
     // This means the gesture has already ended, via some other CANCEL or UP event. This is not
     // expected to happen very often as it would mean some child View has decided to intercept the
@@ -9,6 +9,8 @@
 
 package com.facebook.react.uimanager;
 
+import java.util.ArrayList;
+
 import android.content.res.Resources;
 import android.util.Log;
 import android.util.SparseArray;
@@ -75,6 +77,12 @@ public class NativeViewHierarchyManager {
   private final JSResponderHandler mJSResponderHandler = new JSResponderHandler();
   private final RootViewManager mRootViewManager;
   private final LayoutAnimationController mLayoutAnimator = new LayoutAnimationController();
+  private final RecycledViewPool mRecycledViewPool = new RecycledViewPool();
+  private final SparseArray<ThemedReactContext> mRootViewContexts = new SparseArray<>();
+  // Views dropped by the current dropView call, recycled once they have all been detached
+  private final ArrayList<View> mDroppedViews = new ArrayList<>();
+  private final ArrayList<ViewManager> mDroppedViewManagers = new ArrayList<>();
+  private int mDropViewDepth = 0;
 
   private boolean mLayoutAnimationEnabled;
 
@@ -128,6 +136,22 @@ public class NativeViewHierarchyManager {
     }
   }
 
+  public void updateAnimatedProps(int tag, AnimatedViewProps props) {
+    UiThreadUtil.assertOnUiThread();
+
+    try {
+      ViewManager viewManager = resolveViewManager(tag);
+      View viewToUpdate = resolveView(tag);
+      if (viewManager instanceof BaseViewManager) {
+        ((BaseViewManager) viewManager).updateAnimatedProps(viewToUpdate, props);
+      } else {
+        viewManager.updateProperties(viewToUpdate, props.toStylesDiffMap());
+      }
+    } catch (IllegalViewOperationException e) {
+      Log.e(TAG, "Unable to update properties for view tag " + tag, e);
+    }
+  }
+
   public void updateViewExtraData(int tag, Object extraData) {
     UiThreadUtil.assertOnUiThread();
 
@@ -215,7 +239,10 @@ public class NativeViewHierarchyManager {
     try {
       ViewManager viewManager = mViewManagers.get(className);
 
-      View view = viewManager.createView(themedContext, mJSResponderHandler);
+      View view = mRecycledViewPool.acquire(viewManager, themedContext);
+      if (view == null) {
+        view = viewManager.createView(themedContext, mJSResponderHandler);
+      }
       mTagsToViews.put(tag, view);
       mTagsToViewManagers.put(tag, viewManager);
 
@@ -511,6 +538,7 @@ public class NativeViewHierarchyManager {
     mTagsToViews.put(tag, view);
     mTagsToViewManagers.put(tag, mRootViewManager);
     mRootTags.put(tag, true);
+    mRootViewContexts.put(tag, themedContext);
     view.setId(tag);
   }
 
@@ -519,24 +547,42 @@ public class NativeViewHierarchyManager {
    */
   protected void dropView(View view) {
     UiThreadUtil.assertOnUiThread();
-    if (!mRootTags.get(view.getId())) {
-      // For non-root views we notify viewmanager with {@link ViewManager#onDropInstance}
-      resolveViewManager(view.getId()).onDropViewInstance(view);
-    }
-    ViewManager viewManager = mTagsToViewManagers.get(view.getId());
-    if (view instanceof ViewGroup && viewManager instanceof ViewGroupManager) {
-      ViewGroup viewGroup = (ViewGroup) view;
-      ViewGroupManager viewGroupManager = (ViewGroupManager) viewManager;
-      for (int i = viewGroupManager.getChildCount(viewGroup) - 1; i >= 0; i--) {
-        View child = viewGroupManager.getChildAt(viewGroup, i);
-        if (mTagsToViews.get(child.getId()) != null) {
-          dropView(child);
+    mDropViewDepth++;
+    try {
+      if (!mRootTags.get(view.getId())) {
+        // For non-root views we notify viewmanager with {@link ViewManager#onDropInstance}
+        resolveViewManager(view.getId()).onDropViewInstance(view);
+      }
+      ViewManager viewManager = mTagsToViewManagers.get(view.getId());
+      if (view instanceof ViewGroup && viewManager instanceof ViewGroupManager) {
+        ViewGroup viewGroup = (ViewGroup) view;
+        ViewGroupManager viewGroupManager = (ViewGroupManager) viewManager;
+        for (int i = viewGroupManager.getChildCount(viewGroup) - 1; i >= 0; i--) {
+          View child = viewGroupManager.getChildAt(viewGroup, i);
+          if (mTagsToViews.get(child.getId()) != null) {
+            dropView(child);
+          }
         }
+        viewGroupManager.removeAllViews(viewGroup);
+      }
+      mTagsToViews.remove(view.getId());
+      mTagsToViewManagers.remove(view.getId());
+      if (viewManager != null && viewManager.getRecycledViewPoolSize() > 0) {
+        mDroppedViews.add(view);
+        mDroppedViewManagers.add(viewManager);
+      }
+    } finally {
+      mDropViewDepth--;
+    }
+
+    // Children are only detached once their parent has been dropped
+    if (mDropViewDepth == 0) {
+      for (int i = 0; i < mDroppedViews.size(); i++) {
+        mRecycledViewPool.release(mDroppedViewManagers.get(i), mDroppedViews.get(i));
       }
-      viewGroupManager.removeAllViews(viewGroup);
+      mDroppedViews.clear();
+      mDroppedViewManagers.clear();
     }
-    mTagsToViews.remove(view.getId());
-    mTagsToViewManagers.remove(view.getId());
   }
 
   public void removeRootView(int rootViewTag) {
@@ -548,6 +594,15 @@ public class NativeViewHierarchyManager {
     View rootView = mTagsToViews.get(rootViewTag);
     dropView(rootView);
     mRootTags.delete(rootViewTag);
+    ThemedReactContext themedContext = mRootViewContexts.get(rootViewTag);
+    if (themedContext != null) {
+      mRecycledViewPool.clear(themedContext);
+      mRootViewContexts.remove(rootViewTag);
+    }
+  }
+
+  /* package */ RecycledViewPool getRecycledViewPool() {
+    return mRecycledViewPool;
   }
 
   /**
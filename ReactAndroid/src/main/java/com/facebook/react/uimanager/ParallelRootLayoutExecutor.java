@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates the layout of independent root views concurrently. Each root view owns a disjoint
+ * {@link ReactShadowNode} hierarchy, so their layouts can be computed on separate threads as long
+ * as everything else (onBeforeLayout, applying updates) keeps running serially on the native
+ * modules thread. Yoga gives each layout call its own generation count rather than sharing a
+ * global one, and the caches reached by text measurement ({@link
+ * com.facebook.react.views.text.ReactFontManager}) are synchronized.
+ *
+ * The first root is always laid out on the calling thread and the remaining ones on a small pool
+ * of worker threads. If the pool rejects work, the remaining roots are laid out serially on the
+ * calling thread instead, so the result never depends on the availability of workers.
+ */
+/* package */ class ParallelRootLayoutExecutor {
+
+  private static final int MAX_WORKER_COUNT = 3;
+  private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+
+  private final ThreadPoolExecutor mExecutor;
+  private final ArrayList<Future<?>> mPendingLayouts = new ArrayList<>();
+
+  public ParallelRootLayoutExecutor() {
+    this(Math.max(1, Math.min(MAX_WORKER_COUNT, Runtime.getRuntime().availableProcessors() - 1)));
+  }
+
+  public ParallelRootLayoutExecutor(int workerCount) {
+    mExecutor = new ThreadPoolExecutor(
+        workerCount,
+        workerCount,
+        WORKER_KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        new LayoutThreadFactory());
+    mExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Calculates the layout of all given roots using
+   * {@link UIImplementation#calculateRootLayout} and returns once all of them are done. Exceptions
+   * thrown while laying out a root are rethrown on the calling thread.
+   */
+  public void calculateLayouts(
+      final UIImplementation uiImplementation,
+      List<ReactShadowNode> cssRoots) {
+    int submittedCount = 1;
+    try {
+      for (; submittedCount < cssRoots.size(); submittedCount++) {
+        final ReactShadowNode cssRoot = cssRoots.get(submittedCount);
+        mPendingLayouts.add(
+            mExecutor.submit(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    uiImplementation.calculateRootLayout(cssRoot);
+                  }
+                }));
+      }
+    } catch (RejectedExecutionException e) {
+      // Fall through and lay out the roots that haven't been submitted on this thread
+    }
+
+    try {
+      uiImplementation.calculateRootLayout(cssRoots.get(0));
+      for (int i = submittedCount; i < cssRoots.size(); i++) {
+        uiImplementation.calculateRootLayout(cssRoots.get(i));
+      }
+    } finally {
+      awaitPendingLayouts();
+    }
+  }
+
+  public void shutdown() {
+    mExecutor.shutdown();
+  }
+
+  private void awaitPendingLayouts() {
+    Throwable failure = null;
+    boolean interrupted = false;
+    for (int i = 0; i < mPendingLayouts.size(); i++) {
+      Future<?> pendingLayout = mPendingLayouts.get(i);
+      while (true) {
+        try {
+          pendingLayout.get();
+          break;
+        } catch (InterruptedException e) {
+          // Roots must not be touched while a worker is still laying them out, keep waiting
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          break;
+        }
+      }
+    }
+    mPendingLayouts.clear();
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new RuntimeException(failure);
+    }
+  }
+
+  private static class LayoutThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger mThreadCount = new AtomicInteger(0);
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "react_layout_" + mThreadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
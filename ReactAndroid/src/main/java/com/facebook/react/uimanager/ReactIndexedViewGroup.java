@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import javax.annotation.Nullable;
+
+/**
+ * This interface should be implemented by view groups that keep a {@link SpatialIndex} of their
+ * children, so that {@link TouchTargetHelper} only checks the children that may be under a touch
+ * instead of all of them.
+ */
+public interface ReactIndexedViewGroup {
+
+  /**
+   * @return the index of the touchable bounds of the children, including their transforms and hit
+   * slop, in the coordinates of the content of this view, where each item is the index of a child.
+   * Null if the children should be checked one by one, e.g. because there are only a few.
+   */
+  @Nullable SpatialIndex getChildrenIndex();
+
+  /**
+   * Called when a child moved without being laid out, e.g. when it was transformed.
+   */
+  void invalidateChildrenIndex();
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import android.content.Context;
+import android.view.View;
+
+import com.facebook.react.common.SystemClock;
+
+/**
+ * Keeps the views dropped by {@link NativeViewHierarchyManager} for reuse by later createView
+ * calls. Views are pooled per {@link ViewManager} and per {@link ThemedReactContext}, since a view
+ * keeps the context it was created with as well as the event emitters installed for it. Only
+ * views of view managers that opt in through {@link ViewManager#getRecycledViewPoolSize} and
+ * {@link ViewManager#prepareToRecycleView} are kept.
+ */
+@NotThreadSafe
+/* package */ class RecycledViewPool {
+
+  private final Map<ThemedReactContext, Map<ViewManager, ArrayList<View>>> mPools =
+      new HashMap<>();
+
+  private int mPooledViewCount = 0;
+  private long mHitCount = 0;
+  private long mMissCount = 0;
+  private long mDiscardedCount = 0;
+  private long mResetTimeNs = 0;
+
+  /**
+   * @return a recycled view of the given view manager created with the given context, or null if
+   * there is none
+   */
+  public @Nullable View acquire(ViewManager viewManager, ThemedReactContext themedContext) {
+    if (viewManager.getRecycledViewPoolSize() <= 0) {
+      return null;
+    }
+
+    Map<ViewManager, ArrayList<View>> poolsForContext = mPools.get(themedContext);
+    ArrayList<View> pool = poolsForContext == null ? null : poolsForContext.get(viewManager);
+    if (pool == null || pool.isEmpty()) {
+      mMissCount++;
+      return null;
+    }
+
+    mHitCount++;
+    mPooledViewCount--;
+    return pool.remove(pool.size() - 1);
+  }
+
+  /**
+   * Resets the given dropped view through its view manager and keeps it, unless the pool of its
+   * view manager is full.
+   */
+  @SuppressWarnings("unchecked")
+  public void release(ViewManager viewManager, View view) {
+    int maxPoolSize = viewManager.getRecycledViewPoolSize();
+    Context context = view.getContext();
+    if (maxPoolSize <= 0 || !(context instanceof ThemedReactContext) || view.getParent() != null) {
+      return;
+    }
+
+    ThemedReactContext themedContext = (ThemedReactContext) context;
+    Map<ViewManager, ArrayList<View>> poolsForContext = mPools.get(themedContext);
+    if (poolsForContext == null) {
+      poolsForContext = new HashMap<>();
+      mPools.put(themedContext, poolsForContext);
+    }
+    ArrayList<View> pool = poolsForContext.get(viewManager);
+    if (pool == null) {
+      pool = new ArrayList<>();
+      poolsForContext.put(viewManager, pool);
+    }
+    if (pool.size() >= maxPoolSize) {
+      mDiscardedCount++;
+      return;
+    }
+
+    long startTime = SystemClock.nanoTime();
+    boolean canRecycle = viewManager.prepareToRecycleView(view);
+    mResetTimeNs += SystemClock.nanoTime() - startTime;
+    if (!canRecycle) {
+      mDiscardedCount++;
+      return;
+    }
+
+    view.setId(View.NO_ID);
+    pool.add(view);
+    mPooledViewCount++;
+  }
+
+  /**
+   * Drops the views kept for the given context, called when its root view goes away.
+   */
+  public void clear(ThemedReactContext themedContext) {
+    Map<ViewManager, ArrayList<View>> poolsForContext = mPools.remove(themedContext);
+    if (poolsForContext == null) {
+      return;
+    }
+    for (ArrayList<View> pool : poolsForContext.values()) {
+      mPooledViewCount -= pool.size();
+    }
+  }
+
+  /**
+   * @return number of views currently kept for reuse
+   */
+  public int getPooledViewCount() {
+    return mPooledViewCount;
+  }
+
+  /**
+   * @return number of views of recycling view managers that were reused instead of created
+   */
+  public long getHitCount() {
+    return mHitCount;
+  }
+
+  /**
+   * @return number of views of recycling view managers that had to be created
+   */
+  public long getMissCount() {
+    return mMissCount;
+  }
+
+  /**
+   * @return number of dropped views that weren't kept, because the pool was full or the view
+   * manager refused to reset them
+   */
+  public long getDiscardedCount() {
+    return mDiscardedCount;
+  }
+
+  /**
+   * @return total time spent resetting dropped views, in milliseconds
+   */
+  public double getResetTimeMs() {
+    return mResetTimeNs / 1000000.0;
+  }
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+/**
+ * Uniform grid over the bounds of a list of items, e.g. the children of a view, used to find the
+ * items that may contain a point without checking every item. Each cell of the grid lists the items
+ * whose bounds overlap it, in ascending item order, so the items of a cell can be checked from the
+ * last one, like a touch target search that goes through the children from the top.
+ *
+ * The grid is conservative: every item containing a point is listed in the cell of that point, but
+ * items listed in a cell don't necessarily contain every point of it, so the items still need to be
+ * checked one by one.
+ *
+ * To index items, call {@link #begin} with the number of items, set the bounds of each item with
+ * {@link #setBounds}, then call {@link #build}. The arrays are reused when the items are indexed
+ * again. To look up a point:
+ *
+ * <pre>
+ *   int cell = index.findCell(x, y);
+ *   if (cell != SpatialIndex.NO_CELL) {
+ *     for (int i = index.getCellEnd(cell) - 1; i >= index.getCellStart(cell); i--) {
+ *       int item = index.getItem(i);
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ */
+public final class SpatialIndex {
+
+  public static final int NO_CELL = -1;
+
+  // The grid has about one cell per item, but no more than this many cells per side
+  private static final int MAX_CELLS_PER_SIDE = 64;
+  // When items overlap many cells, e.g. a background behind a grid of tiles, the grid is made
+  // coarser until it lists the items no more than this many times in total, per item
+  private static final int MAX_ENTRIES_PER_ITEM = 8;
+
+  private static final int[] EMPTY_INT_ARRAY = new int[0];
+  private static final float[] EMPTY_FLOAT_ARRAY = new float[0];
+
+  // Bounds of the items, as left, top, right, bottom
+  private float[] mItemBounds = EMPTY_FLOAT_ARRAY;
+  private int mItemCount;
+
+  private float mLeft;
+  private float mTop;
+  private float mRight;
+  private float mBottom;
+  private float mColumnsPerUnit;
+  private float mRowsPerUnit;
+  private int mColumnCount;
+  private int mRowCount;
+  // Items of cell i are mCellItems[mCellStarts[i]] to mCellItems[mCellStarts[i + 1] - 1]
+  private int[] mCellStarts = EMPTY_INT_ARRAY;
+  private int[] mCellItems = EMPTY_INT_ARRAY;
+  private boolean mIsEmpty = true;
+
+  /**
+   * Starts indexing the given number of items, dropping the items indexed before.
+   */
+  public void begin(int itemCount) {
+    if (mItemBounds.length < itemCount * 4) {
+      mItemBounds = new float[itemCount * 4];
+    }
+    mItemCount = itemCount;
+    mIsEmpty = true;
+  }
+
+  /**
+   * Sets the bounds of an item. Items with empty bounds can't contain any point and aren't listed.
+   */
+  public void setBounds(int item, float left, float top, float right, float bottom) {
+    int offset = item * 4;
+    mItemBounds[offset] = left;
+    mItemBounds[offset + 1] = top;
+    mItemBounds[offset + 2] = right;
+    mItemBounds[offset + 3] = bottom;
+  }
+
+  /**
+   * Builds the grid from the bounds set since {@link #begin}.
+   */
+  public void build() {
+    mIsEmpty = true;
+    int nonEmptyItemCount = 0;
+    for (int item = 0; item < mItemCount; item++) {
+      int offset = item * 4;
+      float left = mItemBounds[offset];
+      float top = mItemBounds[offset + 1];
+      float right = mItemBounds[offset + 2];
+      float bottom = mItemBounds[offset + 3];
+      if (!(left < right && top < bottom)) {
+        continue;
+      }
+      if (mIsEmpty) {
+        mLeft = left;
+        mTop = top;
+        mRight = right;
+        mBottom = bottom;
+        mIsEmpty = false;
+      } else {
+        mLeft = Math.min(mLeft, left);
+        mTop = Math.min(mTop, top);
+        mRight = Math.max(mRight, right);
+        mBottom = Math.max(mBottom, bottom);
+      }
+      nonEmptyItemCount++;
+    }
+    if (mIsEmpty) {
+      return;
+    }
+
+    float width = mRight - mLeft;
+    float height = mBottom - mTop;
+    int columnCount =
+        clampCellCount(Math.round((float) Math.sqrt(nonEmptyItemCount * width / height)));
+    int rowCount = clampCellCount(Math.round((float) nonEmptyItemCount / columnCount));
+    int maxEntryCount = nonEmptyItemCount * MAX_ENTRIES_PER_ITEM;
+    while (true) {
+      setGridSize(columnCount, rowCount);
+      if (countEntries(maxEntryCount) <= maxEntryCount || (columnCount == 1 && rowCount == 1)) {
+        break;
+      }
+      columnCount = Math.max(1, columnCount / 2);
+      rowCount = Math.max(1, rowCount / 2);
+    }
+    fillCells();
+  }
+
+  /**
+   * @return the cell containing the given point, or {@link #NO_CELL} if no item contains it
+   */
+  public int findCell(float x, float y) {
+    if (mIsEmpty || x < mLeft || x > mRight || y < mTop || y > mBottom) {
+      return NO_CELL;
+    }
+    return getRow(y) * mColumnCount + getColumn(x);
+  }
+
+  /**
+   * @return position of the first item of the given cell, see {@link #getItem}
+   */
+  public int getCellStart(int cell) {
+    return mCellStarts[cell];
+  }
+
+  /**
+   * @return position after the last item of the given cell, see {@link #getItem}
+   */
+  public int getCellEnd(int cell) {
+    return mCellStarts[cell + 1];
+  }
+
+  /**
+   * @return the item at the given position of a cell
+   */
+  public int getItem(int position) {
+    return mCellItems[position];
+  }
+
+  private static int clampCellCount(int cellCount) {
+    return Math.max(1, Math.min(MAX_CELLS_PER_SIDE, cellCount));
+  }
+
+  private void setGridSize(int columnCount, int rowCount) {
+    mColumnCount = columnCount;
+    mRowCount = rowCount;
+    mColumnsPerUnit = columnCount / (mRight - mLeft);
+    mRowsPerUnit = rowCount / (mBottom - mTop);
+  }
+
+  private int getColumn(float x) {
+    return Math.min(mColumnCount - 1, (int) ((x - mLeft) * mColumnsPerUnit));
+  }
+
+  private int getRow(float y) {
+    return Math.min(mRowCount - 1, (int) ((y - mTop) * mRowsPerUnit));
+  }
+
+  /**
+   * Counts the items of each cell into mCellStarts, and returns the total, or a number above the
+   * given maximum as soon as it is exceeded.
+   */
+  private int countEntries(int maxEntryCount) {
+    int cellCount = mColumnCount * mRowCount;
+    if (mCellStarts.length < cellCount + 1) {
+      mCellStarts = new int[cellCount + 1];
+    }
+    for (int cell = 0; cell <= cellCount; cell++) {
+      mCellStarts[cell] = 0;
+    }
+
+    int entryCount = 0;
+    for (int item = 0; item < mItemCount; item++) {
+      int offset = item * 4;
+      float left = mItemBounds[offset];
+      float top = mItemBounds[offset + 1];
+      float right = mItemBounds[offset + 2];
+      float bottom = mItemBounds[offset + 3];
+      if (!(left < right && top < bottom)) {
+        continue;
+      }
+      int firstColumn = getColumn(left);
+      int lastColumn = getColumn(right);
+      int firstRow = getRow(top);
+      int lastRow = getRow(bottom);
+      for (int row = firstRow; row <= lastRow; row++) {
+        for (int column = firstColumn; column <= lastColumn; column++) {
+          mCellStarts[row * mColumnCount + column + 1]++;
+        }
+      }
+      entryCount += (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1);
+      if (entryCount > maxEntryCount) {
+        return entryCount;
+      }
+    }
+    return entryCount;
+  }
+
+  private void fillCells() {
+    int cellCount = mColumnCount * mRowCount;
+    for (int cell = 0; cell < cellCount; cell++) {
+      mCellStarts[cell + 1] += mCellStarts[cell];
+    }
+    if (mCellItems.length < mCellStarts[cellCount]) {
+      mCellItems = new int[mCellStarts[cellCount]];
+    }
+
+    // Fills each cell by advancing its start. Once all the items are listed, the start of each cell
+    // has moved to the start of the next one, so the starts are shifted back.
+    for (int item = 0; item < mItemCount; item++) {
+      int offset = item * 4;
+      float left = mItemBounds[offset];
+      float top = mItemBounds[offset + 1];
+      float right = mItemBounds[offset + 2];
+      float bottom = mItemBounds[offset + 3];
+      if (!(left < right && top < bottom)) {
+        continue;
+      }
+      int firstColumn = getColumn(left);
+      int lastColumn = getColumn(right);
+      int lastRow = getRow(bottom);
+      for (int row = getRow(top); row <= lastRow; row++) {
+        for (int column = firstColumn; column <= lastColumn; column++) {
+          int cell = row * mColumnCount + column;
+          mCellItems[mCellStarts[cell]++] = item;
+        }
+      }
+    }
+    for (int cell = cellCount; cell > 0; cell--) {
+      mCellStarts[cell] = mCellStarts[cell - 1];
+    }
+    mCellStarts[0] = 0;
+  }
+}
@@ -33,6 +33,21 @@ public class TouchTargetHelper {
   private static final float[] mMatrixTransformCoords = new float[2];
   private static final Matrix mInverseMatrix = new Matrix();
 
+  private static boolean sSpatialIndexEnabled = false;
+
+  /**
+   * Enables or disables the use of the children index of {@link ReactIndexedViewGroup}s. View
+   * groups only keep an index when it was enabled at the time they were created, so it should be
+   * enabled before any view is created.
+   */
+  public static void setSpatialIndexEnabled(boolean enabled) {
+    sSpatialIndexEnabled = enabled;
+  }
+
+  public static boolean isSpatialIndexEnabled() {
+    return sSpatialIndexEnabled;
+  }
+
   /**
    * Find touch event target view within the provided container given the coordinates provided
    * via {@link MotionEvent}.
@@ -123,30 +138,72 @@ public class TouchTargetHelper {
    * method returns, it will contain the eventCoords relative to the targetView found.
    */
   private static View findTouchTargetView(float[] eventCoords, ViewGroup viewGroup) {
+    SpatialIndex childrenIndex =
+        sSpatialIndexEnabled && viewGroup instanceof ReactIndexedViewGroup ?
+            ((ReactIndexedViewGroup) viewGroup).getChildrenIndex() :
+            null;
+    if (childrenIndex != null) {
+      // Only the children listed in the cell of the touch can contain it
+      int cell = childrenIndex.findCell(
+          eventCoords[0] + viewGroup.getScrollX(),
+          eventCoords[1] + viewGroup.getScrollY());
+      if (cell != SpatialIndex.NO_CELL) {
+        int cellStart = childrenIndex.getCellStart(cell);
+        for (int i = childrenIndex.getCellEnd(cell) - 1; i >= cellStart; i--) {
+          View child = viewGroup.getChildAt(childrenIndex.getItem(i));
+          View targetView = findTouchTargetViewInChild(eventCoords, viewGroup, child);
+          if (targetView != null) {
+            return targetView;
+          }
+        }
+      }
+      return viewGroup;
+    }
+
     int childrenCount = viewGroup.getChildCount();
     for (int i = childrenCount - 1; i >= 0; i--) {
       View child = viewGroup.getChildAt(i);
-      PointF childPoint = mTempPoint;
-      if (isTransformedTouchPointInView(eventCoords[0], eventCoords[1], viewGroup, child, childPoint)) {
-        // If it is contained within the child View, the childPoint value will contain the view
-        // coordinates relative to the child
-        // We need to store the existing X,Y for the viewGroup away as it is possible this child
-        // will not actually be the target and so we restore them if not
-        float restoreX = eventCoords[0];
-        float restoreY = eventCoords[1];
-        eventCoords[0] = childPoint.x;
-        eventCoords[1] = childPoint.y;
-        View targetView = findTouchTargetViewWithPointerEvents(eventCoords, child);
-        if (targetView != null) {
-          return targetView;
-        }
-        eventCoords[0] = restoreX;
-        eventCoords[1] = restoreY;
+      View targetView = findTouchTargetViewInChild(eventCoords, viewGroup, child);
+      if (targetView != null) {
+        return targetView;
       }
     }
     return viewGroup;
   }
 
+  /**
+   * Returns the touch target View if the touch is within the given child and either the child or
+   * one of its descendants is the target, null otherwise.
+   */
+  private static @Nullable View findTouchTargetViewInChild(
+      float[] eventCoords,
+      ViewGroup viewGroup,
+      View child) {
+    PointF childPoint = mTempPoint;
+    if (isTransformedTouchPointInView(
+        eventCoords[0],
+        eventCoords[1],
+        viewGroup,
+        child,
+        childPoint)) {
+      // If it is contained within the child View, the childPoint value will contain the view
+      // coordinates relative to the child
+      // We need to store the existing X,Y for the viewGroup away as it is possible this child
+      // will not actually be the target and so we restore them if not
+      float restoreX = eventCoords[0];
+      float restoreY = eventCoords[1];
+      eventCoords[0] = childPoint.x;
+      eventCoords[1] = childPoint.y;
+      View targetView = findTouchTargetViewWithPointerEvents(eventCoords, child);
+      if (targetView != null) {
+        return targetView;
+      }
+      eventCoords[0] = restoreX;
+      eventCoords[1] = restoreY;
+    }
+    return null;
+  }
+
   /**
    * Returns whether the touch point is within the child View
    * It is transform aware and will invert the transform Matrix to find the true local points
@@ -98,4 +98,47 @@ public class TransformHelper {
       MatrixMathHelper.multiplyInto(result, result, helperMatrix);
     }
   }
+
+  /**
+   * Applies a single transform with a numeric value, like one of the transforms of the list
+   * accepted by {@link #processTransform}, to the given matrix. Angles are in radians. Unlike
+   * {@link #processTransform} this doesn't go through a map, which lets animations apply their
+   * transforms on every frame without allocating.
+   *
+   * @return false if the transform type doesn't take a single numeric value, in which case the
+   * matrix is left unchanged
+   */
+  public static boolean applyTransform(double[] result, String transformType, double value) {
+    double[] helperMatrix = sHelperMatrix.get();
+    MatrixMathHelper.resetIdentityMatrix(helperMatrix);
+    if ("perspective".equals(transformType)) {
+      MatrixMathHelper.applyPerspective(helperMatrix, value);
+    } else if ("rotateX".equals(transformType)) {
+      MatrixMathHelper.applyRotateX(helperMatrix, value);
+    } else if ("rotateY".equals(transformType)) {
+      MatrixMathHelper.applyRotateY(helperMatrix, value);
+    } else if ("rotate".equals(transformType) || "rotateZ".equals(transformType)) {
+      MatrixMathHelper.applyRotateZ(helperMatrix, value);
+    } else if ("scale".equals(transformType)) {
+      MatrixMathHelper.applyScaleX(helperMatrix, value);
+      MatrixMathHelper.applyScaleY(helperMatrix, value);
+    } else if ("scaleX".equals(transformType)) {
+      MatrixMathHelper.applyScaleX(helperMatrix, value);
+    } else if ("scaleY".equals(transformType)) {
+      MatrixMathHelper.applyScaleY(helperMatrix, value);
+    } else if ("translateX".equals(transformType)) {
+      MatrixMathHelper.applyTranslate2D(helperMatrix, value, 0d);
+    } else if ("translateY".equals(transformType)) {
+      MatrixMathHelper.applyTranslate2D(helperMatrix, 0d, value);
+    } else if ("skewX".equals(transformType)) {
+      MatrixMathHelper.applySkewX(helperMatrix, value);
+    } else if ("skewY".equals(transformType)) {
+      MatrixMathHelper.applySkewY(helperMatrix, value);
+    } else {
+      return false;
+    }
+
+    MatrixMathHelper.multiplyInto(result, result, helperMatrix);
+    return true;
+  }
 }
@@ -9,9 +9,14 @@
 package com.facebook.react.uimanager;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+
+import android.util.SparseArray;
 
 import com.facebook.common.logging.FLog;
 import com.facebook.yoga.YogaDirection;
@@ -25,6 +30,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.modules.i18nmanager.I18nUtil;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.react.uimanager.events.EventDispatcher;
@@ -37,6 +43,15 @@ import com.facebook.systrace.SystraceMessage;
  */
 public class UIImplementation {
 
+  /**
+   * Layout counters of a single root view, see {@link #getRootLayoutCount} and
+   * {@link #getRootLayoutTimer}.
+   */
+  private static class RootLayoutStats {
+    private double mLayoutCount = 0.0;
+    private double mLayoutTimer = 0.0;
+  }
+
   private final ShadowNodeRegistry mShadowNodeRegistry = new ShadowNodeRegistry();
   private final ViewManagerRegistry mViewManagers;
   private final UIViewOperationQueue mOperationsQueue;
@@ -45,8 +60,37 @@ public class UIImplementation {
   private final ReactApplicationContext mReactContext;
   protected final EventDispatcher mEventDispatcher;
 
+  // Batch id passed to the operations queue for the layouts run for native animations
+  private static final int ANIMATED_LAYOUT_BATCH_ID = -1;
+
+  private final Object mAnimatedLayoutUpdatesLock = new Object();
+  @GuardedBy("mAnimatedLayoutUpdatesLock")
+  private ArrayList<Integer> mPendingAnimatedLayoutTags = new ArrayList<>();
+  @GuardedBy("mAnimatedLayoutUpdatesLock")
+  private ArrayList<ReadableMap> mPendingAnimatedLayoutProps = new ArrayList<>();
+  @GuardedBy("mAnimatedLayoutUpdatesLock")
+  private ArrayList<ReactStylesDiffMap> mPendingAnimatedViewProps = new ArrayList<>();
+  @GuardedBy("mAnimatedLayoutUpdatesLock")
+  private boolean mIsAnimatedLayoutUpdateScheduled;
+  private ArrayList<Integer> mAppliedAnimatedLayoutTags = new ArrayList<>();
+  private ArrayList<ReadableMap> mAppliedAnimatedLayoutProps = new ArrayList<>();
+  private ArrayList<ReactStylesDiffMap> mAppliedAnimatedViewProps = new ArrayList<>();
+  // Whether calls of a batch from JS have been received whose updates haven't been dispatched yet,
+  // only accessed on the native modules thread
+  private boolean mIsJSBatchInProgress;
+  private final Runnable mApplyAnimatedLayoutUpdatesRunnable = new Runnable() {
+    @Override
+    public void run() {
+      applyAnimatedLayoutUpdates();
+    }
+  };
+
   private double mLayoutCount = 0.0;
   private double mLayoutTimer = 0.0;
+  private double mSkippedRootLayoutCount = 0.0;
+  private final SparseArray<RootLayoutStats> mRootLayoutStats = new SparseArray<>();
+  private final ArrayList<ReactShadowNode> mRootsToUpdate = new ArrayList<>();
+  private @Nullable ParallelRootLayoutExecutor mParallelRootLayoutExecutor;
 
   public UIImplementation(
     ReactApplicationContext reactContext,
@@ -134,6 +178,9 @@ public class UIImplementation {
    */
   public void removeRootView(int rootViewTag) {
     mShadowNodeRegistry.removeRootNode(rootViewTag);
+    synchronized (mRootLayoutStats) {
+      mRootLayoutStats.remove(rootViewTag);
+    }
     mOperationsQueue.enqueueRemoveRootView(rootViewTag);
   }
 
@@ -165,6 +212,92 @@ public class UIImplementation {
     return mLayoutTimer;
   }
 
+  /**
+   * @return number of times layout was skipped for a root view because none of the nodes in its
+   * hierarchy had updates
+   */
+  public double getSkippedRootLayoutCount() {
+    return mSkippedRootLayoutCount;
+  }
+
+  /**
+   * @return number of layout passes that were run for the root view with the given tag
+   */
+  public double getRootLayoutCount(int rootViewTag) {
+    synchronized (mRootLayoutStats) {
+      RootLayoutStats stats = mRootLayoutStats.get(rootViewTag);
+      return stats == null ? 0.0 : stats.mLayoutCount;
+    }
+  }
+
+  /**
+   * @return total time in seconds spent in layout for the root view with the given tag
+   */
+  public double getRootLayoutTimer(int rootViewTag) {
+    synchronized (mRootLayoutStats) {
+      RootLayoutStats stats = mRootLayoutStats.get(rootViewTag);
+      return stats == null ? 0.0 : stats.mLayoutTimer;
+    }
+  }
+
+  /**
+   * Adds per root layout counters to the given map, keyed by "LayoutCount:<rootTag>" and
+   * "LayoutTimer:<rootTag>".
+   */
+  /* package */ void putRootLayoutCounters(Map<String, Double> perfMap) {
+    synchronized (mRootLayoutStats) {
+      for (int i = 0; i < mRootLayoutStats.size(); i++) {
+        int rootTag = mRootLayoutStats.keyAt(i);
+        RootLayoutStats stats = mRootLayoutStats.valueAt(i);
+        perfMap.put("LayoutCount:" + rootTag, stats.mLayoutCount);
+        perfMap.put("LayoutTimer:" + rootTag, stats.mLayoutTimer);
+      }
+    }
+  }
+
+  /**
+   * Adds the counters of the view managers that report some, see
+   * {@link ViewManagerRegistry#putPerformanceCounters}.
+   */
+  /* package */ void putViewManagerCounters(Map<String, Double> perfMap) {
+    mViewManagers.putPerformanceCounters(perfMap);
+  }
+
+  /**
+   * Enables pooling of the most frequent UI operations and of the per-batch operation buffers in
+   * the {@link UIViewOperationQueue}, see
+   * {@link UIViewOperationQueue#setOperationRecyclingEnabled}.
+   */
+  public void setOperationRecyclingEnabled(boolean enabled) {
+    mOperationsQueue.setOperationRecyclingEnabled(enabled);
+  }
+
+  /**
+   * Enables calculating the layout of independent root views concurrently on a pool of worker
+   * threads. When disabled, or when only one root view has updates, layout runs serially on the
+   * calling thread.
+   */
+  public void setParallelLayoutEnabled(boolean enabled) {
+    if (enabled && mParallelRootLayoutExecutor == null) {
+      mParallelRootLayoutExecutor = new ParallelRootLayoutExecutor();
+    } else if (!enabled && mParallelRootLayoutExecutor != null) {
+      mParallelRootLayoutExecutor.shutdown();
+      mParallelRootLayoutExecutor = null;
+    }
+  }
+
+  public boolean isParallelLayoutEnabled() {
+    return mParallelRootLayoutExecutor != null;
+  }
+
+  /**
+   * Spreads the execution of pending UI operation batches over several frames, see
+   * {@link UIViewOperationQueue#setFrameBudgetedDispatchEnabled}.
+   */
+  public void setFrameBudgetedDispatchEnabled(boolean enabled) {
+    mOperationsQueue.setFrameBudgetedDispatchEnabled(enabled);
+  }
+
   /**
    * Invoked by React to create a new node with a given tag, class name and properties.
    */
@@ -227,6 +360,102 @@ public class UIImplementation {
     mOperationsQueue.getNativeViewHierarchyManager().updateProperties(tag, props);
   }
 
+  /**
+   * Same as {@link #synchronouslyUpdateViewOnUIThread}, for the props kept by native animated
+   * nodes in an {@link AnimatedViewProps}, which are applied without allocating.
+   */
+  public void synchronouslyUpdateAnimatedPropsOnUIThread(int tag, AnimatedViewProps props) {
+    UiThreadUtil.assertOnUiThread();
+    mOperationsQueue.getNativeViewHierarchyManager().updateAnimatedProps(tag, props);
+  }
+
+  /**
+   * Used by native animated module to animate layout props. Unlike
+   * {@link #synchronouslyUpdateViewOnUIThread}, the props are applied to the shadow view, and the
+   * new layout is computed on the native modules thread. Only the roots with views whose layout
+   * changed are laid out again, and the resulting updates are applied to the views on the next
+   * frame, like the ones of a batch from JS.
+   *
+   * The other props animated in the same frame, if any, are passed as viewProps. They are applied
+   * to the view together with the new layout, rather than ahead of it.
+   *
+   * Can be called from any thread. The updates of several frames may be applied together if the
+   * native modules thread is busy.
+   */
+  public void enqueueAnimatedLayoutUpdate(
+      int tag,
+      ReadableMap layoutProps,
+      @Nullable ReactStylesDiffMap viewProps) {
+    synchronized (mAnimatedLayoutUpdatesLock) {
+      mPendingAnimatedLayoutTags.add(tag);
+      mPendingAnimatedLayoutProps.add(layoutProps);
+      mPendingAnimatedViewProps.add(viewProps);
+      if (mIsAnimatedLayoutUpdateScheduled) {
+        return;
+      }
+      mIsAnimatedLayoutUpdateScheduled = true;
+    }
+    mReactContext.runOnNativeModulesQueueThread(mApplyAnimatedLayoutUpdatesRunnable);
+  }
+
+  private void applyAnimatedLayoutUpdates() {
+    synchronized (mAnimatedLayoutUpdatesLock) {
+      ArrayList<Integer> tags = mPendingAnimatedLayoutTags;
+      mPendingAnimatedLayoutTags = mAppliedAnimatedLayoutTags;
+      mAppliedAnimatedLayoutTags = tags;
+      ArrayList<ReadableMap> props = mPendingAnimatedLayoutProps;
+      mPendingAnimatedLayoutProps = mAppliedAnimatedLayoutProps;
+      mAppliedAnimatedLayoutProps = props;
+      ArrayList<ReactStylesDiffMap> viewProps = mPendingAnimatedViewProps;
+      mPendingAnimatedViewProps = mAppliedAnimatedViewProps;
+      mAppliedAnimatedViewProps = viewProps;
+      mIsAnimatedLayoutUpdateScheduled = false;
+    }
+
+    for (int i = 0; i < mAppliedAnimatedLayoutTags.size(); i++) {
+      ReactShadowNode cssNode = mShadowNodeRegistry.getNode(mAppliedAnimatedLayoutTags.get(i));
+      // The view may have been removed while the animation was running
+      if (cssNode != null) {
+        // Layout props don't need to be passed to the native view, only the layout they result in
+        cssNode.updateProperties(new ReactStylesDiffMap(mAppliedAnimatedLayoutProps.get(i)));
+        ReactStylesDiffMap viewProps = mAppliedAnimatedViewProps.get(i);
+        if (viewProps != null) {
+          handleUpdateView(cssNode, cssNode.getViewClass(), viewProps);
+        }
+      }
+    }
+    mAppliedAnimatedLayoutTags.clear();
+    mAppliedAnimatedLayoutProps.clear();
+    mAppliedAnimatedViewProps.clear();
+
+    // The calls of a batch from JS may arrive in several parts. Until the batch is complete the
+    // new layout is left to it, rather than laying out and dispatching a partially updated tree
+    if (!mIsJSBatchInProgress) {
+      dispatchViewUpdates(ANIMATED_LAYOUT_BATCH_ID);
+    }
+  }
+
+  /**
+   * Invoked by {@link UIManagerModule} for every call it receives from JS.
+   */
+  /* package */ void onJSBatchCall() {
+    mIsJSBatchInProgress = true;
+  }
+
+  /**
+   * Invoked by {@link UIManagerModule} at the end of a batch of calls from JS, to commit the
+   * updates of the batch.
+   */
+  /* package */ void onJSBatchComplete(int batchId) {
+    mIsJSBatchInProgress = false;
+    dispatchViewUpdates(batchId);
+  }
+
+  @VisibleForTesting
+  /* package */ boolean isJSBatchInProgress() {
+    return mIsJSBatchInProgress;
+  }
+
   protected void handleUpdateView(
       ReactShadowNode cssNode,
       String className,
@@ -529,9 +758,18 @@ public class UIImplementation {
   }
 
   protected void updateViewHierarchy() {
+    if (mParallelRootLayoutExecutor != null) {
+      updateViewHierarchyInParallel(mParallelRootLayoutExecutor);
+      return;
+    }
+
     for (int i = 0; i < mShadowNodeRegistry.getRootNodeCount(); i++) {
       int tag = mShadowNodeRegistry.getRootTag(i);
       ReactShadowNode cssRoot = mShadowNodeRegistry.getNode(tag);
+      if (!needsRootUpdate(cssRoot)) {
+        mSkippedRootLayoutCount = mSkippedRootLayoutCount + 1;
+        continue;
+      }
       notifyOnBeforeLayoutRecursive(cssRoot);
 
       calculateRootLayout(cssRoot);
@@ -539,6 +777,50 @@ public class UIImplementation {
     }
   }
 
+  /**
+   * Like the serial path of {@link #updateViewHierarchy} but calculates the layout of all roots
+   * that need an update concurrently. onBeforeLayout and applying updates still happen serially
+   * and in root order, so the enqueued UI operations are the same as with serial layout.
+   */
+  private void updateViewHierarchyInParallel(ParallelRootLayoutExecutor executor) {
+    for (int i = 0; i < mShadowNodeRegistry.getRootNodeCount(); i++) {
+      int tag = mShadowNodeRegistry.getRootTag(i);
+      ReactShadowNode cssRoot = mShadowNodeRegistry.getNode(tag);
+      if (needsRootUpdate(cssRoot)) {
+        mRootsToUpdate.add(cssRoot);
+      } else {
+        mSkippedRootLayoutCount = mSkippedRootLayoutCount + 1;
+      }
+    }
+
+    try {
+      for (int i = 0; i < mRootsToUpdate.size(); i++) {
+        notifyOnBeforeLayoutRecursive(mRootsToUpdate.get(i));
+      }
+
+      if (mRootsToUpdate.size() == 1) {
+        calculateRootLayout(mRootsToUpdate.get(0));
+      } else if (mRootsToUpdate.size() > 1) {
+        executor.calculateLayouts(this, mRootsToUpdate);
+      }
+
+      for (int i = 0; i < mRootsToUpdate.size(); i++) {
+        applyUpdatesRecursive(mRootsToUpdate.get(i), 0f, 0f);
+      }
+    } finally {
+      mRootsToUpdate.clear();
+    }
+  }
+
+  /**
+   * Whether the hierarchy under the given root needs to be laid out and have its updates applied.
+   * Both {@link ReactShadowNode#markUpdated} and Yoga's dirty flag propagate up to the root, so a
+   * root without updates has no updated node in its hierarchy and can be skipped entirely.
+   */
+  protected boolean needsRootUpdate(ReactShadowNode cssRoot) {
+    return cssRoot.hasUpdates();
+  }
+
   /**
    * Registers a new Animation that can then be added to a View using {@link #addAnimation}.
    */
@@ -644,6 +926,10 @@ public class UIImplementation {
   public void onHostDestroy() {
   }
 
+  public void onCatalystInstanceDestroy() {
+    setParallelLayoutEnabled(false);
+  }
+
   public void setViewHierarchyUpdateDebugListener(
       @Nullable NotThreadSafeViewHierarchyUpdateDebugListener listener) {
     mOperationsQueue.setViewHierarchyUpdateDebugListener(listener);
@@ -759,6 +1045,10 @@ public class UIImplementation {
     cssNode.onBeforeLayout();
   }
 
+  /**
+   * Calculates the layout of the hierarchy under the given root. When parallel layout is enabled
+   * this is called concurrently for different roots.
+   */
   protected void calculateRootLayout(ReactShadowNode cssRoot) {
     SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "cssRoot.calculateLayout")
         .arg("rootTag", cssRoot.getReactTag())
@@ -768,8 +1058,19 @@ public class UIImplementation {
       cssRoot.calculateLayout();
     } finally {
       Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
-      mLayoutTimer = mLayoutTimer + ((double)System.nanoTime() - startTime)/ 1000000000.0;
-      mLayoutCount = mLayoutCount + 1;
+      double layoutTime = ((double)System.nanoTime() - startTime)/ 1000000000.0;
+      synchronized (mRootLayoutStats) {
+        mLayoutTimer = mLayoutTimer + layoutTime;
+        mLayoutCount = mLayoutCount + 1;
+
+        RootLayoutStats stats = mRootLayoutStats.get(cssRoot.getReactTag());
+        if (stats == null) {
+          stats = new RootLayoutStats();
+          mRootLayoutStats.put(cssRoot.getReactTag(), stats);
+        }
+        stats.mLayoutTimer = stats.mLayoutTimer + layoutTime;
+        stats.mLayoutCount = stats.mLayoutCount + 1;
+      }
     }
   }
 
@@ -17,10 +17,30 @@ import com.facebook.react.uimanager.events.EventDispatcher;
  * Provides UIImplementation to use in {@link UIManagerModule}.
  */
 public class UIImplementationProvider {
+
+  private boolean mParallelLayoutEnabled = false;
+
+  /**
+   * Enables calculating the layout of independent root views concurrently, see
+   * {@link UIImplementation#setParallelLayoutEnabled}. Disabled by default. Providers of other
+   * UIImplementations may not support it, FlatUIImplementationProvider ignores it.
+   */
+  public UIImplementationProvider setParallelLayoutEnabled(boolean parallelLayoutEnabled) {
+    mParallelLayoutEnabled = parallelLayoutEnabled;
+    return this;
+  }
+
+  public boolean isParallelLayoutEnabled() {
+    return mParallelLayoutEnabled;
+  }
+
   public UIImplementation createUIImplementation(
       ReactApplicationContext reactContext,
       List<ViewManager> viewManagers,
       EventDispatcher eventDispatcher) {
-    return new UIImplementation(reactContext, viewManagers, eventDispatcher);
+    UIImplementation uiImplementation =
+        new UIImplementation(reactContext, viewManagers, eventDispatcher);
+    uiImplementation.setParallelLayoutEnabled(mParallelLayoutEnabled);
+    return uiImplementation;
   }
 }
@@ -148,6 +148,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
   public void onCatalystInstanceDestroy() {
     super.onCatalystInstanceDestroy();
     mEventDispatcher.onCatalystInstanceDestroyed();
+    mUIImplementation.onCatalystInstanceDestroy();
 
     getReactApplicationContext().unregisterComponentCallbacks(mMemoryTrimCallback);
     YogaNodePool.get().clear();
@@ -172,6 +173,19 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
     Map<String,Double> perfMap = new HashMap<>();
     perfMap.put("LayoutCount", mUIImplementation.getLayoutCount());
     perfMap.put("LayoutTimer", mUIImplementation.getLayoutTimer());
+    perfMap.put("SkippedRootLayoutCount", mUIImplementation.getSkippedRootLayoutCount());
+    mUIImplementation.putRootLayoutCounters(perfMap);
+    mUIImplementation.putViewManagerCounters(perfMap);
+    UIViewOperationQueue operationsQueue = mUIImplementation.getUIViewOperationQueue();
+    perfMap.put("OperationPoolHits", (double) operationsQueue.getOperationPoolHits());
+    perfMap.put("OperationPoolMisses", (double) operationsQueue.getOperationPoolMisses());
+    RecycledViewPool recycledViewPool =
+        operationsQueue.getNativeViewHierarchyManager().getRecycledViewPool();
+    perfMap.put("RecycledViewPoolSize", (double) recycledViewPool.getPooledViewCount());
+    perfMap.put("RecycledViewPoolHits", (double) recycledViewPool.getHitCount());
+    perfMap.put("RecycledViewPoolMisses", (double) recycledViewPool.getMissCount());
+    perfMap.put("RecycledViewDiscards", (double) recycledViewPool.getDiscardedCount());
+    perfMap.put("RecycledViewResetTime", recycledViewPool.getResetTimeMs());
     return perfMap;
   }
 
@@ -226,6 +240,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
 
   @ReactMethod
   public void removeRootView(int rootViewTag) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.removeRootView(rootViewTag);
   }
 
@@ -237,6 +252,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
 
   @ReactMethod
   public void createView(int tag, String className, int rootViewTag, ReadableMap props) {
+    mUIImplementation.onJSBatchCall();
     if (DEBUG) {
       FLog.d(
           ReactConstants.TAG,
@@ -247,6 +263,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
 
   @ReactMethod
   public void updateView(int tag, String className, ReadableMap props) {
+    mUIImplementation.onJSBatchCall();
     if (DEBUG) {
       FLog.d(
           ReactConstants.TAG,
@@ -274,6 +291,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
       @Nullable ReadableArray addChildTags,
       @Nullable ReadableArray addAtIndices,
       @Nullable ReadableArray removeFrom) {
+    mUIImplementation.onJSBatchCall();
     if (DEBUG) {
       FLog.d(
           ReactConstants.TAG,
@@ -304,6 +322,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
   public void setChildren(
     int viewTag,
     ReadableArray childrenTags) {
+    mUIImplementation.onJSBatchCall();
     if (DEBUG) {
       FLog.d(
           ReactConstants.TAG,
@@ -319,6 +338,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void replaceExistingNonRootView(int oldTag, int newTag) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.replaceExistingNonRootView(oldTag, newTag);
   }
 
@@ -330,6 +350,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void removeSubviewsFromContainerWithID(int containerTag) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.removeSubviewsFromContainerWithID(containerTag);
   }
 
@@ -339,6 +360,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void measure(int reactTag, Callback callback) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.measure(reactTag, callback);
   }
 
@@ -349,6 +371,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void measureInWindow(int reactTag, Callback callback) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.measureInWindow(reactTag, callback);
   }
 
@@ -368,6 +391,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
       int ancestorTag,
       Callback errorCallback,
       Callback successCallback) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.measureLayout(tag, ancestorTag, errorCallback, successCallback);
   }
 
@@ -383,6 +407,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
       int tag,
       Callback errorCallback,
       Callback successCallback) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.measureLayoutRelativeToParent(tag, errorCallback, successCallback);
   }
 
@@ -402,6 +427,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
       final int reactTag,
       final ReadableArray point,
       final Callback callback) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.findSubviewIn(
       reactTag,
       Math.round(PixelUtil.toPixelFromDIP(point.getDouble(0))),
@@ -432,16 +458,19 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
 
   @ReactMethod
   public void setJSResponder(int reactTag, boolean blockNativeResponder) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.setJSResponder(reactTag, blockNativeResponder);
   }
 
   @ReactMethod
   public void clearJSResponder() {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.clearJSResponder();
   }
 
   @ReactMethod
   public void dispatchViewManagerCommand(int reactTag, int commandId, ReadableArray commandArgs) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.dispatchViewManagerCommand(reactTag, commandId, commandArgs);
   }
 
@@ -457,6 +486,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void showPopupMenu(int reactTag, ReadableArray items, Callback error, Callback success) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.showPopupMenu(reactTag, items, error, success);
   }
 
@@ -473,6 +503,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
    */
   @ReactMethod
   public void setLayoutAnimationEnabledExperimental(boolean enabled) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.setLayoutAnimationEnabledExperimental(enabled);
   }
 
@@ -493,6 +524,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
       ReadableMap config,
       Callback success,
       Callback error) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.configureNextLayoutAnimation(config, success, error);
   }
 
@@ -519,7 +551,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
           .arg("BatchId", batchId)
           .flush();
     try {
-      mUIImplementation.dispatchViewUpdates(batchId);
+      mUIImplementation.onJSBatchComplete(batchId);
     } finally {
       Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
     }
@@ -536,6 +568,7 @@ public class UIManagerModule extends ReactContextBaseJavaModule implements
 
   @ReactMethod
   public void sendAccessibilityEvent(int tag, int eventType) {
+    mUIImplementation.onJSBatchCall();
     mUIImplementation.sendAccessibilityEvent(tag, eventType);
   }
 
@@ -16,17 +16,22 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import android.support.v4.util.Pools;
+
+import com.facebook.common.logging.FLog;
 import com.facebook.react.animation.Animation;
 import com.facebook.react.animation.AnimationRegistry;
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.SoftAssertions;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.SoftAssertions;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.systrace.Systrace;
 import com.facebook.systrace.SystraceMessage;
@@ -39,11 +44,27 @@ import com.facebook.systrace.SystraceMessage;
  * execute all the JS operation coming from a single batch a single loop of the main (UI) android
  * looper.
  *
- * TODO(7135923): Pooling of operation objects
- * TODO(5694019): Consider a better data structure for operations queue to save on allocations
+ * When operation recycling is enabled (see {@link #setOperationRecyclingEnabled}) the most
+ * frequent operations (layout, properties and children updates) are obtained from pools and
+ * released back once executed, and the per-batch operation buffers are reused instead of being
+ * reallocated for every batch.
+ *
+ * When frame budgeted dispatch is enabled (see {@link #setFrameBudgetedDispatchEnabled}) pending
+ * batches are spread over several frames instead of being flushed all at once. Each batch of
+ * view mutations is still executed atomically within a single frame, while fire-and-forget
+ * operations (accessibility events) are deferred and executed with the time left in the frame
+ * budget. Operations that report the state of the hierarchy back to JS, such as measure calls,
+ * are never deferred, so that they observe the hierarchy as of their own batch. At least one deferred operation is executed every frame, and at
+ * most {@link #MAX_DEFERRED_OPERATIONS} are kept waiting, so that they can't be starved by a
+ * steady stream of batches.
  */
 public class UIViewOperationQueue {
 
+  private static final int OPERATIONS_POOL_SIZE = 256;
+  private static final int BATCH_POOL_SIZE = 4;
+  private static final float DEFAULT_FRAME_BUDGET_RATIO = 0.5f;
+  private static final int MAX_DEFERRED_OPERATIONS = 64;
+
   private final int[] mMeasureBuffer = new int[4];
 
   /**
@@ -54,6 +75,14 @@ public class UIViewOperationQueue {
     void execute();
   }
 
+  /**
+   * Marker for fire-and-forget operations that neither mutate the view hierarchy nor report it
+   * back to JS, and can therefore be executed after later batches when frame budgeted dispatch is
+   * enabled.
+   */
+  private interface LowPriorityOperation extends UIOperation {
+  }
+
   /**
    * A spec for an operation on the native View hierarchy.
    */
@@ -80,16 +109,26 @@ public class UIViewOperationQueue {
 
   private final class UpdatePropertiesOperation extends ViewOperation {
 
-    private final ReactStylesDiffMap mProps;
+    private @Nullable ReactStylesDiffMap mProps;
+    private boolean mIsPooled;
 
     private UpdatePropertiesOperation(int tag, ReactStylesDiffMap props) {
       super(tag);
       mProps = props;
     }
 
+    private void init(int tag, ReactStylesDiffMap props) {
+      mTag = tag;
+      mProps = props;
+    }
+
     @Override
     public void execute() {
       mNativeViewHierarchyManager.updateProperties(mTag, mProps);
+      if (mIsPooled) {
+        mProps = null;
+        mUpdatePropertiesOperationPool.release(this);
+      }
     }
   }
 
@@ -100,7 +139,8 @@ public class UIViewOperationQueue {
    */
   private final class UpdateLayoutOperation extends ViewOperation {
 
-    private final int mParentTag, mX, mY, mWidth, mHeight;
+    private int mParentTag, mX, mY, mWidth, mHeight;
+    private boolean mIsPooled;
 
     public UpdateLayoutOperation(
         int parentTag,
@@ -110,6 +150,17 @@ public class UIViewOperationQueue {
         int width,
         int height) {
       super(tag);
+      init(parentTag, tag, x, y, width, height);
+    }
+
+    private void init(
+        int parentTag,
+        int tag,
+        int x,
+        int y,
+        int width,
+        int height) {
+      mTag = tag;
       mParentTag = parentTag;
       mX = x;
       mY = y;
@@ -122,6 +173,9 @@ public class UIViewOperationQueue {
     public void execute() {
       Systrace.endAsyncFlow(Systrace.TRACE_TAG_REACT_VIEW, "updateLayout", mTag);
       mNativeViewHierarchyManager.updateLayout(mParentTag, mTag, mX, mY, mWidth, mHeight);
+      if (mIsPooled) {
+        mUpdateLayoutOperationPool.release(this);
+      }
     }
   }
 
@@ -156,9 +210,10 @@ public class UIViewOperationQueue {
 
   private final class ManageChildrenOperation extends ViewOperation {
 
-    private final @Nullable int[] mIndicesToRemove;
-    private final @Nullable ViewAtIndex[] mViewsToAdd;
-    private final @Nullable int[] mTagsToDelete;
+    private @Nullable int[] mIndicesToRemove;
+    private @Nullable ViewAtIndex[] mViewsToAdd;
+    private @Nullable int[] mTagsToDelete;
+    private boolean mIsPooled;
 
     public ManageChildrenOperation(
         int tag,
@@ -166,6 +221,15 @@ public class UIViewOperationQueue {
         @Nullable ViewAtIndex[] viewsToAdd,
         @Nullable int[] tagsToDelete) {
       super(tag);
+      init(tag, indicesToRemove, viewsToAdd, tagsToDelete);
+    }
+
+    private void init(
+        int tag,
+        @Nullable int[] indicesToRemove,
+        @Nullable ViewAtIndex[] viewsToAdd,
+        @Nullable int[] tagsToDelete) {
+      mTag = tag;
       mIndicesToRemove = indicesToRemove;
       mViewsToAdd = viewsToAdd;
       mTagsToDelete = tagsToDelete;
@@ -178,6 +242,10 @@ public class UIViewOperationQueue {
           mIndicesToRemove,
           mViewsToAdd,
           mTagsToDelete);
+      if (mIsPooled) {
+        init(0, null, null, null);
+        mManageChildrenOperationPool.release(this);
+      }
     }
   }
 
@@ -507,7 +575,8 @@ public class UIViewOperationQueue {
     }
   }
 
-  private final class SendAccessibilityEvent extends ViewOperation {
+  private final class SendAccessibilityEvent extends ViewOperation
+      implements LowPriorityOperation {
 
     private final int mEventType;
 
@@ -522,6 +591,73 @@ public class UIViewOperationQueue {
     }
   }
 
+  /**
+   * Runs all the operations of a single JS batch on the UI thread. When operation recycling is
+   * enabled instances of this class and their operation buffers are returned to the queue once
+   * they have been run.
+   */
+  private final class DispatchUIBatch implements Runnable {
+
+    private int mBatchId;
+    private @Nullable ArrayList<UIOperation> mBatchOperations;
+    private @Nullable UIOperation[] mBatchNonBatchedOperations;
+    private boolean mIsPooled;
+
+    private void init(
+        int batchId,
+        @Nullable ArrayList<UIOperation> operations,
+        @Nullable UIOperation[] nonBatchedOperations) {
+      mBatchId = batchId;
+      mBatchOperations = operations;
+      mBatchNonBatchedOperations = nonBatchedOperations;
+    }
+
+    @Override
+    public void run() {
+      SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
+          .arg("BatchId", mBatchId)
+          .flush();
+      try {
+        // All nonBatchedOperations should be executed before regular operations as
+        // regular operations may depend on them
+        if (mBatchNonBatchedOperations != null) {
+          for (UIOperation op : mBatchNonBatchedOperations) {
+            op.execute();
+          }
+        }
+
+        if (mBatchOperations != null) {
+          boolean deferLowPriorityOperations = mFrameBudgetedDispatchEnabled;
+          for (int i = 0; i < mBatchOperations.size(); i++) {
+            UIOperation operation = mBatchOperations.get(i);
+            if (deferLowPriorityOperations && operation instanceof LowPriorityOperation) {
+              if (mLowPriorityOperations.size() >= MAX_DEFERRED_OPERATIONS) {
+                // Make room by executing the oldest deferred operation, which keeps them in order
+                executeLowPriorityOperation(mLowPriorityOperations.pollFirst());
+              }
+              mLowPriorityOperations.addLast(operation);
+            } else {
+              operation.execute();
+            }
+          }
+        }
+
+        // Clear layout animation, as animation only apply to current UI operations batch.
+        mNativeViewHierarchyManager.clearLayoutAnimation();
+
+        if (mViewHierarchyUpdateDebugListener != null) {
+          mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
+        }
+      } finally {
+        Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+      }
+
+      if (mIsPooled) {
+        recycleDispatchUIBatch(this);
+      }
+    }
+  }
+
   private final NativeViewHierarchyManager mNativeViewHierarchyManager;
   private final AnimationRegistry mAnimationRegistry;
   private final Object mDispatchRunnablesLock = new Object();
@@ -531,11 +667,32 @@ public class UIViewOperationQueue {
   @GuardedBy("mDispatchRunnablesLock")
   private final ArrayList<Runnable> mDispatchUIRunnables = new ArrayList<>();
 
+  // Operations are obtained on the native modules thread and released on the UI thread
+  private final Pools.SynchronizedPool<UpdateLayoutOperation> mUpdateLayoutOperationPool =
+      new Pools.SynchronizedPool<>(OPERATIONS_POOL_SIZE);
+  private final Pools.SynchronizedPool<UpdatePropertiesOperation> mUpdatePropertiesOperationPool =
+      new Pools.SynchronizedPool<>(OPERATIONS_POOL_SIZE);
+  private final Pools.SynchronizedPool<ManageChildrenOperation> mManageChildrenOperationPool =
+      new Pools.SynchronizedPool<>(OPERATIONS_POOL_SIZE);
+  @GuardedBy("mDispatchRunnablesLock")
+  private final ArrayDeque<DispatchUIBatch> mDispatchUIBatchPool = new ArrayDeque<>();
+  @GuardedBy("mDispatchRunnablesLock")
+  private final ArrayDeque<ArrayList<UIOperation>> mOperationsBufferPool = new ArrayDeque<>();
+
+  // Only accessed from the UI thread
+  private final ArrayDeque<UIOperation> mLowPriorityOperations = new ArrayDeque<>();
+
   private ArrayList<UIOperation> mOperations = new ArrayList<>();
   @GuardedBy("mNonBatchedOperationsLock")
   private ArrayDeque<UIOperation> mNonBatchedOperations = new ArrayDeque<>();
   private @Nullable NotThreadSafeViewHierarchyUpdateDebugListener mViewHierarchyUpdateDebugListener;
   private boolean mIsDispatchUIFrameCallbackEnqueued = false;
+  private volatile boolean mOperationRecyclingEnabled = false;
+  // Updated and read from several threads, outside of the pool locks
+  private final AtomicLong mOperationPoolHits = new AtomicLong();
+  private final AtomicLong mOperationPoolMisses = new AtomicLong();
+  private volatile boolean mFrameBudgetedDispatchEnabled = false;
+  private volatile float mFrameBudgetRatio = DEFAULT_FRAME_BUDGET_RATIO;
 
   public UIViewOperationQueue(
       ReactApplicationContext reactContext,
@@ -559,6 +716,54 @@ public class UIViewOperationQueue {
     return mOperations.isEmpty();
   }
 
+  /**
+   * Enables or disables recycling of operation objects and operation buffers. Operations that
+   * were obtained from a pool before recycling was disabled are still released once executed.
+   */
+  public void setOperationRecyclingEnabled(boolean enabled) {
+    mOperationRecyclingEnabled = enabled;
+  }
+
+  public boolean isOperationRecyclingEnabled() {
+    return mOperationRecyclingEnabled;
+  }
+
+  /**
+   * Enables or disables spreading the execution of pending batches over several frames. When
+   * enabled, each frame executes pending operations until the frame budget (see
+   * {@link #setFrameBudgetRatio}) is spent; batches are never split across frames and at least one
+   * pending batch is executed every frame.
+   */
+  public void setFrameBudgetedDispatchEnabled(boolean enabled) {
+    mFrameBudgetedDispatchEnabled = enabled;
+  }
+
+  /**
+   * Sets the fraction of the display frame interval that may be spent executing UI operations
+   * when frame budgeted dispatch is enabled. Defaults to 0.5.
+   */
+  public void setFrameBudgetRatio(float ratio) {
+    if (ratio <= 0 || ratio > 1) {
+      throw new IllegalArgumentException("Frame budget ratio must be in (0, 1]: " + ratio);
+    }
+    mFrameBudgetRatio = ratio;
+  }
+
+  /**
+   * @return number of operations or batch buffers that were served from a pool
+   */
+  public long getOperationPoolHits() {
+    return mOperationPoolHits.get();
+  }
+
+  /**
+   * @return number of operations or batch buffers that had to be allocated while recycling was
+   * enabled
+   */
+  public long getOperationPoolMisses() {
+    return mOperationPoolMisses.get();
+  }
+
   public void addRootView(
       final int tag,
       final SizeMonitoringFrameLayout rootView,
@@ -650,7 +855,21 @@ public class UIViewOperationQueue {
   }
 
   public void enqueueUpdateProperties(int reactTag, String className, ReactStylesDiffMap props) {
-    mOperations.add(new UpdatePropertiesOperation(reactTag, props));
+    if (!mOperationRecyclingEnabled) {
+      mOperations.add(new UpdatePropertiesOperation(reactTag, props));
+      return;
+    }
+
+    UpdatePropertiesOperation operation = mUpdatePropertiesOperationPool.acquire();
+    if (operation == null) {
+      mOperationPoolMisses.incrementAndGet();
+      operation = new UpdatePropertiesOperation(reactTag, props);
+      operation.mIsPooled = true;
+    } else {
+      mOperationPoolHits.incrementAndGet();
+      operation.init(reactTag, props);
+    }
+    mOperations.add(operation);
   }
 
   public void enqueueUpdateLayout(
@@ -660,8 +879,22 @@ public class UIViewOperationQueue {
       int y,
       int width,
       int height) {
-    mOperations.add(
-        new UpdateLayoutOperation(parentTag, reactTag, x, y, width, height));
+    if (!mOperationRecyclingEnabled) {
+      mOperations.add(
+          new UpdateLayoutOperation(parentTag, reactTag, x, y, width, height));
+      return;
+    }
+
+    UpdateLayoutOperation operation = mUpdateLayoutOperationPool.acquire();
+    if (operation == null) {
+      mOperationPoolMisses.incrementAndGet();
+      operation = new UpdateLayoutOperation(parentTag, reactTag, x, y, width, height);
+      operation.mIsPooled = true;
+    } else {
+      mOperationPoolHits.incrementAndGet();
+      operation.init(parentTag, reactTag, x, y, width, height);
+    }
+    mOperations.add(operation);
   }
 
   public void enqueueManageChildren(
@@ -669,8 +902,22 @@ public class UIViewOperationQueue {
       @Nullable int[] indicesToRemove,
       @Nullable ViewAtIndex[] viewsToAdd,
       @Nullable int[] tagsToDelete) {
-    mOperations.add(
-        new ManageChildrenOperation(reactTag, indicesToRemove, viewsToAdd, tagsToDelete));
+    if (!mOperationRecyclingEnabled) {
+      mOperations.add(
+          new ManageChildrenOperation(reactTag, indicesToRemove, viewsToAdd, tagsToDelete));
+      return;
+    }
+
+    ManageChildrenOperation operation = mManageChildrenOperationPool.acquire();
+    if (operation == null) {
+      mOperationPoolMisses.incrementAndGet();
+      operation = new ManageChildrenOperation(reactTag, indicesToRemove, viewsToAdd, tagsToDelete);
+      operation.mIsPooled = true;
+    } else {
+      mOperationPoolHits.incrementAndGet();
+      operation.init(reactTag, indicesToRemove, viewsToAdd, tagsToDelete);
+    }
+    mOperations.add(operation);
   }
 
   public void enqueueSetChildren(
@@ -740,11 +987,13 @@ public class UIViewOperationQueue {
   }
 
   /* package */ void dispatchViewUpdates(final int batchId) {
+    final boolean recyclingEnabled = mOperationRecyclingEnabled;
+
     // Store the current operation queues to dispatch and create new empty ones to continue
     // receiving new operations
     final ArrayList<UIOperation> operations = mOperations.isEmpty() ? null : mOperations;
     if (operations != null) {
-      mOperations = new ArrayList<>();
+      mOperations = recyclingEnabled ? obtainOperationsBuffer() : new ArrayList<UIOperation>();
     }
 
     final UIOperation[] nonBatchedOperations;
@@ -763,39 +1012,13 @@ public class UIViewOperationQueue {
     }
 
     synchronized (mDispatchRunnablesLock) {
-      mDispatchUIRunnables.add(
-          new Runnable() {
-             @Override
-             public void run() {
-               SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "DispatchUI")
-                   .arg("BatchId", batchId)
-                   .flush();
-               try {
-                 // All nonBatchedOperations should be executed before regular operations as
-                 // regular operations may depend on them
-                 if (nonBatchedOperations != null) {
-                   for (UIOperation op : nonBatchedOperations) {
-                     op.execute();
-                   }
-                 }
-
-                 if (operations != null) {
-                   for (int i = 0; i < operations.size(); i++) {
-                     operations.get(i).execute();
-                   }
-                 }
-
-                 // Clear layout animation, as animation only apply to current UI operations batch.
-                 mNativeViewHierarchyManager.clearLayoutAnimation();
-
-                 if (mViewHierarchyUpdateDebugListener != null) {
-                   mViewHierarchyUpdateDebugListener.onViewHierarchyUpdateFinished();
-                 }
-               } finally {
-                 Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
-               }
-             }
-           });
+      DispatchUIBatch batch = recyclingEnabled ? mDispatchUIBatchPool.pollFirst() : null;
+      if (batch == null) {
+        batch = new DispatchUIBatch();
+        batch.mIsPooled = recyclingEnabled;
+      }
+      batch.init(batchId, operations, nonBatchedOperations);
+      mDispatchUIRunnables.add(batch);
     }
 
     // In the case where the frame callback isn't enqueued, the UI isn't being displayed or is being
@@ -825,6 +1048,34 @@ public class UIViewOperationQueue {
     flushPendingBatches();
   }
 
+  private ArrayList<UIOperation> obtainOperationsBuffer() {
+    synchronized (mDispatchRunnablesLock) {
+      ArrayList<UIOperation> buffer = mOperationsBufferPool.pollFirst();
+      if (buffer != null) {
+        mOperationPoolHits.incrementAndGet();
+        return buffer;
+      }
+    }
+    mOperationPoolMisses.incrementAndGet();
+    return new ArrayList<>();
+  }
+
+  /**
+   * Called on the UI thread with {@link #mDispatchRunnablesLock} held, from
+   * {@link #flushPendingBatches}.
+   */
+  private void recycleDispatchUIBatch(DispatchUIBatch batch) {
+    ArrayList<UIOperation> operations = batch.mBatchOperations;
+    batch.init(0, null, null);
+    if (operations != null && mOperationsBufferPool.size() < BATCH_POOL_SIZE) {
+      operations.clear();
+      mOperationsBufferPool.addLast(operations);
+    }
+    if (mDispatchUIBatchPool.size() < BATCH_POOL_SIZE) {
+      mDispatchUIBatchPool.addLast(batch);
+    }
+  }
+
   private void flushPendingBatches() {
     synchronized (mDispatchRunnablesLock) {
       for (int i = 0; i < mDispatchUIRunnables.size(); i++) {
@@ -832,6 +1083,52 @@ public class UIViewOperationQueue {
       }
       mDispatchUIRunnables.clear();
     }
+    dispatchLowPriorityOperations(Long.MAX_VALUE);
+  }
+
+  /**
+   * Executes pending batches in order until the given deadline is reached. Batches are executed
+   * atomically and the first pending batch is always executed, even if the deadline has already
+   * passed, so that every frame makes progress. Low priority operations are executed with the
+   * time that is left, and likewise the first pending one is always executed.
+   */
+  private void dispatchPendingBatches(long deadlineNanos) {
+    synchronized (mDispatchRunnablesLock) {
+      int executedBatches = 0;
+      while (executedBatches < mDispatchUIRunnables.size()) {
+        if (executedBatches > 0 && System.nanoTime() >= deadlineNanos) {
+          break;
+        }
+        mDispatchUIRunnables.get(executedBatches).run();
+        executedBatches++;
+      }
+      if (executedBatches == mDispatchUIRunnables.size()) {
+        mDispatchUIRunnables.clear();
+      } else {
+        mDispatchUIRunnables.subList(0, executedBatches).clear();
+      }
+    }
+    dispatchLowPriorityOperations(deadlineNanos);
+  }
+
+  private void dispatchLowPriorityOperations(long deadlineNanos) {
+    int executedOperations = 0;
+    while (!mLowPriorityOperations.isEmpty()) {
+      if (executedOperations > 0 && System.nanoTime() >= deadlineNanos) {
+        break;
+      }
+      executeLowPriorityOperation(mLowPriorityOperations.pollFirst());
+      executedOperations++;
+    }
+  }
+
+  private static void executeLowPriorityOperation(UIOperation operation) {
+    try {
+      operation.execute();
+    } catch (JSApplicationIllegalArgumentException e) {
+      // The view targeted by a deferred operation may have been dropped by a later batch
+      FLog.w(ReactConstants.TAG, "Unable to execute deferred UI operation", e);
+    }
   }
 
   /**
@@ -853,6 +1150,13 @@ public class UIViewOperationQueue {
 
     private static final int MIN_TIME_LEFT_IN_FRAME_TO_SCHEDULE_MORE_WORK_MS = 8;
     private static final int FRAME_TIME_MS = 16;
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+    private static final long MIN_FRAME_INTERVAL_NANOS = 1000000000L / 240;
+    // Longer intervals are caused by the app being idle rather than by the display
+    private static final long MAX_FRAME_INTERVAL_NANOS = 1000000000L / 20;
+
+    private long mLastFrameTimeNanos = 0;
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
 
     private DispatchUIFrameCallback(ReactContext reactContext) {
       super(reactContext);
@@ -860,24 +1164,62 @@ public class UIViewOperationQueue {
 
     @Override
     public void doFrameGuarded(long frameTimeNanos) {
+      updateFrameInterval(frameTimeNanos);
+
+      final boolean frameBudgeted = mFrameBudgetedDispatchEnabled;
+      final long deadlineNanos =
+          frameTimeNanos + (long) (mFrameIntervalNanos * mFrameBudgetRatio);
+
       Systrace.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "dispatchNonBatchedUIOperations");
       try {
-        dispatchPendingNonBatchedOperations(frameTimeNanos);
+        dispatchPendingNonBatchedOperations(frameTimeNanos, frameBudgeted, deadlineNanos);
       } finally {
         Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
       }
 
-      flushPendingBatches();
+      if (frameBudgeted) {
+        dispatchPendingBatches(deadlineNanos);
+      } else {
+        flushPendingBatches();
+      }
 
       ReactChoreographer.getInstance().postFrameCallback(
         ReactChoreographer.CallbackType.DISPATCH_UI, this);
     }
 
-    private void dispatchPendingNonBatchedOperations(long frameTimeNanos) {
+    /**
+     * Estimates the display frame interval from consecutive frame times. Single long intervals are
+     * usually caused by dropped frames, so the estimate follows longer intervals more slowly than
+     * shorter ones, but it still moves up when the display refresh rate actually drops.
+     */
+    private void updateFrameInterval(long frameTimeNanos) {
+      if (mLastFrameTimeNanos != 0) {
+        long interval = frameTimeNanos - mLastFrameTimeNanos;
+        if (interval >= MIN_FRAME_INTERVAL_NANOS && interval <= MAX_FRAME_INTERVAL_NANOS) {
+          if (interval < mFrameIntervalNanos) {
+            mFrameIntervalNanos += (interval - mFrameIntervalNanos) / 4;
+          } else {
+            mFrameIntervalNanos += (interval - mFrameIntervalNanos) / 32;
+          }
+        }
+      }
+      mLastFrameTimeNanos = frameTimeNanos;
+    }
+
+    private void dispatchPendingNonBatchedOperations(
+        long frameTimeNanos,
+        boolean frameBudgeted,
+        long deadlineNanos) {
       while (true) {
-        long timeLeftInFrame = FRAME_TIME_MS - ((System.nanoTime() - frameTimeNanos) / 1000000);
-        if (timeLeftInFrame < MIN_TIME_LEFT_IN_FRAME_TO_SCHEDULE_MORE_WORK_MS) {
-          break;
+        if (frameBudgeted) {
+          if (System.nanoTime() >= deadlineNanos) {
+            break;
+          }
+        } else {
+          long timeLeftInFrame = FRAME_TIME_MS - ((System.nanoTime() - frameTimeNanos) / 1000000);
+          if (timeLeftInFrame < MIN_TIME_LEFT_IN_FRAME_TO_SCHEDULE_MORE_WORK_MS) {
+            break;
+          }
         }
 
         UIOperation nextOperation;
@@ -89,6 +89,30 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
   public void onDropViewInstance(T view) {
   }
 
+  /**
+   * Subclasses can return a positive value to have their dropped views reused by
+   * {@link NativeViewHierarchyManager#createView}. This is the maximum number of dropped views
+   * kept for each {@link ThemedReactContext}. View managers enabling recycling need to implement
+   * {@link #prepareToRecycleView}.
+   */
+  public int getRecycledViewPoolSize() {
+    return 0;
+  }
+
+  /**
+   * Called for a dropped view after {@link #onDropViewInstance}, once it has been detached from
+   * its parent and its children have been removed, before it is kept for reuse. The view must be
+   * reset to the state it had when returned by {@link #createViewInstance}: a recycled view only
+   * receives the initial properties of the new view, so any property set on it before would
+   * otherwise stay applied. Event emitters installed by {@link #addEventEmitters} are kept, since
+   * views are only reused within the same {@link ThemedReactContext}.
+   *
+   * @return whether the view can be reused
+   */
+  public boolean prepareToRecycleView(T view) {
+    return false;
+  }
+
   /**
    * Subclasses can override this method to install custom event emitters on the given View. You
    * might want to override this method if your view needs to emit events besides basic touch events
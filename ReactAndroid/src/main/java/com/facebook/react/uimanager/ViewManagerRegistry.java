@@ -13,6 +13,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.facebook.react.bridge.PerformanceCounter;
+
 /**
  * Class that stores the mapping between native view name used in JS and the corresponding instance
  * of {@link ViewManager}.
@@ -35,4 +37,16 @@ public class ViewManagerRegistry {
       throw new IllegalViewOperationException("No ViewManager defined for class " + className);
     }
   }
+
+  /**
+   * Adds the counters of the view managers implementing {@link PerformanceCounter} to the given
+   * map.
+   */
+  /* package */ void putPerformanceCounters(Map<String, Double> perfMap) {
+    for (ViewManager viewManager : mViewManagers.values()) {
+      if (viewManager instanceof PerformanceCounter) {
+        perfMap.putAll(((PerformanceCounter) viewManager).getPerformanceCounters());
+      }
+    }
+  }
 }
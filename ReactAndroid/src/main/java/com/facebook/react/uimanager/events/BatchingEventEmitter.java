@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import javax.annotation.Nullable;
+
+import com.facebook.infer.annotation.Assertions;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * {@link RCTEventEmitter} that records the events it receives into a single array instead of
+ * calling into JS, so that all the events of a frame can be delivered with one call to
+ * {@link RCTEventBatchEmitter#receiveEventBatch}.
+ *
+ * Each entry of the batch is an array that starts with the kind of call:
+ *   [BATCH_ENTRY_EVENT, targetTag, eventName, event]
+ *   [BATCH_ENTRY_TOUCHES, eventName, touches, changedIndices]
+ *   [BATCH_ENTRY_COMPACT_TOUCHES, eventName, touchData]
+ */
+/* package */ class BatchingEventEmitter
+    implements RCTEventEmitter, RCTCompactTouchEventEmitter {
+
+  // Keep in sync with ReactNativeEventEmitter.receiveEventBatch in JS
+  /* package */ static final int BATCH_ENTRY_EVENT = 0;
+  /* package */ static final int BATCH_ENTRY_TOUCHES = 1;
+  /* package */ static final int BATCH_ENTRY_COMPACT_TOUCHES = 2;
+
+  private @Nullable WritableArray mBatch;
+  private int mBatchSize = 0;
+
+  /**
+   * Starts recording a new batch of events.
+   */
+  public void startBatch() {
+    mBatch = Arguments.createArray();
+    mBatchSize = 0;
+  }
+
+  /**
+   * @return the recorded batch. The emitter can't record events again until the next call to
+   * {@link #startBatch}.
+   */
+  public WritableArray finishBatch() {
+    WritableArray batch = Assertions.assertNotNull(mBatch);
+    mBatch = null;
+    return batch;
+  }
+
+  /**
+   * @return number of events recorded in the current batch
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
+  @Override
+  public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
+    WritableArray entry = Arguments.createArray();
+    entry.pushInt(BATCH_ENTRY_EVENT);
+    entry.pushInt(targetTag);
+    entry.pushString(eventName);
+    if (event != null) {
+      entry.pushMap(event);
+    } else {
+      entry.pushNull();
+    }
+    addEntry(entry);
+  }
+
+  @Override
+  public void receiveTouches(
+      String eventName,
+      WritableArray touches,
+      WritableArray changedIndices) {
+    WritableArray entry = Arguments.createArray();
+    entry.pushInt(BATCH_ENTRY_TOUCHES);
+    entry.pushString(eventName);
+    entry.pushArray(touches);
+    entry.pushArray(changedIndices);
+    addEntry(entry);
+  }
+
+  @Override
+  public void receiveCompactTouches(String eventName, WritableArray touchData) {
+    WritableArray entry = Arguments.createArray();
+    entry.pushInt(BATCH_ENTRY_COMPACT_TOUCHES);
+    entry.pushString(eventName);
+    entry.pushArray(touchData);
+    addEntry(entry);
+  }
+
+  private void addEntry(WritableArray entry) {
+    Assertions.assertNotNull(mBatch, "Events recorded outside of a batch").pushArray(entry);
+    mBatchSize++;
+  }
+}
@@ -11,21 +11,23 @@ package com.facebook.react.uimanager.events;
 
 import javax.annotation.Nullable;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
 
-import android.util.LongSparseArray;
 import android.view.Choreographer;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.LongIntHashMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ReactChoreographer;
 import com.facebook.systrace.Systrace;
+import com.facebook.systrace.SystraceMessage;
 
 /**
  * Class responsible for dispatching UI events to JS. The main purpose of this class is to act as an
@@ -58,6 +60,18 @@ import com.facebook.systrace.Systrace;
  * VIEW_TAG_MASK =       0x00000000ffffffff
  * EVENT_TYPE_ID_MASK =  0x0000ffff00000000
  * COALESCING_KEY_MASK = 0xffff000000000000
+ *
+ * == Threading ==
+ *
+ * Events can be dispatched from any thread. They are staged in a lock-free queue that is drained by
+ * the frame callback on the UI thread, and listeners are kept in a copy-on-write array so that
+ * dispatching an event never blocks on the JS thread delivering the previous frame's events.
+ *
+ * == Batched Dispatch ==
+ *
+ * By default each event crosses the bridge with its own call to {@link RCTEventEmitter}. When
+ * batched dispatch is enabled, all the events of a frame are serialized into a single array and
+ * delivered with one call to {@link RCTEventBatchEmitter#receiveEventBatch}.
  */
 public class EventDispatcher implements LifecycleEventListener {
 
@@ -85,22 +99,28 @@ public class EventDispatcher implements LifecycleEventListener {
     }
   };
 
-  private final Object mEventsStagingLock = new Object();
+  private static final EventDispatcherListener[] EMPTY_LISTENERS = new EventDispatcherListener[0];
+  private static final int NO_EVENT_IDX = -1;
+
   private final Object mEventsToDispatchLock = new Object();
+  private final Object mListenersLock = new Object();
   private final ReactApplicationContext mReactContext;
-  private final LongSparseArray<Integer> mEventCookieToLastEventIdx = new LongSparseArray<>();
+  private final LongIntHashMap mEventCookieToLastEventIdx = new LongIntHashMap();
   private final Map<String, Short> mEventNameToEventId = MapBuilder.newHashMap();
   private final DispatchEventsRunnable mDispatchEventsRunnable = new DispatchEventsRunnable();
-  private final ArrayList<Event> mEventStaging = new ArrayList<>();
-  private final ArrayList<EventDispatcherListener> mListeners = new ArrayList<>();
+  private final EventStagingQueue mEventStaging = new EventStagingQueue();
+  private final BatchingEventEmitter mBatchingEventEmitter = new BatchingEventEmitter();
+  private volatile EventDispatcherListener[] mListeners = EMPTY_LISTENERS;
 
   private Event[] mEventsToDispatch = new Event[16];
   private int mEventsToDispatchSize = 0;
   private volatile @Nullable RCTEventEmitter mRCTEventEmitter;
+  private @Nullable RCTEventBatchEmitter mRCTEventBatchEmitter;
   private final ScheduleDispatchFrameCallback mCurrentFrameCallback;
   private short mNextEventTypeId = 0;
   private volatile boolean mHasDispatchScheduled = false;
   private volatile int mHasDispatchScheduledCount = 0;
+  private volatile boolean mBatchedDispatchEnabled = false;
 
   public EventDispatcher(ReactApplicationContext reactContext) {
     mReactContext = reactContext;
@@ -114,17 +134,16 @@ public class EventDispatcher implements LifecycleEventListener {
   public void dispatchEvent(Event event) {
     Assertions.assertCondition(event.isInitialized(), "Dispatched event hasn't been initialized");
 
-    for (EventDispatcherListener listener : mListeners) {
-      listener.onEventDispatch(event);
+    EventDispatcherListener[] listeners = mListeners;
+    for (int i = 0; i < listeners.length; i++) {
+      listeners[i].onEventDispatch(event);
     }
 
-    synchronized (mEventsStagingLock) {
-      mEventStaging.add(event);
-      Systrace.startAsyncFlow(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-          event.getEventName(),
-          event.getUniqueID());
-    }
+    Systrace.startAsyncFlow(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+        event.getEventName(),
+        event.getUniqueID());
+    mEventStaging.add(event);
     if (mRCTEventEmitter != null) {
       // If the host activity is paused, the frame callback may not be currently
       // posted. Ensure that it is so that this event gets delivered promptly.
@@ -137,25 +156,48 @@ public class EventDispatcher implements LifecycleEventListener {
     }
   }
 
+  /**
+   * Enables delivering all the events of a frame to JS with a single bridge call. Requires a JS
+   * bundle that registers RCTEventBatchEmitter.
+   */
+  public void setBatchedDispatchEnabled(boolean batchedDispatchEnabled) {
+    mBatchedDispatchEnabled = batchedDispatchEnabled;
+  }
+
   /**
    * Add a listener to this EventDispatcher.
    */
   public void addListener(EventDispatcherListener listener) {
-    mListeners.add(listener);
+    synchronized (mListenersLock) {
+      EventDispatcherListener[] listeners = Arrays.copyOf(mListeners, mListeners.length + 1);
+      listeners[listeners.length - 1] = listener;
+      mListeners = listeners;
+    }
   }
 
   /**
    * Remove a listener from this EventDispatcher.
    */
   public void removeListener(EventDispatcherListener listener) {
-    mListeners.remove(listener);
+    synchronized (mListenersLock) {
+      EventDispatcherListener[] listeners = mListeners;
+      for (int i = 0; i < listeners.length; i++) {
+        if (listeners[i] == listener) {
+          EventDispatcherListener[] newListeners = new EventDispatcherListener[listeners.length - 1];
+          System.arraycopy(listeners, 0, newListeners, 0, i);
+          System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+          mListeners = newListeners;
+          return;
+        }
+      }
+    }
   }
 
   @Override
   public void onHostResume() {
     UiThreadUtil.assertOnUiThread();
     if (mRCTEventEmitter == null) {
-      mRCTEventEmitter = mReactContext.getJSModule(RCTEventEmitter.class);
+      mRCTEventEmitter = new JSEventEmitter(mReactContext.getJSModule(RCTEventEmitter.class));
     }
     mCurrentFrameCallback.maybePost();
   }
@@ -186,50 +228,46 @@ public class EventDispatcher implements LifecycleEventListener {
    * frame and another from this frame during the next.
    */
   private void moveStagedEventsToDispatchQueue() {
-    synchronized (mEventsStagingLock) {
-      synchronized (mEventsToDispatchLock) {
-        for (int i = 0; i < mEventStaging.size(); i++) {
-          Event event = mEventStaging.get(i);
-
-          if (!event.canCoalesce()) {
-            addEventToEventsToDispatch(event);
-            continue;
-          }
-
-          long eventCookie = getEventCookie(
-              event.getViewTag(),
-              event.getEventName(),
-              event.getCoalescingKey());
-
-          Event eventToAdd = null;
-          Event eventToDispose = null;
-          Integer lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+    synchronized (mEventsToDispatchLock) {
+      Event event;
+      while ((event = mEventStaging.poll()) != null) {
+        if (!event.canCoalesce()) {
+          addEventToEventsToDispatch(event);
+          continue;
+        }
 
-          if (lastEventIdx == null) {
-            eventToAdd = event;
+        long eventCookie = getEventCookie(
+            event.getViewTag(),
+            event.getEventName(),
+            event.getCoalescingKey());
+
+        Event eventToAdd = null;
+        Event eventToDispose = null;
+        int lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie, NO_EVENT_IDX);
+
+        if (lastEventIdx == NO_EVENT_IDX) {
+          eventToAdd = event;
+          mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+        } else {
+          Event lastEvent = mEventsToDispatch[lastEventIdx];
+          Event coalescedEvent = event.coalesce(lastEvent);
+          if (coalescedEvent != lastEvent) {
+            eventToAdd = coalescedEvent;
             mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+            eventToDispose = lastEvent;
+            mEventsToDispatch[lastEventIdx] = null;
           } else {
-            Event lastEvent = mEventsToDispatch[lastEventIdx];
-            Event coalescedEvent = event.coalesce(lastEvent);
-            if (coalescedEvent != lastEvent) {
-              eventToAdd = coalescedEvent;
-              mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
-              eventToDispose = lastEvent;
-              mEventsToDispatch[lastEventIdx] = null;
-            } else {
-              eventToDispose = event;
-            }
+            eventToDispose = event;
           }
+        }
 
-          if (eventToAdd != null) {
-            addEventToEventsToDispatch(eventToAdd);
-          }
-          if (eventToDispose != null) {
-            eventToDispose.dispose();
-          }
+        if (eventToAdd != null) {
+          addEventToEventsToDispatch(eventToAdd);
+        }
+        if (eventToDispose != null) {
+          eventToDispose.dispose();
         }
       }
-      mEventStaging.clear();
     }
   }
 
@@ -336,18 +374,10 @@ public class EventDispatcher implements LifecycleEventListener {
           if (mEventsToDispatchSize > 1) {
             Arrays.sort(mEventsToDispatch, 0, mEventsToDispatchSize, EVENT_COMPARATOR);
           }
-          for (int eventIdx = 0; eventIdx < mEventsToDispatchSize; eventIdx++) {
-            Event event = mEventsToDispatch[eventIdx];
-            // Event can be null if it has been coalesced into another event.
-            if (event == null) {
-              continue;
-            }
-            Systrace.endAsyncFlow(
-                Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-                event.getEventName(),
-                event.getUniqueID());
-            event.dispatch(mRCTEventEmitter);
-            event.dispose();
+          if (mBatchedDispatchEnabled) {
+            dispatchEventsBatched();
+          } else {
+            dispatchEvents(mRCTEventEmitter);
           }
           clearEventsToDispatch();
           mEventCookieToLastEventIdx.clear();
@@ -358,6 +388,87 @@ public class EventDispatcher implements LifecycleEventListener {
     }
   }
 
+  /**
+   * Forwards events to the RCTEventEmitter JS module, and touches in the compact format to the
+   * RCTCompactTouchEventEmitter JS module, which is only looked up once it's needed.
+   */
+  private class JSEventEmitter implements RCTEventEmitter, RCTCompactTouchEventEmitter {
+
+    private final RCTEventEmitter mEventEmitter;
+    private @Nullable RCTCompactTouchEventEmitter mCompactTouchEventEmitter;
+
+    public JSEventEmitter(RCTEventEmitter eventEmitter) {
+      mEventEmitter = eventEmitter;
+    }
+
+    @Override
+    public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
+      mEventEmitter.receiveEvent(targetTag, eventName, event);
+    }
+
+    @Override
+    public void receiveTouches(
+        String eventName,
+        WritableArray touches,
+        WritableArray changedIndices) {
+      mEventEmitter.receiveTouches(eventName, touches, changedIndices);
+    }
+
+    @Override
+    public void receiveCompactTouches(String eventName, WritableArray touchData) {
+      if (mCompactTouchEventEmitter == null) {
+        mCompactTouchEventEmitter = mReactContext.getJSModule(RCTCompactTouchEventEmitter.class);
+      }
+      mCompactTouchEventEmitter.receiveCompactTouches(eventName, touchData);
+    }
+  }
+
+  private void dispatchEvents(RCTEventEmitter eventEmitter) {
+    for (int eventIdx = 0; eventIdx < mEventsToDispatchSize; eventIdx++) {
+      Event event = mEventsToDispatch[eventIdx];
+      // Event can be null if it has been coalesced into another event.
+      if (event == null) {
+        continue;
+      }
+      Systrace.endAsyncFlow(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          event.getEventName(),
+          event.getUniqueID());
+      event.dispatch(eventEmitter);
+      event.dispose();
+    }
+  }
+
+  private void dispatchEventsBatched() {
+    long startTime = System.nanoTime();
+    SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "serializeEventBatch")
+        .arg("eventsToDispatch", mEventsToDispatchSize)
+        .flush();
+    WritableArray batch;
+    int batchSize;
+    try {
+      mBatchingEventEmitter.startBatch();
+      dispatchEvents(mBatchingEventEmitter);
+      batchSize = mBatchingEventEmitter.getBatchSize();
+      batch = mBatchingEventEmitter.finishBatch();
+    } finally {
+      Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+    }
+
+    Systrace.traceCounter(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "EventBatchSize", batchSize);
+    Systrace.traceCounter(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+        "EventBatchSerializationTimeUs",
+        (int) ((System.nanoTime() - startTime) / 1000));
+
+    if (batchSize > 0) {
+      if (mRCTEventBatchEmitter == null) {
+        mRCTEventBatchEmitter = mReactContext.getJSModule(RCTEventBatchEmitter.class);
+      }
+      mRCTEventBatchEmitter.receiveEventBatch(batch);
+    }
+  }
+
   private void addEventToEventsToDispatch(Event event) {
     if (mEventsToDispatchSize == mEventsToDispatch.length) {
       mEventsToDispatch = Arrays.copyOf(mEventsToDispatch, 2 * mEventsToDispatch.length);
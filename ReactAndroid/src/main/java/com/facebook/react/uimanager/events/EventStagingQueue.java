@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Multi-producer, single-consumer queue of events staged by {@link EventDispatcher}. Events can be
+ * added from any thread without taking a lock; they are removed by the UI thread in the
+ * dispatcher's frame callback.
+ *
+ * Events are stored in a fixed size ring buffer. Producers claim a slot by advancing the producer
+ * index and then publish the event into that slot; the consumer waits for a claimed slot to be
+ * published before reading it. If the ring is full (e.g. while JS is not running and events are
+ * only being staged) events go to a lock-guarded overflow list, which is drained after the ring.
+ * While the overflow list is non-empty all new events are appended to it as well, even if slots
+ * have been freed in the ring in the meantime, so that events are polled in the order they were
+ * added.
+ */
+/* package */ class EventStagingQueue {
+
+  private static final int DEFAULT_CAPACITY = 512;
+
+  private final AtomicReferenceArray<Event> mSlots;
+  private final int mMask;
+  private final AtomicLong mProducerIndex = new AtomicLong(0);
+  private final AtomicLong mConsumerIndex = new AtomicLong(0);
+  private final Object mOverflowLock = new Object();
+  @GuardedBy("mOverflowLock")
+  private final ArrayList<Event> mOverflow = new ArrayList<>();
+  @GuardedBy("mOverflowLock")
+  private int mOverflowReadIndex = 0;
+  private volatile boolean mHasOverflow = false;
+
+  public EventStagingQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public EventStagingQueue(int capacity) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    mSlots = new AtomicReferenceArray<>(capacity);
+    mMask = capacity - 1;
+  }
+
+  /**
+   * Adds an event to the queue. Can be called from any thread.
+   */
+  public void add(Event event) {
+    final int capacity = mMask + 1;
+    while (true) {
+      if (mHasOverflow && addToOverflowIfNotEmpty(event)) {
+        return;
+      }
+      long producerIndex = mProducerIndex.get();
+      if (producerIndex - mConsumerIndex.get() >= capacity) {
+        synchronized (mOverflowLock) {
+          mOverflow.add(event);
+          mHasOverflow = true;
+        }
+        return;
+      }
+      if (mProducerIndex.compareAndSet(producerIndex, producerIndex + 1)) {
+        mSlots.lazySet((int) producerIndex & mMask, event);
+        return;
+      }
+    }
+  }
+
+  private boolean addToOverflowIfNotEmpty(Event event) {
+    synchronized (mOverflowLock) {
+      // The consumer may have drained the overflow list since mHasOverflow was read
+      if (!mHasOverflow) {
+        return false;
+      }
+      mOverflow.add(event);
+      return true;
+    }
+  }
+
+  /**
+   * Removes and returns the oldest event of the ring, or of the overflow list once the ring is
+   * empty. Returns null if there are no staged events. Must only be called from a single thread.
+   */
+  public @Nullable Event poll() {
+    long consumerIndex = mConsumerIndex.get();
+    if (consumerIndex != mProducerIndex.get()) {
+      int slot = (int) consumerIndex & mMask;
+      Event event;
+      // The slot has been claimed by a producer, wait for it to publish the event
+      while ((event = mSlots.get(slot)) == null) {
+        Thread.yield();
+      }
+      mSlots.lazySet(slot, null);
+      mConsumerIndex.lazySet(consumerIndex + 1);
+      return event;
+    }
+
+    if (mHasOverflow) {
+      synchronized (mOverflowLock) {
+        if (mOverflowReadIndex < mOverflow.size()) {
+          Event event = mOverflow.get(mOverflowReadIndex);
+          mOverflow.set(mOverflowReadIndex, null);
+          mOverflowReadIndex++;
+          if (mOverflowReadIndex == mOverflow.size()) {
+            mOverflow.clear();
+            mOverflowReadIndex = 0;
+            mHasOverflow = false;
+          }
+          return event;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import com.facebook.react.bridge.GenerateJSModuleStub;
+import com.facebook.react.bridge.JavaScriptModule;
+import com.facebook.react.bridge.WritableArray;
+
+/**
+ * Optional counterpart of {@link RCTEventEmitter} that receives touches in the compact format, see
+ * {@link TouchEvent#setCompactSerializationEnabled}. Touch events dispatched to an
+ * {@link RCTEventEmitter} that doesn't also implement this interface fall back to
+ * {@link RCTEventEmitter#receiveTouches}.
+ */
+@GenerateJSModuleStub
+public interface RCTCompactTouchEventEmitter extends JavaScriptModule {
+
+  /**
+   * Same as {@link RCTEventEmitter#receiveTouches}, with the touches and changed indices encoded in
+   * a single array of numbers.
+   */
+  public void receiveCompactTouches(String eventName, WritableArray touchData);
+}
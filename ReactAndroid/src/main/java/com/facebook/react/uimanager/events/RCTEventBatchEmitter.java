@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import com.facebook.react.bridge.GenerateJSModuleStub;
+import com.facebook.react.bridge.JavaScriptModule;
+import com.facebook.react.bridge.WritableArray;
+
+/**
+ * JS module that receives all the events of a frame at once, see
+ * {@link EventDispatcher#setBatchedDispatchEnabled}.
+ */
+@GenerateJSModuleStub
+public interface RCTEventBatchEmitter extends JavaScriptModule {
+
+  /**
+   * Each entry of {@param events} describes a call to {@link RCTEventEmitter#receiveEvent},
+   * {@link RCTEventEmitter#receiveTouches} or
+   * {@link RCTCompactTouchEventEmitter#receiveCompactTouches}.
+   */
+  public void receiveEventBatch(WritableArray events);
+}
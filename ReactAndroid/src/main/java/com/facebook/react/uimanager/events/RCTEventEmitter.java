@@ -11,10 +11,12 @@ package com.facebook.react.uimanager.events;
 
 import javax.annotation.Nullable;
 
+import com.facebook.react.bridge.GenerateJSModuleStub;
 import com.facebook.react.bridge.JavaScriptModule;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 
+@GenerateJSModuleStub
 public interface RCTEventEmitter extends JavaScriptModule {
   public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event);
   public void receiveTouches(
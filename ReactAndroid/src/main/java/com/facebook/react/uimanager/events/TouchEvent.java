@@ -31,6 +31,20 @@ public class TouchEvent extends Event<TouchEvent> {
   private static final Pools.SynchronizedPool<TouchEvent> EVENTS_POOL =
       new Pools.SynchronizedPool<>(TOUCH_EVENTS_POOL_SIZE);
 
+  private static volatile boolean sCompactSerializationEnabled = false;
+
+  /**
+   * Sends touch events to JS with {@link RCTCompactTouchEventEmitter#receiveCompactTouches}, which
+   * encodes all the pointers of an event in a single array of numbers, instead of
+   * {@link RCTEventEmitter#receiveTouches}, which needs a map per pointer and a second array for
+   * the changed pointers. This requires a JS bundle that registers RCTCompactTouchEventEmitter.
+   * Emitters that don't implement {@link RCTCompactTouchEventEmitter} keep receiving touches
+   * through receiveTouches.
+   */
+  public static void setCompactSerializationEnabled(boolean enabled) {
+    sCompactSerializationEnabled = enabled;
+  }
+
   public static TouchEvent obtain(
       int viewTag,
       TouchEventType touchEventType,
@@ -138,6 +152,14 @@ public class TouchEvent extends Event<TouchEvent> {
 
   @Override
   public void dispatch(RCTEventEmitter rctEventEmitter) {
+    if (sCompactSerializationEnabled && rctEventEmitter instanceof RCTCompactTouchEventEmitter) {
+      TouchesHelper.sendCompactTouchEvent(
+          (RCTCompactTouchEventEmitter) rctEventEmitter,
+          Assertions.assertNotNull(mTouchEventType),
+          getViewTag(),
+          this);
+      return;
+    }
     TouchesHelper.sendTouchEvent(
         rctEventEmitter,
         Assertions.assertNotNull(mTouchEventType),
@@ -30,6 +30,10 @@ import com.facebook.react.uimanager.PixelUtil;
   private static final String LOCATION_X_KEY = "locationX";
   private static final String LOCATION_Y_KEY = "locationY";
 
+  // Layout of the compact touch data, keep in sync with ReactNativeEventEmitter.js
+  /* package */ static final int COMPACT_HEADER_SIZE = 4;
+  /* package */ static final int COMPACT_FIELDS_PER_POINTER = 5;
+
   /**
    * Creates catalyst pointers array in format that is expected by RCTEventEmitter JS module from
    * given {@param event} instance. This method use {@param reactTarget} parameter to set as a
@@ -70,6 +74,68 @@ import com.facebook.react.uimanager.PixelUtil;
     return touches;
   }
 
+  /**
+   * Creates the compact representation of the pointers of {@param event}: a single flat array of
+   * numbers that holds the same data as the pointers array and 'changedIndices' array sent to
+   * {@link RCTEventEmitter#receiveTouches}, without a map per pointer. The array is laid out as
+   *
+   *   [target, timestamp, pointerCount, changedIndexCount, changedIndex...,
+   *     (identifier, pageX, pageY, locationX, locationY) for each pointer]
+   */
+  private static WritableArray createCompactTouchData(
+      TouchEventType type,
+      int reactTarget,
+      TouchEvent event) {
+    WritableArray touchData = Arguments.createArray();
+    MotionEvent motionEvent = event.getMotionEvent();
+    int pointerCount = motionEvent.getPointerCount();
+    boolean allPointersChanged = isEveryPointerChanged(type);
+
+    touchData.pushInt(reactTarget);
+    touchData.pushDouble(event.getTimestampMs());
+    touchData.pushInt(pointerCount);
+    if (allPointersChanged) {
+      touchData.pushInt(pointerCount);
+      for (int i = 0; i < pointerCount; i++) {
+        touchData.pushInt(i);
+      }
+    } else {
+      touchData.pushInt(1);
+      touchData.pushInt(motionEvent.getActionIndex());
+    }
+
+    // See createsPointersArray for how the location in the target view is computed
+    float targetViewCoordinateX = motionEvent.getX() - event.getViewX();
+    float targetViewCoordinateY = motionEvent.getY() - event.getViewY();
+    for (int index = 0; index < pointerCount; index++) {
+      float x = motionEvent.getX(index);
+      float y = motionEvent.getY(index);
+      touchData.pushInt(motionEvent.getPointerId(index));
+      touchData.pushDouble(PixelUtil.toDIPFromPixel(x));
+      touchData.pushDouble(PixelUtil.toDIPFromPixel(y));
+      touchData.pushDouble(PixelUtil.toDIPFromPixel(x - targetViewCoordinateX));
+      touchData.pushDouble(PixelUtil.toDIPFromPixel(y - targetViewCoordinateY));
+    }
+    return touchData;
+  }
+
+  /**
+   * For START and END events only the pointer that is associated with that event has changed, for
+   * MOVE and CANCEL events all the pointers have.
+   */
+  private static boolean isEveryPointerChanged(TouchEventType type) {
+    switch (type) {
+      case MOVE:
+      case CANCEL:
+        return true;
+      case START:
+      case END:
+        return false;
+      default:
+        throw new RuntimeException("Unknown touch type: " + type);
+    }
+  }
+
   /**
    * Generate and send touch event to RCTEventEmitter JS module associated with the given
    * {@param context}. Touch event can encode multiple concurrent touches (pointers).
@@ -91,14 +157,12 @@ import com.facebook.react.uimanager.PixelUtil;
     // For START and END events send only index of the pointer that is associated with that event
     // For MOVE and CANCEL events 'changedIndices' array should contain all the pointers indices
     WritableArray changedIndices = Arguments.createArray();
-    if (type == TouchEventType.MOVE || type == TouchEventType.CANCEL) {
+    if (isEveryPointerChanged(type)) {
       for (int i = 0; i < motionEvent.getPointerCount(); i++) {
         changedIndices.pushInt(i);
       }
-    } else if (type == TouchEventType.START || type == TouchEventType.END) {
-      changedIndices.pushInt(motionEvent.getActionIndex());
     } else {
-      throw new RuntimeException("Unknown touch type: " + type);
+      changedIndices.pushInt(motionEvent.getActionIndex());
     }
 
     rctEventEmitter.receiveTouches(
@@ -106,4 +170,19 @@ import com.facebook.react.uimanager.PixelUtil;
         pointers,
         changedIndices);
   }
+
+  /**
+   * Like {@link #sendTouchEvent}, but sends the touch event to
+   * {@link RCTCompactTouchEventEmitter#receiveCompactTouches}, which only needs a single array of
+   * numbers for all the pointers instead of an array of maps.
+   */
+  public static void sendCompactTouchEvent(
+      RCTCompactTouchEventEmitter rctEventEmitter,
+      TouchEventType type,
+      int reactTarget,
+      TouchEvent touchEvent) {
+    rctEventEmitter.receiveCompactTouches(
+        type.getJSEventName(),
+        createCompactTouchData(type, reactTarget, touchEvent));
+  }
 }
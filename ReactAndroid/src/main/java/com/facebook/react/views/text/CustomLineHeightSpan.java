@@ -16,6 +16,10 @@ public class CustomLineHeightSpan implements LineHeightSpan {
     this.mHeight = (int) Math.ceil(height);
   }
 
+  public int getHeight() {
+    return mHeight;
+  }
+
   @Override
   public void chooseHeight(
       CharSequence text,
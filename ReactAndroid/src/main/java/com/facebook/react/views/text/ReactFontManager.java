@@ -24,6 +24,8 @@ import android.util.SparseArray;
  * each font family the bold, italic and bold_italic variants are supported. Given a "family" font
  * family the files in the assets/fonts folder need to be family.ttf(.otf) family_bold.ttf(.otf)
  * family_italic.ttf(.otf) and family_bold_italic.ttf(.otf)
+ *
+ * Text may be measured on several threads at once, so the cache is synchronized.
  */
 public class ReactFontManager {
 
@@ -35,22 +37,19 @@ public class ReactFontManager {
   private static final String[] FILE_EXTENSIONS = {".ttf", ".otf"};
   private static final String FONTS_ASSET_PATH = "fonts/";
 
-  private static ReactFontManager sReactFontManagerInstance;
+  private static final ReactFontManager sReactFontManagerInstance = new ReactFontManager();
 
-  private Map<String, FontFamily> mFontCache;
+  private final Map<String, FontFamily> mFontCache;
 
   private ReactFontManager() {
     mFontCache = new HashMap<>();
   }
 
   public static ReactFontManager getInstance() {
-    if (sReactFontManagerInstance == null) {
-      sReactFontManagerInstance = new ReactFontManager();
-    }
     return sReactFontManagerInstance;
   }
 
-  public
+  public synchronized
   @Nullable Typeface getTypeface(
       String fontFamilyName,
       int style,
@@ -80,7 +79,7 @@ public class ReactFontManager {
    * @see {@link Typeface#ITALIC}
    * @see {@link Typeface#BOLD_ITALIC}
    */
-  public void setTypeface(String fontFamilyName, int style, Typeface typeface) {
+  public synchronized void setTypeface(String fontFamilyName, int style, Typeface typeface) {
     if (typeface != null) {
       FontFamily fontFamily = mFontCache.get(fontFamilyName);
       if (fontFamily == null) {
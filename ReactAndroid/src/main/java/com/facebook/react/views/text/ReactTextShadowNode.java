@@ -81,11 +81,21 @@ public class ReactTextShadowNode extends LayoutShadowNode {
 
   public static final int DEFAULT_TEXT_SHADOW_COLOR = 0x55000000;
 
-  private static final TextPaint sTextPaintInstance = new TextPaint();
+  // Text may be measured concurrently when root views are laid out in parallel, so each thread
+  // gets its own paint instance.
+  private static final ThreadLocal<TextPaint> sTextPaintInstance =
+      new ThreadLocal<TextPaint>() {
+        @Override
+        protected TextPaint initialValue() {
+          TextPaint textPaint = new TextPaint();
+          textPaint.setFlags(TextPaint.ANTI_ALIAS_FLAG);
+          return textPaint;
+        }
+      };
 
-  static {
-    sTextPaintInstance.setFlags(TextPaint.ANTI_ALIAS_FLAG);
-  }
+  // Width the last text with a constrained width was measured with, used to predict the width new
+  // text nodes are measured with when prewarming their layout
+  private static volatile float sLastConstrainedWidth = Float.NaN;
 
   private static class SetSpanOperation {
     protected int start, end;
@@ -231,78 +241,37 @@ public class ReactTextShadowNode extends LayoutShadowNode {
             YogaMeasureMode widthMode,
             float height,
             YogaMeasureMode heightMode) {
-          // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
-          TextPaint textPaint = sTextPaintInstance;
-          Layout layout;
           Spanned text = Assertions.assertNotNull(
               mPreparedSpannableText,
               "Spannable element has not been prepared in onBeforeLayout");
-          BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
-          float desiredWidth = boring == null ?
-              Layout.getDesiredWidth(text, textPaint) : Float.NaN;
-
           // technically, width should never be negative, but there is currently a bug in
           boolean unconstrainedWidth = widthMode == YogaMeasureMode.UNDEFINED || width < 0;
 
-          if (boring == null &&
-              (unconstrainedWidth ||
-                  (!YogaConstants.isUndefined(desiredWidth) && desiredWidth <= width))) {
-            // Is used when the width is not known and the text is not boring, ie. if it contains
-            // unicode characters.
-
-            int hintWidth = (int) Math.ceil(desiredWidth);
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
-              layout = new StaticLayout(
-                text,
-                textPaint,
-                hintWidth,
-                Layout.Alignment.ALIGN_NORMAL,
-                1.f,
-                0.f,
-                true);
-            } else {
-              layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, hintWidth)
-                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
-                .setLineSpacing(0.f, 1.f)
-                .setIncludePad(true)
-                .setBreakStrategy(mTextBreakStrategy)
-                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
-                .build();
-            }
+          float measuredWidth = unconstrainedWidth ? -1 : width;
+          mLastMeasuredWidth = measuredWidth;
+          if (!unconstrainedWidth) {
+            sLastConstrainedWidth = width;
+          }
 
-          } else if (boring != null && (unconstrainedWidth || boring.width <= width)) {
-            // Is used for single-line, boring text when the width is either unknown or bigger
-            // than the width of the text.
-            layout = BoringLayout.make(
-                text,
-                textPaint,
-                boring.width,
-                Layout.Alignment.ALIGN_NORMAL,
-                1.f,
-                0.f,
-                boring,
-                true);
-          } else {
-            // Is used for multiline, boring text and the width is known.
-
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
-              layout = new StaticLayout(
-                  text,
-                  textPaint,
-                  (int) width,
-                  Layout.Alignment.ALIGN_NORMAL,
-                  1.f,
-                  0.f,
-                  true);
+          Layout layout;
+          String textSignature = mTextSignature;
+          if (textSignature != null) {
+            TextLayoutCache textLayoutCache = TextLayoutCache.getInstance();
+            TextLayoutCache.Key key =
+                new TextLayoutCache.Key(textSignature, measuredWidth, mTextBreakStrategy);
+            layout = TextLayoutPrewarmer.getInstance().takePrewarmedLayout(key);
+            if (layout != null) {
+              textLayoutCache.put(key, layout);
             } else {
-              layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, (int) width)
-                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
-                .setLineSpacing(0.f, 1.f)
-                .setIncludePad(true)
-                .setBreakStrategy(mTextBreakStrategy)
-                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
-                .build();
+              layout = textLayoutCache.get(key);
+              if (layout == null) {
+                layout = createLayout(text, width, unconstrainedWidth, mTextBreakStrategy);
+                textLayoutCache.put(key, layout);
+              }
             }
+          } else {
+            TextLayoutCache.getInstance().onBypass();
+            layout = createLayout(text, width, unconstrainedWidth, mTextBreakStrategy);
           }
 
           if (mNumberOfLines != UNSET &&
@@ -316,6 +285,81 @@ public class ReactTextShadowNode extends LayoutShadowNode {
         }
       };
 
+  private static Layout createLayout(
+      Spanned text,
+      float width,
+      boolean unconstrainedWidth,
+      int textBreakStrategy) {
+    // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
+    TextPaint textPaint = sTextPaintInstance.get();
+    Layout layout;
+    BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
+    float desiredWidth = boring == null ?
+        Layout.getDesiredWidth(text, textPaint) : Float.NaN;
+
+    if (boring == null &&
+        (unconstrainedWidth ||
+            (!YogaConstants.isUndefined(desiredWidth) && desiredWidth <= width))) {
+      // Is used when the width is not known and the text is not boring, ie. if it contains
+      // unicode characters.
+
+      int hintWidth = (int) Math.ceil(desiredWidth);
+      if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+        layout = new StaticLayout(
+          text,
+          textPaint,
+          hintWidth,
+          Layout.Alignment.ALIGN_NORMAL,
+          1.f,
+          0.f,
+          true);
+      } else {
+        layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, hintWidth)
+          .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+          .setLineSpacing(0.f, 1.f)
+          .setIncludePad(true)
+          .setBreakStrategy(textBreakStrategy)
+          .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
+          .build();
+      }
+
+    } else if (boring != null && (unconstrainedWidth || boring.width <= width)) {
+      // Is used for single-line, boring text when the width is either unknown or bigger
+      // than the width of the text.
+      layout = BoringLayout.make(
+          text,
+          textPaint,
+          boring.width,
+          Layout.Alignment.ALIGN_NORMAL,
+          1.f,
+          0.f,
+          boring,
+          true);
+    } else {
+      // Is used for multiline, boring text and the width is known.
+
+      if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+        layout = new StaticLayout(
+            text,
+            textPaint,
+            (int) width,
+            Layout.Alignment.ALIGN_NORMAL,
+            1.f,
+            0.f,
+            true);
+      } else {
+        layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, (int) width)
+          .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+          .setLineSpacing(0.f, 1.f)
+          .setIncludePad(true)
+          .setBreakStrategy(textBreakStrategy)
+          .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
+          .build();
+      }
+    }
+    return layout;
+  }
+
   /**
    * Return -1 if the input string is not a valid numeric fontWeight (100, 200, ..., 900), otherwise
    * return the weight.
@@ -380,6 +424,12 @@ public class ReactTextShadowNode extends LayoutShadowNode {
   private @Nullable String mText = null;
 
   private @Nullable Spannable mPreparedSpannableText;
+  // Key of the prepared text in the TextLayoutCache, null if it can't be cached
+  private @Nullable String mTextSignature;
+  // Width this node was last measured with, -1 if unconstrained and NaN if it hasn't been measured
+  private volatile float mLastMeasuredWidth = Float.NaN;
+  // Key of the layout prewarmed for the next layout pass, null if none was prewarmed
+  private @Nullable TextLayoutCache.Key mPrewarmedLayoutKey;
 
   protected boolean mContainsImages = false;
   private float mHeightOfTallestInlineImage = Float.NaN;
@@ -417,10 +467,47 @@ public class ReactTextShadowNode extends LayoutShadowNode {
     if (isVirtual()) {
       return;
     }
+    String previousTextSignature = mTextSignature;
     mPreparedSpannableText = fromTextCSSNode(this);
+    mTextSignature = mContainsImages ?
+        null :
+        TextLayoutCache.getTextSignature(mPreparedSpannableText);
+    if (mTextSignature != null && !mTextSignature.equals(previousTextSignature)) {
+      prewarmLayout(mPreparedSpannableText, mTextSignature);
+    }
     markUpdated();
   }
 
+  /**
+   * Starts building the layout of the prepared text in the background, with the width this node was
+   * last measured with. Nodes are laid out after all of them have been prepared, so the layout is
+   * usually ready when the text is measured.
+   */
+  private void prewarmLayout(Spanned text, String textSignature) {
+    TextLayoutPrewarmer prewarmer = TextLayoutPrewarmer.getInstance();
+    if (!prewarmer.isEnabled()) {
+      return;
+    }
+    float predictedWidth =
+        Float.isNaN(mLastMeasuredWidth) ? sLastConstrainedWidth : mLastMeasuredWidth;
+    if (Float.isNaN(predictedWidth)) {
+      return;
+    }
+    final float width = predictedWidth;
+    final boolean unconstrainedWidth = width < 0;
+    final int textBreakStrategy = mTextBreakStrategy;
+    mPrewarmedLayoutKey = new TextLayoutCache.Key(textSignature, width, textBreakStrategy);
+    prewarmer.prewarm(
+        mPrewarmedLayoutKey,
+        text,
+        new TextLayoutPrewarmer.LayoutBuilder() {
+          @Override
+          public Layout buildLayout(Spanned text) {
+            return createLayout(text, width, unconstrainedWidth, textBreakStrategy);
+          }
+        });
+  }
+
   @Override
   public void markUpdated() {
     super.markUpdated();
@@ -643,6 +730,11 @@ public class ReactTextShadowNode extends LayoutShadowNode {
       return;
     }
     super.onCollectExtraUpdates(uiViewOperationQueue);
+    if (mPrewarmedLayoutKey != null) {
+      // Layout is done, if the prewarmed layout wasn't measured the width was predicted wrong
+      TextLayoutPrewarmer.getInstance().cancelPrewarm(mPrewarmedLayoutKey);
+      mPrewarmedLayoutKey = null;
+    }
     if (mPreparedSpannableText != null) {
       ReactTextUpdate reactTextUpdate =
         new ReactTextUpdate(
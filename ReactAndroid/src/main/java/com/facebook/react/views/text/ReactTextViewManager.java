@@ -9,12 +9,16 @@
 
 package com.facebook.react.views.text;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import android.text.Spannable;
 import android.text.TextUtils;
 import android.view.Gravity;
 import android.widget.TextView;
 
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
+import com.facebook.react.bridge.PerformanceCounter;
 import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.BaseViewManager;
@@ -38,7 +42,8 @@ import javax.annotation.Nullable;
  * whole text subtree.
  */
 @ReactModule(name = ReactTextViewManager.REACT_CLASS)
-public class ReactTextViewManager extends BaseViewManager<ReactTextView, ReactTextShadowNode> {
+public class ReactTextViewManager extends BaseViewManager<ReactTextView, ReactTextShadowNode>
+    implements PerformanceCounter {
 
   @VisibleForTesting
   public static final String REACT_CLASS = "RCTText";
@@ -182,4 +187,24 @@ public class ReactTextViewManager extends BaseViewManager<ReactTextView, ReactTe
     super.onAfterUpdateTransaction(view);
     view.updateView();
   }
+
+  @Override
+  public Map<String, Double> getPerformanceCounters() {
+    TextLayoutCache textLayoutCache = TextLayoutCache.getInstance();
+    Map<String, Double> perfMap = new HashMap<>();
+    perfMap.put("TextLayoutCacheSize", (double) textLayoutCache.getSize());
+    perfMap.put("TextLayoutCacheHits", (double) textLayoutCache.getHitCount());
+    perfMap.put("TextLayoutCacheMisses", (double) textLayoutCache.getMissCount());
+    perfMap.put("TextLayoutCacheEvictions", (double) textLayoutCache.getEvictionCount());
+    perfMap.put("TextLayoutCacheBypasses", (double) textLayoutCache.getBypassCount());
+    TextLayoutPrewarmer prewarmer = TextLayoutPrewarmer.getInstance();
+    if (prewarmer.isEnabled()) {
+      perfMap.put("TextLayoutPrewarmsSubmitted", (double) prewarmer.getSubmittedCount());
+      perfMap.put("TextLayoutPrewarmsRejected", (double) prewarmer.getRejectedCount());
+      perfMap.put("TextLayoutPrewarmsReady", (double) prewarmer.getReadyCount());
+      perfMap.put("TextLayoutPrewarmsWaited", (double) prewarmer.getWaitedCount());
+      perfMap.put("TextLayoutPrewarmsFallbacks", (double) prewarmer.getFallbackCount());
+    }
+    return perfMap;
+  }
 }
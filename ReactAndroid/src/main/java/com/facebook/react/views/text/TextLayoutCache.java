@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.text.Layout;
+import android.text.Spanned;
+import android.text.style.AbsoluteSizeSpan;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StrikethroughSpan;
+import android.text.style.UnderlineSpan;
+import android.util.LruCache;
+
+import com.facebook.react.common.annotations.VisibleForTesting;
+
+/**
+ * Bounded LRU cache of the text layouts built by {@link ReactTextShadowNode} to measure text.
+ * Layouts are keyed by a signature of the text that only contains what affects its metrics, so the
+ * same text with e.g. different colors or react tags shares its layout, as well as by the width it
+ * was measured with. Cached layouts are only used for measuring, never drawn.
+ *
+ * Thread safe, text may be measured concurrently when root views are laid out in parallel.
+ */
+public class TextLayoutCache {
+
+  private static final int MAX_SIZE = 256;
+
+  private static final TextLayoutCache sInstance = new TextLayoutCache(MAX_SIZE);
+
+  /* package */ static final class Key {
+    private final String mTextSignature;
+    private final float mWidth;
+    private final int mTextBreakStrategy;
+    private final int mHashCode;
+
+    /**
+     * @param width the width the text is measured with, or a negative value for an unconstrained
+     * width
+     */
+    /* package */ Key(String textSignature, float width, int textBreakStrategy) {
+      mTextSignature = textSignature;
+      mWidth = width < 0 ? -1 : width;
+      mTextBreakStrategy = textBreakStrategy;
+      int hashCode = textSignature.hashCode();
+      hashCode = 31 * hashCode + Float.floatToIntBits(mWidth);
+      mHashCode = 31 * hashCode + textBreakStrategy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return mHashCode == other.mHashCode &&
+          Float.floatToIntBits(mWidth) == Float.floatToIntBits(other.mWidth) &&
+          mTextBreakStrategy == other.mTextBreakStrategy &&
+          mTextSignature.equals(other.mTextSignature);
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+  }
+
+  public static TextLayoutCache getInstance() {
+    return sInstance;
+  }
+
+  private final LruCache<Key, Layout> mLayouts;
+  private final AtomicLong mBypassCount = new AtomicLong();
+
+  @VisibleForTesting
+  /* package */ TextLayoutCache(int maxSize) {
+    mLayouts = new LruCache<>(maxSize);
+  }
+
+  /* package */ @Nullable Layout get(Key key) {
+    return mLayouts.get(key);
+  }
+
+  /* package */ void put(Key key, Layout layout) {
+    mLayouts.put(key, layout);
+  }
+
+  /**
+   * Records that a text was measured without the cache, see {@link #getTextSignature}.
+   */
+  /* package */ void onBypass() {
+    mBypassCount.incrementAndGet();
+  }
+
+  public void clear() {
+    mLayouts.evictAll();
+  }
+
+  public int getSize() {
+    return mLayouts.size();
+  }
+
+  public long getHitCount() {
+    return mLayouts.hitCount();
+  }
+
+  public long getMissCount() {
+    return mLayouts.missCount();
+  }
+
+  public long getEvictionCount() {
+    return mLayouts.evictionCount();
+  }
+
+  /**
+   * @return number of measurements of texts that can't be cached
+   */
+  public long getBypassCount() {
+    return mBypassCount.get();
+  }
+
+  /**
+   * Builds a string out of the characters of the given text and of the spans that affect its
+   * metrics. Spans that only affect how the text is drawn are left out.
+   *
+   * @return the signature of the text, or null if it contains a span that isn't known to be
+   * independent of the view it is displayed in, e.g. inline images
+   */
+  /* package */ static @Nullable String getTextSignature(Spanned text) {
+    StringBuilder signature = new StringBuilder(text.length() * 2);
+    signature.append(text.length()).append(':').append(text);
+    Object[] spans = text.getSpans(0, text.length(), Object.class);
+    for (Object span : spans) {
+      if (span instanceof ForegroundColorSpan ||
+          span instanceof BackgroundColorSpan ||
+          span instanceof UnderlineSpan ||
+          span instanceof StrikethroughSpan ||
+          span instanceof ShadowStyleSpan ||
+          span instanceof ReactTagSpan) {
+        continue;
+      }
+
+      signature
+          .append('|')
+          .append(text.getSpanStart(span))
+          .append(',')
+          .append(text.getSpanEnd(span))
+          .append(',');
+      if (span instanceof AbsoluteSizeSpan) {
+        AbsoluteSizeSpan sizeSpan = (AbsoluteSizeSpan) span;
+        signature.append("size,").append(sizeSpan.getSize()).append(',').append(sizeSpan.getDip());
+      } else if (span instanceof CustomStyleSpan) {
+        CustomStyleSpan styleSpan = (CustomStyleSpan) span;
+        signature
+            .append("style,")
+            .append(styleSpan.getStyle())
+            .append(',')
+            .append(styleSpan.getWeight())
+            .append(',')
+            .append(styleSpan.getFontFamily());
+      } else if (span instanceof CustomLineHeightSpan) {
+        signature.append("lineHeight,").append(((CustomLineHeightSpan) span).getHeight());
+      } else {
+        return null;
+      }
+    }
+    return signature.toString();
+  }
+}
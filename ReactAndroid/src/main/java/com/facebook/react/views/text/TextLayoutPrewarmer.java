@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import javax.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import android.text.Layout;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
+
+/**
+ * Builds the layouts {@link ReactTextShadowNode} is expected to measure on a pool of worker
+ * threads, so that they are usually ready by the time Yoga measures the text. Text nodes request
+ * prewarming once their text has been prepared for the next layout pass, with the width they are
+ * expected to be measured with.
+ *
+ * Measuring never depends on the workers: when the layout being measured is still waiting for a
+ * worker, it is built on the measuring thread instead, and when a worker is already building it
+ * the measuring thread waits for the result. Either way the layout is built the same way as
+ * without prewarming. Disabled by default, see {@link #setEnabled}.
+ *
+ * Building a layout applies the text's spans, which may look up typefaces; {@link
+ * ReactFontManager} is synchronized so that workers can do so while other text is measured.
+ */
+public class TextLayoutPrewarmer {
+
+  /* package */ interface LayoutBuilder {
+    Layout buildLayout(Spanned text);
+  }
+
+  private static final int MAX_WORKER_COUNT = 2;
+  private static final int MAX_QUEUED_PREWARMS = 64;
+  // Prewarmed layouts that are never measured, e.g. because the text was measured with a different
+  // width, are dropped once there are this many
+  private static final int MAX_PENDING_PREWARMS = 128;
+  private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+
+  private static final TextLayoutPrewarmer sInstance = new TextLayoutPrewarmer();
+
+  private final ConcurrentHashMap<TextLayoutCache.Key, PrewarmTask> mPendingPrewarms =
+      new ConcurrentHashMap<>();
+  private volatile @Nullable ThreadPoolExecutor mExecutor;
+
+  private final AtomicLong mSubmittedCount = new AtomicLong();
+  private final AtomicLong mRejectedCount = new AtomicLong();
+  private final AtomicLong mReadyCount = new AtomicLong();
+  private final AtomicLong mWaitedCount = new AtomicLong();
+  private final AtomicLong mFallbackCount = new AtomicLong();
+
+  public static TextLayoutPrewarmer getInstance() {
+    return sInstance;
+  }
+
+  @VisibleForTesting
+  /* package */ TextLayoutPrewarmer() {
+  }
+
+  /**
+   * Starts or stops the prewarming workers. Prewarming only pays off on devices with spare cores,
+   * as the workers compete with the UI and JS threads otherwise.
+   */
+  public synchronized void setEnabled(boolean enabled) {
+    ThreadPoolExecutor executor = mExecutor;
+    if (enabled && executor == null) {
+      int workerCount =
+          Math.max(1, Math.min(MAX_WORKER_COUNT, Runtime.getRuntime().availableProcessors() - 1));
+      executor = new ThreadPoolExecutor(
+          workerCount,
+          workerCount,
+          WORKER_KEEP_ALIVE_SECONDS,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(MAX_QUEUED_PREWARMS),
+          new PrewarmThreadFactory());
+      executor.allowCoreThreadTimeOut(true);
+      mExecutor = executor;
+    } else if (!enabled && executor != null) {
+      executor.shutdownNow();
+      mExecutor = null;
+      mPendingPrewarms.clear();
+    }
+  }
+
+  public boolean isEnabled() {
+    return mExecutor != null;
+  }
+
+  /**
+   * Starts building the layout for the given key on a worker, unless it is already being built.
+   * The text is copied on the calling thread, so the worker never reads a text the shadow thread
+   * may be measuring at the same time.
+   */
+  /* package */ void prewarm(TextLayoutCache.Key key, Spanned text, LayoutBuilder layoutBuilder) {
+    ThreadPoolExecutor executor = mExecutor;
+    if (executor == null || mPendingPrewarms.containsKey(key)) {
+      return;
+    }
+    if (mPendingPrewarms.size() >= MAX_PENDING_PREWARMS) {
+      dropUnusedPrewarms();
+    }
+
+    PrewarmTask task = new PrewarmTask(new SpannableStringBuilder(text), layoutBuilder);
+    if (mPendingPrewarms.putIfAbsent(key, task) != null) {
+      return;
+    }
+    try {
+      executor.execute(task);
+      mSubmittedCount.incrementAndGet();
+    } catch (RejectedExecutionException e) {
+      mPendingPrewarms.remove(key, task);
+      mRejectedCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Hands over the layout for the given key if it has been prewarmed. A prewarm that hasn't started
+   * yet is run on the calling thread, one that is running is waited for.
+   *
+   * @return the prewarmed layout, or null if the layout wasn't prewarmed or the prewarm failed
+   */
+  /* package */ @Nullable Layout takePrewarmedLayout(TextLayoutCache.Key key) {
+    PrewarmTask task = mPendingPrewarms.remove(key);
+    if (task == null) {
+      return null;
+    }
+
+    if (task.isDone()) {
+      mReadyCount.incrementAndGet();
+    } else if (task.hasStarted()) {
+      mWaitedCount.incrementAndGet();
+    } else {
+      mFallbackCount.incrementAndGet();
+      // The task is run below, don't leave it taking up room in the workers' queue
+      removeFromQueue(task);
+    }
+
+    // Does nothing if a worker already runs the task
+    task.run();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      FLog.w(ReactConstants.TAG, "Text layout prewarming failed", e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Drops the prewarm for the given key if it hasn't been handed over, e.g. because the text has
+   * been measured with a different width than predicted. A prewarm that hasn't started yet is
+   * removed from the workers' queue, one that is running is left to finish and then discarded.
+   */
+  /* package */ void cancelPrewarm(TextLayoutCache.Key key) {
+    PrewarmTask task = mPendingPrewarms.remove(key);
+    if (task != null && !task.isDone()) {
+      task.cancel(false);
+      removeFromQueue(task);
+    }
+  }
+
+  private void removeFromQueue(PrewarmTask task) {
+    ThreadPoolExecutor executor = mExecutor;
+    if (executor != null) {
+      executor.remove(task);
+    }
+  }
+
+  private void dropUnusedPrewarms() {
+    Iterator<PrewarmTask> iterator = mPendingPrewarms.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return number of layouts handed to the workers
+   */
+  public long getSubmittedCount() {
+    return mSubmittedCount.get();
+  }
+
+  /**
+   * @return number of layouts that weren't prewarmed because the workers were too busy
+   */
+  public long getRejectedCount() {
+    return mRejectedCount.get();
+  }
+
+  /**
+   * @return number of prewarmed layouts that were ready when measured
+   */
+  public long getReadyCount() {
+    return mReadyCount.get();
+  }
+
+  /**
+   * @return number of prewarmed layouts that were still being built when measured
+   */
+  public long getWaitedCount() {
+    return mWaitedCount.get();
+  }
+
+  /**
+   * @return number of prewarmed layouts that were built on the measuring thread because no worker
+   * had started them yet
+   */
+  public long getFallbackCount() {
+    return mFallbackCount.get();
+  }
+
+  private static class PrewarmTask extends FutureTask<Layout> {
+    private final AtomicBoolean mStarted;
+
+    private PrewarmTask(Spanned text, LayoutBuilder layoutBuilder) {
+      this(text, layoutBuilder, new AtomicBoolean());
+    }
+
+    private PrewarmTask(
+        final Spanned text,
+        final LayoutBuilder layoutBuilder,
+        final AtomicBoolean started) {
+      super(new Callable<Layout>() {
+        @Override
+        public Layout call() {
+          started.set(true);
+          return layoutBuilder.buildLayout(text);
+        }
+      });
+      mStarted = started;
+    }
+
+    private boolean hasStarted() {
+      return mStarted.get();
+    }
+  }
+
+  private static class PrewarmThreadFactory implements ThreadFactory {
+    private final AtomicInteger mThreadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread =
+          new Thread(runnable, "react_text_prewarm_" + mThreadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
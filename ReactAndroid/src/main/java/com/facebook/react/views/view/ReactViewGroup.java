@@ -13,13 +13,17 @@ import javax.annotation.Nullable;
 
 import android.content.Context;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
+import android.os.Build;
 import android.view.animation.Animation;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.common.annotations.VisibleForTesting;
@@ -30,20 +34,35 @@ import com.facebook.react.uimanager.MeasureSpecAssertions;
 import com.facebook.react.uimanager.PointerEvents;
 import com.facebook.react.uimanager.ReactClippingViewGroup;
 import com.facebook.react.uimanager.ReactClippingViewGroupHelper;
+import com.facebook.react.uimanager.ReactIndexedViewGroup;
 import com.facebook.react.uimanager.ReactPointerEventsView;
+import com.facebook.react.uimanager.SpatialIndex;
+import com.facebook.react.uimanager.TouchTargetHelper;
 
 /**
  * Backing for a React View. Has support for borders, but since borders aren't common, lazy
  * initializes most of the storage needed for them.
  */
 public class ReactViewGroup extends ViewGroup implements
-    ReactInterceptingViewGroup, ReactClippingViewGroup, ReactPointerEventsView, ReactHitSlopView {
+    ReactInterceptingViewGroup, ReactClippingViewGroup, ReactPointerEventsView, ReactHitSlopView,
+    ReactIndexedViewGroup {
 
   private static final int ARRAY_CAPACITY_INCREMENT = 12;
   private static final int DEFAULT_BACKGROUND_COLOR = Color.TRANSPARENT;
   private static final LayoutParams sDefaultLayoutParam = new ViewGroup.LayoutParams(0, 0);
   /* should only be used in {@link #updateClippingToRect} */
   private static final Rect sHelperRect = new Rect();
+  /* should only be used in {@link #getChildrenIndex} */
+  private static final RectF sHelperRectF = new RectF();
+  // With fewer children, checking every child for a touch is about as fast as using the index
+  private static final int MIN_INDEXED_CHILD_COUNT = 16;
+  private static final int NO_PREFETCH_MARGIN = -1;
+  // Passed to {@link #updateSubviewClipStatusWithPrefetch} when the index among the attached
+  // children isn't known yet
+  private static final int UNKNOWN_ATTACHED_INDEX = -1;
+  // Number of children within the prefetch margin attached per frame, visible children are always
+  // attached right away
+  private static final int MAX_PREFETCH_ATTACHES_PER_FRAME = 2;
 
   /**
    * This listener will be set for child views when removeClippedSubview property is enabled. When
@@ -96,9 +115,50 @@ public class ReactViewGroup extends ViewGroup implements
   private @Nullable ReactViewBackgroundDrawable mReactBackgroundDrawable;
   private @Nullable OnInterceptTouchEventListener mOnInterceptTouchEventListener;
   private boolean mNeedsOffscreenAlphaCompositing = false;
+  // Index of the children bounds, see {@link TouchTargetHelper#setSpatialIndexEnabled}. Rebuilt on
+  // the first touch after the children were added, removed, laid out or transformed.
+  private final @Nullable SpatialIndex mChildrenIndex;
+  private final @Nullable OnLayoutChangeListener mIndexedChildLayoutChangeListener;
+  private boolean mIsChildrenIndexValid = false;
+  // Following properties support clipping with a prefetch margin, see
+  // {@link #setClippedSubviewsPrefetchMargin}. mClippingRect is then the visible rect, in
+  // mVisibleRect, extended by the margin, and mLastClippingRect is the rect the children were last
+  // clipped to.
+  private int mClippedSubviewsPrefetchMargin = NO_PREFETCH_MARGIN;
+  private @Nullable Rect mVisibleRect;
+  private @Nullable Rect mLastClippingRect;
+  private @Nullable SortedChildrenBounds mSortedChildrenBounds;
+  private @Nullable Runnable mPrefetchAttachRunnable;
+  private boolean mIsSortedChildrenBoundsValid = false;
+  // Whether a child outside of the clipping rect was kept attached because it is animating
+  private boolean mHasAnimatingClippedChildren = false;
+  private boolean mHasPendingPrefetchAttaches = false;
+  private boolean mIsPrefetchAttachPosted = false;
+  private int mPrefetchAttachBudget;
 
   public ReactViewGroup(Context context) {
     super(context);
+    if (TouchTargetHelper.isSpatialIndexEnabled()) {
+      mChildrenIndex = new SpatialIndex();
+      mIndexedChildLayoutChangeListener = new OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(
+            View v,
+            int left,
+            int top,
+            int right,
+            int bottom,
+            int oldLeft,
+            int oldTop,
+            int oldRight,
+            int oldBottom) {
+          invalidateChildrenIndex();
+        }
+      };
+    } else {
+      mChildrenIndex = null;
+      mIndexedChildLayoutChangeListener = null;
+    }
   }
 
   @Override
@@ -252,7 +312,49 @@ public class ReactViewGroup extends ViewGroup implements
       mClippingRect = null;
       mAllChildrenCount = 0;
       mChildrenLayoutChangeListener = null;
+      mIsSortedChildrenBoundsValid = false;
+      mHasAnimatingClippedChildren = false;
+      if (mIsPrefetchAttachPosted) {
+        removeCallbacks(mPrefetchAttachRunnable);
+        mIsPrefetchAttachPosted = false;
+      }
+    }
+  }
+
+  /**
+   * With {@code removeClippedSubviews}, attaches children before they become visible, once they
+   * are within the given margin of the clipping rect. Children that only are within the margin are
+   * attached a few per frame, so that many rows entering the margin at once don't all get attached
+   * in the same frame. Each update only checks the children that may have entered or left the
+   * clipping rect since the last one, found by a binary search through the children sorted by
+   * their layout bounds, rather than every child.
+   *
+   * @param margin margin in pixels, or a negative value to check every child on each update and
+   *   attach children exactly when they become visible
+   */
+  public void setClippedSubviewsPrefetchMargin(int margin) {
+    int prefetchMargin = margin < 0 ? NO_PREFETCH_MARGIN : margin;
+    if (prefetchMargin == mClippedSubviewsPrefetchMargin) {
+      return;
     }
+    mClippedSubviewsPrefetchMargin = prefetchMargin;
+    if (prefetchMargin != NO_PREFETCH_MARGIN && mSortedChildrenBounds == null) {
+      mVisibleRect = new Rect();
+      mLastClippingRect = new Rect();
+      mSortedChildrenBounds = new SortedChildrenBounds();
+      mPrefetchAttachRunnable = new Runnable() {
+        @Override
+        public void run() {
+          mIsPrefetchAttachPosted = false;
+          if (mRemoveClippedSubviews && mClippedSubviewsPrefetchMargin != NO_PREFETCH_MARGIN) {
+            mPrefetchAttachBudget = MAX_PREFETCH_ATTACHES_PER_FRAME;
+            updateClippingToRectIncrementally();
+          }
+        }
+      };
+    }
+    mIsSortedChildrenBoundsValid = false;
+    updateClippingRect();
   }
 
   @Override
@@ -275,7 +377,16 @@ public class ReactViewGroup extends ViewGroup implements
     Assertions.assertNotNull(mAllChildren);
 
     ReactClippingViewGroupHelper.calculateClippingRect(this, mClippingRect);
-    updateClippingToRect(mClippingRect);
+    if (mClippedSubviewsPrefetchMargin == NO_PREFETCH_MARGIN) {
+      updateClippingToRect(mClippingRect);
+    } else {
+      Assertions.assertNotNull(mVisibleRect).set(mClippingRect);
+      if (!mClippingRect.isEmpty()) {
+        mClippingRect.inset(-mClippedSubviewsPrefetchMargin, -mClippedSubviewsPrefetchMargin);
+      }
+      mPrefetchAttachBudget = MAX_PREFETCH_ATTACHES_PER_FRAME;
+      updateClippingToRectIncrementally();
+    }
   }
 
   private void updateClippingToRect(Rect clippingRect) {
@@ -329,6 +440,8 @@ public class ReactViewGroup extends ViewGroup implements
   }
 
   private void updateSubviewClipStatus(View subview) {
+    // The child may have moved within the sorted children
+    mIsSortedChildrenBoundsValid = false;
     if (!mRemoveClippedSubviews || getParent() == null) {
       return;
     }
@@ -344,6 +457,16 @@ public class ReactViewGroup extends ViewGroup implements
     // If it was intersecting before, should be attached to the parent
     boolean oldIntersects = (subview.getParent() != null);
 
+    if (mClippedSubviewsPrefetchMargin != NO_PREFETCH_MARGIN) {
+      if (intersects != oldIntersects) {
+        updateSubviewClipStatusWithPrefetch(
+            indexOfChildInAllChildren(subview),
+            UNKNOWN_ATTACHED_INDEX);
+        maybePostPrefetchAttach();
+      }
+      return;
+    }
+
     if (intersects != oldIntersects) {
       int clippedSoFar = 0;
       for (int i = 0; i < mAllChildrenCount; i++) {
@@ -358,6 +481,185 @@ public class ReactViewGroup extends ViewGroup implements
     }
   }
 
+  /**
+   * Same as {@link #updateClippingToRect} for mClippingRect, when clipping with a prefetch margin.
+   * Every attached child intersected the clipping rect of the last update, unless it is animating,
+   * so only the children that intersect either the last or the new clipping rect may need to be
+   * attached or detached.
+   */
+  private void updateClippingToRectIncrementally() {
+    View[] allChildren = Assertions.assertNotNull(mAllChildren);
+    Rect clippingRect = Assertions.assertNotNull(mClippingRect);
+    Rect lastClippingRect = Assertions.assertNotNull(mLastClippingRect);
+    SortedChildrenBounds sortedChildrenBounds = Assertions.assertNotNull(mSortedChildrenBounds);
+    mHasPendingPrefetchAttaches = false;
+
+    if (!mIsSortedChildrenBoundsValid || mHasAnimatingClippedChildren) {
+      sortedChildrenBounds.update(allChildren, mAllChildrenCount);
+      mIsSortedChildrenBoundsValid = true;
+      mHasAnimatingClippedChildren = false;
+      int clippedSoFar = 0;
+      for (int i = 0; i < mAllChildrenCount; i++) {
+        updateSubviewClipStatusWithPrefetch(i, i - clippedSoFar);
+        if (allChildren[i].getParent() == null) {
+          clippedSoFar++;
+        }
+      }
+    } else {
+      int lastFirst = sortedChildrenBounds.findFirst(lastClippingRect);
+      int lastEnd = sortedChildrenBounds.findEnd(lastClippingRect);
+      for (int position = lastFirst; position < lastEnd; position++) {
+        updateSubviewClipStatusWithPrefetch(
+            sortedChildrenBounds.getChildIndex(position),
+            UNKNOWN_ATTACHED_INDEX);
+      }
+      int first = sortedChildrenBounds.findFirst(clippingRect);
+      int end = sortedChildrenBounds.findEnd(clippingRect);
+      for (int position = first; position < end; position++) {
+        if (position < lastFirst || position >= lastEnd) {
+          updateSubviewClipStatusWithPrefetch(
+              sortedChildrenBounds.getChildIndex(position),
+              UNKNOWN_ATTACHED_INDEX);
+        }
+      }
+    }
+    lastClippingRect.set(clippingRect);
+    maybePostPrefetchAttach();
+  }
+
+  /**
+   * Same as {@link #updateSubviewClipStatus(Rect, int, int)} for mClippingRect, except that
+   * children that are within the prefetch margin but not visible are only attached while the
+   * prefetch budget of the frame lasts.
+   *
+   * @param idx index of the child in all the children
+   * @param attachedIdx index of the child among the attached children, or at which it would be
+   *   attached, or {@link #UNKNOWN_ATTACHED_INDEX} to look it up when needed
+   */
+  private void updateSubviewClipStatusWithPrefetch(int idx, int attachedIdx) {
+    View child = Assertions.assertNotNull(mAllChildren)[idx];
+    int left = child.getLeft();
+    int top = child.getTop();
+    int right = child.getRight();
+    int bottom = child.getBottom();
+    boolean intersects =
+        Assertions.assertNotNull(mClippingRect).intersects(left, top, right, bottom);
+    boolean needUpdateClippingRecursive = intersects;
+    if (!intersects && child.getParent() != null) {
+      // See updateSubviewClipStatus for why animating children are not clipped
+      Animation animation = child.getAnimation();
+      if (animation != null && !animation.hasEnded()) {
+        mHasAnimatingClippedChildren = true;
+      } else {
+        super.removeViewsInLayout(
+            attachedIdx == UNKNOWN_ATTACHED_INDEX ? indexOfChild(child) : attachedIdx,
+            1);
+        needUpdateClippingRecursive = true;
+      }
+    } else if (intersects && child.getParent() == null) {
+      boolean isVisible =
+          Assertions.assertNotNull(mVisibleRect).intersects(left, top, right, bottom);
+      if (!isVisible) {
+        if (mPrefetchAttachBudget == 0) {
+          mHasPendingPrefetchAttaches = true;
+          return;
+        }
+        mPrefetchAttachBudget--;
+      }
+      super.addViewInLayout(
+          child,
+          attachedIdx == UNKNOWN_ATTACHED_INDEX ? getAttachedIndex(idx) : attachedIdx,
+          sDefaultLayoutParam,
+          true);
+      invalidate();
+    }
+    if (needUpdateClippingRecursive && child instanceof ReactClippingViewGroup) {
+      ReactClippingViewGroup clippingChild = (ReactClippingViewGroup) child;
+      if (clippingChild.getRemoveClippedSubviews()) {
+        clippingChild.updateClippingRect();
+      }
+    }
+  }
+
+  /**
+   * @return index among the attached children at which the child at the given index in all the
+   * children would be attached, found from the closest attached child before it
+   */
+  private int getAttachedIndex(int idx) {
+    View[] allChildren = Assertions.assertNotNull(mAllChildren);
+    for (int i = idx - 1; i >= 0; i--) {
+      if (allChildren[i].getParent() != null) {
+        return indexOfChild(allChildren[i]) + 1;
+      }
+    }
+    return 0;
+  }
+
+  private void maybePostPrefetchAttach() {
+    if (mHasPendingPrefetchAttaches && !mIsPrefetchAttachPosted) {
+      mIsPrefetchAttachPosted = true;
+      postOnAnimation(mPrefetchAttachRunnable);
+    }
+  }
+
+  @Override
+  public void onViewAdded(View child) {
+    super.onViewAdded(child);
+    if (mIndexedChildLayoutChangeListener != null) {
+      child.addOnLayoutChangeListener(mIndexedChildLayoutChangeListener);
+      invalidateChildrenIndex();
+    }
+  }
+
+  @Override
+  public void onViewRemoved(View child) {
+    super.onViewRemoved(child);
+    if (mIndexedChildLayoutChangeListener != null) {
+      child.removeOnLayoutChangeListener(mIndexedChildLayoutChangeListener);
+      invalidateChildrenIndex();
+    }
+  }
+
+  @Override
+  public @Nullable SpatialIndex getChildrenIndex() {
+    int childCount = getChildCount();
+    if (mChildrenIndex == null || childCount < MIN_INDEXED_CHILD_COUNT) {
+      return null;
+    }
+    if (!mIsChildrenIndexValid) {
+      mChildrenIndex.begin(childCount);
+      for (int i = 0; i < childCount; i++) {
+        View child = getChildAt(i);
+        // Same bounds as the ones TouchTargetHelper checks, in the coordinates of this view
+        RectF bounds = sHelperRectF;
+        bounds.set(0, 0, child.getWidth(), child.getHeight());
+        Rect hitSlopRect = child instanceof ReactHitSlopView ?
+            ((ReactHitSlopView) child).getHitSlopRect() :
+            null;
+        if (hitSlopRect != null) {
+          bounds.left -= hitSlopRect.left;
+          bounds.top -= hitSlopRect.top;
+          bounds.right += hitSlopRect.right;
+          bounds.bottom += hitSlopRect.bottom;
+        }
+        Matrix matrix = child.getMatrix();
+        if (!matrix.isIdentity()) {
+          matrix.mapRect(bounds);
+        }
+        bounds.offset(child.getLeft(), child.getTop());
+        mChildrenIndex.setBounds(i, bounds.left, bounds.top, bounds.right, bounds.bottom);
+      }
+      mChildrenIndex.build();
+      mIsChildrenIndexValid = true;
+    }
+    return mChildrenIndex;
+  }
+
+  @Override
+  public void invalidateChildrenIndex() {
+    mIsChildrenIndexValid = false;
+  }
+
   @Override
   protected void onSizeChanged(int w, int h, int oldw, int oldh) {
     super.onSizeChanged(w, h, oldw, oldh);
@@ -416,6 +718,7 @@ public class ReactViewGroup extends ViewGroup implements
     }
     updateSubviewClipStatus(mClippingRect, index, clippedSoFar);
     child.addOnLayoutChangeListener(mChildrenLayoutChangeListener);
+    mIsSortedChildrenBoundsValid = false;
   }
 
   /*package*/ void removeViewWithSubviewClippingEnabled(View view) {
@@ -434,6 +737,7 @@ public class ReactViewGroup extends ViewGroup implements
       super.removeViewsInLayout(index - clippedSoFar, 1);
     }
     removeFromArray(index);
+    mIsSortedChildrenBoundsValid = false;
   }
 
   /*package*/ void removeAllViewsWithSubviewClippingEnabled() {
@@ -444,6 +748,7 @@ public class ReactViewGroup extends ViewGroup implements
     }
     removeAllViewsInLayout();
     mAllChildrenCount = 0;
+    mIsSortedChildrenBoundsValid = false;
   }
 
   private int indexOfChildInAllChildren(View child) {
@@ -523,6 +828,26 @@ public class ReactViewGroup extends ViewGroup implements
     return mReactBackgroundDrawable;
   }
 
+  /**
+   * Resets the state set by {@link ReactViewManager} so that this view can be reused. Must only be
+   * called once all children have been removed.
+   */
+  /* package */ void resetForRecycle() {
+    super.setBackground(null);
+    mReactBackgroundDrawable = null;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+      setForeground(null);
+    }
+    setRemoveClippedSubviews(false);
+    setClippedSubviewsPrefetchMargin(NO_PREFETCH_MARGIN);
+    mHitSlopRect = null;
+    mPointerEvents = PointerEvents.AUTO;
+    mNeedsOffscreenAlphaCompositing = false;
+    mOnInterceptTouchEventListener = null;
+    setFocusable(false);
+    setPressed(false);
+  }
+
   @Override
   public @Nullable Rect getHitSlopRect() {
     return mHitSlopRect;
@@ -530,6 +855,10 @@ public class ReactViewGroup extends ViewGroup implements
 
   public void setHitSlopRect(@Nullable Rect rect) {
     mHitSlopRect = rect;
+    ViewParent parent = getParent();
+    if (parent instanceof ReactIndexedViewGroup) {
+      ((ReactIndexedViewGroup) parent).invalidateChildrenIndex();
+    }
   }
 
 }
@@ -50,6 +50,17 @@ public class ReactViewManager extends ViewGroupManager<ReactViewGroup> {
   private static final int CMD_HOTSPOT_UPDATE = 1;
   private static final int CMD_SET_PRESSED = 2;
 
+  private static volatile int sRecycledViewPoolSize = 0;
+
+  /**
+   * Opts plain views into recycling: up to {@code size} dropped views are kept for each
+   * {@link ThemedReactContext} and reused for new views. Recycling is disabled by default, and a
+   * size of 0 disables it again.
+   */
+  public static void setRecycledViewPoolSize(int size) {
+    sRecycledViewPoolSize = size;
+  }
+
   @ReactProp(name = "accessible")
   public void setAccessible(ReactViewGroup view, boolean accessible) {
     view.setFocusable(accessible);
@@ -123,6 +134,12 @@ public class ReactViewManager extends ViewGroupManager<ReactViewGroup> {
     view.setRemoveClippedSubviews(removeClippedSubviews);
   }
 
+  @ReactProp(name = "clippedSubviewsPrefetchMarginAndroid", defaultFloat = YogaConstants.UNDEFINED)
+  public void setClippedSubviewsPrefetchMargin(ReactViewGroup view, float margin) {
+    view.setClippedSubviewsPrefetchMargin(
+        YogaConstants.isUndefined(margin) ? -1 : Math.round(PixelUtil.toPixelFromDIP(margin)));
+  }
+
   @ReactProp(name = ViewProps.NEEDS_OFFSCREEN_ALPHA_COMPOSITING)
   public void setNeedsOffscreenAlphaCompositing(
       ReactViewGroup view,
@@ -169,6 +186,18 @@ public class ReactViewManager extends ViewGroupManager<ReactViewGroup> {
     return new ReactViewGroup(context);
   }
 
+  @Override
+  public int getRecycledViewPoolSize() {
+    return sRecycledViewPoolSize;
+  }
+
+  @Override
+  public boolean prepareToRecycleView(ReactViewGroup view) {
+    resetBaseViewProperties(view);
+    view.resetForRecycle();
+    return true;
+  }
+
   @Override
   public Map<String, Integer> getCommandsMap() {
     return MapBuilder.of("hotspotUpdate", CMD_HOTSPOT_UPDATE, "setPressed", CMD_SET_PRESSED);
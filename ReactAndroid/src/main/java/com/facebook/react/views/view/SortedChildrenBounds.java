@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.view;
+
+import java.util.Arrays;
+
+import android.graphics.Rect;
+import android.view.View;
+
+/**
+ * Children of a view sorted by the start of their layout bounds along one axis, vertical if the
+ * children are spread more vertically than horizontally, like the rows of a list. Used by
+ * {@link ReactViewGroup} to find the children that may intersect a clipping rect with a binary
+ * search rather than by checking every child.
+ *
+ * A child intersecting the rect starts before the end of the rect, and at most the largest child
+ * size before its start, so the children found can be checked from the first one that starts
+ * within that distance of the rect.
+ */
+/* package */ final class SortedChildrenBounds {
+
+  private static final int[] EMPTY_INT_ARRAY = new int[0];
+  private static final long[] EMPTY_LONG_ARRAY = new long[0];
+
+  private long[] mSortKeys = EMPTY_LONG_ARRAY;
+  private int[] mStarts = EMPTY_INT_ARRAY;
+  private int[] mChildIndices = EMPTY_INT_ARRAY;
+  private int mCount;
+  private boolean mIsVertical;
+  private int mMaxSize;
+
+  /**
+   * Sorts the given children by the start of their current layout bounds.
+   */
+  public void update(View[] children, int count) {
+    if (mSortKeys.length < count) {
+      mSortKeys = new long[count];
+      mStarts = new int[count];
+      mChildIndices = new int[count];
+    }
+    mCount = count;
+
+    int minLeft = Integer.MAX_VALUE;
+    int maxLeft = Integer.MIN_VALUE;
+    int minTop = Integer.MAX_VALUE;
+    int maxTop = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      View child = children[i];
+      minLeft = Math.min(minLeft, child.getLeft());
+      maxLeft = Math.max(maxLeft, child.getLeft());
+      minTop = Math.min(minTop, child.getTop());
+      maxTop = Math.max(maxTop, child.getTop());
+    }
+    mIsVertical = count == 0 || (long) maxTop - minTop >= (long) maxLeft - minLeft;
+
+    mMaxSize = 0;
+    for (int i = 0; i < count; i++) {
+      View child = children[i];
+      int start = mIsVertical ? child.getTop() : child.getLeft();
+      int size = mIsVertical ? child.getHeight() : child.getWidth();
+      mMaxSize = Math.max(mMaxSize, size);
+      // Sorting the start and index together avoids sorting objects with a comparator
+      mSortKeys[i] = ((long) start << 32) | i;
+    }
+    Arrays.sort(mSortKeys, 0, count);
+    for (int i = 0; i < count; i++) {
+      mStarts[i] = (int) (mSortKeys[i] >> 32);
+      mChildIndices[i] = (int) mSortKeys[i];
+    }
+  }
+
+  /**
+   * @return the first position of the children that may intersect the given rect
+   */
+  public int findFirst(Rect rect) {
+    int rectStart = mIsVertical ? rect.top : rect.left;
+    return lowerBound((long) rectStart - mMaxSize);
+  }
+
+  /**
+   * @return the position after the last child that may intersect the given rect
+   */
+  public int findEnd(Rect rect) {
+    int rectEnd = mIsVertical ? rect.bottom : rect.right;
+    return lowerBound(rectEnd);
+  }
+
+  /**
+   * @return index in the children passed to {@link #update} of the child at the given position
+   */
+  public int getChildIndex(int position) {
+    return mChildIndices[position];
+  }
+
+  /**
+   * @return first position of a child that starts at or after the given value
+   */
+  private int lowerBound(long value) {
+    int low = 0;
+    int high = mCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (mStarts[middle] < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
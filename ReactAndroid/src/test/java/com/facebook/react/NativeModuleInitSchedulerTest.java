@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react;
+
+import javax.inject.Provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.cxxbridge.ModuleHolder;
+import com.facebook.react.module.model.ReactModuleInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link NativeModuleInitScheduler}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NativeModuleInitSchedulerTest {
+
+  private interface ModuleA extends NativeModule {}
+  private interface ModuleB extends NativeModule {}
+  private interface ModuleC extends NativeModule {}
+  private interface ModuleD extends NativeModule {}
+  private interface ModuleE extends NativeModule {}
+
+  private Map<Class<? extends NativeModule>, ModuleHolder> mModules;
+  private List<String> mCreatedModules;
+
+  @Before
+  public void setUp() {
+    mModules = new HashMap<>();
+    mCreatedModules = Collections.synchronizedList(new ArrayList<String>());
+  }
+
+  @Test
+  public void testCreatesEagerModulesAfterTheirDependencies() {
+    addModule(ModuleA.class, "A", true, ModuleB.class, ModuleC.class);
+    addModule(ModuleB.class, "B", false, ModuleC.class);
+    addModule(ModuleC.class, "C", true);
+    addModule(ModuleD.class, "D", true);
+    addModule(ModuleE.class, "E", false);
+
+    new NativeModuleInitScheduler(mModules).createEagerModules();
+
+    assertThat(mCreatedModules).containsOnly("A", "B", "C", "D");
+    assertThat(mCreatedModules.indexOf("C")).isLessThan(mCreatedModules.indexOf("B"));
+    assertThat(mCreatedModules.indexOf("B")).isLessThan(mCreatedModules.indexOf("A"));
+    assertThat(mModules.get(ModuleE.class).hasModule()).isFalse();
+  }
+
+  @Test
+  public void testIgnoresUnregisteredDependencies() {
+    addModule(ModuleA.class, "A", true, ModuleE.class);
+
+    new NativeModuleInitScheduler(mModules).createEagerModules();
+
+    assertThat(mCreatedModules).containsOnly("A");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFailsOnDependencyCycle() {
+    addModule(ModuleA.class, "A", true, ModuleB.class);
+    addModule(ModuleB.class, "B", false, ModuleA.class);
+
+    new NativeModuleInitScheduler(mModules).createEagerModules();
+  }
+
+  private void addModule(
+      Class<? extends NativeModule> type,
+      final String name,
+      boolean needsEagerInit,
+      Class<?>... dependencies) {
+    ReactModuleInfo info = new ReactModuleInfo(name, false, false, needsEagerInit, dependencies);
+    Provider<NativeModule> provider = new Provider<NativeModule>() {
+      @Override
+      public NativeModule get() {
+        mCreatedModules.add(name);
+        return mock(NativeModule.class);
+      }
+    };
+    mModules.put(type, new ModuleHolder(info, provider, false));
+  }
+}
@@ -15,13 +15,18 @@ import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
+import com.facebook.react.uimanager.AnimatedViewProps;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
+import com.facebook.react.uimanager.TransformHelper;
 import com.facebook.react.uimanager.UIImplementation;
 import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.events.Event;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -36,6 +41,7 @@ import org.powermock.modules.junit4.rule.PowerMockRule;
 import org.robolectric.RobolectricTestRunner;
 
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.offset;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
@@ -145,20 +151,21 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-        ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+        ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(0);
 
-    for (int i = 0; i < frames.size(); i++) {
+    for (int i = 1; i < frames.size(); i++) {
       reset(mUIImplementationMock);
       mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
       verify(mUIImplementationMock)
-          .synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-      assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN))
+          .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+      assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY))
           .isEqualTo(frames.getDouble(i));
     }
 
@@ -252,13 +259,14 @@ public class NativeAnimatedNodeTraversalTest {
         false),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(0);
 
     double previousValue = 0d;
     boolean wasGreaterThanOne = false;
@@ -267,8 +275,8 @@ public class NativeAnimatedNodeTraversalTest {
       reset(mUIImplementationMock);
       mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
       verify(mUIImplementationMock, atMost(1))
-        .synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-      double currentValue = stylesCaptor.getValue().getDouble("opacity", Double.NaN);
+        .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+      double currentValue = propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY);
       if (currentValue > 1d) {
         wasGreaterThanOne = true;
       }
@@ -302,37 +310,28 @@ public class NativeAnimatedNodeTraversalTest {
         0.998d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock, atMost(1))
-      .synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-    double previousValue = stylesCaptor.getValue().getDouble("opacity", Double.NaN);
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+    double previousValue = propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY);
     double previousDiff = Double.POSITIVE_INFINITY;
     /* run 3 secs of animation */
     for (int i = 0; i < 3 * 60; i++) {
       reset(mUIImplementationMock);
       mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
       verify(mUIImplementationMock, atMost(1))
-        .synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture());
-      double currentValue = stylesCaptor.getValue().getDouble("opacity", Double.NaN);
+        .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+      double currentValue = propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY);
       double currentDiff = currentValue - previousValue;
       // verify monotonicity
       // greater *or equal* because the animation stops during these 3 seconds
       assertThat(currentValue).as("on frame " + i).isGreaterThanOrEqualTo(previousValue);
       // verify decay
-      if (i > 3) {
-        // i > 3 because that's how long it takes to settle previousDiff
-        if (i % 3 != 0) {
-          // i % 3 != 0 because every 3 frames we go a tiny
-          // bit faster, because frame length is 16.(6)ms
-          assertThat(currentDiff).as("on frame " + i).isLessThanOrEqualTo(previousDiff);
-        } else {
-          assertThat(currentDiff).as("on frame " + i).isGreaterThanOrEqualTo(previousDiff);
-        }
-      }
+      assertThat(currentDiff).as("on frame " + i).isLessThanOrEqualTo(previousDiff);
       previousValue = currentValue;
       previousDiff = currentDiff;
     }
@@ -342,6 +341,142 @@ public class NativeAnimatedNodeTraversalTest {
     verifyNoMoreInteractions(mUIImplementationMock);
   }
 
+  @Test
+  public void testFramesAnimationOnHighRefreshRateDisplay() {
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+
+    JavaOnlyArray frames = JavaOnlyArray.of(0d, 0.5d, 1d);
+    Callback animationCallback = mock(Callback.class);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+      1,
+      1,
+      JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d),
+      animationCallback);
+
+    // At 120Hz the value is interpolated between the frames computed at 60FPS
+    ValueAnimatedNode valueNode = (ValueAnimatedNode) mNativeAnimatedNodesManager.getNodeById(1);
+    double[] expectedValues = {0d, 0.25d, 0.5d, 0.75d, 1d};
+    for (int i = 0; i < expectedValues.length; i++) {
+      mNativeAnimatedNodesManager.runUpdates(mFrameTimeNanos);
+      assertThat(valueNode.getValue()).as("on frame " + i).isEqualTo(expectedValues[i], offset(1e-6));
+      mFrameTimeNanos += FRAME_LEN_NANOS / 2;
+    }
+    assertThat(mNativeAnimatedNodesManager.hasActiveAnimations()).isFalse();
+  }
+
+  @Test
+  public void testSpringAnimationIsIndependentOfFrameRate() {
+    double[] values = runSpringAnimation(1);
+    double[] highRefreshRateValues = runSpringAnimation(2);
+    for (int i = 0; i < values.length; i++) {
+      assertThat(highRefreshRateValues[i]).as("at frame " + i).isEqualTo(values[i], offset(1e-6));
+    }
+    assertThat(values[values.length / 4]).isGreaterThan(0.5d);
+  }
+
+  /**
+   * Runs a spring animation of the opacity of a new view for a second, with the given number of
+   * display frames per 60Hz frame.
+   *
+   * @return the value of the animation on every 60Hz frame
+   */
+  private double[] runSpringAnimation(int framesPer60HzFrame) {
+    mNativeAnimatedNodesManager = new NativeAnimatedNodesManager(mUIManagerMock);
+    mNativeAnimatedNodesManager.setFrameIntervalNanos(FRAME_LEN_NANOS / framesPer60HzFrame);
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+      1,
+      1,
+      JavaOnlyMap.of(
+        "type",
+        "spring",
+        "friction",
+        7d,
+        "tension",
+        40.0d,
+        "initialVelocity",
+        0d,
+        "toValue",
+        1d,
+        "restSpeedThreshold",
+        0.001d,
+        "restDisplacementThreshold",
+        0.001d,
+        "overshootClamping",
+        false),
+      mock(Callback.class));
+
+    ValueAnimatedNode valueNode = (ValueAnimatedNode) mNativeAnimatedNodesManager.getNodeById(1);
+    long frameTimeNanos = INITIAL_FRAME_TIME_NANOS;
+    mNativeAnimatedNodesManager.runUpdates(frameTimeNanos);
+    double[] values = new double[60];
+    for (int i = 0; i < values.length; i++) {
+      for (int frame = 0; frame < framesPer60HzFrame; frame++) {
+        frameTimeNanos += FRAME_LEN_NANOS / framesPer60HzFrame;
+        mNativeAnimatedNodesManager.runUpdates(frameTimeNanos);
+      }
+      values[i] = valueNode.getValue();
+    }
+    return values;
+  }
+
+  @Test
+  public void testCustomAnimationDriver() {
+    final double durationMillis = 50d;
+    Map<String, AnimationDriverFactory> animationDriverFactories = new HashMap<>();
+    animationDriverFactories.put("linear", new AnimationDriverFactory() {
+      @Override
+      public AnimationDriver createAnimationDriver(final ReadableMap config) {
+        return new AnimationDriver() {
+          private long mStartFrameTimeNanos = -1;
+          private double mFromValue;
+
+          @Override
+          public void runAnimationStep(long frameTimeNanos) {
+            if (mStartFrameTimeNanos < 0) {
+              mStartFrameTimeNanos = frameTimeNanos;
+              mFromValue = getAnimatedValue();
+            }
+            double progress = Math.min(
+              1d,
+              (frameTimeNanos - mStartFrameTimeNanos) / 1000000d / config.getDouble("duration"));
+            setAnimatedValue(mFromValue + progress * (config.getDouble("toValue") - mFromValue));
+            if (progress == 1d) {
+              finish();
+            }
+          }
+        };
+      }
+    });
+    mNativeAnimatedNodesManager =
+      new NativeAnimatedNodesManager(mUIManagerMock, animationDriverFactories);
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+
+    Callback animationCallback = mock(Callback.class);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+      1,
+      1,
+      JavaOnlyMap.of("type", "linear", "duration", durationMillis, "toValue", 1d),
+      animationCallback);
+
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
+
+    // The animation ends on the first frame after its duration, the fourth one
+    for (int i = 0; i < 5; i++) {
+      reset(mUIImplementationMock);
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+      verify(mUIImplementationMock)
+        .synchronouslyUpdateAnimatedPropsOnUIThread(eq(1000), propsCaptor.capture());
+      assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY))
+        .isEqualTo(Math.min(1d, i * FRAME_LEN_NANOS / 1000000d / durationMillis));
+    }
+
+    ArgumentCaptor<ReadableMap> callbackResponseCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+    verify(animationCallback).invoke(callbackResponseCaptor.capture());
+    assertThat(callbackResponseCaptor.getValue().getBoolean("finished")).isTrue();
+  }
+
   @Test
   public void testAnimationCallbackFinish() {
     createSimpleAnimatedViewWithOpacity(1000, 0d);
@@ -358,7 +493,6 @@ public class NativeAnimatedNodeTraversalTest {
 
     reset(animationCallback);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verifyNoMoreInteractions(animationCallback);
 
     reset(animationCallback);
@@ -427,25 +561,20 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1010d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
-
-    reset(mUIImplementationMock);
-    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock)
-      .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(1100d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock)
-      .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1111d);
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(1111d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
@@ -472,25 +601,20 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 101d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
-
-    reset(mUIImplementationMock);
-    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock)
-      .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(1100d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock)
-      .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1101d);
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(1101d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
@@ -527,25 +651,21 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", secondFrames, "toValue", 1010d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
-
-    reset(mUIImplementationMock);
-    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(1100d);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(1100d);
 
     for (int i = 1; i < secondFrames.size(); i++) {
       reset(mUIImplementationMock);
       mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
       verify(mUIImplementationMock)
-        .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-      assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN))
+        .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+      assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X))
         .isEqualTo(1200d + secondFrames.getDouble(i) * 10d);
     }
 
@@ -593,23 +713,20 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 10d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(5d);
-
-    reset(mUIImplementationMock);
-    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(5d);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(5d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("translateX", Double.NaN)).isEqualTo(20d);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.TRANSLATE_X)).isEqualTo(20d);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
@@ -640,7 +757,7 @@ public class NativeAnimatedNodeTraversalTest {
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
     verify(mUIImplementationMock, times(2))
-      .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReactStylesDiffMap.class));
+      .synchronouslyUpdateAnimatedPropsOnUIThread(anyInt(), any(AnimatedViewProps.class));
     verifyNoMoreInteractions(animationCallback);
 
     reset(animationCallback);
@@ -704,20 +821,21 @@ public class NativeAnimatedNodeTraversalTest {
       JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 20d),
       animationCallback);
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0d);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(0d);
 
-    for (int i = 0; i < frames.size(); i++) {
+    for (int i = 1; i < frames.size(); i++) {
       reset(mUIImplementationMock);
       mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
       verify(mUIImplementationMock)
-        .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
-      assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN))
+        .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+      assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY))
         .isEqualTo(frames.getDouble(i));
     }
 
@@ -726,6 +844,199 @@ public class NativeAnimatedNodeTraversalTest {
     verifyNoMoreInteractions(mUIImplementationMock);
   }
 
+  @Test
+  public void testScheduleFollowsGraphChanges() {
+    createSimpleAnimatedViewWithOpacity(1000, 0d);
+
+    JavaOnlyArray frames = JavaOnlyArray.of(0d, 0.2d, 0.4d, 0.6d, 0.8d, 1d);
+    Callback animationCallback = mock(Callback.class);
+    mNativeAnimatedNodesManager.startAnimatingNode(
+      1,
+      1,
+      JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d),
+      animationCallback);
+
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+
+    // Move the style node from the props node of the first view to the one of a second view
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      4,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)));
+    mNativeAnimatedNodesManager.disconnectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, 2000);
+
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
+
+    // The first frame also updates the nodes changed by the graph changes, the second one only
+    // the nodes reachable from the animated value
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(2000), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY))
+      .isEqualTo(((ValueAnimatedNode) mNativeAnimatedNodesManager.getNodeById(1)).getValue());
+    verifyNoMoreInteractions(mUIImplementationMock);
+  }
+
+  /**
+   * Generates an animated nodes graph with a transform node for the given transforms, which
+   * animates its "translateX" transform with the value of the ValueNode(1), and attaches it to the
+   * view with tag 50.
+   */
+  private void createAnimatedGraphWithTransformNode(JavaOnlyMap... transforms) {
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "transform", "transforms", JavaOnlyArray.of((Object[]) transforms)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      3,
+      JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("transform", 2)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      4,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 3)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(3, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, 50);
+  }
+
+  @Test
+  public void testTransformNode() {
+    // Scaling before translating needs a matrix
+    createAnimatedGraphWithTransformNode(
+      JavaOnlyMap.of("type", "static", "property", "scale", "value", 2d),
+      JavaOnlyMap.of("type", "animated", "property", "translateX", "nodeTag", 1),
+      JavaOnlyMap.of("type", "static", "property", "rotate", "value", 0.5d));
+
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
+
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 100d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().hasTransform()).isTrue();
+    assertThat(propsCaptor.getValue().hasSimpleTransform()).isFalse();
+
+    double[] expectedMatrix = new double[16];
+    TransformHelper.processTransform(
+      JavaOnlyArray.of(
+        JavaOnlyMap.of("scale", 2d),
+        JavaOnlyMap.of("translateX", 100d),
+        JavaOnlyMap.of("rotate", 0.5d)),
+      expectedMatrix);
+    assertThat(propsCaptor.getValue().getTransformMatrix()).isEqualTo(expectedMatrix);
+  }
+
+  @Test
+  public void testSimpleTransformNode() {
+    createAnimatedGraphWithTransformNode(
+      JavaOnlyMap.of("type", "animated", "property", "translateX", "nodeTag", 1),
+      JavaOnlyMap.of("type", "static", "property", "translateY", "value", 10d),
+      JavaOnlyMap.of("type", "static", "property", "rotate", "value", 0.5d),
+      JavaOnlyMap.of("type", "static", "property", "scale", "value", 2d),
+      JavaOnlyMap.of("type", "static", "property", "scaleY", "value", 3d));
+
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
+
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 100d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(50), propsCaptor.capture());
+    AnimatedViewProps props = propsCaptor.getValue();
+    assertThat(props.hasTransform()).isFalse();
+    assertThat(props.hasSimpleTransform()).isTrue();
+    assertThat(props.getTranslateX()).isEqualTo(100d);
+    assertThat(props.getTranslateY()).isEqualTo(10d);
+    assertThat(props.getRotation()).isEqualTo(0.5d);
+    assertThat(props.getScaleX()).isEqualTo(2d);
+    assertThat(props.getScaleY()).isEqualTo(6d);
+  }
+
+  @Test
+  public void testUnsupportedPropsAreUpdatedThroughMap() {
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("progress", 1)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(2, 50);
+
+    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 0.5d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
+    assertThat(stylesCaptor.getValue().getDouble("progress", Double.NaN)).isEqualTo(0.5d);
+    verifyNoMoreInteractions(mUIImplementationMock);
+  }
+
+  @Test
+  public void testLayoutPropsAreUpdatedThroughShadowView() {
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      1,
+      JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      2,
+      JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      3,
+      JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("height", 1, "opacity", 2)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+      4,
+      JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 3)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(3, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, 50);
+
+    ArgumentCaptor<ReadableMap> layoutCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+    ArgumentCaptor<ReactStylesDiffMap> viewPropsCaptor =
+      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+
+    // The opacity is handed over with the layout props, so that both are applied in the same frame
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 100d);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(2, 0.5d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIImplementationMock).enqueueAnimatedLayoutUpdate(
+      eq(50),
+      layoutCaptor.capture(),
+      viewPropsCaptor.capture());
+    assertThat(layoutCaptor.getValue().getDouble("height")).isEqualTo(100d);
+    assertThat(layoutCaptor.getValue().hasKey("opacity")).isFalse();
+    assertThat(viewPropsCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0.5d);
+    assertThat(viewPropsCaptor.getValue().hasKey("height")).isFalse();
+    verifyNoMoreInteractions(mUIImplementationMock);
+
+    // Each frame hands over new layout props, since they are applied on another thread
+    reset(mUIImplementationMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 50d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    ArgumentCaptor<ReadableMap> nextLayoutCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+    verify(mUIImplementationMock).enqueueAnimatedLayoutUpdate(
+      eq(50),
+      nextLayoutCaptor.capture(),
+      any(ReactStylesDiffMap.class));
+    assertThat(nextLayoutCaptor.getValue()).isNotSameAs(layoutCaptor.getValue());
+    assertThat(nextLayoutCaptor.getValue().getDouble("height")).isEqualTo(50d);
+    assertThat(layoutCaptor.getValue().getDouble("height")).isEqualTo(100d);
+  }
+
   private Event createScrollEvent(final int tag, final double value) {
     return new Event(tag) {
       @Override
@@ -753,13 +1064,14 @@ public class NativeAnimatedNodeTraversalTest {
 
     mNativeAnimatedNodesManager.onEventDispatch(createScrollEvent(viewTag, 10));
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(10);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(viewTag), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(10);
   }
 
   @Test
@@ -778,13 +1090,14 @@ public class NativeAnimatedNodeTraversalTest {
 
     mNativeAnimatedNodesManager.onEventDispatch(createScrollEvent(viewTag, 10));
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(0);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(viewTag), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(0);
   }
 
   @Test
@@ -809,12 +1122,13 @@ public class NativeAnimatedNodeTraversalTest {
 
     mNativeAnimatedNodesManager.onEventDispatch(createScrollEvent(viewTag, 10));
 
-    ArgumentCaptor<ReactStylesDiffMap> stylesCaptor =
-      ArgumentCaptor.forClass(ReactStylesDiffMap.class);
+    ArgumentCaptor<AnimatedViewProps> propsCaptor =
+      ArgumentCaptor.forClass(AnimatedViewProps.class);
 
     reset(mUIImplementationMock);
     mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
-    verify(mUIImplementationMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture());
-    assertThat(stylesCaptor.getValue().getDouble("opacity", Double.NaN)).isEqualTo(10);
+    verify(mUIImplementationMock)
+      .synchronouslyUpdateAnimatedPropsOnUIThread(eq(viewTag), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getValue(AnimatedViewProps.OPACITY)).isEqualTo(10);
   }
 }
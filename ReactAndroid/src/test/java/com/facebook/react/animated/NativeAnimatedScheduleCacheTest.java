@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.animated;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.common.MapBuilder;
+import com.facebook.react.uimanager.UIImplementation;
+import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.events.EventDispatcher;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that running the animation loop of {@link NativeAnimatedNodesManager} with the evaluation
+ * schedule cached across frames computes the same values as compiling it on every frame, over
+ * several copies of the graphs from {@link NativeAnimatedNodeTraversalTest}.
+ */
+@PrepareForTest({Arguments.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class NativeAnimatedScheduleCacheTest {
+
+  private static final long FRAME_LEN_NANOS = 1000000000L / 60L;
+  private static final int GRAPH_COUNT = 5;
+  private static final int FRAME_COUNT = 100;
+  // Animations outlast the frames that are run
+  private static final int ANIMATION_FRAME_COUNT = FRAME_COUNT * 2;
+
+  private static final int FIRST_VIEW_TAG = 1000;
+  // Tags used by the nodes of each copy of the graphs
+  private static final int NODES_PER_GRAPH = 10;
+  private static final int OPACITY_VALUE_NODE = 1;
+  private static final int OPACITY_STYLE_NODE = 2;
+  private static final int OPACITY_PROPS_NODE = 3;
+  private static final int FIRST_VALUE_NODE = 4;
+  private static final int SECOND_VALUE_NODE = 5;
+  private static final int ADDITION_NODE = 6;
+  private static final int TRANSLATE_STYLE_NODE = 7;
+  private static final int TRANSLATE_PROPS_NODE = 8;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private UIManagerModule mUIManagerMock;
+  private UIImplementation mUIImplementationMock;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class);
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+
+    mUIManagerMock = mock(UIManagerModule.class);
+    mUIImplementationMock = mock(UIImplementation.class);
+    final EventDispatcher eventDispatcherMock = mock(EventDispatcher.class);
+    PowerMockito.when(mUIManagerMock.getUIImplementation()).thenAnswer(new Answer<UIImplementation>() {
+      @Override
+      public UIImplementation answer(InvocationOnMock invocation) throws Throwable {
+        return mUIImplementationMock;
+      }
+    });
+    PowerMockito.when(mUIManagerMock.getEventDispatcher()).thenAnswer(new Answer<EventDispatcher>() {
+      @Override
+      public EventDispatcher answer(InvocationOnMock invocation) throws Throwable {
+        return eventDispatcherMock;
+      }
+    });
+    PowerMockito.when(mUIManagerMock.getConstants()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return MapBuilder.of("customDirectEventTypes", MapBuilder.newHashMap());
+      }
+    });
+  }
+
+  @Test
+  public void testCachedScheduleComputesSameValues() {
+    NativeAnimatedNodesManager compilingManager = createAnimatedGraphs();
+    compilingManager.setScheduleCacheEnabled(false);
+    NativeAnimatedNodesManager cachingManager = createAnimatedGraphs();
+
+    long frameTimeNanos = 0;
+    for (int frame = 0; frame < FRAME_COUNT; frame++) {
+      frameTimeNanos += FRAME_LEN_NANOS;
+      compilingManager.runUpdates(frameTimeNanos);
+      cachingManager.runUpdates(frameTimeNanos);
+
+      for (int graph = 0; graph < GRAPH_COUNT; graph++) {
+        int tag = graph * NODES_PER_GRAPH + ADDITION_NODE;
+        assertThat(getValue(cachingManager, tag)).isEqualTo(getValue(compilingManager, tag));
+        tag = graph * NODES_PER_GRAPH + OPACITY_VALUE_NODE;
+        assertThat(getValue(cachingManager, tag)).isEqualTo(getValue(compilingManager, tag));
+      }
+    }
+
+    // The animations have moved the values away from where they started
+    assertThat(getValue(cachingManager, OPACITY_VALUE_NODE)).isGreaterThan(0d);
+    assertThat(getValue(cachingManager, ADDITION_NODE)).isGreaterThan(1100d);
+  }
+
+  private static double getValue(NativeAnimatedNodesManager nativeAnimatedNodesManager, int tag) {
+    return ((ValueAnimatedNode) nativeAnimatedNodesManager.getNodeById(tag)).getValue();
+  }
+
+  /**
+   * Creates copies of the opacity and addition graphs, each with an animation that runs for the
+   * whole test.
+   */
+  private NativeAnimatedNodesManager createAnimatedGraphs() {
+    NativeAnimatedNodesManager nativeAnimatedNodesManager =
+        new NativeAnimatedNodesManager(mUIManagerMock);
+    JavaOnlyArray frames = new JavaOnlyArray();
+    for (int i = 0; i < ANIMATION_FRAME_COUNT; i++) {
+      frames.pushDouble((double) i / ANIMATION_FRAME_COUNT);
+    }
+
+    for (int graph = 0; graph < GRAPH_COUNT; graph++) {
+      int firstTag = graph * NODES_PER_GRAPH;
+
+      // ValueNode -> StyleNode -> PropNode
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + OPACITY_VALUE_NODE,
+          JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + OPACITY_STYLE_NODE,
+          JavaOnlyMap.of(
+              "type",
+              "style",
+              "style",
+              JavaOnlyMap.of("opacity", firstTag + OPACITY_VALUE_NODE)));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + OPACITY_PROPS_NODE,
+          JavaOnlyMap.of(
+              "type",
+              "props",
+              "props",
+              JavaOnlyMap.of("style", firstTag + OPACITY_STYLE_NODE)));
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + OPACITY_VALUE_NODE,
+          firstTag + OPACITY_STYLE_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + OPACITY_STYLE_NODE,
+          firstTag + OPACITY_PROPS_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodeToView(
+          firstTag + OPACITY_PROPS_NODE,
+          FIRST_VIEW_TAG + graph * 2);
+
+      // (ValueNode, ValueNode) -> AdditionNode -> StyleNode -> PropNode
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + FIRST_VALUE_NODE,
+          JavaOnlyMap.of("type", "value", "value", 100d, "offset", 0d));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + SECOND_VALUE_NODE,
+          JavaOnlyMap.of("type", "value", "value", 1000d, "offset", 0d));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + ADDITION_NODE,
+          JavaOnlyMap.of(
+              "type",
+              "addition",
+              "input",
+              JavaOnlyArray.of(firstTag + FIRST_VALUE_NODE, firstTag + SECOND_VALUE_NODE)));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + TRANSLATE_STYLE_NODE,
+          JavaOnlyMap.of(
+              "type",
+              "style",
+              "style",
+              JavaOnlyMap.of("translateX", firstTag + ADDITION_NODE)));
+      nativeAnimatedNodesManager.createAnimatedNode(
+          firstTag + TRANSLATE_PROPS_NODE,
+          JavaOnlyMap.of(
+              "type",
+              "props",
+              "props",
+              JavaOnlyMap.of("style", firstTag + TRANSLATE_STYLE_NODE)));
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + FIRST_VALUE_NODE,
+          firstTag + ADDITION_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + SECOND_VALUE_NODE,
+          firstTag + ADDITION_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + ADDITION_NODE,
+          firstTag + TRANSLATE_STYLE_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodes(
+          firstTag + TRANSLATE_STYLE_NODE,
+          firstTag + TRANSLATE_PROPS_NODE);
+      nativeAnimatedNodesManager.connectAnimatedNodeToView(
+          firstTag + TRANSLATE_PROPS_NODE,
+          FIRST_VIEW_TAG + graph * 2 + 1);
+
+      nativeAnimatedNodesManager.startAnimatingNode(
+          firstTag + OPACITY_VALUE_NODE,
+          firstTag + OPACITY_VALUE_NODE,
+          JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1d),
+          mock(Callback.class));
+      nativeAnimatedNodesManager.startAnimatingNode(
+          firstTag + FIRST_VALUE_NODE,
+          firstTag + FIRST_VALUE_NODE,
+          JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 200d),
+          mock(Callback.class));
+    }
+    return nativeAnimatedNodesManager;
+  }
+}
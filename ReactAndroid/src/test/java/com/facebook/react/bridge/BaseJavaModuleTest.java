@@ -9,6 +9,7 @@
 
 package com.facebook.react.bridge;
 
+import java.io.IOException;
 import java.util.Map;
 
 import com.facebook.react.bridge.ReadableNativeArray;
@@ -26,6 +27,9 @@ import org.robolectric.RobolectricTestRunner;
 
 import com.facebook.soloader.SoLoader;
 
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
 /**
  * Tests for {@link BaseJavaModule}
  */
@@ -76,6 +80,80 @@ public class BaseJavaModuleTest {
     syncMethod.invoke(null, null, mArguments);
   }
 
+  @Test
+  public void testGeneratedInvokerHandlesNonPrivateMethods() {
+    // The invoker is generated by ReactMethodProcessor when compiling this test
+    JavaModuleMethodInvoker.MethodInvoker<InvokerModule> invoker =
+        JavaModuleMethodInvoker.findInvoker(InvokerModule.class);
+    assertThat(invoker).isNotNull();
+    assertThat(invoker.getMethodIndex("invokedMethod")).isGreaterThanOrEqualTo(0);
+    assertThat(invoker.getMethodIndex("namedMethod")).isGreaterThanOrEqualTo(0);
+    assertThat(invoker.getMethodIndex("reflectedMethod")).isEqualTo(-1);
+
+    // Private module classes are skipped by the processor
+    assertThat(JavaModuleMethodInvoker.findInvoker(MethodsModule.class)).isNull();
+  }
+
+  @Test
+  public void testCallMethodWithGeneratedInvoker() {
+    InvokerModule module = new InvokerModule();
+    BaseJavaModule.NativeMethod invokedMethod = module.getMethods().get("invokedMethod");
+    Mockito.stub(mArguments.size()).toReturn(1);
+    Mockito.stub(mArguments.getDouble(0)).toReturn(42.0);
+    invokedMethod.invoke(null, null, mArguments);
+
+    assertThat(module.mLastValue).isEqualTo(42);
+    assertThat(module.mLastCaller).isEqualTo(InvokerModule.class.getName() + "$$MethodInvoker");
+  }
+
+  @Test
+  public void testCallMethodNotHandledByGeneratedInvoker() {
+    InvokerModule module = new InvokerModule();
+    BaseJavaModule.NativeMethod reflectedMethod = module.getMethods().get("reflectedMethod");
+    Mockito.stub(mArguments.size()).toReturn(1);
+    Mockito.stub(mArguments.getDouble(0)).toReturn(7.0);
+    reflectedMethod.invoke(null, null, mArguments);
+
+    assertThat(module.mLastValue).isEqualTo(7);
+    assertThat(module.mLastCaller).doesNotContain("$$MethodInvoker");
+  }
+
+  @Test
+  public void testGeneratedInvokerWrapsCheckedExceptions() {
+    InvokerModule module = new InvokerModule();
+    BaseJavaModule.NativeMethod throwingMethod = module.getMethods().get("throwingMethod");
+    Mockito.stub(mArguments.size()).toReturn(1);
+    Mockito.stub(mArguments.getDouble(0)).toReturn(-1.0);
+
+    try {
+      throwingMethod.invoke(null, null, mArguments);
+      fail("Expected a RuntimeException");
+    } catch (RuntimeException e) {
+      assertThat(e.getMessage()).isEqualTo("Could not invoke Invoker.throwingMethod");
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+    assertThat(module.mLastCaller).isEqualTo(InvokerModule.class.getName() + "$$MethodInvoker");
+  }
+
+  @Test
+  public void testGeneratedInvokerReportsArgumentIndexOfParseError() {
+    InvokerModule module = new InvokerModule();
+    BaseJavaModule.NativeMethod namedMethod = module.getMethods().get("namedMethod");
+    Mockito.stub(mArguments.size()).toReturn(2);
+    Mockito.stub(mArguments.getDouble(0)).toReturn(1.0);
+    Mockito.stub(mArguments.getString(1))
+        .toThrow(new UnexpectedNativeTypeException("Not a string"));
+
+    try {
+      namedMethod.invoke(null, null, mArguments);
+      fail("Expected a NativeArgumentsParseException");
+    } catch (NativeArgumentsParseException e) {
+      assertThat(e.getMessage())
+          .isEqualTo(
+              "Not a string (constructing arguments for Invoker.namedMethod at argument index 1)");
+    }
+  }
+
   private static class MethodsModule extends BaseJavaModule {
     @Override
     public String getName() {
@@ -93,4 +171,47 @@ public class BaseJavaModuleTest {
       return a + b;
     }
   }
+
+  /* package */ static class InvokerModule extends BaseJavaModule {
+    /* package */ int mLastValue;
+    /* package */ String mLastCaller;
+
+    @Override
+    public String getName() {
+      return "Invoker";
+    }
+
+    @ReactMethod
+    public void invokedMethod(int value) {
+      record(value);
+    }
+
+    @ReactMethod
+    public void namedMethod(int value, String name) {
+      record(value);
+    }
+
+    @ReactMethod
+    public void throwingMethod(int value) throws IOException {
+      record(value);
+      if (value < 0) {
+        throw new IOException("Negative value");
+      }
+    }
+
+    // Private methods are left to reflection by the processor
+    @ReactMethod
+    private void reflectedMethod(int value) {
+      record(value);
+    }
+
+    /**
+     * Records the value and the class that called the @ReactMethod, which is the generated invoker
+     * unless the call went through reflection.
+     */
+    private void record(int value) {
+      mLastValue = value;
+      mLastCaller = new Throwable().getStackTrace()[2].getClassName();
+    }
+  }
 }
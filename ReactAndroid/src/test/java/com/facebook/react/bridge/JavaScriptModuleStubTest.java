@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.bridge;
+
+import javax.annotation.Nullable;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+import com.facebook.react.bridge.queue.ReactQueueConfiguration;
+import com.facebook.soloader.SoLoader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests the {@link JavaScriptModuleStub}s generated by JavaScriptModuleProcessor when compiling
+ * this test.
+ */
+@PrepareForTest({
+    NativeArray.class,
+    ReadableNativeArray.class,
+    WritableNativeArray.class,
+    SoLoader.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+@RunWith(RobolectricTestRunner.class)
+public class JavaScriptModuleStubTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ExecutorToken mExecutorToken;
+  private RecordingCatalystInstance mCatalystInstance;
+  private JavaScriptModuleRegistry mRegistry;
+
+  @Before
+  public void setup() {
+    PowerMockito.mockStatic(SoLoader.class);
+    mExecutorToken = PowerMockito.mock(ExecutorToken.class);
+    mCatalystInstance = new RecordingCatalystInstance();
+    mRegistry = new JavaScriptModuleRegistry.Builder()
+        .add(StubbedModule.class)
+        .add(ProxiedModule.class)
+        .build();
+  }
+
+  @Test
+  public void testRegistryPrefersGeneratedStub() {
+    StubbedModule stubbed =
+        mRegistry.getJavaScriptModule(mCatalystInstance, mExecutorToken, StubbedModule.class);
+    ProxiedModule proxied =
+        mRegistry.getJavaScriptModule(mCatalystInstance, mExecutorToken, ProxiedModule.class);
+
+    assertThat(stubbed).isInstanceOf(JavaScriptModuleStub.class);
+    assertThat(Proxy.isProxyClass(proxied.getClass())).isTrue();
+
+    stubbed.receiveEvent(1, "topChange", null);
+    assertThat(mCatalystInstance.mLastModule).isEqualTo("StubbedModule");
+    assertThat(mCatalystInstance.mLastMethod).isEqualTo("receiveEvent");
+
+    proxied.receiveEvent(1, "topChange", null);
+    assertThat(mCatalystInstance.mLastModule).isEqualTo("ProxiedModule");
+    assertThat(mCatalystInstance.mLastMethod).isEqualTo("receiveEvent");
+  }
+
+  @Test
+  public void testStubIsCreatedPerExecutorToken() {
+    StubbedModule stubbed =
+        mRegistry.getJavaScriptModule(mCatalystInstance, mExecutorToken, StubbedModule.class);
+    ExecutorToken otherExecutorToken = PowerMockito.mock(ExecutorToken.class);
+    StubbedModule otherStubbed =
+        mRegistry.getJavaScriptModule(mCatalystInstance, otherExecutorToken, StubbedModule.class);
+
+    assertThat(
+        mRegistry.getJavaScriptModule(mCatalystInstance, mExecutorToken, StubbedModule.class))
+        .isSameAs(stubbed);
+    assertThat(otherStubbed).isNotSameAs(stubbed);
+    assertThat(otherStubbed).isInstanceOf(JavaScriptModuleStub.class);
+  }
+
+  @GenerateJSModuleStub
+  public interface StubbedModule extends JavaScriptModule {
+    void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event);
+  }
+
+  public interface ProxiedModule extends JavaScriptModule {
+    void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event);
+  }
+
+  /**
+   * Records the last call to JS.
+   */
+  private static class RecordingCatalystInstance implements CatalystInstance {
+    private @Nullable String mLastModule;
+    private @Nullable String mLastMethod;
+
+    @Override
+    public void callFunction(
+        ExecutorToken executorToken,
+        String module,
+        String method,
+        NativeArray arguments) {
+      mLastModule = module;
+      mLastMethod = method;
+    }
+
+    @Override
+    public void runJSBundle() {
+    }
+
+    @Override
+    public @Nullable String getSourceURL() {
+      return null;
+    }
+
+    @Override
+    public void invokeCallback(
+        ExecutorToken executorToken,
+        int callbackID,
+        NativeArray arguments) {
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public boolean isDestroyed() {
+      return false;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public ReactQueueConfiguration getReactQueueConfiguration() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends JavaScriptModule> T getJSModule(Class<T> jsInterface) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends JavaScriptModule> T getJSModule(
+        ExecutorToken executorToken,
+        Class<T> jsInterface) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends NativeModule> boolean hasNativeModule(Class<T> nativeModuleInterface) {
+      return false;
+    }
+
+    @Override
+    public <T extends NativeModule> T getNativeModule(Class<T> nativeModuleInterface) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<NativeModule> getNativeModules() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addBridgeIdleDebugListener(NotThreadSafeBridgeIdleDebugListener listener) {
+    }
+
+    @Override
+    public void removeBridgeIdleDebugListener(NotThreadSafeBridgeIdleDebugListener listener) {
+    }
+
+    @Override
+    public boolean supportsProfiling() {
+      return false;
+    }
+
+    @Override
+    public void startProfiler(String title) {
+    }
+
+    @Override
+    public void stopProfiler(String title, String filename) {
+    }
+
+    @Override
+    public void setGlobalVariable(String propName, String jsonValue) {
+    }
+
+    @Override
+    public long getJavaScriptContext() {
+      return 0;
+    }
+
+    @Override
+    public void handleMemoryPressure(MemoryPressure level) {
+    }
+  }
+}
+
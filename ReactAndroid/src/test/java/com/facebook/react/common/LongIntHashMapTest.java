@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LongIntHashMap}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LongIntHashMapTest {
+
+  private static final int MISSING = -1;
+
+  @Test
+  public void testPutGetAndRemove() {
+    LongIntHashMap map = new LongIntHashMap();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(1, MISSING)).isEqualTo(MISSING);
+
+    map.put(1, 10);
+    map.put(2, 20);
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.get(1, MISSING)).isEqualTo(10);
+    assertThat(map.get(2, MISSING)).isEqualTo(20);
+    assertThat(map.containsKey(3)).isFalse();
+
+    map.put(1, 11);
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.get(1, MISSING)).isEqualTo(11);
+
+    assertThat(map.remove(1, MISSING)).isEqualTo(11);
+    assertThat(map.remove(1, MISSING)).isEqualTo(MISSING);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.containsKey(1)).isFalse();
+    assertThat(map.get(2, MISSING)).isEqualTo(20);
+  }
+
+  @Test
+  public void testClear() {
+    LongIntHashMap map = new LongIntHashMap();
+    map.put(1, 10);
+    map.put(2, 20);
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.containsKey(1)).isFalse();
+    assertThat(map.containsKey(2)).isFalse();
+
+    map.put(2, 21);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(2, MISSING)).isEqualTo(21);
+  }
+
+  @Test
+  public void testCollidingKeys() {
+    long[] keys = findCollidingKeys(4);
+    LongIntHashMap map = new LongIntHashMap();
+    for (int i = 0; i < keys.length; i++) {
+      map.put(keys[i], i);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      assertThat(map.get(keys[i], MISSING)).isEqualTo(i);
+    }
+
+    // Removing from the start of a probe sequence keeps the entries after it reachable
+    assertThat(map.remove(keys[0], MISSING)).isEqualTo(0);
+    assertThat(map.remove(keys[2], MISSING)).isEqualTo(2);
+    assertThat(map.containsKey(keys[0])).isFalse();
+    assertThat(map.containsKey(keys[2])).isFalse();
+    assertThat(map.get(keys[1], MISSING)).isEqualTo(1);
+    assertThat(map.get(keys[3], MISSING)).isEqualTo(3);
+    assertThat(map.size()).isEqualTo(2);
+
+    map.put(keys[0], 5);
+    assertThat(map.get(keys[0], MISSING)).isEqualTo(5);
+    assertThat(map.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void testResize() {
+    LongIntHashMap map = new LongIntHashMap();
+    int count = LongIntHashMap.MIN_CAPACITY * 8;
+    for (int i = 0; i < count; i++) {
+      map.put(i * 31L, i);
+    }
+    assertThat(map.size()).isEqualTo(count);
+    for (int i = 0; i < count; i++) {
+      assertThat(map.get(i * 31L, MISSING)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void testMatchesHashMap() {
+    LongIntHashMap map = new LongIntHashMap();
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      // A small key range, so that puts and removes hit existing keys
+      long key = random.nextInt(200);
+      if (random.nextInt(3) == 0) {
+        Integer expectedValue = expected.remove(key);
+        assertThat(map.remove(key, MISSING))
+            .isEqualTo(expectedValue == null ? MISSING : expectedValue);
+      } else {
+        map.put(key, i);
+        expected.put(key, i);
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (long key = 0; key < 200; key++) {
+      Integer expectedValue = expected.get(key);
+      assertThat(map.get(key, MISSING)).isEqualTo(expectedValue == null ? MISSING : expectedValue);
+    }
+  }
+
+  /**
+   * @return keys that all hash to the same slot of a map with the minimum capacity
+   */
+  private static long[] findCollidingKeys(int count) {
+    int mask = LongIntHashMap.MIN_CAPACITY - 1;
+    int slot = LongIntHashMap.hash(0) & mask;
+    long[] keys = new long[count];
+    int found = 0;
+    for (long key = 0; found < count; key++) {
+      if ((LongIntHashMap.hash(key) & mask) == slot) {
+        keys[found++] = key;
+      }
+    }
+    return keys;
+  }
+}
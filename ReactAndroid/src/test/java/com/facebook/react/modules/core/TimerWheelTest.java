@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TimerWheel}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TimerWheelTest {
+
+  private static final long START_TIME = 1000000;
+
+  private static class TestEntry extends TimerWheel.Entry {
+    private final int mId;
+
+    private TestEntry(int id) {
+      mId = id;
+    }
+  }
+
+  private TimerWheel<TestEntry> mWheel;
+  private List<TestEntry> mExpired;
+
+  @Before
+  public void setUp() {
+    mWheel = new TimerWheel<>();
+    mExpired = new ArrayList<>();
+  }
+
+  @Test
+  public void testExpiresEntriesBeforeTime() {
+    TestEntry entry = new TestEntry(1);
+    mWheel.add(entry, START_TIME + 10, START_TIME);
+
+    mWheel.advance(START_TIME + 10, mExpired);
+    assertThat(mExpired).isEmpty();
+
+    mWheel.advance(START_TIME + 11, mExpired);
+    assertThat(mExpired).containsExactly(entry);
+    assertThat(entry.isScheduled()).isFalse();
+    assertThat(mWheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testExpiresEntriesInOrder() {
+    TestEntry late = new TestEntry(1);
+    TestEntry early = new TestEntry(2);
+    TestEntry past = new TestEntry(3);
+    mWheel.add(late, START_TIME + 300, START_TIME);
+    mWheel.add(early, START_TIME + 20, START_TIME);
+    mWheel.add(past, START_TIME - 5, START_TIME);
+
+    mWheel.advance(START_TIME + 1000, mExpired);
+
+    assertThat(mExpired).containsExactly(past, early, late);
+  }
+
+  @Test
+  public void testRemovedEntriesDontExpire() {
+    TestEntry removed = new TestEntry(1);
+    TestEntry kept = new TestEntry(2);
+    mWheel.add(removed, START_TIME + 5000, START_TIME);
+    mWheel.add(kept, START_TIME + 5000, START_TIME);
+
+    assertThat(mWheel.remove(removed)).isTrue();
+    assertThat(mWheel.remove(removed)).isFalse();
+    mWheel.advance(START_TIME + 6000, mExpired);
+
+    assertThat(mExpired).containsExactly(kept);
+  }
+
+  @Test
+  public void testExpiresFarEntriesOnTime() {
+    long[] delays = {255, 256, 16383, 16384, 1L << 20, (1L << 26) - 1, 1L << 26, (1L << 27) + 7};
+    for (int i = 0; i < delays.length; i++) {
+      mWheel.add(new TestEntry(i), START_TIME + 3 + delays[i], START_TIME + 3);
+    }
+
+    long time = START_TIME + 3;
+    while (mWheel.size() > 0) {
+      time += 16;
+      mWheel.advance(time, mExpired);
+      for (TestEntry entry : mExpired) {
+        assertThat(entry.getExpirationTime()).isLessThan(time);
+        assertThat(entry.getExpirationTime()).isGreaterThanOrEqualTo(time - 16);
+      }
+      mExpired.clear();
+    }
+  }
+
+  @Test
+  public void testMatchesSortedOrder() {
+    Random random = new Random(42);
+    List<TestEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      TestEntry entry = new TestEntry(i);
+      mWheel.add(entry, START_TIME + random.nextInt(100000), START_TIME);
+      entries.add(entry);
+    }
+    for (int i = 0; i < entries.size(); i += 3) {
+      mWheel.remove(entries.get(i));
+    }
+
+    long time = START_TIME;
+    while (mWheel.size() > 0) {
+      time += 17;
+      mWheel.advance(time, mExpired);
+    }
+
+    assertThat(mExpired).hasSize(666);
+    for (int i = 1; i < mExpired.size(); i++) {
+      assertThat(mExpired.get(i).mId % 3).isNotEqualTo(0);
+      assertThat(mExpired.get(i).getExpirationTime())
+          .isGreaterThanOrEqualTo(mExpired.get(i - 1).getExpirationTime());
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.network;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link NetworkEventBatcher}
+ */
+@PrepareForTest({Arguments.class, UiThreadUtil.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class NetworkEventBatcherTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private RCTDeviceEventEmitter mEmitter;
+  private NetworkEventBatcher mBatcher;
+
+  @Before
+  public void setup() {
+    PowerMockito.mockStatic(Arguments.class);
+    when(Arguments.createArray()).thenAnswer(
+        new Answer<WritableArray>() {
+          @Override
+          public WritableArray answer(InvocationOnMock invocation) throws Throwable {
+            return new JavaOnlyArray();
+          }
+        });
+    PowerMockito.mockStatic(UiThreadUtil.class);
+
+    mEmitter = mock(RCTDeviceEventEmitter.class);
+    mBatcher = new NetworkEventBatcher();
+  }
+
+  @Test
+  public void testSendsAllEventsOfAFrameAtOnce() {
+    RCTDeviceEventEmitter batchingEmitter = mBatcher.getBatchingEmitter(mEmitter);
+    ResponseUtil.onDataReceivedProgress(batchingEmitter, 1, 10, 100);
+    ResponseUtil.onDataReceivedProgress(batchingEmitter, 2, 20, 100);
+    ResponseUtil.onRequestSuccess(batchingEmitter, 3);
+    mBatcher.flush();
+
+    ReadableArray batch = captureBatch();
+    assertThat(batch.size()).isEqualTo(3);
+    assertThat(batch.getArray(0).getString(0)).isEqualTo("didReceiveNetworkDataProgress");
+    assertThat(batch.getArray(0).getArray(1).getInt(0)).isEqualTo(1);
+    assertThat(batch.getArray(1).getArray(1).getInt(0)).isEqualTo(2);
+    assertThat(batch.getArray(2).getString(0)).isEqualTo("didCompleteNetworkResponse");
+    assertThat(mBatcher.getEmittedBatchCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDropsSupersededProgress() {
+    RCTDeviceEventEmitter batchingEmitter = mBatcher.getBatchingEmitter(mEmitter);
+    ResponseUtil.onDataReceivedProgress(batchingEmitter, 1, 10, 100);
+    ResponseUtil.onDataReceivedProgress(batchingEmitter, 1, 50, 100);
+    mBatcher.flush();
+
+    ReadableArray batch = captureBatch();
+    assertThat(batch.size()).isEqualTo(1);
+    assertThat(batch.getArray(0).getArray(1).getInt(1)).isEqualTo(50);
+    assertThat(mBatcher.getDroppedEventCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testMergesIncrementalData() {
+    RCTDeviceEventEmitter batchingEmitter = mBatcher.getBatchingEmitter(mEmitter);
+    ResponseUtil.onIncrementalDataReceived(batchingEmitter, 1, "Hello ", 6, 11);
+    ResponseUtil.onIncrementalDataReceived(batchingEmitter, 1, "world", 11, 11);
+    mBatcher.flush();
+
+    ReadableArray args = captureBatch().getArray(0).getArray(1);
+    assertThat(args.getString(1)).isEqualTo("Hello world");
+    assertThat(args.getInt(2)).isEqualTo(11);
+    assertThat(mBatcher.getMergedEventCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testKeepsOrderAroundOtherEvents() {
+    RCTDeviceEventEmitter batchingEmitter = mBatcher.getBatchingEmitter(mEmitter);
+    ResponseUtil.onIncrementalDataReceived(batchingEmitter, 1, "Hello ", 6, 11);
+    ResponseUtil.onRequestSuccess(batchingEmitter, 1);
+    ResponseUtil.onIncrementalDataReceived(batchingEmitter, 1, "world", 11, 11);
+    mBatcher.flush();
+
+    ReadableArray batch = captureBatch();
+    assertThat(batch.size()).isEqualTo(3);
+    assertThat(batch.getArray(0).getArray(1).getString(1)).isEqualTo("Hello ");
+    assertThat(batch.getArray(1).getString(0)).isEqualTo("didCompleteNetworkResponse");
+    assertThat(batch.getArray(2).getArray(1).getString(1)).isEqualTo("world");
+    assertThat(mBatcher.getMergedEventCount()).isEqualTo(0);
+  }
+
+  private ReadableArray captureBatch() {
+    ArgumentCaptor<WritableArray> captor = ArgumentCaptor.forClass(WritableArray.class);
+    verify(mEmitter, times(1)).emit(eq(NetworkEventBatcher.BATCH_EVENT_NAME), captor.capture());
+    return captor.getValue();
+  }
+}
@@ -631,4 +631,264 @@ public class NetworkingModuleTest {
       assertThat(requestIdArguments.getAllValues().contains(idx + 1)).isTrue();
     }
   }
+
+  @Test
+  public void testFileResponseIsWrittenToCacheDir() throws Exception {
+    RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+    ReactApplicationContext context = mockContextWithCacheDir(emitter);
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    NetworkingModule networkingModule = new NetworkingModule(context, "", httpClient);
+    // Let the cleanup of leftover files that runs on creation finish first
+    Robolectric.flushBackgroundThreadScheduler();
+    mockEvents();
+
+    networkingModule.sendRequest(
+      mock(ExecutorToken.class),
+      "GET",
+      "http://somedomain/foo",
+      /* requestId */ 1,
+      /* headers */ JavaOnlyArray.of(),
+      /* body */ null,
+      /* responseType */ "file",
+      /* useIncrementalUpdates*/ false,
+      /* timeout */ 0);
+    respond(httpClient, createResponse("Response data"));
+
+    File responseFile = verifyResponseFile(emitter, 1);
+    assertThat(responseFile.getParentFile().getParentFile().getParentFile())
+        .isEqualTo(context.getCacheDir());
+    assertThat(Okio.buffer(Okio.source(responseFile)).readUtf8()).isEqualTo("Response data");
+    verifyRequestSuccess(emitter, 1);
+  }
+
+  @Test
+  public void testFileResponseReportsProgress() throws Exception {
+    RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+    ReactApplicationContext context = mockContextWithCacheDir(emitter);
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    NetworkingModule networkingModule = new NetworkingModule(context, "", httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+    mockEvents();
+
+    networkingModule.sendRequest(
+      mock(ExecutorToken.class),
+      "GET",
+      "http://somedomain/foo",
+      /* requestId */ 1,
+      /* headers */ JavaOnlyArray.of(),
+      /* body */ null,
+      /* responseType */ "file",
+      /* useIncrementalUpdates*/ true,
+      /* timeout */ 0);
+
+    // Run the response through the interceptor that counts the bytes received
+    ArgumentCaptor<Interceptor> interceptorCaptor = ArgumentCaptor.forClass(Interceptor.class);
+    verify(httpClient.newBuilder()).addNetworkInterceptor(interceptorCaptor.capture());
+    Response response = createResponse("Response data");
+    Interceptor.Chain chain = mock(Interceptor.Chain.class);
+    when(chain.request()).thenReturn(response.request());
+    when(chain.proceed(any(Request.class))).thenReturn(response);
+    respond(httpClient, interceptorCaptor.getValue().intercept(chain));
+
+    ArgumentCaptor<WritableArray> captor = ArgumentCaptor.forClass(WritableArray.class);
+    verify(emitter, atLeastOnce()).emit(eq("didReceiveNetworkDataProgress"), captor.capture());
+    WritableArray lastProgress = captor.getValue();
+    assertThat(lastProgress.getInt(0)).isEqualTo(1);
+    assertThat(lastProgress.getInt(1)).isEqualTo("Response data".length());
+    assertThat(lastProgress.getInt(2)).isEqualTo("Response data".length());
+
+    File responseFile = verifyResponseFile(emitter, 1);
+    assertThat(responseFile.length()).isEqualTo("Response data".length());
+    verifyRequestSuccess(emitter, 1);
+  }
+
+  @Test
+  public void testRemoveResponseFile() throws Exception {
+    RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+    ReactApplicationContext context = mockContextWithCacheDir(emitter);
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    NetworkingModule networkingModule = new NetworkingModule(context, "", httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+    mockEvents();
+
+    networkingModule.sendRequest(
+      mock(ExecutorToken.class),
+      "GET",
+      "http://somedomain/foo",
+      /* requestId */ 1,
+      /* headers */ JavaOnlyArray.of(),
+      /* body */ null,
+      /* responseType */ "file",
+      /* useIncrementalUpdates*/ false,
+      /* timeout */ 0);
+    respond(httpClient, createResponse("Response data"));
+    File responseFile = verifyResponseFile(emitter, 1);
+
+    // Files that weren't written by the module are left alone
+    File otherFile = new File(context.getCacheDir(), "other_file");
+    new FileOutputStream(otherFile).close();
+    networkingModule.removeResponseFile(
+      mock(ExecutorToken.class),
+      Uri.fromFile(otherFile).toString());
+    networkingModule.removeResponseFile(
+      mock(ExecutorToken.class),
+      Uri.fromFile(responseFile).toString());
+    Robolectric.flushBackgroundThreadScheduler();
+
+    assertThat(responseFile.exists()).isFalse();
+    assertThat(otherFile.exists()).isTrue();
+    otherFile.delete();
+  }
+
+  @Test
+  public void testResponseFilesAreDeletedOnCatalystInstanceDestroy() throws Exception {
+    RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+    ReactApplicationContext context = mockContextWithCacheDir(emitter);
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    when(httpClient.cookieJar()).thenReturn(mock(CookieJarContainer.class));
+    NetworkingModule networkingModule = new NetworkingModule(context, "", httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+    mockEvents();
+
+    networkingModule.sendRequest(
+      mock(ExecutorToken.class),
+      "GET",
+      "http://somedomain/foo",
+      /* requestId */ 1,
+      /* headers */ JavaOnlyArray.of(),
+      /* body */ null,
+      /* responseType */ "file",
+      /* useIncrementalUpdates*/ false,
+      /* timeout */ 0);
+    respond(httpClient, createResponse("Response data"));
+    File responseFile = verifyResponseFile(emitter, 1);
+    File otherFile = new File(context.getCacheDir(), "other_file");
+    new FileOutputStream(otherFile).close();
+
+    networkingModule.onCatalystInstanceDestroy();
+    Robolectric.flushBackgroundThreadScheduler();
+
+    assertThat(responseFile.exists()).isFalse();
+    assertThat(otherFile.exists()).isTrue();
+    otherFile.delete();
+  }
+
+  @Test
+  public void testResponseFilesOfOtherInstancesAreKept() throws Exception {
+    RCTDeviceEventEmitter emitter = mock(RCTDeviceEventEmitter.class);
+    ReactApplicationContext context = mockContextWithCacheDir(emitter);
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    when(httpClient.cookieJar()).thenReturn(mock(CookieJarContainer.class));
+    NetworkingModule networkingModule = new NetworkingModule(context, "", httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+    mockEvents();
+
+    networkingModule.sendRequest(
+      mock(ExecutorToken.class),
+      "GET",
+      "http://somedomain/foo",
+      /* requestId */ 1,
+      /* headers */ JavaOnlyArray.of(),
+      /* body */ null,
+      /* responseType */ "file",
+      /* useIncrementalUpdates*/ false,
+      /* timeout */ 0);
+    respond(httpClient, createResponse("Response data"));
+    File responseFile = verifyResponseFile(emitter, 1);
+
+    // Neither the creation nor the destruction of another instance touches the file
+    NetworkingModule otherNetworkingModule = new NetworkingModule(
+        mockContextWithCacheDir(mock(RCTDeviceEventEmitter.class)),
+        "",
+        httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+    otherNetworkingModule.onCatalystInstanceDestroy();
+    Robolectric.flushBackgroundThreadScheduler();
+    assertThat(responseFile.exists()).isTrue();
+
+    // The file can't be removed through another instance either
+    otherNetworkingModule.removeResponseFile(
+      mock(ExecutorToken.class),
+      Uri.fromFile(responseFile).toString());
+    Robolectric.flushBackgroundThreadScheduler();
+    assertThat(responseFile.exists()).isTrue();
+
+    networkingModule.onCatalystInstanceDestroy();
+    Robolectric.flushBackgroundThreadScheduler();
+    assertThat(responseFile.exists()).isFalse();
+  }
+
+  @Test
+  public void testResponseFilesOfDeadProcessesAreDeleted() throws Exception {
+    File cacheDir = RuntimeEnvironment.application.getCacheDir();
+    // No process can have this pid, it is above the highest pid the kernel hands out
+    File staleDirectory = new File(cacheDir, "ReactNative_responses/2147483647_0");
+    staleDirectory.mkdirs();
+    File staleFile = new File(staleDirectory, "ReactNative_response_1_stale");
+    new FileOutputStream(staleFile).close();
+
+    OkHttpClient httpClient = mockClientWithCall(mock(Call.class));
+    new NetworkingModule(
+        mockContextWithCacheDir(mock(RCTDeviceEventEmitter.class)),
+        "",
+        httpClient);
+    Robolectric.flushBackgroundThreadScheduler();
+
+    assertThat(staleFile.exists()).isFalse();
+    assertThat(staleDirectory.exists()).isFalse();
+  }
+
+  private static ReactApplicationContext mockContextWithCacheDir(RCTDeviceEventEmitter emitter) {
+    ReactApplicationContext context = mock(ReactApplicationContext.class);
+    when(context.getJSModule(any(ExecutorToken.class), any(Class.class))).thenReturn(emitter);
+    when(context.getCacheDir()).thenReturn(RuntimeEnvironment.application.getCacheDir());
+    return context;
+  }
+
+  private static OkHttpClient mockClientWithCall(Call call) {
+    OkHttpClient httpClient = mock(OkHttpClient.class);
+    when(httpClient.newCall(any(Request.class))).thenReturn(call);
+    OkHttpClient.Builder clientBuilder = mock(OkHttpClient.Builder.class);
+    when(clientBuilder.build()).thenReturn(httpClient);
+    when(httpClient.newBuilder()).thenReturn(clientBuilder);
+    return httpClient;
+  }
+
+  private static Response createResponse(String body) {
+    return new Response.Builder()
+      .request(new Request.Builder().url("http://somedomain/foo").build())
+      .protocol(Protocol.HTTP_1_1)
+      .code(200)
+      .message("OK")
+      .body(ResponseBody.create(MediaType.parse("text/plain"), body))
+      .build();
+  }
+
+  /**
+   * Hands the response to the callback the module enqueued its call with.
+   */
+  private static void respond(OkHttpClient httpClient, Response response) throws Exception {
+    Call call = httpClient.newCall(response.request());
+    ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+    verify(call).enqueue(callbackCaptor.capture());
+    callbackCaptor.getValue().onResponse(call, response);
+  }
+
+  private static File verifyResponseFile(RCTDeviceEventEmitter emitter, int requestId) {
+    ArgumentCaptor<WritableArray> captor = ArgumentCaptor.forClass(WritableArray.class);
+    verify(emitter).emit(eq("didReceiveNetworkData"), captor.capture());
+    assertThat(captor.getValue().getInt(0)).isEqualTo(requestId);
+    Uri uri = Uri.parse(captor.getValue().getString(1));
+    assertThat(uri.getScheme()).isEqualTo("file");
+    File responseFile = new File(uri.getPath());
+    assertThat(responseFile.exists()).isTrue();
+    return responseFile;
+  }
+
+  private static void verifyRequestSuccess(RCTDeviceEventEmitter emitter, int requestId) {
+    ArgumentCaptor<WritableArray> captor = ArgumentCaptor.forClass(WritableArray.class);
+    verify(emitter).emit(eq("didCompleteNetworkResponse"), captor.capture());
+    assertThat(captor.getValue().getInt(0)).isEqualTo(requestId);
+    assertThat(captor.getValue().isNull(1)).isTrue();
+  }
 }
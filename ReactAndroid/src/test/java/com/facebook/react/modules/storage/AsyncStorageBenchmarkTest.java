@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.storage;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the read and write throughput of the database backend of {@link AsyncStorageModule},
+ * which runs every operation against {@link ReactDatabaseSupplier} in its own transaction, with
+ * {@link CachedAsyncStorage}. The workload sets a number of keys one at a time, like an app
+ * persisting its state on every change, then reads a few hot keys repeatedly. The throughput of
+ * each backend is printed.
+ *
+ * This is a benchmark rather than a test, so it is ignored by default. Remove the @Ignore to run
+ * it locally. The results of the workload are checked by
+ * {@link CachedAsyncStorageTest#testPersistsSingleKeyWritesInBatches}.
+ */
+@Ignore("Benchmark, run manually")
+@RunWith(RobolectricTestRunner.class)
+public class AsyncStorageBenchmarkTest {
+
+  private static final int KEY_COUNT = 500;
+  private static final int HOT_KEY_COUNT = 10;
+  private static final int READ_ITERATIONS = 200;
+  // Number of single key writes between two flushes of the cached backend
+  private static final int WRITES_PER_FLUSH = 50;
+
+  private ReactDatabaseSupplier mReactDatabaseSupplier;
+
+  @Before
+  public void setup() {
+    mReactDatabaseSupplier = ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application);
+  }
+
+  @After
+  public void cleanUp() {
+    RuntimeEnvironment.application.deleteDatabase(ReactDatabaseSupplier.DATABASE_NAME);
+    ReactDatabaseSupplier.deleteInstance();
+  }
+
+  @Test
+  public void testCachedStorageThroughput() {
+    long databaseWriteTimeNs = writeToDatabase();
+    long databaseReadTimeNs = readFromDatabase();
+    mReactDatabaseSupplier.clear();
+
+    CachedAsyncStorage storage = new CachedAsyncStorage(
+        mReactDatabaseSupplier,
+        mock(ScheduledExecutorService.class),
+        64 * 1024,
+        CachedAsyncStorage.WRITE_BEHIND_DELAY_MS);
+    long cachedWriteTimeNs = writeToCachedStorage(storage);
+    long cachedReadTimeNs = readFromCachedStorage(storage);
+
+    assertThat(storage.getFlushCount()).isEqualTo(KEY_COUNT / WRITES_PER_FLUSH);
+    assertThat(storage.getMissCount()).isEqualTo(0);
+    int readCount = HOT_KEY_COUNT * READ_ITERATIONS;
+    System.out.println(
+        "AsyncStorage " + KEY_COUNT + " writes: database " +
+            opsPerSecond(KEY_COUNT, databaseWriteTimeNs) + "/s, cached " +
+            opsPerSecond(KEY_COUNT, cachedWriteTimeNs) + "/s; " + readCount + " reads: database " +
+            opsPerSecond(readCount, databaseReadTimeNs) + "/s, cached " +
+            opsPerSecond(readCount, cachedReadTimeNs) + "/s");
+  }
+
+  private long writeToDatabase() {
+    long startTime = System.nanoTime();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      SQLiteDatabase db = mReactDatabaseSupplier.get();
+      db.beginTransaction();
+      try {
+        AsyncLocalStorageUtil.setItemImpl(db, "key" + i, "value" + i);
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private long readFromDatabase() {
+    long startTime = System.nanoTime();
+    for (int iteration = 0; iteration < READ_ITERATIONS; iteration++) {
+      for (int i = 0; i < HOT_KEY_COUNT; i++) {
+        assertThat(AsyncLocalStorageUtil.getItemImpl(mReactDatabaseSupplier.get(), "key" + i))
+            .isEqualTo("value" + i);
+      }
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private static long writeToCachedStorage(CachedAsyncStorage storage) {
+    long startTime = System.nanoTime();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      storage.multiSet(new String[] {"key" + i}, new String[] {"value" + i});
+      if ((i + 1) % WRITES_PER_FLUSH == 0) {
+        storage.flush();
+      }
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private static long readFromCachedStorage(CachedAsyncStorage storage) {
+    long startTime = System.nanoTime();
+    for (int iteration = 0; iteration < READ_ITERATIONS; iteration++) {
+      for (int i = 0; i < HOT_KEY_COUNT; i++) {
+        assertThat(storage.multiGet(new String[] {"key" + i})[0]).isEqualTo("value" + i);
+      }
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private static long opsPerSecond(int opCount, long timeNs) {
+    return opCount * 1000000000L / Math.max(1, timeNs);
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.storage;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReactTestHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the SQL paths of {@link AsyncStorageModule} on a dataset of 10k keys: bulk multiSet,
+ * multiGet including missing keys, getAllKeys and multiRemove, with the default rollback journal
+ * and with write-ahead logging, and single key writes through the compiled statement of
+ * {@link ReactDatabaseSupplier} compared to {@link AsyncLocalStorageUtil#setItemImpl}. The
+ * timings are printed.
+ *
+ * This is a benchmark rather than a test, so it is ignored by default. Remove the @Ignore to run
+ * it locally. {@link AsyncStorageModuleBulkTest} checks the results of the same operations.
+ */
+@Ignore("Benchmark, run manually")
+@PrepareForTest({Arguments.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*", "org.json.*"})
+@RunWith(RobolectricTestRunner.class)
+public class AsyncStorageModuleBenchmarkTest {
+
+  private static final int KEY_COUNT = 10000;
+  // Keys that multiGet is asked for without being stored
+  private static final int MISSING_KEY_COUNT = 1000;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  @Before
+  public void setup() {
+    PowerMockito.mockStatic(Arguments.class);
+    when(Arguments.createArray()).thenAnswer(
+        new Answer<Object>() {
+          @Override
+          public Object answer(InvocationOnMock invocation) throws Throwable {
+            return new JavaOnlyArray();
+          }
+        });
+  }
+
+  @After
+  public void cleanUp() {
+    deleteDatabase();
+  }
+
+  @Test
+  public void testBulkOperations() {
+    runBulkOperations("rollback journal");
+    deleteDatabase();
+
+    ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application)
+        .setWriteAheadLoggingEnabled(true);
+    runBulkOperations("write-ahead log");
+  }
+
+  @Test
+  public void testSingleKeyWrites() {
+    ReactDatabaseSupplier supplier =
+        ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application);
+    SQLiteDatabase db = supplier.get();
+
+    long startTime = System.nanoTime();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      db.beginTransaction();
+      try {
+        AsyncLocalStorageUtil.setItemImpl(db, "key" + i, "value" + i);
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+    }
+    long contentValuesTimeNs = System.nanoTime() - startTime;
+    supplier.clear();
+
+    startTime = System.nanoTime();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      db.beginTransaction();
+      try {
+        SQLiteStatement statement = supplier.getInsertStatement();
+        statement.clearBindings();
+        statement.bindString(1, "key" + i);
+        statement.bindString(2, "value" + i);
+        statement.execute();
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+    }
+    long compiledStatementTimeNs = System.nanoTime() - startTime;
+
+    assertThat(AsyncLocalStorageUtil.getItemImpl(db, "key" + (KEY_COUNT - 1)))
+        .isEqualTo("value" + (KEY_COUNT - 1));
+    System.out.println(
+        "AsyncStorage " + KEY_COUNT + " single key writes: ContentValues " +
+            toMs(contentValuesTimeNs) + "ms, compiled statement " +
+            toMs(compiledStatementTimeNs) + "ms");
+  }
+
+  private static void runBulkOperations(String journalMode) {
+    AsyncStorageModule module =
+        new AsyncStorageModule(ReactTestHelper.createCatalystContextForTest());
+
+    JavaOnlyArray keyValues = new JavaOnlyArray();
+    JavaOnlyArray keys = new JavaOnlyArray();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keyValues.pushArray(JavaOnlyArray.of("key" + i, "value" + i));
+      keys.pushString("key" + i);
+    }
+    JavaOnlyArray keysWithMissing = new JavaOnlyArray();
+    for (int i = 0; i < KEY_COUNT + MISSING_KEY_COUNT; i++) {
+      keysWithMissing.pushString("key" + i);
+    }
+
+    ResultCallback callback = new ResultCallback();
+    long startTime = System.nanoTime();
+    module.multiSet(keyValues, callback);
+    long multiSetTimeNs = System.nanoTime() - startTime;
+    assertThat(callback.mArgs).isEmpty();
+
+    startTime = System.nanoTime();
+    module.multiGet(keysWithMissing, callback);
+    long multiGetTimeNs = System.nanoTime() - startTime;
+    assertThat(((JavaOnlyArray) callback.mArgs[1]).size())
+        .isEqualTo(KEY_COUNT + MISSING_KEY_COUNT);
+
+    startTime = System.nanoTime();
+    module.getAllKeys(callback);
+    long getAllKeysTimeNs = System.nanoTime() - startTime;
+    assertThat(((JavaOnlyArray) callback.mArgs[1]).size()).isEqualTo(KEY_COUNT);
+
+    startTime = System.nanoTime();
+    module.multiRemove(keys, callback);
+    long multiRemoveTimeNs = System.nanoTime() - startTime;
+    assertThat(callback.mArgs).isEmpty();
+
+    System.out.println(
+        "AsyncStorage " + KEY_COUNT + " keys, " + journalMode + ": multiSet " +
+            toMs(multiSetTimeNs) + "ms, multiGet " + toMs(multiGetTimeNs) + "ms, getAllKeys " +
+            toMs(getAllKeysTimeNs) + "ms, multiRemove " + toMs(multiRemoveTimeNs) + "ms");
+  }
+
+  private static void deleteDatabase() {
+    RuntimeEnvironment.application.deleteDatabase(ReactDatabaseSupplier.DATABASE_NAME);
+    ReactDatabaseSupplier.deleteInstance();
+  }
+
+  private static long toMs(long timeNs) {
+    return timeNs / 1000000;
+  }
+
+  private static class ResultCallback implements Callback {
+    private Object[] mArgs;
+
+    @Override
+    public void invoke(Object... args) {
+      mArgs = args;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReactTestHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the SQL paths of {@link AsyncStorageModule} on more keys than fit in one SQL statement:
+ * bulk multiSet, multiGet including missing keys, getAllKeys and multiRemove, with the default
+ * rollback journal and with write-ahead logging, and single key writes through the compiled
+ * statement of {@link ReactDatabaseSupplier}.
+ */
+@PrepareForTest({Arguments.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*", "org.json.*"})
+@RunWith(RobolectricTestRunner.class)
+public class AsyncStorageModuleBulkTest {
+
+  // Spans several chunks of keys, the last one partial
+  private static final int KEY_COUNT = 2 * AsyncLocalStorageUtil.MAX_SQL_KEYS + 1;
+  // Keys that multiGet is asked for without being stored
+  private static final int MISSING_KEY_COUNT = 10;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  @Before
+  public void setup() {
+    PowerMockito.mockStatic(Arguments.class);
+    when(Arguments.createArray()).thenAnswer(
+        new Answer<Object>() {
+          @Override
+          public Object answer(InvocationOnMock invocation) throws Throwable {
+            return new JavaOnlyArray();
+          }
+        });
+  }
+
+  @After
+  public void cleanUp() {
+    deleteDatabase();
+  }
+
+  @Test
+  public void testBulkOperations() {
+    runBulkOperations();
+    deleteDatabase();
+
+    ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application)
+        .setWriteAheadLoggingEnabled(true);
+    runBulkOperations();
+  }
+
+  @Test
+  public void testSingleKeyWrites() {
+    ReactDatabaseSupplier supplier =
+        ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application);
+    SQLiteDatabase db = supplier.get();
+
+    for (int i = 0; i < KEY_COUNT; i++) {
+      db.beginTransaction();
+      try {
+        SQLiteStatement statement = supplier.getInsertStatement();
+        statement.clearBindings();
+        statement.bindString(1, "key" + i);
+        statement.bindString(2, "value" + i);
+        statement.execute();
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+    }
+    // Writing an existing key replaces its value
+    db.beginTransaction();
+    try {
+      SQLiteStatement statement = supplier.getInsertStatement();
+      statement.clearBindings();
+      statement.bindString(1, "key0");
+      statement.bindString(2, "newValue");
+      statement.execute();
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+
+    assertThat(AsyncLocalStorageUtil.getItemImpl(db, "key0")).isEqualTo("newValue");
+    for (int i = 1; i < KEY_COUNT; i++) {
+      assertThat(AsyncLocalStorageUtil.getItemImpl(db, "key" + i)).isEqualTo("value" + i);
+    }
+  }
+
+  private static void runBulkOperations() {
+    AsyncStorageModule module =
+        new AsyncStorageModule(ReactTestHelper.createCatalystContextForTest());
+
+    JavaOnlyArray keyValues = new JavaOnlyArray();
+    JavaOnlyArray keys = new JavaOnlyArray();
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keyValues.pushArray(JavaOnlyArray.of("key" + i, "value" + i));
+      keys.pushString("key" + i);
+    }
+    JavaOnlyArray keysWithMissing = new JavaOnlyArray();
+    for (int i = 0; i < KEY_COUNT + MISSING_KEY_COUNT; i++) {
+      keysWithMissing.pushString("key" + i);
+    }
+
+    ResultCallback callback = new ResultCallback();
+    module.multiSet(keyValues, callback);
+    assertThat(callback.mArgs).isEmpty();
+
+    module.multiGet(keysWithMissing, callback);
+    JavaOnlyArray rows = (JavaOnlyArray) callback.mArgs[1];
+    assertThat(rows.size()).isEqualTo(KEY_COUNT + MISSING_KEY_COUNT);
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      JavaOnlyArray row = rows.getArray(i);
+      values.put(row.getString(0), row.getString(1));
+    }
+    for (int i = 0; i < KEY_COUNT + MISSING_KEY_COUNT; i++) {
+      assertThat(values.get("key" + i)).isEqualTo(i < KEY_COUNT ? "value" + i : null);
+    }
+
+    module.getAllKeys(callback);
+    assertThat(((JavaOnlyArray) callback.mArgs[1]).size()).isEqualTo(KEY_COUNT);
+
+    module.multiRemove(keys, callback);
+    assertThat(callback.mArgs).isEmpty();
+
+    module.getAllKeys(callback);
+    assertThat(((JavaOnlyArray) callback.mArgs[1]).size()).isEqualTo(0);
+  }
+
+  private static void deleteDatabase() {
+    RuntimeEnvironment.application.deleteDatabase(ReactDatabaseSupplier.DATABASE_NAME);
+    ReactDatabaseSupplier.deleteInstance();
+  }
+
+  private static class ResultCallback implements Callback {
+    private Object[] mArgs;
+
+    @Override
+    public void invoke(Object... args) {
+      mArgs = args;
+    }
+  }
+}
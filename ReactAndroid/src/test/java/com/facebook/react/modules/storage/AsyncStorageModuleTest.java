@@ -127,6 +127,19 @@ public class AsyncStorageModuleTest {
     Mockito.verify(getCallback2, Mockito.times(1)).invoke(null, keyValues);
   }
 
+  @Test
+  public void testMultiGetWithRepeatedAndMissingKeys() {
+    mStorage.multiSet(JavaOnlyArray.of(getArray("foo1", "bar1")), mock(Callback.class));
+
+    Callback getCallback = mock(Callback.class);
+    mStorage.multiGet(getArray("foo1", "fakeKey", "foo1", "fakeKey"), getCallback);
+    JavaOnlyArray missingRow = new JavaOnlyArray();
+    missingRow.pushString("fakeKey");
+    missingRow.pushNull();
+    Mockito.verify(getCallback, Mockito.times(1))
+        .invoke(null, JavaOnlyArray.of(getArray("foo1", "bar1"), missingRow));
+  }
+
   @Test
   public void testMultiRemove() {
     final String key1 = "foo1";
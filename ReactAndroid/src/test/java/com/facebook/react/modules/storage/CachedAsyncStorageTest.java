@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.modules.storage;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import android.database.sqlite.SQLiteException;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachedAsyncStorage}. Flushes that would run on the storage thread are run
+ * explicitly.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CachedAsyncStorageTest {
+
+  private ReactDatabaseSupplier mReactDatabaseSupplier;
+  private ScheduledExecutorService mExecutor;
+  private CachedAsyncStorage mStorage;
+
+  @Before
+  public void setup() {
+    mReactDatabaseSupplier = ReactDatabaseSupplier.getInstance(RuntimeEnvironment.application);
+    mExecutor = mock(ScheduledExecutorService.class);
+    mStorage = new CachedAsyncStorage(mReactDatabaseSupplier, mExecutor, 1024, 100);
+  }
+
+  @After
+  public void cleanUp() {
+    RuntimeEnvironment.application.deleteDatabase(ReactDatabaseSupplier.DATABASE_NAME);
+    ReactDatabaseSupplier.deleteInstance();
+  }
+
+  @Test
+  public void testWritesAreVisibleBeforeFlush() {
+    mStorage.multiSet(new String[] {"foo1", "foo2"}, new String[] {"bar1", "bar2"});
+
+    assertThat(mStorage.multiGet(new String[] {"foo1", "foo2", "foo3"}))
+        .isEqualTo(new String[] {"bar1", "bar2", null});
+    assertThat(getStoredValue("foo1")).isNull();
+
+    mStorage.flush();
+    assertThat(getStoredValue("foo1")).isEqualTo("bar1");
+    assertThat(getStoredValue("foo2")).isEqualTo("bar2");
+  }
+
+  @Test
+  public void testWritesAreGroupedIntoOneFlush() {
+    mStorage.multiSet(new String[] {"foo"}, new String[] {"bar1"});
+    mStorage.multiSet(new String[] {"foo"}, new String[] {"bar2"});
+    mStorage.multiRemove(new String[] {"baz"});
+    verify(mExecutor, times(1))
+        .schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+    mStorage.flush();
+    assertThat(getStoredValue("foo")).isEqualTo("bar2");
+    assertThat(mStorage.getWriteCount()).isEqualTo(3);
+    assertThat(mStorage.getFlushedWriteCount()).isEqualTo(2);
+    assertThat(mStorage.getFlushCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRemovesAreFlushed() {
+    AsyncLocalStorageUtil.setItemImpl(mReactDatabaseSupplier.get(), "foo", "bar");
+
+    mStorage.multiRemove(new String[] {"foo"});
+    assertThat(mStorage.multiGet(new String[] {"foo"})).isEqualTo(new String[] {null});
+    assertThat(getStoredValue("foo")).isEqualTo("bar");
+
+    mStorage.flush();
+    assertThat(getStoredValue("foo")).isNull();
+  }
+
+  @Test
+  public void testReadsAreCached() {
+    AsyncLocalStorageUtil.setItemImpl(mReactDatabaseSupplier.get(), "foo", "bar");
+
+    assertThat(mStorage.multiGet(new String[] {"foo", "missing"}))
+        .isEqualTo(new String[] {"bar", null});
+    assertThat(mStorage.multiGet(new String[] {"foo", "missing"}))
+        .isEqualTo(new String[] {"bar", null});
+    assertThat(mStorage.getMissCount()).isEqualTo(2);
+    assertThat(mStorage.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testMergesWithStoredValue() throws Exception {
+    AsyncLocalStorageUtil.setItemImpl(mReactDatabaseSupplier.get(), "foo", "{\"a\":1,\"b\":1}");
+
+    mStorage.multiMerge(new String[] {"foo", "foo"}, new String[] {"{\"b\":2}", "{\"c\":3}"});
+    mStorage.flush();
+
+    JSONObject merged = new JSONObject(getStoredValue("foo"));
+    assertThat(merged.getInt("a")).isEqualTo(1);
+    assertThat(merged.getInt("b")).isEqualTo(2);
+    assertThat(merged.getInt("c")).isEqualTo(3);
+  }
+
+  @Test
+  public void testGetAllKeysIncludesPendingWrites() {
+    AsyncLocalStorageUtil.setItemImpl(mReactDatabaseSupplier.get(), "foo1", "bar");
+
+    mStorage.multiSet(new String[] {"foo2"}, new String[] {"bar"});
+    mStorage.multiRemove(new String[] {"foo1"});
+
+    assertThat(mStorage.getAllKeys()).containsOnly("foo2");
+  }
+
+  @Test
+  public void testClearDropsPendingWrites() {
+    mStorage.multiSet(new String[] {"foo"}, new String[] {"bar"});
+    mStorage.clear();
+    mStorage.flush();
+
+    assertThat(mStorage.multiGet(new String[] {"foo"})).isEqualTo(new String[] {null});
+    assertThat(getStoredValue("foo")).isNull();
+  }
+
+  @Test
+  public void testFailedFlushKeepsWritesAndRetries() {
+    // Open the database first, so that the spy shares it with the tests' reads
+    mReactDatabaseSupplier.get();
+    ReactDatabaseSupplier failingSupplier = spy(mReactDatabaseSupplier);
+    doThrow(new SQLiteException("disk I/O error")).when(failingSupplier).getInsertStatement();
+    CachedAsyncStorage storage = new CachedAsyncStorage(failingSupplier, mExecutor, 1024, 100);
+    storage.multiSet(new String[] {"foo1", "foo2"}, new String[] {"bar1", "bar2"});
+    verify(mExecutor).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+    storage.flush();
+    storage.flush();
+    assertThat(storage.getFailedFlushCount()).isEqualTo(2);
+    assertThat(storage.getFlushCount()).isEqualTo(0);
+    assertThat(getStoredValue("foo1")).isNull();
+    // The writes are still visible, and the retries back off
+    assertThat(storage.multiGet(new String[] {"foo1", "foo2"}))
+        .isEqualTo(new String[] {"bar1", "bar2"});
+    assertThat(storage.getAllKeys()).containsOnly("foo1", "foo2");
+    verify(mExecutor).schedule(any(Runnable.class), eq(200L), eq(TimeUnit.MILLISECONDS));
+    verify(mExecutor).schedule(any(Runnable.class), eq(400L), eq(TimeUnit.MILLISECONDS));
+
+    doCallRealMethod().when(failingSupplier).getInsertStatement();
+    storage.flush();
+    assertThat(storage.getFlushCount()).isEqualTo(1);
+    assertThat(getStoredValue("foo1")).isEqualTo("bar1");
+    assertThat(getStoredValue("foo2")).isEqualTo("bar2");
+  }
+
+  @Test
+  public void testPersistsSingleKeyWritesInBatches() {
+    // Like an app persisting its state on every change, then reading a few hot keys repeatedly
+    int keyCount = 100;
+    int writesPerFlush = 10;
+    CachedAsyncStorage storage = new CachedAsyncStorage(
+        mReactDatabaseSupplier,
+        mExecutor,
+        64 * 1024,
+        CachedAsyncStorage.WRITE_BEHIND_DELAY_MS);
+    for (int i = 0; i < keyCount; i++) {
+      storage.multiSet(new String[] {"key" + i}, new String[] {"value" + i});
+      if ((i + 1) % writesPerFlush == 0) {
+        storage.flush();
+      }
+    }
+    for (int i = 0; i < writesPerFlush; i++) {
+      assertThat(storage.multiGet(new String[] {"key" + i})).isEqualTo(new String[] {"value" + i});
+    }
+
+    assertThat(storage.getFlushCount()).isEqualTo(keyCount / writesPerFlush);
+    assertThat(storage.getFlushedWriteCount()).isEqualTo(keyCount);
+    assertThat(storage.getMissCount()).isEqualTo(0);
+    for (int i = 0; i < keyCount; i++) {
+      assertThat(getStoredValue("key" + i)).isEqualTo("value" + i);
+    }
+  }
+
+  private String getStoredValue(String key) {
+    return AsyncLocalStorageUtil.getItemImpl(mReactDatabaseSupplier.get(), key);
+  }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.facebook.react.ReactRootView;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactTestHelper;
+import com.facebook.react.views.view.ReactViewManager;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares serial and parallel layout of hierarchies with several independent root views. Both
+ * modes must produce the same native view hierarchy; the time spent in each mode is printed.
+ *
+ * This is a benchmark rather than a test, so it is ignored by default. Remove the @Ignore to run
+ * it locally. {@link ParallelLayoutTest} checks the same hierarchy on every run.
+ */
+@Ignore("Benchmark, run manually")
+@PrepareForTest({Arguments.class, ReactChoreographer.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class ParallelLayoutBenchmarkTest {
+
+  private static final int ROOT_VIEW_COUNT = 6;
+  private static final int ROWS_PER_ROOT = 40;
+  private static final int CELLS_PER_ROW = 5;
+  private static final int RELAYOUT_ITERATIONS = 20;
+  private static final int FIRST_VIEW_TAG = 1000;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ReactApplicationContext mReactContext;
+  private ArrayList<Choreographer.FrameCallback> mPendingChoreographerCallbacks;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class, ReactChoreographer.class);
+
+    ReactChoreographer choreographerMock = mock(ReactChoreographer.class);
+    PowerMockito.when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyArray();
+      }
+    });
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+    PowerMockito.when(ReactChoreographer.getInstance()).thenReturn(choreographerMock);
+
+    mPendingChoreographerCallbacks = new ArrayList<>();
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mPendingChoreographerCallbacks
+            .add((Choreographer.FrameCallback) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(choreographerMock).postFrameCallback(
+        any(ReactChoreographer.CallbackType.class),
+        any(Choreographer.FrameCallback.class));
+
+    CatalystInstance catalystInstanceMock = ReactTestHelper.createMockCatalystInstance();
+    mReactContext = new ReactApplicationContext(RuntimeEnvironment.application);
+    mReactContext.initializeWithInstance(catalystInstanceMock);
+
+    UIManagerModule uiManagerModuleMock = mock(UIManagerModule.class);
+    when(catalystInstanceMock.getNativeModule(UIManagerModule.class))
+        .thenReturn(uiManagerModuleMock);
+  }
+
+  @Test
+  public void testParallelLayoutTime() {
+    MultiRootHierarchy serial = new MultiRootHierarchy(getUIManagerModule(false));
+    MultiRootHierarchy parallel = new MultiRootHierarchy(getUIManagerModule(true));
+
+    long serialTimeNs = serial.createAndRelayout();
+    long parallelTimeNs = parallel.createAndRelayout();
+
+    for (int i = 0; i < ROOT_VIEW_COUNT; i++) {
+      assertSameFrames(serial.mRootViews.get(i), parallel.mRootViews.get(i));
+    }
+
+    System.out.println(
+        "Layout of " + ROOT_VIEW_COUNT + " root views x " + RELAYOUT_ITERATIONS +
+            " iterations: serial " + (serialTimeNs / 1000000) + "ms, parallel " +
+            (parallelTimeNs / 1000000) + "ms");
+  }
+
+  private void assertSameFrames(View expected, View actual) {
+    assertThat(actual.getLeft()).isEqualTo(expected.getLeft());
+    assertThat(actual.getTop()).isEqualTo(expected.getTop());
+    assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+    assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+    if (expected instanceof ViewGroup) {
+      ViewGroup expectedGroup = (ViewGroup) expected;
+      ViewGroup actualGroup = (ViewGroup) actual;
+      assertThat(actualGroup.getChildCount()).isEqualTo(expectedGroup.getChildCount());
+      for (int i = 0; i < expectedGroup.getChildCount(); i++) {
+        assertSameFrames(expectedGroup.getChildAt(i), actualGroup.getChildAt(i));
+      }
+    }
+  }
+
+  /**
+   * Creates {@link #ROOT_VIEW_COUNT} root views, each holding a grid of views, and then changes
+   * the padding of every grid so that all roots need to be laid out again.
+   */
+  private class MultiRootHierarchy {
+
+    private final UIManagerModule mUIManager;
+    private final List<ReactRootView> mRootViews = new ArrayList<>();
+    private final List<Integer> mContainerTags = new ArrayList<>();
+    private int mNextTag = FIRST_VIEW_TAG;
+
+    private MultiRootHierarchy(UIManagerModule uiManager) {
+      mUIManager = uiManager;
+    }
+
+    private long createAndRelayout() {
+      for (int i = 0; i < ROOT_VIEW_COUNT; i++) {
+        ReactRootView rootView =
+            new ReactRootView(RuntimeEnvironment.application.getApplicationContext());
+        mRootViews.add(rootView);
+        mContainerTags.add(createGrid(mUIManager.addMeasuredRootView(rootView)));
+      }
+
+      long startTime = System.nanoTime();
+      dispatchViewUpdates();
+      for (int iteration = 1; iteration <= RELAYOUT_ITERATIONS; iteration++) {
+        for (int i = 0; i < mContainerTags.size(); i++) {
+          mUIManager.updateView(
+              mContainerTags.get(i),
+              ReactViewManager.REACT_CLASS,
+              JavaOnlyMap.of("padding", (double) (iteration % 5)));
+        }
+        dispatchViewUpdates();
+      }
+      return System.nanoTime() - startTime;
+    }
+
+    private int createGrid(int rootTag) {
+      int containerTag = nextTag();
+      createView(containerTag, rootTag, JavaOnlyMap.of("collapsable", false, "flex", 1.0));
+      addChild(rootTag, containerTag, 0);
+
+      for (int row = 0; row < ROWS_PER_ROOT; row++) {
+        int rowTag = nextTag();
+        createView(
+            rowTag,
+            rootTag,
+            JavaOnlyMap.of("collapsable", false, "flexDirection", "row", "height", 20.0));
+        addChild(containerTag, rowTag, row);
+        for (int cell = 0; cell < CELLS_PER_ROW; cell++) {
+          int cellTag = nextTag();
+          createView(cellTag, rootTag, JavaOnlyMap.of("collapsable", false, "flex", 1.0));
+          addChild(rowTag, cellTag, cell);
+        }
+      }
+      return containerTag;
+    }
+
+    /**
+     * Root view tags are 1 modulo 10, see UIManagerModule#addMeasuredRootView.
+     */
+    private int nextTag() {
+      if (mNextTag % 10 == 1) {
+        mNextTag++;
+      }
+      return mNextTag++;
+    }
+
+    private void createView(int tag, int rootTag, JavaOnlyMap props) {
+      mUIManager.createView(tag, ReactViewManager.REACT_CLASS, rootTag, props);
+    }
+
+    private void addChild(int parentTag, int childTag, int index) {
+      mUIManager.manageChildren(
+          parentTag,
+          null,
+          null,
+          JavaOnlyArray.of(childTag),
+          JavaOnlyArray.of(index),
+          null);
+    }
+
+    private void dispatchViewUpdates() {
+      mUIManager.onBatchComplete();
+      executePendingChoreographerCallbacks();
+    }
+  }
+
+  private void executePendingChoreographerCallbacks() {
+    ArrayList<Choreographer.FrameCallback> callbacks =
+        new ArrayList<>(mPendingChoreographerCallbacks);
+    mPendingChoreographerCallbacks.clear();
+    for (Choreographer.FrameCallback frameCallback : callbacks) {
+      frameCallback.doFrame(0);
+    }
+  }
+
+  private UIManagerModule getUIManagerModule(boolean parallelLayoutEnabled) {
+    List<ViewManager> viewManagers = Arrays.<ViewManager>asList(new ReactViewManager());
+    UIManagerModule uiManagerModule = new UIManagerModule(
+        mReactContext,
+        viewManagers,
+        new UIImplementationProvider().setParallelLayoutEnabled(parallelLayoutEnabled),
+        false);
+    uiManagerModule.onHostResume();
+    return uiManagerModule;
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactTestHelper;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RecycledViewPool}
+ */
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class RecycledViewPoolTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private static class RecyclingViewManager extends SimpleViewManager<View> {
+    private final int mPoolSize;
+    private int mResetCount;
+
+    private RecyclingViewManager(int poolSize) {
+      mPoolSize = poolSize;
+    }
+
+    @Override
+    protected View createViewInstance(ThemedReactContext reactContext) {
+      return new View(reactContext);
+    }
+
+    @Override
+    public String getName() {
+      return "RecyclingView";
+    }
+
+    @Override
+    public int getRecycledViewPoolSize() {
+      return mPoolSize;
+    }
+
+    @Override
+    public boolean prepareToRecycleView(View view) {
+      mResetCount++;
+      resetBaseViewProperties(view);
+      return true;
+    }
+  }
+
+  private ThemedReactContext mThemedContext;
+  private ThemedReactContext mOtherThemedContext;
+  private RecycledViewPool mPool;
+
+  @Before
+  public void setup() {
+    ReactApplicationContext context = new ReactApplicationContext(RuntimeEnvironment.application);
+    CatalystInstance catalystInstance = ReactTestHelper.createMockCatalystInstance();
+    context.initializeWithInstance(catalystInstance);
+    mThemedContext = new ThemedReactContext(context, context);
+    mOtherThemedContext = new ThemedReactContext(context, context);
+    mPool = new RecycledViewPool();
+  }
+
+  @Test
+  public void testReusesResetViews() {
+    RecyclingViewManager viewManager = new RecyclingViewManager(2);
+    View view = new View(mThemedContext);
+    view.setId(12);
+    view.setAlpha(0.5f);
+
+    assertThat(mPool.acquire(viewManager, mThemedContext)).isNull();
+    mPool.release(viewManager, view);
+    assertThat(mPool.getPooledViewCount()).isEqualTo(1);
+
+    View recycledView = mPool.acquire(viewManager, mThemedContext);
+    assertThat(recycledView).isSameAs(view);
+    assertThat(recycledView.getId()).isEqualTo(View.NO_ID);
+    assertThat(recycledView.getAlpha()).isEqualTo(1.f);
+    assertThat(viewManager.mResetCount).isEqualTo(1);
+    assertThat(mPool.getHitCount()).isEqualTo(1);
+    assertThat(mPool.getMissCount()).isEqualTo(1);
+    assertThat(mPool.getPooledViewCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testPoolsAreBoundedPerContext() {
+    RecyclingViewManager viewManager = new RecyclingViewManager(1);
+    mPool.release(viewManager, new View(mThemedContext));
+    mPool.release(viewManager, new View(mThemedContext));
+
+    assertThat(mPool.getPooledViewCount()).isEqualTo(1);
+    assertThat(mPool.getDiscardedCount()).isEqualTo(1);
+    assertThat(mPool.acquire(viewManager, mOtherThemedContext)).isNull();
+
+    mPool.clear(mThemedContext);
+    assertThat(mPool.getPooledViewCount()).isEqualTo(0);
+    assertThat(mPool.acquire(viewManager, mThemedContext)).isNull();
+  }
+
+  @Test
+  public void testIgnoresViewsThatCantBeRecycled() {
+    RecyclingViewManager disabledViewManager = new RecyclingViewManager(0);
+    mPool.release(disabledViewManager, new View(mThemedContext));
+
+    RecyclingViewManager viewManager = new RecyclingViewManager(4);
+    FrameLayout parent = new FrameLayout(mThemedContext);
+    View attachedView = new View(mThemedContext);
+    parent.addView(attachedView);
+    mPool.release(viewManager, attachedView);
+
+    assertThat(mPool.getPooledViewCount()).isEqualTo(0);
+    assertThat(disabledViewManager.mResetCount).isEqualTo(0);
+    assertThat(viewManager.mResetCount).isEqualTo(0);
+  }
+}
@@ -13,6 +13,7 @@ import java.util.Map;
 
 import android.view.View;
 
+import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.touch.JSResponderHandler;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -76,6 +77,7 @@ public class SimpleViewPropertyTest {
     mContext.initializeWithInstance(mCatalystInstanceMock);
     mThemedContext = new ThemedReactContext(mContext, mContext);
     mManager = new ConcreteViewManager();
+    DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(RuntimeEnvironment.application);
   }
 
   public ReactStylesDiffMap buildStyles(Object... keysAndValues) {
@@ -96,6 +98,37 @@ public class SimpleViewPropertyTest {
     assertThat(view.getAlpha()).isEqualTo(1.0f);
   }
 
+  @Test
+  public void testAnimatedSimpleTransform() {
+    View view = mManager.createView(mThemedContext, new JSResponderHandler());
+    mManager.updateProperties(
+        view,
+        buildStyles(
+            "transform",
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("translateX", 10d),
+                JavaOnlyMap.of("translateY", 20d),
+                JavaOnlyMap.of("rotate", 0.5d),
+                JavaOnlyMap.of("scaleX", 2d),
+                JavaOnlyMap.of("scaleY", 3d))));
+
+    View animatedView = mManager.createView(mThemedContext, new JSResponderHandler());
+    AnimatedViewProps props = new AnimatedViewProps();
+    props.startSimpleTransform();
+    props.translateSimpleTransform(10d, 20d);
+    props.rotateSimpleTransform(0.5d);
+    props.scaleSimpleTransform(2d, 3d);
+    mManager.updateAnimatedProps(animatedView, props);
+
+    assertThat(animatedView.getTranslationX()).isEqualTo(view.getTranslationX(), offset(1e-3f));
+    assertThat(animatedView.getTranslationY()).isEqualTo(view.getTranslationY(), offset(1e-3f));
+    assertThat(animatedView.getRotation()).isEqualTo(view.getRotation(), offset(1e-3f));
+    assertThat(animatedView.getRotationX()).isEqualTo(view.getRotationX(), offset(1e-3f));
+    assertThat(animatedView.getRotationY()).isEqualTo(view.getRotationY(), offset(1e-3f));
+    assertThat(animatedView.getScaleX()).isEqualTo(view.getScaleX(), offset(1e-3f));
+    assertThat(animatedView.getScaleY()).isEqualTo(view.getScaleY(), offset(1e-3f));
+  }
+
   @Test
   public void testGetNativeProps() {
     Map<String, String> nativeProps = mManager.getNativeProps();
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SpatialIndex}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SpatialIndexTest {
+
+  private static final int POINT_COUNT = 2000;
+
+  @Test
+  public void testFindsItemsContainingPoints() {
+    Random random = new Random(42);
+    int itemCount = 300;
+    float[] bounds = new float[itemCount * 4];
+    for (int item = 0; item < itemCount; item++) {
+      float left = random.nextFloat() * 1000;
+      float top = random.nextFloat() * 2000;
+      bounds[item * 4] = left;
+      bounds[item * 4 + 1] = top;
+      bounds[item * 4 + 2] = left + random.nextFloat() * 100;
+      bounds[item * 4 + 3] = top + random.nextFloat() * 100;
+    }
+
+    assertFindsItemsContainingPoints(bounds, random);
+  }
+
+  @Test
+  public void testFindsLargeItems() {
+    Random random = new Random(42);
+    int itemCount = 101;
+    float[] bounds = new float[itemCount * 4];
+    // A background behind a grid of tiles, and a tile covering all the others
+    setBounds(bounds, 0, 0, 0, 1000, 1000);
+    for (int item = 1; item < itemCount - 1; item++) {
+      int row = (item - 1) / 10;
+      int column = (item - 1) % 10;
+      setBounds(bounds, item, column * 100, row * 100, column * 100 + 90, row * 100 + 90);
+    }
+    setBounds(bounds, itemCount - 1, 0, 0, 1000, 1000);
+
+    assertFindsItemsContainingPoints(bounds, random);
+  }
+
+  @Test
+  public void testIgnoresEmptyItems() {
+    SpatialIndex index = new SpatialIndex();
+    index.begin(3);
+    index.setBounds(0, 10, 10, 10, 20);
+    index.setBounds(1, 0, 0, 20, 20);
+    index.setBounds(2, 10, 10, 20, 10);
+    index.build();
+
+    int cell = index.findCell(10, 10);
+    assertThat(index.getCellEnd(cell) - index.getCellStart(cell)).isEqualTo(1);
+    assertThat(index.getItem(index.getCellStart(cell))).isEqualTo(1);
+    assertThat(index.findCell(30, 10)).isEqualTo(SpatialIndex.NO_CELL);
+
+    index.begin(1);
+    index.setBounds(0, 10, 10, 10, 10);
+    index.build();
+    assertThat(index.findCell(10, 10)).isEqualTo(SpatialIndex.NO_CELL);
+  }
+
+  private static void assertFindsItemsContainingPoints(float[] bounds, Random random) {
+    int itemCount = bounds.length / 4;
+    SpatialIndex index = new SpatialIndex();
+    index.begin(itemCount);
+    for (int item = 0; item < itemCount; item++) {
+      index.setBounds(
+          item,
+          bounds[item * 4],
+          bounds[item * 4 + 1],
+          bounds[item * 4 + 2],
+          bounds[item * 4 + 3]);
+    }
+    index.build();
+
+    for (int i = 0; i < POINT_COUNT; i++) {
+      float x = random.nextFloat() * 1200 - 100;
+      float y = random.nextFloat() * 2200 - 100;
+      boolean[] listed = new boolean[itemCount];
+      int cell = index.findCell(x, y);
+      if (cell != SpatialIndex.NO_CELL) {
+        int lastItem = -1;
+        for (int position = index.getCellStart(cell);
+            position < index.getCellEnd(cell);
+            position++) {
+          int item = index.getItem(position);
+          assertThat(item).isGreaterThan(lastItem);
+          listed[item] = true;
+          lastItem = item;
+        }
+      }
+      for (int item = 0; item < itemCount; item++) {
+        if (contains(bounds, item, x, y)) {
+          assertThat(listed[item]).isTrue();
+        }
+      }
+    }
+  }
+
+  private static boolean contains(float[] bounds, int item, float x, float y) {
+    return bounds[item * 4] <= x && x < bounds[item * 4 + 2] &&
+        bounds[item * 4 + 1] <= y && y < bounds[item * 4 + 3];
+  }
+
+  private static void setBounds(
+      float[] bounds,
+      int item,
+      float left,
+      float top,
+      float right,
+      float bottom) {
+    bounds[item * 4] = left;
+    bounds[item * 4 + 1] = top;
+    bounds[item * 4 + 2] = right;
+    bounds[item * 4 + 3] = bottom;
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.Random;
+
+import android.graphics.Rect;
+
+import com.facebook.react.views.view.ReactViewGroup;
+
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Compares finding touch targets in a dense grid of tiles with {@link TouchTargetHelper} by
+ * checking every child of a view, and by using the children index of {@link ReactViewGroup}. Both
+ * must find the same targets; the time spent in each mode is printed.
+ *
+ * This is a benchmark rather than a test, so it is ignored by default. Remove the @Ignore to run
+ * it locally. {@link TouchTargetIndexTest} checks the same targets on every run.
+ */
+@Ignore("Benchmark, run manually")
+@RunWith(RobolectricTestRunner.class)
+public class TouchTargetBenchmarkTest {
+
+  private static final int ROWS = 30;
+  private static final int COLUMNS = 20;
+  private static final int TILE_SIZE = 50;
+  private static final int TOUCH_COUNT = 2000;
+  private static final int WARMUP_ITERATIONS = 2;
+  private static final int ITERATIONS = 5;
+
+  private static final int ROOT_TAG = 1;
+  private static final int BACKGROUND_TAG = 2;
+  private static final int FIRST_TILE_TAG = 1000;
+  private static final int FIRST_LABEL_TAG = 10000;
+
+  @After
+  public void tearDown() {
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+  }
+
+  @Test
+  public void testGridTouchTargets() {
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+    ReactViewGroup linearRoot = createGrid();
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    ReactViewGroup indexedRoot = createGrid();
+    assertThat(indexedRoot.getChildrenIndex()).isNotNull();
+
+    Random random = new Random(42);
+    float[] touches = new float[TOUCH_COUNT * 2];
+    for (int i = 0; i < touches.length; i += 2) {
+      touches[i] = random.nextFloat() * COLUMNS * TILE_SIZE;
+      touches[i + 1] = random.nextFloat() * ROWS * TILE_SIZE;
+    }
+
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+    int[] linearTargets = new int[TOUCH_COUNT];
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      findTargets(linearRoot, touches, linearTargets);
+    }
+    long linearTimeNs = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      linearTimeNs += findTargets(linearRoot, touches, linearTargets);
+    }
+
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    int[] indexedTargets = new int[TOUCH_COUNT];
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      findTargets(indexedRoot, touches, indexedTargets);
+    }
+    long indexedTimeNs = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      indexedTimeNs += findTargets(indexedRoot, touches, indexedTargets);
+    }
+
+    assertThat(indexedTargets).isEqualTo(linearTargets);
+    System.out.println(
+        "Touch targets in a grid of " + (ROWS * COLUMNS) + " tiles: linear " +
+            (linearTimeNs / ITERATIONS / 1000) + "us, indexed " +
+            (indexedTimeNs / ITERATIONS / 1000) + "us per " + TOUCH_COUNT + " touches");
+  }
+
+  @Test
+  public void testIndexFollowsLayoutAndHitSlop() {
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    ReactViewGroup root = createGrid();
+    // Below the label of the tile
+    float touchY = TILE_SIZE - 15;
+    assertThat(TouchTargetHelper.findTargetTagForTouch(1, touchY, root)).isEqualTo(FIRST_TILE_TAG);
+
+    // Move the last tile, which is on top of all the others, over the first one
+    ReactViewGroup lastTile = (ReactViewGroup) root.getChildAt(root.getChildCount() - 1);
+    float lastTileX = lastTile.getLeft() + 1;
+    float lastTileY = lastTile.getTop() + touchY;
+    lastTile.layout(0, 0, TILE_SIZE - 10, TILE_SIZE - 10);
+    assertThat(TouchTargetHelper.findTargetTagForTouch(1, touchY, root))
+        .isEqualTo(lastTile.getId());
+    assertThat(TouchTargetHelper.findTargetTagForTouch(lastTileX, lastTileY, root))
+        .isEqualTo(BACKGROUND_TAG);
+
+    // There is a 10px gap below each tile, which the hit slop of a tile can cover
+    ReactViewGroup tile = (ReactViewGroup) root.getChildAt(root.getChildCount() - 2);
+    float gapX = tile.getLeft() + 1;
+    float gapY = tile.getBottom() + 5;
+    assertThat(TouchTargetHelper.findTargetTagForTouch(gapX, gapY, root))
+        .isEqualTo(BACKGROUND_TAG);
+    tile.setHitSlopRect(new Rect(0, 0, 0, 10));
+    assertThat(TouchTargetHelper.findTargetTagForTouch(gapX, gapY, root)).isEqualTo(tile.getId());
+  }
+
+  private static long findTargets(ReactViewGroup root, float[] touches, int[] outTargets) {
+    long startTime = System.nanoTime();
+    for (int i = 0; i < outTargets.length; i++) {
+      outTargets[i] =
+          TouchTargetHelper.findTargetTagForTouch(touches[i * 2], touches[i * 2 + 1], root);
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  /**
+   * Creates a root with a background behind a grid of tiles, each with a label, with a 10px gap
+   * between the tiles.
+   */
+  private static ReactViewGroup createGrid() {
+    ReactViewGroup root = createView(ROOT_TAG);
+    root.layout(0, 0, COLUMNS * TILE_SIZE, ROWS * TILE_SIZE);
+
+    ReactViewGroup background = createView(BACKGROUND_TAG);
+    root.addView(background);
+    background.layout(0, 0, COLUMNS * TILE_SIZE, ROWS * TILE_SIZE);
+
+    for (int row = 0; row < ROWS; row++) {
+      for (int column = 0; column < COLUMNS; column++) {
+        int tile = row * COLUMNS + column;
+        ReactViewGroup tileView = createView(FIRST_TILE_TAG + tile);
+        root.addView(tileView);
+        tileView.layout(
+            column * TILE_SIZE,
+            row * TILE_SIZE,
+            (column + 1) * TILE_SIZE - 10,
+            (row + 1) * TILE_SIZE - 10);
+
+        ReactViewGroup labelView = createView(FIRST_LABEL_TAG + tile);
+        tileView.addView(labelView);
+        labelView.layout(0, 0, TILE_SIZE - 10, TILE_SIZE / 2);
+      }
+    }
+    return root;
+  }
+
+  private static ReactViewGroup createView(int tag) {
+    ReactViewGroup view = new ReactViewGroup(RuntimeEnvironment.application);
+    view.setId(tag);
+    return view;
+  }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.Random;
+
+import android.graphics.Rect;
+
+import com.facebook.react.views.view.ReactViewGroup;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Checks that finding touch targets in a dense grid of tiles with {@link TouchTargetHelper} gives
+ * the same targets when checking every child of a view, and when using the children index of
+ * {@link ReactViewGroup}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TouchTargetIndexTest {
+
+  private static final int ROWS = 30;
+  private static final int COLUMNS = 20;
+  private static final int TILE_SIZE = 50;
+  private static final int TOUCH_COUNT = 2000;
+
+  private static final int ROOT_TAG = 1;
+  private static final int BACKGROUND_TAG = 2;
+  private static final int FIRST_TILE_TAG = 1000;
+  private static final int FIRST_LABEL_TAG = 10000;
+
+  @After
+  public void tearDown() {
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+  }
+
+  @Test
+  public void testGridTouchTargets() {
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+    ReactViewGroup linearRoot = createGrid();
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    ReactViewGroup indexedRoot = createGrid();
+    assertThat(indexedRoot.getChildrenIndex()).isNotNull();
+
+    Random random = new Random(42);
+    float[] touches = new float[TOUCH_COUNT * 2];
+    for (int i = 0; i < touches.length; i += 2) {
+      touches[i] = random.nextFloat() * COLUMNS * TILE_SIZE;
+      touches[i + 1] = random.nextFloat() * ROWS * TILE_SIZE;
+    }
+
+    TouchTargetHelper.setSpatialIndexEnabled(false);
+    int[] linearTargets = findTargets(linearRoot, touches);
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    int[] indexedTargets = findTargets(indexedRoot, touches);
+
+    assertThat(indexedTargets).isEqualTo(linearTargets);
+  }
+
+  @Test
+  public void testIndexFollowsLayoutAndHitSlop() {
+    TouchTargetHelper.setSpatialIndexEnabled(true);
+    ReactViewGroup root = createGrid();
+    // Below the label of the tile
+    float touchY = TILE_SIZE - 15;
+    assertThat(TouchTargetHelper.findTargetTagForTouch(1, touchY, root)).isEqualTo(FIRST_TILE_TAG);
+
+    // Move the last tile, which is on top of all the others, over the first one
+    ReactViewGroup lastTile = (ReactViewGroup) root.getChildAt(root.getChildCount() - 1);
+    float lastTileX = lastTile.getLeft() + 1;
+    float lastTileY = lastTile.getTop() + touchY;
+    lastTile.layout(0, 0, TILE_SIZE - 10, TILE_SIZE - 10);
+    assertThat(TouchTargetHelper.findTargetTagForTouch(1, touchY, root))
+        .isEqualTo(lastTile.getId());
+    assertThat(TouchTargetHelper.findTargetTagForTouch(lastTileX, lastTileY, root))
+        .isEqualTo(BACKGROUND_TAG);
+
+    // There is a 10px gap below each tile, which the hit slop of a tile can cover
+    ReactViewGroup tile = (ReactViewGroup) root.getChildAt(root.getChildCount() - 2);
+    float gapX = tile.getLeft() + 1;
+    float gapY = tile.getBottom() + 5;
+    assertThat(TouchTargetHelper.findTargetTagForTouch(gapX, gapY, root))
+        .isEqualTo(BACKGROUND_TAG);
+    tile.setHitSlopRect(new Rect(0, 0, 0, 10));
+    assertThat(TouchTargetHelper.findTargetTagForTouch(gapX, gapY, root)).isEqualTo(tile.getId());
+  }
+
+  private static int[] findTargets(ReactViewGroup root, float[] touches) {
+    int[] targets = new int[touches.length / 2];
+    for (int i = 0; i < targets.length; i++) {
+      targets[i] =
+          TouchTargetHelper.findTargetTagForTouch(touches[i * 2], touches[i * 2 + 1], root);
+    }
+    return targets;
+  }
+
+  /**
+   * Creates a root with a background behind a grid of tiles, each with a label, with a 10px gap
+   * between the tiles.
+   */
+  private static ReactViewGroup createGrid() {
+    ReactViewGroup root = createView(ROOT_TAG);
+    root.layout(0, 0, COLUMNS * TILE_SIZE, ROWS * TILE_SIZE);
+
+    ReactViewGroup background = createView(BACKGROUND_TAG);
+    root.addView(background);
+    background.layout(0, 0, COLUMNS * TILE_SIZE, ROWS * TILE_SIZE);
+
+    for (int row = 0; row < ROWS; row++) {
+      for (int column = 0; column < COLUMNS; column++) {
+        int tile = row * COLUMNS + column;
+        ReactViewGroup tileView = createView(FIRST_TILE_TAG + tile);
+        root.addView(tileView);
+        tileView.layout(
+            column * TILE_SIZE,
+            row * TILE_SIZE,
+            (column + 1) * TILE_SIZE - 10,
+            (row + 1) * TILE_SIZE - 10);
+
+        ReactViewGroup labelView = createView(FIRST_LABEL_TAG + tile);
+        tileView.addView(labelView);
+        labelView.layout(0, 0, TILE_SIZE - 10, TILE_SIZE / 2);
+      }
+    }
+    return root;
+  }
+
+  private static ReactViewGroup createView(int tag) {
+    ReactViewGroup view = new ReactViewGroup(RuntimeEnvironment.application);
+    view.setId(tag);
+    return view;
+  }
+}
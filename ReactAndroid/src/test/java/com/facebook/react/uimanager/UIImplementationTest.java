@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import com.facebook.react.ReactRootView;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactTestHelper;
+import com.facebook.react.views.view.ReactViewManager;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the layout updates {@link UIImplementation} receives from native animations.
+ */
+@PrepareForTest({Arguments.class, ReactChoreographer.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class UIImplementationTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ReactApplicationContext mReactContext;
+  private ArrayList<Choreographer.FrameCallback> mPendingChoreographerCallbacks;
+  private UIManagerModule mUIManager;
+  private UIImplementation mUIImplementation;
+  private View mView;
+  private int mViewTag;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class, ReactChoreographer.class);
+
+    ReactChoreographer choreographerMock = mock(ReactChoreographer.class);
+    PowerMockito.when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyArray();
+      }
+    });
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+    PowerMockito.when(ReactChoreographer.getInstance()).thenReturn(choreographerMock);
+
+    mPendingChoreographerCallbacks = new ArrayList<>();
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mPendingChoreographerCallbacks
+            .add((Choreographer.FrameCallback) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(choreographerMock).postFrameCallback(
+        any(ReactChoreographer.CallbackType.class),
+        any(Choreographer.FrameCallback.class));
+
+    CatalystInstance catalystInstanceMock = ReactTestHelper.createMockCatalystInstance();
+    mReactContext = new ReactApplicationContext(RuntimeEnvironment.application);
+    mReactContext.initializeWithInstance(catalystInstanceMock);
+
+    UIManagerModule uiManagerModuleMock = mock(UIManagerModule.class);
+    when(catalystInstanceMock.getNativeModule(UIManagerModule.class))
+        .thenReturn(uiManagerModuleMock);
+
+    mUIManager = new UIManagerModule(
+        mReactContext,
+        Arrays.<ViewManager>asList(new ReactViewManager()),
+        new UIImplementationProvider(),
+        false);
+    mUIManager.onHostResume();
+    mUIImplementation = mUIManager.getUIImplementation();
+
+    ReactRootView rootView =
+        new ReactRootView(RuntimeEnvironment.application.getApplicationContext());
+    int rootTag = mUIManager.addMeasuredRootView(rootView);
+    mViewTag = rootTag + 1;
+    mUIManager.createView(
+        mViewTag,
+        ReactViewManager.REACT_CLASS,
+        rootTag,
+        JavaOnlyMap.of("collapsable", false, "width", 10.0, "height", 10.0));
+    mUIManager.manageChildren(
+        rootTag,
+        null,
+        null,
+        JavaOnlyArray.of(mViewTag),
+        JavaOnlyArray.of(0),
+        null);
+    mUIManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+    mView = rootView.getChildAt(0);
+  }
+
+  @Test
+  public void testAnimatedLayoutUpdateIsDispatched() {
+    mUIImplementation.enqueueAnimatedLayoutUpdate(mViewTag, JavaOnlyMap.of("width", 50.0), null);
+    runNativeModulesQueueTasks();
+
+    assertThat(mUIImplementation.resolveShadowNode(mViewTag).getStyleWidth().value)
+        .isEqualTo(50f);
+    // Like the updates of a batch from JS, the new layout is applied on the next frame
+    assertThat(mView.getWidth()).isEqualTo(10);
+    executePendingChoreographerCallbacks();
+    assertThat(mView.getWidth()).isEqualTo(50);
+  }
+
+  @Test
+  public void testAnimatedLayoutUpdateIsLeftToJSBatchInProgress() {
+    // First part of a batch from JS, the rest of it arrives separately
+    mUIManager.updateView(mViewTag, ReactViewManager.REACT_CLASS, JavaOnlyMap.of("height", 30.0));
+    assertThat(mUIImplementation.isJSBatchInProgress()).isTrue();
+
+    mUIImplementation.enqueueAnimatedLayoutUpdate(mViewTag, JavaOnlyMap.of("width", 50.0), null);
+    runNativeModulesQueueTasks();
+    executePendingChoreographerCallbacks();
+
+    assertThat(mUIImplementation.resolveShadowNode(mViewTag).getStyleWidth().value)
+        .isEqualTo(50f);
+    assertThat(mView.getWidth()).isEqualTo(10);
+    assertThat(mView.getHeight()).isEqualTo(10);
+
+    mUIManager.onBatchComplete();
+    assertThat(mUIImplementation.isJSBatchInProgress()).isFalse();
+    executePendingChoreographerCallbacks();
+
+    assertThat(mView.getWidth()).isEqualTo(50);
+    assertThat(mView.getHeight()).isEqualTo(30);
+  }
+
+  @Test
+  public void testAnimatedViewPropsAreAppliedWithLayout() {
+    mUIImplementation.enqueueAnimatedLayoutUpdate(
+        mViewTag,
+        JavaOnlyMap.of("width", 50.0),
+        new ReactStylesDiffMap(JavaOnlyMap.of("opacity", 0.5)));
+    runNativeModulesQueueTasks();
+
+    assertThat(mView.getAlpha()).isEqualTo(1f);
+    assertThat(mView.getWidth()).isEqualTo(10);
+    executePendingChoreographerCallbacks();
+    assertThat(mView.getAlpha()).isEqualTo(0.5f);
+    assertThat(mView.getWidth()).isEqualTo(50);
+  }
+
+  @Test
+  public void testAnimatedLayoutUpdateOfRemovedViewIsIgnored() {
+    mUIManager.manageChildren(mViewTag - 1, null, null, null, null, JavaOnlyArray.of(0));
+    mUIManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+
+    mUIImplementation.enqueueAnimatedLayoutUpdate(mViewTag, JavaOnlyMap.of("width", 50.0), null);
+    runNativeModulesQueueTasks();
+    executePendingChoreographerCallbacks();
+
+    assertThat(mUIImplementation.isJSBatchInProgress()).isFalse();
+  }
+
+  private void runNativeModulesQueueTasks() {
+    // The native modules queue runs on the main looper in tests
+    ShadowLooper.runUiThreadTasks();
+  }
+
+  private void executePendingChoreographerCallbacks() {
+    ArrayList<Choreographer.FrameCallback> callbacks =
+        new ArrayList<>(mPendingChoreographerCallbacks);
+    mPendingChoreographerCallbacks.clear();
+    for (Choreographer.FrameCallback frameCallback : callbacks) {
+      frameCallback.doFrame(0);
+    }
+  }
+}
@@ -654,6 +654,48 @@ public class UIManagerModuleTest {
     assertThat(((ViewGroup) rootView.getChildAt(0)).getChildCount()).isEqualTo(0);
   }
 
+  /**
+   * Verifies that layout is only computed for root views that have updates.
+   */
+  @Test
+  public void testLayoutSkipsRootsWithoutUpdates() {
+    UIManagerModule uiManager = getUIManagerModule();
+    UIImplementation uiImplementation = uiManager.getUIImplementation();
+
+    ReactRootView firstRootView =
+        new ReactRootView(RuntimeEnvironment.application.getApplicationContext());
+    int firstRootTag = uiManager.addMeasuredRootView(firstRootView);
+    ReactRootView secondRootView =
+        new ReactRootView(RuntimeEnvironment.application.getApplicationContext());
+    int secondRootTag = uiManager.addMeasuredRootView(secondRootView);
+    int viewTag = secondRootTag + 1;
+
+    uiManager.createView(
+        viewTag,
+        ReactViewManager.REACT_CLASS,
+        firstRootTag,
+        JavaOnlyMap.of("collapsable", false));
+    addChild(uiManager, firstRootTag, viewTag, 0);
+
+    uiManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+
+    assertThat(uiImplementation.getRootLayoutCount(firstRootTag)).isEqualTo(1.0);
+    assertThat(uiImplementation.getRootLayoutCount(secondRootTag)).isEqualTo(1.0);
+
+    uiManager.updateView(
+        viewTag,
+        ReactViewManager.REACT_CLASS,
+        JavaOnlyMap.of("width", 10.0));
+
+    uiManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+
+    assertThat(uiImplementation.getRootLayoutCount(firstRootTag)).isEqualTo(2.0);
+    assertThat(uiImplementation.getRootLayoutCount(secondRootTag)).isEqualTo(1.0);
+    assertThat(uiImplementation.getSkippedRootLayoutCount()).isEqualTo(1.0);
+  }
+
   /**
    * Assuming no other views have been created, the root view will have tag 1, Text tag 2, and
    * RawText tag 3.
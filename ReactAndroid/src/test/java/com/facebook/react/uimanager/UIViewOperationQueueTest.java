@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import com.facebook.react.ReactRootView;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactTestHelper;
+import com.facebook.react.views.view.ReactViewManager;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link UIViewOperationQueue}. Frames are run with a frame time of 0, so with frame
+ * budgeted dispatch enabled the budget is always spent and a single batch runs per frame.
+ */
+@PrepareForTest({Arguments.class, ReactChoreographer.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class UIViewOperationQueueTest {
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ArrayList<Choreographer.FrameCallback> mPendingChoreographerCallbacks;
+  private UIManagerModule mUIManager;
+  private UIImplementation mUIImplementation;
+  private int mRootTag;
+  private View mView;
+  private int mViewTag;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class, ReactChoreographer.class);
+
+    ReactChoreographer choreographerMock = mock(ReactChoreographer.class);
+    PowerMockito.when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyArray();
+      }
+    });
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+    PowerMockito.when(ReactChoreographer.getInstance()).thenReturn(choreographerMock);
+
+    mPendingChoreographerCallbacks = new ArrayList<>();
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mPendingChoreographerCallbacks
+            .add((Choreographer.FrameCallback) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(choreographerMock).postFrameCallback(
+        any(ReactChoreographer.CallbackType.class),
+        any(Choreographer.FrameCallback.class));
+
+    CatalystInstance catalystInstanceMock = ReactTestHelper.createMockCatalystInstance();
+    ReactApplicationContext reactContext =
+        new ReactApplicationContext(RuntimeEnvironment.application);
+    reactContext.initializeWithInstance(catalystInstanceMock);
+
+    UIManagerModule uiManagerModuleMock = mock(UIManagerModule.class);
+    when(catalystInstanceMock.getNativeModule(UIManagerModule.class))
+        .thenReturn(uiManagerModuleMock);
+
+    mUIManager = new UIManagerModule(
+        reactContext,
+        Arrays.<ViewManager>asList(new ReactViewManager()),
+        new UIImplementationProvider(),
+        false);
+    mUIManager.onHostResume();
+    mUIImplementation = mUIManager.getUIImplementation();
+
+    ReactRootView rootView =
+        new ReactRootView(RuntimeEnvironment.application.getApplicationContext());
+    mRootTag = mUIManager.addMeasuredRootView(rootView);
+    mViewTag = mRootTag + 1;
+    mUIManager.createView(
+        mViewTag,
+        ReactViewManager.REACT_CLASS,
+        mRootTag,
+        JavaOnlyMap.of("collapsable", false, "width", 10.0, "height", 10.0));
+    mUIManager.manageChildren(
+        mRootTag,
+        null,
+        null,
+        JavaOnlyArray.of(mViewTag),
+        JavaOnlyArray.of(0),
+        null);
+    mUIManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+    mView = rootView.getChildAt(0);
+  }
+
+  @Test
+  public void testBudgetedDispatchSpreadsBatchesOverFrames() {
+    mUIImplementation.setFrameBudgetedDispatchEnabled(true);
+    updateWidth(30.0);
+    updateWidth(50.0);
+
+    executePendingChoreographerCallbacks();
+    assertThat(mView.getWidth()).isEqualTo(30);
+    executePendingChoreographerCallbacks();
+    assertThat(mView.getWidth()).isEqualTo(50);
+  }
+
+  @Test
+  public void testMeasureIsNotDeferredPastLaterBatches() {
+    mUIImplementation.setFrameBudgetedDispatchEnabled(true);
+    RecordingCallback firstMeasure = new RecordingCallback();
+    RecordingCallback secondMeasure = new RecordingCallback();
+    mUIManager.measure(mViewTag, firstMeasure);
+    updateWidth(30.0);
+    mUIManager.measure(mViewTag, secondMeasure);
+    updateWidth(50.0);
+
+    executePendingChoreographerCallbacks();
+    // Only the first batch ran, and its measure callback saw the layout from before it
+    assertThat(firstMeasure.mArgs).isNotNull();
+    assertThat(firstMeasure.mArgs[2]).isEqualTo(10f);
+    assertThat(secondMeasure.mArgs).isNull();
+
+    executePendingChoreographerCallbacks();
+    assertThat(secondMeasure.mArgs).isNotNull();
+    assertThat(secondMeasure.mArgs[2]).isEqualTo(30f);
+    assertThat(firstMeasure.mInvocationCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testMeasureBeforeRemovalSeesTheView() {
+    mUIImplementation.setFrameBudgetedDispatchEnabled(true);
+    RecordingCallback measure = new RecordingCallback();
+    RecordingCallback measureInWindow = new RecordingCallback();
+    mUIManager.measure(mViewTag, measure);
+    mUIManager.measureInWindow(mViewTag, measureInWindow);
+    mUIManager.onBatchComplete();
+    mUIManager.manageChildren(mRootTag, null, null, null, null, JavaOnlyArray.of(0));
+    mUIManager.onBatchComplete();
+
+    executePendingChoreographerCallbacks();
+    executePendingChoreographerCallbacks();
+
+    assertThat(measure.mArgs).hasSize(6);
+    assertThat(measure.mArgs[2]).isEqualTo(10f);
+    assertThat(measureInWindow.mArgs).hasSize(4);
+    assertThat(measureInWindow.mArgs[2]).isEqualTo(10f);
+  }
+
+  @Test
+  public void testRecycledOperationsAreReused() {
+    mUIImplementation.setOperationRecyclingEnabled(true);
+    UIViewOperationQueue operationsQueue = mUIImplementation.getUIViewOperationQueue();
+    updateWidth(30.0);
+    executePendingChoreographerCallbacks();
+    long misses = operationsQueue.getOperationPoolMisses();
+    long hits = operationsQueue.getOperationPoolHits();
+    assertThat(misses).isGreaterThan(0);
+
+    // The operations and the buffer of the first batch were released once it ran
+    updateWidth(50.0);
+    executePendingChoreographerCallbacks();
+    assertThat(operationsQueue.getOperationPoolMisses()).isEqualTo(misses);
+    assertThat(operationsQueue.getOperationPoolHits()).isGreaterThan(hits);
+    assertThat(mView.getWidth()).isEqualTo(50);
+  }
+
+  @Test
+  public void testRecycledOperationsAreReset() {
+    mUIImplementation.setOperationRecyclingEnabled(true);
+    mUIManager.updateView(mViewTag, ReactViewManager.REACT_CLASS, JavaOnlyMap.of("opacity", 0.5));
+    mUIManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+    assertThat(mView.getAlpha()).isEqualTo(0.5f);
+
+    // A reused operation only applies the properties of its own update
+    mView.setAlpha(1f);
+    mUIManager.updateView(
+        mViewTag,
+        ReactViewManager.REACT_CLASS,
+        JavaOnlyMap.of("accessibilityLabel", "label"));
+    mUIManager.onBatchComplete();
+    executePendingChoreographerCallbacks();
+    assertThat(mUIImplementation.getUIViewOperationQueue().getOperationPoolHits())
+        .isGreaterThan(0);
+    assertThat(mView.getContentDescription()).isEqualTo("label");
+    assertThat(mView.getAlpha()).isEqualTo(1f);
+  }
+
+  private void updateWidth(double width) {
+    mUIManager.updateView(mViewTag, ReactViewManager.REACT_CLASS, JavaOnlyMap.of("width", width));
+    mUIManager.onBatchComplete();
+  }
+
+  private void executePendingChoreographerCallbacks() {
+    ArrayList<Choreographer.FrameCallback> callbacks =
+        new ArrayList<>(mPendingChoreographerCallbacks);
+    mPendingChoreographerCallbacks.clear();
+    for (Choreographer.FrameCallback frameCallback : callbacks) {
+      frameCallback.doFrame(0);
+    }
+  }
+
+  private static class RecordingCallback implements Callback {
+    private Object[] mArgs;
+    private int mInvocationCount;
+
+    @Override
+    public void invoke(Object... args) {
+      mArgs = args;
+      mInvocationCount++;
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import java.util.ArrayList;
+
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactTestHelper;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.uimanager.ReactChoreographer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link EventDispatcher}, with and without batched dispatch.
+ */
+@PrepareForTest({Arguments.class, ReactChoreographer.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class EventDispatcherTest {
+
+  private static final String EVENT_NAME = "topTestEvent";
+  private static final String TOUCHES_EVENT_NAME = "topTouchStart";
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private ArrayList<Choreographer.FrameCallback> mPendingChoreographerCallbacks;
+  private RCTEventEmitter mEventEmitter;
+  private RCTEventBatchEmitter mEventBatchEmitter;
+  private EventDispatcher mEventDispatcher;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class, ReactChoreographer.class);
+
+    ReactChoreographer choreographerMock = mock(ReactChoreographer.class);
+    PowerMockito.when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyArray();
+      }
+    });
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        return new JavaOnlyMap();
+      }
+    });
+    PowerMockito.when(ReactChoreographer.getInstance()).thenReturn(choreographerMock);
+
+    mPendingChoreographerCallbacks = new ArrayList<>();
+    doAnswer(new Answer() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mPendingChoreographerCallbacks
+            .add((Choreographer.FrameCallback) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(choreographerMock).postFrameCallback(
+        any(ReactChoreographer.CallbackType.class),
+        any(Choreographer.FrameCallback.class));
+
+    mEventEmitter = mock(RCTEventEmitter.class);
+    mEventBatchEmitter = mock(RCTEventBatchEmitter.class);
+    CatalystInstance catalystInstanceMock = ReactTestHelper.createMockCatalystInstance();
+    when(catalystInstanceMock.getJSModule(RCTEventEmitter.class)).thenReturn(mEventEmitter);
+    when(catalystInstanceMock.getJSModule(RCTEventBatchEmitter.class))
+        .thenReturn(mEventBatchEmitter);
+    ReactApplicationContext reactContext =
+        new ReactApplicationContext(RuntimeEnvironment.application);
+    reactContext.initializeWithInstance(catalystInstanceMock);
+
+    mEventDispatcher = new EventDispatcher(reactContext);
+    mEventDispatcher.onHostResume();
+  }
+
+  @Test
+  public void testDispatchesEachEvent() {
+    mEventDispatcher.dispatchEvent(new TestEvent(1));
+    mEventDispatcher.dispatchEvent(new TestTouchesEvent(2));
+    runFrame();
+
+    InOrder inOrder = inOrder(mEventEmitter);
+    inOrder.verify(mEventEmitter).receiveEvent(1, EVENT_NAME, null);
+    inOrder.verify(mEventEmitter).receiveTouches(
+        any(String.class),
+        any(WritableArray.class),
+        any(WritableArray.class));
+    verifyZeroInteractions(mEventBatchEmitter);
+  }
+
+  @Test
+  public void testBatchedDispatchSendsAllEventsOfAFrameAtOnce() {
+    mEventDispatcher.setBatchedDispatchEnabled(true);
+    mEventDispatcher.dispatchEvent(new TestEvent(1));
+    mEventDispatcher.dispatchEvent(new TestTouchesEvent(2));
+    mEventDispatcher.dispatchEvent(new TestEvent(3));
+    runFrame();
+
+    verifyZeroInteractions(mEventEmitter);
+    ArgumentCaptor<WritableArray> batchCaptor = ArgumentCaptor.forClass(WritableArray.class);
+    verify(mEventBatchEmitter).receiveEventBatch(batchCaptor.capture());
+    ReadableArray batch = batchCaptor.getValue();
+    assertThat(batch.size()).isEqualTo(3);
+    assertEventEntry(batch.getArray(0), 1);
+    assertEventEntry(batch.getArray(2), 3);
+
+    ReadableArray touchesEntry = batch.getArray(1);
+    assertThat(touchesEntry.getInt(0)).isEqualTo(BatchingEventEmitter.BATCH_ENTRY_TOUCHES);
+    assertThat(touchesEntry.getString(1)).isEqualTo(TOUCHES_EVENT_NAME);
+    assertThat(touchesEntry.getArray(2).size()).isEqualTo(1);
+    assertThat(touchesEntry.getArray(3).getInt(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void testBatchedDispatchCanBeDisabled() {
+    mEventDispatcher.setBatchedDispatchEnabled(true);
+    mEventDispatcher.dispatchEvent(new TestEvent(1));
+    runFrame();
+    mEventDispatcher.setBatchedDispatchEnabled(false);
+    mEventDispatcher.dispatchEvent(new TestEvent(2));
+    runFrame();
+
+    verify(mEventBatchEmitter).receiveEventBatch(any(WritableArray.class));
+    verify(mEventEmitter).receiveEvent(2, EVENT_NAME, null);
+  }
+
+  private static void assertEventEntry(ReadableArray entry, int viewTag) {
+    assertThat(entry.getInt(0)).isEqualTo(BatchingEventEmitter.BATCH_ENTRY_EVENT);
+    assertThat(entry.getInt(1)).isEqualTo(viewTag);
+    assertThat(entry.getString(2)).isEqualTo(EVENT_NAME);
+    assertThat(entry.isNull(3)).isTrue();
+  }
+
+  /**
+   * Runs the pending frame callbacks, which hand the staged events over to the JS thread, and then
+   * the JS thread tasks, which deliver them.
+   */
+  private void runFrame() {
+    ArrayList<Choreographer.FrameCallback> callbacks =
+        new ArrayList<>(mPendingChoreographerCallbacks);
+    mPendingChoreographerCallbacks.clear();
+    for (Choreographer.FrameCallback frameCallback : callbacks) {
+      frameCallback.doFrame(0);
+    }
+    ShadowLooper.runUiThreadTasks();
+  }
+
+  private static class TestEvent extends Event<TestEvent> {
+
+    public TestEvent(int viewTag) {
+      super(viewTag);
+    }
+
+    @Override
+    public String getEventName() {
+      return EVENT_NAME;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+      rctEventEmitter.receiveEvent(getViewTag(), getEventName(), null);
+    }
+  }
+
+  private static class TestTouchesEvent extends Event<TestTouchesEvent> {
+
+    public TestTouchesEvent(int viewTag) {
+      super(viewTag);
+    }
+
+    @Override
+    public String getEventName() {
+      return TOUCHES_EVENT_NAME;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+      rctEventEmitter.receiveTouches(
+          getEventName(),
+          JavaOnlyArray.of(JavaOnlyMap.of("target", getViewTag())),
+          JavaOnlyArray.of(0));
+    }
+  }
+}
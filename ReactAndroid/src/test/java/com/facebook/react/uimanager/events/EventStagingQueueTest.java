@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EventStagingQueue}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EventStagingQueueTest {
+
+  private static final int CAPACITY = 4;
+
+  private static class TestEvent extends Event<TestEvent> {
+
+    private TestEvent(int viewTag) {
+      super(viewTag);
+    }
+
+    @Override
+    public String getEventName() {
+      return "testEvent";
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+    }
+  }
+
+  @Test
+  public void testPollsInOrderOfAdding() {
+    EventStagingQueue queue = new EventStagingQueue(CAPACITY);
+    for (int i = 0; i < CAPACITY; i++) {
+      queue.add(new TestEvent(i));
+    }
+
+    assertPolls(queue, 0, CAPACITY);
+    assertThat(queue.poll()).isNull();
+  }
+
+  @Test
+  public void testKeepsOrderAfterOverflow() {
+    EventStagingQueue queue = new EventStagingQueue(CAPACITY);
+    int tag = 0;
+    // Fill the ring and put one event in the overflow list
+    for (; tag < CAPACITY + 1; tag++) {
+      queue.add(new TestEvent(tag));
+    }
+
+    // Free a slot in the ring, the next events must still be polled after the overflowed one
+    assertPolls(queue, 0, 1);
+    for (; tag < CAPACITY + 3; tag++) {
+      queue.add(new TestEvent(tag));
+    }
+
+    assertPolls(queue, 1, tag);
+    assertThat(queue.poll()).isNull();
+  }
+
+  @Test
+  public void testUsesRingAgainAfterOverflowIsDrained() {
+    EventStagingQueue queue = new EventStagingQueue(CAPACITY);
+    for (int i = 0; i < CAPACITY + 2; i++) {
+      queue.add(new TestEvent(i));
+    }
+    assertPolls(queue, 0, CAPACITY + 2);
+    assertThat(queue.poll()).isNull();
+
+    for (int i = 0; i < CAPACITY; i++) {
+      queue.add(new TestEvent(i));
+    }
+    assertPolls(queue, 0, CAPACITY);
+    assertThat(queue.poll()).isNull();
+  }
+
+  private static void assertPolls(EventStagingQueue queue, int fromTag, int toTag) {
+    for (int i = fromTag; i < toTag; i++) {
+      Event event = queue.poll();
+      assertThat(event).isNotNull();
+      assertThat(event.getViewTag()).isEqualTo(i);
+    }
+  }
+}
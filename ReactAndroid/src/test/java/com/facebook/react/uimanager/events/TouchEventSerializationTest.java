@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+import com.facebook.react.uimanager.JSTouchDispatcher;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the compact serialization of {@link TouchEvent}s, and the number of objects that each
+ * serialization creates per gesture.
+ */
+@PrepareForTest({Arguments.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+public class TouchEventSerializationTest {
+
+  private static final int TARGET_TAG = 7;
+  private static final int MOVE_COUNT = 100;
+
+  @Rule
+  public PowerMockRule rule = new PowerMockRule();
+
+  private int mCreatedArrayCount;
+  private int mCreatedMapCount;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class);
+    PowerMockito.when(Arguments.createArray()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mCreatedArrayCount++;
+        return new JavaOnlyArray();
+      }
+    });
+    PowerMockito.when(Arguments.createMap()).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        mCreatedMapCount++;
+        return new JavaOnlyMap();
+      }
+    });
+    DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(RuntimeEnvironment.application);
+  }
+
+  @After
+  public void tearDown() {
+    TouchEvent.setCompactSerializationEnabled(false);
+    JSTouchDispatcher.setSkipUnchangedMovesEnabled(false);
+  }
+
+  @Test
+  public void testCompactTouchDataMatchesTouches() {
+    List<TouchEvent> events = createGesture(new TouchEventCoalescingKeyHelper());
+    for (TouchEvent event : events) {
+      RecordingEventEmitter emitter = new RecordingEventEmitter();
+      TouchEvent.setCompactSerializationEnabled(false);
+      event.dispatch(emitter);
+      TouchEvent.setCompactSerializationEnabled(true);
+      event.dispatch(emitter);
+
+      assertThat(emitter.mCompactEventName).isEqualTo(emitter.mEventName);
+      JavaOnlyArray touchData = (JavaOnlyArray) emitter.mTouchData;
+      assertThat(decodeTouches(touchData)).isEqualTo(emitter.mTouches);
+      assertThat(decodeChangedIndices(touchData)).isEqualTo(emitter.mChangedIndices);
+    }
+  }
+
+  @Test
+  public void testCompactSerializationFallsBackToTouches() {
+    List<TouchEvent> events = createGesture(new TouchEventCoalescingKeyHelper());
+    RCTEventEmitter emitter = mock(RCTEventEmitter.class);
+    TouchEvent.setCompactSerializationEnabled(true);
+    for (TouchEvent event : events) {
+      event.dispatch(emitter);
+    }
+
+    verify(emitter, times(events.size())).receiveTouches(
+        anyString(),
+        any(WritableArray.class),
+        any(WritableArray.class));
+  }
+
+  @Test
+  public void testObjectsCreatedPerGesture() {
+    List<TouchEvent> events = createGesture(new TouchEventCoalescingKeyHelper());
+    RecordingEventEmitter emitter = new RecordingEventEmitter();
+
+    TouchEvent.setCompactSerializationEnabled(false);
+    mCreatedArrayCount = 0;
+    mCreatedMapCount = 0;
+    for (TouchEvent event : events) {
+      event.dispatch(emitter);
+    }
+    int touchesObjectCount = mCreatedArrayCount + mCreatedMapCount;
+    // A map per pointer, and two arrays per event
+    assertThat(touchesObjectCount).isEqualTo(events.size() * 3);
+
+    TouchEvent.setCompactSerializationEnabled(true);
+    mCreatedArrayCount = 0;
+    mCreatedMapCount = 0;
+    for (TouchEvent event : events) {
+      event.dispatch(emitter);
+    }
+    int compactObjectCount = mCreatedArrayCount + mCreatedMapCount;
+    // A single array per event
+    assertThat(compactObjectCount).isEqualTo(events.size());
+  }
+
+  @Test
+  public void testSkipsUnchangedMoves() {
+    assertThat(dispatchGestureWithUnchangedMove()).isEqualTo(5);
+    JSTouchDispatcher.setSkipUnchangedMovesEnabled(true);
+    assertThat(dispatchGestureWithUnchangedMove()).isEqualTo(4);
+  }
+
+  /**
+   * Sends a gesture with a move that doesn't move the pointer through a {@link JSTouchDispatcher}.
+   *
+   * @return number of events dispatched
+   */
+  private static int dispatchGestureWithUnchangedMove() {
+    FrameLayout root = new FrameLayout(RuntimeEnvironment.application);
+    root.setId(TARGET_TAG);
+    root.layout(0, 0, 100, 100);
+    JSTouchDispatcher touchDispatcher = new JSTouchDispatcher(root);
+    EventDispatcher eventDispatcher = mock(EventDispatcher.class);
+
+    long downTime = 100;
+    touchDispatcher.handleTouchEvent(
+        MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 10, 10, 0),
+        eventDispatcher);
+    touchDispatcher.handleTouchEvent(
+        MotionEvent.obtain(downTime, downTime + 1, MotionEvent.ACTION_MOVE, 20, 10, 0),
+        eventDispatcher);
+    touchDispatcher.handleTouchEvent(
+        MotionEvent.obtain(downTime, downTime + 2, MotionEvent.ACTION_MOVE, 20, 10, 0),
+        eventDispatcher);
+    touchDispatcher.handleTouchEvent(
+        MotionEvent.obtain(downTime, downTime + 3, MotionEvent.ACTION_MOVE, 30, 10, 0),
+        eventDispatcher);
+    touchDispatcher.handleTouchEvent(
+        MotionEvent.obtain(downTime, downTime + 4, MotionEvent.ACTION_UP, 30, 10, 0),
+        eventDispatcher);
+
+    ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+    verify(eventDispatcher, atLeastOnce()).dispatchEvent(eventCaptor.capture());
+    return eventCaptor.getAllValues().size();
+  }
+
+  private static List<TouchEvent> createGesture(
+      TouchEventCoalescingKeyHelper touchEventCoalescingKeyHelper) {
+    List<TouchEvent> events = new ArrayList<>();
+    long downTime = 100;
+    events.add(
+        createTouchEvent(
+            TouchEventType.START,
+            MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 10, 10, 0),
+            touchEventCoalescingKeyHelper));
+    for (int i = 1; i <= MOVE_COUNT; i++) {
+      events.add(
+          createTouchEvent(
+              TouchEventType.MOVE,
+              MotionEvent.obtain(downTime, downTime + i, MotionEvent.ACTION_MOVE, 10 + i, 10, 0),
+              touchEventCoalescingKeyHelper));
+    }
+    events.add(
+        createTouchEvent(
+            TouchEventType.END,
+            MotionEvent.obtain(
+                downTime,
+                downTime + MOVE_COUNT + 1,
+                MotionEvent.ACTION_UP,
+                10 + MOVE_COUNT,
+                10,
+                0),
+            touchEventCoalescingKeyHelper));
+    return events;
+  }
+
+  private static TouchEvent createTouchEvent(
+      TouchEventType type,
+      MotionEvent motionEvent,
+      TouchEventCoalescingKeyHelper touchEventCoalescingKeyHelper) {
+    // The target view is at (5, 5) in the root view
+    return TouchEvent.obtain(
+        TARGET_TAG,
+        type,
+        motionEvent,
+        motionEvent.getX() - 5,
+        motionEvent.getY() - 5,
+        touchEventCoalescingKeyHelper);
+  }
+
+  private static JavaOnlyArray decodeTouches(JavaOnlyArray touchData) {
+    int target = touchData.getInt(0);
+    double timestamp = touchData.getDouble(1);
+    int pointerCount = touchData.getInt(2);
+    int offset = TouchesHelper.COMPACT_HEADER_SIZE + touchData.getInt(3);
+    JavaOnlyArray touches = new JavaOnlyArray();
+    for (int i = 0; i < pointerCount; i++) {
+      touches.pushMap(
+          JavaOnlyMap.of(
+              "pageX",
+              touchData.getDouble(offset + 1),
+              "pageY",
+              touchData.getDouble(offset + 2),
+              "locationX",
+              touchData.getDouble(offset + 3),
+              "locationY",
+              touchData.getDouble(offset + 4),
+              "target",
+              target,
+              "timestamp",
+              timestamp,
+              "identifier",
+              (double) touchData.getInt(offset)));
+      offset += TouchesHelper.COMPACT_FIELDS_PER_POINTER;
+    }
+    return touches;
+  }
+
+  private static JavaOnlyArray decodeChangedIndices(JavaOnlyArray touchData) {
+    JavaOnlyArray changedIndices = new JavaOnlyArray();
+    int changedIndexCount = touchData.getInt(3);
+    for (int i = 0; i < changedIndexCount; i++) {
+      changedIndices.pushInt(touchData.getInt(TouchesHelper.COMPACT_HEADER_SIZE + i));
+    }
+    return changedIndices;
+  }
+
+  private static class RecordingEventEmitter
+      implements RCTEventEmitter, RCTCompactTouchEventEmitter {
+
+    private @Nullable String mEventName;
+    private @Nullable WritableArray mTouches;
+    private @Nullable WritableArray mChangedIndices;
+    private @Nullable String mCompactEventName;
+    private @Nullable WritableArray mTouchData;
+
+    @Override
+    public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void receiveTouches(
+        String eventName,
+        WritableArray touches,
+        WritableArray changedIndices) {
+      mEventName = eventName;
+      mTouches = touches;
+      mChangedIndices = changedIndices;
+    }
+
+    @Override
+    public void receiveCompactTouches(String eventName, WritableArray touchData) {
+      mCompactEventName = eventName;
+      mTouchData = touchData;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import android.graphics.Color;
+import android.text.Layout;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.style.AbsoluteSizeSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.ImageSpan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link TextLayoutCache}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TextLayoutCacheTest {
+
+  @Test
+  public void testSignatureIgnoresDrawOnlySpans() {
+    SpannableStringBuilder red = createText("Hello", 14);
+    red.setSpan(new ForegroundColorSpan(Color.RED), 0, 5, Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+    red.setSpan(new ReactTagSpan(1), 0, 5, Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+    SpannableStringBuilder blue = createText("Hello", 14);
+    blue.setSpan(new ForegroundColorSpan(Color.BLUE), 0, 5, Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+    blue.setSpan(new ReactTagSpan(2), 0, 5, Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+
+    assertThat(TextLayoutCache.getTextSignature(red))
+        .isEqualTo(TextLayoutCache.getTextSignature(blue));
+  }
+
+  @Test
+  public void testSignatureContainsMetricAffectingSpans() {
+    assertThat(TextLayoutCache.getTextSignature(createText("Hello", 14)))
+        .isNotEqualTo(TextLayoutCache.getTextSignature(createText("Hello", 16)));
+    assertThat(TextLayoutCache.getTextSignature(createText("Hello", 14)))
+        .isNotEqualTo(TextLayoutCache.getTextSignature(createText("Hallo", 14)));
+  }
+
+  @Test
+  public void testUnknownSpansAreNotCached() {
+    SpannableStringBuilder text = createText("Hello", 14);
+    text.setSpan(mock(ImageSpan.class), 0, 1, Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+
+    assertThat(TextLayoutCache.getTextSignature(text)).isNull();
+  }
+
+  @Test
+  public void testLayoutsAreKeyedByWidth() {
+    TextLayoutCache cache = new TextLayoutCache(2);
+    String signature = TextLayoutCache.getTextSignature(createText("Hello", 14));
+    Layout layout = mock(Layout.class);
+
+    cache.put(new TextLayoutCache.Key(signature, 100, 0), layout);
+
+    assertThat(cache.get(new TextLayoutCache.Key(signature, 100, 0))).isSameAs(layout);
+    assertThat(cache.get(new TextLayoutCache.Key(signature, 120, 0))).isNull();
+    assertThat(cache.get(new TextLayoutCache.Key(signature, 100, 1))).isNull();
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testUnconstrainedWidthsShareLayouts() {
+    TextLayoutCache cache = new TextLayoutCache(2);
+    String signature = TextLayoutCache.getTextSignature(createText("Hello", 14));
+    Layout layout = mock(Layout.class);
+
+    cache.put(new TextLayoutCache.Key(signature, -1, 0), layout);
+
+    assertThat(cache.get(new TextLayoutCache.Key(signature, -10, 0))).isSameAs(layout);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedLayouts() {
+    TextLayoutCache cache = new TextLayoutCache(2);
+    String signature = TextLayoutCache.getTextSignature(createText("Hello", 14));
+
+    cache.put(new TextLayoutCache.Key(signature, 100, 0), mock(Layout.class));
+    cache.put(new TextLayoutCache.Key(signature, 200, 0), mock(Layout.class));
+    cache.get(new TextLayoutCache.Key(signature, 100, 0));
+    cache.put(new TextLayoutCache.Key(signature, 300, 0), mock(Layout.class));
+
+    assertThat(cache.getSize()).isEqualTo(2);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+    assertThat(cache.get(new TextLayoutCache.Key(signature, 100, 0))).isNotNull();
+    assertThat(cache.get(new TextLayoutCache.Key(signature, 200, 0))).isNull();
+  }
+
+  private static SpannableStringBuilder createText(String text, int fontSize) {
+    SpannableStringBuilder sb = new SpannableStringBuilder(text);
+    sb.setSpan(
+        new AbsoluteSizeSpan(fontSize),
+        0,
+        text.length(),
+        Spannable.SPAN_INCLUSIVE_EXCLUSIVE);
+    return sb;
+  }
+}
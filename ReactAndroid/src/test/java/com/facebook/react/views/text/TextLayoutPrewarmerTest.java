@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.text;
+
+import android.text.Layout;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link TextLayoutPrewarmer}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TextLayoutPrewarmerTest {
+
+  private static class CountingLayoutBuilder implements TextLayoutPrewarmer.LayoutBuilder {
+    private final Layout mLayout = mock(Layout.class);
+    private int mBuildCount;
+
+    @Override
+    public synchronized Layout buildLayout(Spanned text) {
+      mBuildCount++;
+      return mLayout;
+    }
+  }
+
+  private TextLayoutPrewarmer mPrewarmer;
+  private TextLayoutCache.Key mKey;
+
+  @Before
+  public void setup() {
+    mPrewarmer = new TextLayoutPrewarmer();
+    mKey = new TextLayoutCache.Key("5:Hello", 100, 0);
+  }
+
+  @After
+  public void teardown() {
+    mPrewarmer.setEnabled(false);
+  }
+
+  @Test
+  public void testDoesNothingWhenDisabled() {
+    CountingLayoutBuilder layoutBuilder = new CountingLayoutBuilder();
+    mPrewarmer.prewarm(mKey, new SpannableStringBuilder("Hello"), layoutBuilder);
+
+    assertThat(mPrewarmer.takePrewarmedLayout(mKey)).isNull();
+    assertThat(layoutBuilder.mBuildCount).isEqualTo(0);
+    assertThat(mPrewarmer.getSubmittedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testHandsOverPrewarmedLayoutOnce() {
+    mPrewarmer.setEnabled(true);
+    CountingLayoutBuilder layoutBuilder = new CountingLayoutBuilder();
+    mPrewarmer.prewarm(mKey, new SpannableStringBuilder("Hello"), layoutBuilder);
+    mPrewarmer.prewarm(mKey, new SpannableStringBuilder("Hello"), layoutBuilder);
+
+    assertThat(mPrewarmer.takePrewarmedLayout(mKey)).isSameAs(layoutBuilder.mLayout);
+    assertThat(mPrewarmer.takePrewarmedLayout(mKey)).isNull();
+    assertThat(layoutBuilder.mBuildCount).isEqualTo(1);
+    assertThat(mPrewarmer.getSubmittedCount()).isEqualTo(1);
+    assertThat(
+        mPrewarmer.getReadyCount() +
+            mPrewarmer.getWaitedCount() +
+            mPrewarmer.getFallbackCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void testIgnoresLayoutsOfOtherWidths() {
+    mPrewarmer.setEnabled(true);
+    CountingLayoutBuilder layoutBuilder = new CountingLayoutBuilder();
+    mPrewarmer.prewarm(mKey, new SpannableStringBuilder("Hello"), layoutBuilder);
+
+    assertThat(mPrewarmer.takePrewarmedLayout(new TextLayoutCache.Key("5:Hello", 120, 0)))
+        .isNull();
+  }
+
+  @Test
+  public void testDropsCancelledPrewarm() {
+    mPrewarmer.setEnabled(true);
+    CountingLayoutBuilder layoutBuilder = new CountingLayoutBuilder();
+    mPrewarmer.prewarm(mKey, new SpannableStringBuilder("Hello"), layoutBuilder);
+    mPrewarmer.cancelPrewarm(mKey);
+
+    assertThat(mPrewarmer.takePrewarmedLayout(mKey)).isNull();
+    assertThat(mPrewarmer.getReadyCount()).isEqualTo(0);
+    assertThat(mPrewarmer.getWaitedCount()).isEqualTo(0);
+    assertThat(mPrewarmer.getFallbackCount()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2015-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+package com.facebook.react.views.view;
+
+import java.util.Random;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ReactViewGroup} clipping its children with a prefetch margin.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReactViewGroupClippingTest {
+
+  private static final int ROW_COUNT = 200;
+  private static final int ROW_HEIGHT = 50;
+  private static final int WIDTH = 100;
+  private static final int VIEWPORT_HEIGHT = 500;
+  private static final int PREFETCH_MARGIN = 100;
+  // Enough updates to attach all the rows within the prefetch margin a few rows per update
+  private static final int UPDATES_TO_ATTACH_PREFETCHED_ROWS = 10;
+
+  @Test
+  public void testAttachesVisibleRowsRightAway() {
+    ReactViewGroup list = createList(PREFETCH_MARGIN);
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      list.scrollTo(0, random.nextInt(ROW_COUNT * ROW_HEIGHT - VIEWPORT_HEIGHT));
+      list.updateClippingRect();
+
+      assertAttachedInOrder(list);
+      Rect visibleRect = getVisibleRect(list);
+      Rect prefetchRect = new Rect(visibleRect);
+      prefetchRect.inset(-PREFETCH_MARGIN, -PREFETCH_MARGIN);
+      for (int row = 0; row < ROW_COUNT; row++) {
+        View child = list.getChildAtWithSubviewClippingEnabled(row);
+        if (intersects(visibleRect, child)) {
+          assertThat(child.getParent()).isSameAs(list);
+        } else if (!intersects(prefetchRect, child)) {
+          assertThat(child.getParent()).isNull();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAttachesRowsWithinPrefetchMarginOverSeveralUpdates() {
+    ReactViewGroup list = createList(PREFETCH_MARGIN);
+    Random random = new Random(42);
+    for (int i = 0; i < 20; i++) {
+      list.scrollTo(0, random.nextInt(ROW_COUNT * ROW_HEIGHT - VIEWPORT_HEIGHT));
+      for (int update = 0; update < UPDATES_TO_ATTACH_PREFETCHED_ROWS; update++) {
+        list.updateClippingRect();
+      }
+
+      assertAttachedInOrder(list);
+      Rect prefetchRect = getVisibleRect(list);
+      prefetchRect.inset(-PREFETCH_MARGIN, -PREFETCH_MARGIN);
+      assertAttachedRowsIntersect(list, prefetchRect);
+    }
+  }
+
+  @Test
+  public void testMatchesClippingWithoutMarginWhenMarginIsZero() {
+    ReactViewGroup list = createList(0);
+    ReactViewGroup fullList = createList(-1);
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      int scrollY = random.nextInt(ROW_COUNT * ROW_HEIGHT - VIEWPORT_HEIGHT);
+      list.scrollTo(0, scrollY);
+      list.updateClippingRect();
+      fullList.scrollTo(0, scrollY);
+      fullList.updateClippingRect();
+
+      assertAttachedInOrder(list);
+      assertAttachedRowsIntersect(list, getVisibleRect(list));
+      assertThat(list.getChildCount()).isEqualTo(fullList.getChildCount());
+    }
+  }
+
+  @Test
+  public void testFollowsRowLayout() {
+    ReactViewGroup list = createList(0);
+    View lastRow = list.getChildAtWithSubviewClippingEnabled(ROW_COUNT - 1);
+    View firstRow = list.getChildAtWithSubviewClippingEnabled(0);
+    assertThat(lastRow.getParent()).isNull();
+    assertThat(firstRow.getParent()).isSameAs(list);
+
+    // Swap the first and last rows
+    lastRow.layout(0, 0, WIDTH, ROW_HEIGHT);
+    firstRow.layout(0, (ROW_COUNT - 1) * ROW_HEIGHT, WIDTH, ROW_COUNT * ROW_HEIGHT);
+    assertThat(lastRow.getParent()).isSameAs(list);
+    assertThat(firstRow.getParent()).isNull();
+    assertAttachedInOrder(list);
+
+    list.scrollTo(0, ROW_COUNT * ROW_HEIGHT - VIEWPORT_HEIGHT);
+    list.updateClippingRect();
+    assertThat(lastRow.getParent()).isNull();
+    assertThat(firstRow.getParent()).isSameAs(list);
+    assertAttachedInOrder(list);
+    assertAttachedRowsIntersect(list, getVisibleRect(list));
+  }
+
+  private static ReactViewGroup createList(int prefetchMargin) {
+    FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+    ReactViewGroup list = new ReactViewGroup(RuntimeEnvironment.application);
+    parent.addView(list);
+    list.layout(0, 0, WIDTH, VIEWPORT_HEIGHT);
+    list.setRemoveClippedSubviews(true);
+    list.setClippedSubviewsPrefetchMargin(prefetchMargin);
+    for (int row = 0; row < ROW_COUNT; row++) {
+      View child = new View(RuntimeEnvironment.application);
+      list.addViewWithSubviewClippingEnabled(child, row);
+      child.layout(0, row * ROW_HEIGHT, WIDTH, (row + 1) * ROW_HEIGHT);
+    }
+    list.updateClippingRect();
+    return list;
+  }
+
+  private static Rect getVisibleRect(ReactViewGroup list) {
+    Rect visibleRect = new Rect();
+    list.getDrawingRect(visibleRect);
+    return visibleRect;
+  }
+
+  private static boolean intersects(Rect rect, View child) {
+    return rect.intersects(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+  }
+
+  /**
+   * Checks that exactly the rows intersecting the given rect are attached.
+   */
+  private static void assertAttachedRowsIntersect(ReactViewGroup list, Rect rect) {
+    for (int row = 0; row < ROW_COUNT; row++) {
+      View child = list.getChildAtWithSubviewClippingEnabled(row);
+      if (intersects(rect, child)) {
+        assertThat(child.getParent()).isSameAs(list);
+      } else {
+        assertThat(child.getParent()).isNull();
+      }
+    }
+  }
+
+  /**
+   * Checks that the attached children are in the same order as all the children.
+   */
+  private static void assertAttachedInOrder(ReactViewGroup list) {
+    int attachedIndex = 0;
+    for (int row = 0; row < ROW_COUNT; row++) {
+      View child = list.getChildAtWithSubviewClippingEnabled(row);
+      if (child.getParent() != null) {
+        assertThat(list.getChildAt(attachedIndex)).isSameAs(child);
+        attachedIndex++;
+      }
+    }
+    assertThat(list.getChildCount()).isEqualTo(attachedIndex);
+  }
+}
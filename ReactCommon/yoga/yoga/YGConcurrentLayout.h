@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2014-present, Facebook, Inc.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree. An additional grant
+ * of patent rights can be found in the PATENTS file in the same directory.
+ */
+
+#pragma once
+
+#include <stdint.h>
+
+// React Native addition, not part of upstream Yoga. Lets the layouts of separate trees be
+// calculated on different threads at the same time (see ParallelRootLayoutExecutor on Android).
+// Yoga.c only uses these hooks for its two layout globals:
+//  - every YGNodeCalculateLayout call takes a distinct generation count with an atomic increment.
+//    A layout pass may still observe the count of another pass running on a separate tree, which
+//    only makes it revisit nodes of its own tree.
+//  - the depth used to print layout changes is per thread.
+
+#ifdef _MSC_VER
+#include <intrin.h>
+#define YG_THREAD_LOCAL __declspec(thread)
+#else
+#define YG_THREAD_LOCAL __thread
+#endif
+
+static inline uint32_t YGAtomicIncrement(uint32_t *value) {
+#ifdef _MSC_VER
+  return (uint32_t) _InterlockedIncrement((volatile long *) value);
+#else
+  return __sync_add_and_fetch(value, 1);
+#endif
+}
@@ -9,6 +9,7 @@
 
 #include <string.h>
 
+#include "YGConcurrentLayout.h"
 #include "YGNodeList.h"
 #include "Yoga.h"
 
@@ -2770,7 +2771,7 @@ static void YGNodelayoutImpl(const YGNodeRef node,
   }
 }
 
-uint32_t gDepth = 0;
+YG_THREAD_LOCAL uint32_t gDepth = 0;
 bool gPrintTree = false;
 bool gPrintChanges = false;
 bool gPrintSkips = false;
@@ -3097,7 +3098,7 @@ void YGNodeCalculateLayout(const YGNodeRef node,
   // all dirty nodes at least once. Subsequent visits will be skipped if the
   // input
   // parameters don't change.
-  gCurrentGenerationCount++;
+  YGAtomicIncrement(&gCurrentGenerationCount);
 
   float width = availableWidth;
   float height = availableHeight;